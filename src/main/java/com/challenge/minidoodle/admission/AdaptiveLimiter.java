@@ -0,0 +1,83 @@
+package com.challenge.minidoodle.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limiter whose limit follows AIMD: each on-time completion adds {@code 1/limit},
+ * each slow or failed completion multiplies the limit by {@link #BACKOFF_RATIO}. Completions whose latency is not
+ * meaningful, such as streamed responses, and classes without a threshold only back off on failure.
+ */
+class AdaptiveLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final boolean latencyGated;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder slowOrFailed = new LongAdder();
+
+    private volatile double limit;
+    private volatile long lastLatencyNanos;
+
+    AdaptiveLimiter(AdmissionProperties.ClassLimits limits) {
+        this.minLimit = limits.getMinLimit();
+        this.maxLimit = limits.getMaxLimit();
+        this.latencyGated = limits.getLatencyThreshold() != null;
+        this.latencyThresholdNanos = latencyGated ? limits.getLatencyThreshold().toNanos() : Long.MAX_VALUE;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, limits.getInitialLimit()));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param latencyNanos time the request took, or a negative value when it is no signal of load
+     */
+    void release(long latencyNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            lastLatencyNanos = latencyNanos;
+        }
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                slowOrFailed.increment();
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    Map<String, Object> snapshot() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("limit", (int) limit);
+        state.put("inFlight", inFlight.get());
+        state.put("minLimit", minLimit);
+        state.put("maxLimit", maxLimit);
+        state.put("latencyThresholdMs", latencyGated ? TimeUnit.NANOSECONDS.toMillis(latencyThresholdNanos) : null);
+        state.put("lastLatencyMs", TimeUnit.NANOSECONDS.toMillis(lastLatencyNanos));
+        state.put("admitted", admitted.sum());
+        state.put("rejected", rejected.sum());
+        state.put("slowOrFailed", slowOrFailed.sum());
+        return state;
+    }
+}
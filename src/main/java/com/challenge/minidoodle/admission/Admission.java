@@ -0,0 +1,17 @@
+package com.challenge.minidoodle.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a controller method (or every method of a controller) to an admission class.
+ * Handlers without the annotation are admitted under {@link EndpointClass#DEFAULT}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+
+    EndpointClass value();
+}
@@ -0,0 +1,21 @@
+package com.challenge.minidoodle.admission;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "admission")
+@RequiredArgsConstructor
+public class AdmissionEndpoint {
+
+    private final AdmissionManager admissionManager;
+
+    @ReadOperation
+    public Map<String, Object> admission() {
+        return admissionManager.snapshot();
+    }
+}
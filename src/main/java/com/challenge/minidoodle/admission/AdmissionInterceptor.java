@@ -0,0 +1,62 @@
+package com.challenge.minidoodle.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Acquires an admission permit before the handler runs and releases it once the response is complete,
+ * including after asynchronous (streamed) responses, whose duration is kept out of the latency feedback.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionManager admissionManager;
+    private final Map<Method, EndpointClass> classByMethod = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!admissionManager.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)
+                || request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        EndpointClass endpointClass = classByMethod.computeIfAbsent(handlerMethod.getMethod(),
+                method -> resolve(handlerMethod));
+        request.setAttribute(PERMIT_ATTRIBUTE, admissionManager.acquire(endpointClass));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdmissionManager.Permit permit) {
+            permit.streamed();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdmissionManager.Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.release(ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    private static EndpointClass resolve(HandlerMethod handlerMethod) {
+        Admission admission = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), Admission.class);
+        if (admission == null) {
+            admission = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Admission.class);
+        }
+        return admission != null ? admission.value() : EndpointClass.DEFAULT;
+    }
+}
@@ -0,0 +1,105 @@
+package com.challenge.minidoodle.admission;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits requests per {@link EndpointClass} in front of the connection pool. Every class has its own
+ * adaptive limit; on top of that a global limit caps total in-flight work, and the top
+ * {@code bookingReserve} permits of it are only handed to booking writes so bookings keep going
+ * while bulk reads are being shed.
+ */
+@Component
+public class AdmissionManager {
+
+    private final AdmissionProperties properties;
+    private final Map<EndpointClass, AdaptiveLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final AtomicInteger globalInFlight = new AtomicInteger();
+    private final LongAdder globalRejected = new LongAdder();
+
+    public AdmissionManager(AdmissionProperties properties) {
+        this.properties = properties;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            limiters.put(endpointClass, new AdaptiveLimiter(properties.limitsFor(endpointClass)));
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Permit acquire(EndpointClass endpointClass) {
+        int globalCap = endpointClass == EndpointClass.BOOKING_WRITE
+                ? properties.getGlobalLimit()
+                : properties.getGlobalLimit() - properties.getBookingReserve();
+        if (!tryAcquireGlobal(globalCap)) {
+            globalRejected.increment();
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, properties.getRetryAfter(),
+                    "Service is overloaded, please retry later");
+        }
+
+        AdaptiveLimiter limiter = limiters.get(endpointClass);
+        if (!limiter.tryAcquire()) {
+            globalInFlight.decrementAndGet();
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, properties.getRetryAfter(),
+                    "Too many concurrent " + endpointClass + " requests, please retry later");
+        }
+        return new Permit(limiter, System.nanoTime());
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("enabled", properties.isEnabled());
+        state.put("globalLimit", properties.getGlobalLimit());
+        state.put("bookingReserve", properties.getBookingReserve());
+        state.put("globalInFlight", globalInFlight.get());
+        state.put("globalRejected", globalRejected.sum());
+        Map<String, Object> classes = new LinkedHashMap<>();
+        limiters.forEach((endpointClass, limiter) -> classes.put(endpointClass.name(), limiter.snapshot()));
+        state.put("classes", classes);
+        return state;
+    }
+
+    private boolean tryAcquireGlobal(int cap) {
+        while (true) {
+            int current = globalInFlight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (globalInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public final class Permit {
+
+        private final AdaptiveLimiter limiter;
+        private final long startNanos;
+        private volatile boolean streamed;
+
+        private Permit(AdaptiveLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Marks the response as streamed: it completes asynchronously, so its duration says how much data it
+         * carried rather than how loaded the server is, and only a failure feeds back into the limit.
+         */
+        public void streamed() {
+            streamed = true;
+        }
+
+        public void release(boolean failed) {
+            globalInFlight.decrementAndGet();
+            limiter.release(streamed ? -1 : System.nanoTime() - startNanos, failed);
+        }
+    }
+}
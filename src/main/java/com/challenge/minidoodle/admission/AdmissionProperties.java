@@ -0,0 +1,71 @@
+package com.challenge.minidoodle.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Maximum requests in flight across all classes; keep it a small multiple of the connection pool size.
+     */
+    private int globalLimit = 40;
+
+    /**
+     * Part of the global limit that only booking writes may use.
+     */
+    private int bookingReserve = 8;
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private Map<EndpointClass, ClassLimits> classes = defaultClasses();
+
+    public ClassLimits limitsFor(EndpointClass endpointClass) {
+        return classes.getOrDefault(endpointClass, new ClassLimits());
+    }
+
+    private static Map<EndpointClass, ClassLimits> defaultClasses() {
+        Map<EndpointClass, ClassLimits> defaults = new EnumMap<>(EndpointClass.class);
+        defaults.put(EndpointClass.BOOKING_WRITE, new ClassLimits(16, 4, 32, Duration.ofMillis(250)));
+        defaults.put(EndpointClass.AVAILABILITY_READ, new ClassLimits(20, 4, 40, Duration.ofMillis(200)));
+        defaults.put(EndpointClass.USER_READ, new ClassLimits(16, 4, 32, Duration.ofMillis(500)));
+        defaults.put(EndpointClass.BULK, new ClassLimits(4, 1, 8, Duration.ofSeconds(2)));
+        defaults.put(EndpointClass.EXPORT, new ClassLimits(4, 1, 8, null));
+        defaults.put(EndpointClass.DEFAULT, new ClassLimits(16, 4, 32, Duration.ofMillis(500)));
+        return defaults;
+    }
+
+    @Getter
+    @Setter
+    public static class ClassLimits {
+
+        private int initialLimit = 16;
+        private int minLimit = 1;
+        private int maxLimit = 32;
+
+        /**
+         * Completions slower than this shrink the limit multiplicatively; faster ones grow it additively. Without a
+         * threshold only failures shrink the limit. Streamed responses never count their duration.
+         */
+        private Duration latencyThreshold = Duration.ofMillis(500);
+
+        public ClassLimits() {
+        }
+
+        public ClassLimits(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.challenge.minidoodle.admission;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed. Created without a stack trace: rejections must stay cheap under overload.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(HttpStatus status, Duration retryAfter, String message) {
+        super(message, null, false, false);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+}
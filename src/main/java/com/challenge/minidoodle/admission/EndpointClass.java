@@ -0,0 +1,12 @@
+package com.challenge.minidoodle.admission;
+
+public enum EndpointClass {
+    BOOKING_WRITE,
+    AVAILABILITY_READ,
+    /** Reads of one user's meetings or slots, e.g. "my meetings". */
+    USER_READ,
+    BULK,
+    /** Streamed exports; they run as long as the data takes, so their duration is not a load signal. */
+    EXPORT,
+    DEFAULT
+}
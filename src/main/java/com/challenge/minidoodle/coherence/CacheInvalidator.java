@@ -0,0 +1,161 @@
+package com.challenge.minidoodle.coherence;
+
+import com.challenge.minidoodle.domain.TimeSlot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells other instances which entities this one changed. Invalidations recorded inside a transaction are held
+ * until it commits (and dropped if it rolls back), then queued; a single background thread sends everything
+ * queued every {@code minidoodle.coherence.publish-interval} with {@code pg_notify}, deduplicated and split into
+ * notifications of at most {@code max-batch-size} entries. A notification that cannot be sent, or invalidations
+ * that overflow the queue, cost a sequence number so that receivers fall back to a full flush.
+ */
+@Slf4j
+@Component
+public class CacheInvalidator {
+
+    private final CoherenceProperties properties;
+    private final JdbcTemplate jdbc;
+    private final JsonMapper jsonMapper;
+    private final String node = UUID.randomUUID().toString();
+    private final ConcurrentLinkedQueue<Invalidation> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter sent;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coherence-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CacheInvalidator(CoherenceProperties properties, JdbcTemplate jdbc, JsonMapper jsonMapper,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbc = jdbc;
+        this.jsonMapper = jsonMapper;
+        this.sent = Counter.builder("minidoodle.coherence.invalidations.sent")
+                .description("Entity invalidations published to other instances")
+                .register(meterRegistry);
+    }
+
+    String node() {
+        return node;
+    }
+
+    public void invalidate(EntityType type, Long id) {
+        if (!properties.isEnabled() || id == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(List.of(new Invalidation(type, id, System.currentTimeMillis())));
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingInvalidations pending) {
+                pending.keys.add(new Key(type, id));
+                return;
+            }
+        }
+        PendingInvalidations pending = new PendingInvalidations();
+        pending.keys.add(new Key(type, id));
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /**
+     * Invalidates a slot together with its calendar, which peers may hold without knowing the slot.
+     */
+    public void invalidateSlot(TimeSlot slot) {
+        invalidate(EntityType.TIME_SLOT, slot.getId());
+        invalidate(EntityType.CALENDAR, slot.getCalendar().getId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (properties.isEnabled()) {
+            long interval = properties.getPublishInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::publish, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (properties.isEnabled()) {
+            try {
+                executor.submit(this::publish).get(properties.getReconnectDelay().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                log.warn("Could not publish the last {} invalidations before shutdown", queued.get());
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    private void enqueue(Collection<Invalidation> invalidations) {
+        if (queued.addAndGet(invalidations.size()) > properties.getMaxPending()) {
+            queued.addAndGet(-invalidations.size());
+            sequence.incrementAndGet();
+            log.warn("Invalidation queue full, dropped {} invalidations; peers will flush their caches",
+                    invalidations.size());
+            return;
+        }
+        queue.addAll(invalidations);
+    }
+
+    private void publish() {
+        Map<Key, Invalidation> latest = new LinkedHashMap<>();
+        for (Invalidation invalidation = queue.poll(); invalidation != null; invalidation = queue.poll()) {
+            queued.decrementAndGet();
+            latest.put(new Key(invalidation.type(), invalidation.id()), invalidation);
+        }
+        List<Invalidation> items = new ArrayList<>(latest.values());
+        for (int from = 0; from < items.size(); from += properties.getMaxBatchSize()) {
+            List<Invalidation> chunk = items.subList(from, Math.min(from + properties.getMaxBatchSize(), items.size()));
+            InvalidationBatch batch = new InvalidationBatch(node, sequence.incrementAndGet(), chunk);
+            try {
+                jdbc.queryForList("SELECT pg_notify(?, ?)", properties.getChannel(), jsonMapper.writeValueAsString(batch));
+                sent.increment(chunk.size());
+            } catch (RuntimeException e) {
+                log.warn("Could not publish {} invalidations, peers will flush their caches: {}", chunk.size(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    private record Key(EntityType type, long id) {
+    }
+
+    private final class PendingInvalidations implements TransactionSynchronization {
+
+        private final Set<Key> keys = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            long version = System.currentTimeMillis();
+            enqueue(keys.stream().map(key -> new Invalidation(key.type(), key.id(), version)).toList());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.challenge.minidoodle.coherence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.coherence")
+public class CoherenceProperties {
+
+    /**
+     * Publish changes to, and evict on changes from, other instances sharing the database.
+     */
+    private boolean enabled = false;
+
+    /**
+     * PostgreSQL notification channel shared by all instances.
+     */
+    private String channel = "minidoodle_invalidation";
+
+    /**
+     * How long committed changes are collected before they are sent as one notification.
+     */
+    private Duration publishInterval = Duration.ofMillis(50);
+
+    /**
+     * Most invalidations per notification, keeping the payload under PostgreSQL's 8000 byte limit.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * Most invalidations waiting to be sent; beyond that they are dropped and peers are told to flush everything.
+     */
+    private int maxPending = 10_000;
+
+    /**
+     * Wait before the listener reconnects after losing its connection.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+}
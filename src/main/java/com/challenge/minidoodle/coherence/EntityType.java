@@ -0,0 +1,8 @@
+package com.challenge.minidoodle.coherence;
+
+public enum EntityType {
+    USER,
+    CALENDAR,
+    TIME_SLOT,
+    MEETING
+}
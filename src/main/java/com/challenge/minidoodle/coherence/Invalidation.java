@@ -0,0 +1,11 @@
+package com.challenge.minidoodle.coherence;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+/**
+ * One changed entity. {@code version} is the commit time of the change in epoch milliseconds, so a cache that
+ * remembers when it loaded an entry can ignore invalidations older than that entry.
+ */
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+public record Invalidation(EntityType type, long id, long version) {
+}
@@ -0,0 +1,10 @@
+package com.challenge.minidoodle.coherence;
+
+import java.util.List;
+
+/**
+ * Payload of one notification. {@code sequence} counts up by one per notification of a node; a node that has to
+ * drop invalidations skips a number, so receivers treat any gap as "something was missed".
+ */
+record InvalidationBatch(String node, long sequence, List<Invalidation> items) {
+}
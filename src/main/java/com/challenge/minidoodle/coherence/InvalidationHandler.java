@@ -0,0 +1,14 @@
+package com.challenge.minidoodle.coherence;
+
+/**
+ * An in-process cache that must forget entities changed by other instances. Called on the listener thread.
+ */
+public interface InvalidationHandler {
+
+    void evict(Invalidation invalidation);
+
+    /**
+     * Drops every entry, after invalidations may have been missed.
+     */
+    void evictAll();
+}
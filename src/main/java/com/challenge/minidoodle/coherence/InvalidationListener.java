@@ -0,0 +1,161 @@
+package com.challenge.minidoodle.coherence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds one connection in {@code LISTEN} on the coherence channel and hands every invalidation from another
+ * instance to each {@link InvalidationHandler}. Everything is flushed instead when a node's sequence skips a number,
+ * a payload cannot be read, or the connection was lost and re-established, since notifications sent in between
+ * are gone.
+ */
+@Slf4j
+@Component
+class InvalidationListener {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final CoherenceProperties properties;
+    private final DataSource dataSource;
+    private final JsonMapper jsonMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final List<InvalidationHandler> handlers;
+    private final Map<String, Long> lastSequence = new HashMap<>();
+    private final Counter received;
+    private final Counter flushes;
+    private volatile boolean running;
+    private Thread thread;
+
+    InvalidationListener(CoherenceProperties properties, DataSource dataSource, JsonMapper jsonMapper,
+                         CacheInvalidator cacheInvalidator, List<InvalidationHandler> handlers,
+                         MeterRegistry meterRegistry) {
+        if (!properties.getChannel().matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("minidoodle.coherence.channel must be a lower-case SQL identifier");
+        }
+        this.properties = properties;
+        this.dataSource = dataSource;
+        this.jsonMapper = jsonMapper;
+        this.cacheInvalidator = cacheInvalidator;
+        this.handlers = handlers;
+        this.received = Counter.builder("minidoodle.coherence.invalidations.received")
+                .description("Entity invalidations received from other instances")
+                .register(meterRegistry);
+        this.flushes = Counter.builder("minidoodle.coherence.flushes")
+                .description("Full cache flushes after invalidations may have been missed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "coherence-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                if (reconnecting) {
+                    flushAll("listener reconnected");
+                }
+                reconnecting = true;
+                while (running) {
+                    PGNotification[] batch = notifications.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (batch != null) {
+                        for (PGNotification notification : batch) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation listener lost its connection, retrying in {}: {}",
+                        properties.getReconnectDelay(), e.getMessage());
+                try {
+                    Thread.sleep(properties.getReconnectDelay().toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        InvalidationBatch batch;
+        try {
+            batch = jsonMapper.readValue(payload, InvalidationBatch.class);
+        } catch (JacksonException e) {
+            flushAll("unreadable notification");
+            return;
+        }
+        if (batch.node().equals(cacheInvalidator.node())) {
+            return;
+        }
+        Long last = lastSequence.get(batch.node());
+        if (last == null || batch.sequence() > last) {
+            lastSequence.put(batch.node(), batch.sequence());
+        }
+        if (last != null && batch.sequence() > last + 1) {
+            flushAll("missed " + (batch.sequence() - last - 1) + " notifications from " + batch.node());
+            return;
+        }
+        for (Invalidation invalidation : batch.items()) {
+            for (InvalidationHandler handler : handlers) {
+                try {
+                    handler.evict(invalidation);
+                } catch (RuntimeException e) {
+                    log.warn("Evicting {} failed: {}", invalidation, e.getMessage());
+                }
+            }
+        }
+        received.increment(batch.items().size());
+    }
+
+    private void flushAll(String reason) {
+        log.info("Flushing all caches: {}", reason);
+        flushes.increment();
+        for (InvalidationHandler handler : handlers) {
+            try {
+                handler.evictAll();
+            } catch (RuntimeException e) {
+                log.warn("Flushing a cache failed: {}", e.getMessage());
+            }
+        }
+    }
+}
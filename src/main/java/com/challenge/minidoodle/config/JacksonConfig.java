@@ -0,0 +1,40 @@
+package com.challenge.minidoodle.config;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.boot.jackson.autoconfigure.CborMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Registers compact binary encodings next to JSON. Clients opt in with {@code Accept: application/cbor}
+ * or {@code Accept: application/x-jackson-smile}; both write {@code Instant}s as numeric timestamps
+ * instead of ISO-8601 strings. JSON output is unchanged.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public CborMapperBuilderCustomizer numericTimestampsCborCustomizer() {
+        return builder -> builder.enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Bean
+    public SmileMapper smileMapper() {
+        return SmileMapper.builder()
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Bean
+    public ServerHttpMessageConvertersCustomizer binaryMessageConvertersCustomizer(CBORMapper cborMapper,
+                                                                                   SmileMapper smileMapper) {
+        return builder -> builder
+                .withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper));
+    }
+}
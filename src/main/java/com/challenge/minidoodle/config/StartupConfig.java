@@ -0,0 +1,49 @@
+package com.challenge.minidoodle.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Defers beans no booking request needs, such as the OpenAPI documentation, until first use. Bean definitions
+ * whose class or declaring configuration lives under one of {@code minidoodle.startup.lazy-packages} are made
+ * lazy, so a new instance serves traffic before those beans are created. Under AOT processing the flag is
+ * recorded in the generated bean definitions.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    static final String LAZY_PACKAGES = "minidoodle.startup.lazy-packages";
+
+    @Bean
+    static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        List<String> packages = Binder.get(environment)
+                .bind(LAZY_PACKAGES, Bindable.listOf(String.class))
+                .orElse(List.of("org.springdoc"));
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                    continue;
+                }
+                String declaringClass = definition.getFactoryBeanName() != null
+                        && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())
+                        ? beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName()
+                        : null;
+                if (inPackages(packages, definition.getBeanClassName()) || inPackages(packages, declaringClass)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean inPackages(List<String> packages, String className) {
+        return className != null && packages.stream().anyMatch(pkg -> className.startsWith(pkg + "."));
+    }
+}
@@ -0,0 +1,22 @@
+package com.challenge.minidoodle.config;
+
+import com.challenge.minidoodle.admission.AdmissionInterceptor;
+import com.challenge.minidoodle.sharding.ShardBindingInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AdmissionInterceptor admissionInterceptor;
+    private final ShardBindingInterceptor shardBindingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(shardBindingInterceptor).addPathPatterns("/api/**");
+    }
+}
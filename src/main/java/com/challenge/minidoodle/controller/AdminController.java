@@ -0,0 +1,47 @@
+package com.challenge.minidoodle.controller;
+
+import com.challenge.minidoodle.admission.Admission;
+import com.challenge.minidoodle.admission.EndpointClass;
+import com.challenge.minidoodle.service.AgendaService;
+import com.challenge.minidoodle.service.OccupancyService;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RestController
+@RequestMapping("/api/admin")
+@Admission(EndpointClass.BULK)
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Maintenance utilities")
+public class AdminController {
+
+    private final AgendaService agendaService;
+    private final OccupancyService occupancyService;
+    private final ShardRouter shardRouter;
+
+    @Operation(summary = "Rebuild user agendas", description = "Regenerates the per-user agenda table from meetings and participants")
+    @PostMapping("/agenda/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAgenda() {
+        AtomicInteger entries = new AtomicInteger();
+        shardRouter.forEachShard(shard -> entries.addAndGet(agendaService.rebuild()));
+        shardRouter.forEachShard(shard -> entries.addAndGet(agendaService.publishRemoteEntries()));
+        return ResponseEntity.ok(Map.of("entries", entries.get()));
+    }
+
+    @Operation(summary = "Rebuild occupancy counters",
+            description = "Recomputes the per-calendar daily occupancy counters from slots and meetings")
+    @PostMapping("/occupancy/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildOccupancy() {
+        AtomicInteger rows = new AtomicInteger();
+        shardRouter.forEachShard(shard -> rows.addAndGet(occupancyService.rebuild()));
+        return ResponseEntity.ok(Map.of("rows", rows.get()));
+    }
+}
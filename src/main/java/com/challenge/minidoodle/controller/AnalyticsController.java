@@ -0,0 +1,45 @@
+package com.challenge.minidoodle.controller;
+
+import com.challenge.minidoodle.admission.Admission;
+import com.challenge.minidoodle.admission.EndpointClass;
+import com.challenge.minidoodle.dto.OccupancyReport;
+import com.challenge.minidoodle.service.OccupancyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analytics", description = "Utilisation reports")
+public class AnalyticsController {
+
+    private final OccupancyService occupancyService;
+
+    @Operation(summary = "Get calendar occupancy",
+            description = "Available and busy minutes and meeting count per user, per day or ISO week, from pre-aggregated counters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Occupancy per user; unknown users are omitted"),
+            @ApiResponse(responseCode = "400", description = "Too many users, or an empty or too long date range")
+    })
+    @Admission(EndpointClass.AVAILABILITY_READ)
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<OccupancyReport>> getOccupancy(
+            @Parameter(description = "Comma-separated user ids, at most minidoodle.batch.max-size") @RequestParam List<Long> userIds,
+            @Parameter(description = "First day, inclusive (ISO-8601 date, UTC)") @RequestParam LocalDate from,
+            @Parameter(description = "Last day, exclusive (ISO-8601 date, UTC)") @RequestParam LocalDate to,
+            @Parameter(description = "DAY or WEEK") @RequestParam(defaultValue = "DAY") OccupancyService.Granularity granularity) {
+        return ResponseEntity.ok(occupancyService.getOccupancy(userIds, from, to, granularity));
+    }
+}
@@ -0,0 +1,94 @@
+package com.challenge.minidoodle.controller;
+
+import com.challenge.minidoodle.admission.Admission;
+import com.challenge.minidoodle.admission.EndpointClass;
+import com.challenge.minidoodle.domain.AvailabilityBlock;
+import com.challenge.minidoodle.domain.AvailabilityRule;
+import com.challenge.minidoodle.dto.AvailabilityBlockRequest;
+import com.challenge.minidoodle.dto.AvailabilityBlockResponse;
+import com.challenge.minidoodle.dto.AvailabilityRuleRequest;
+import com.challenge.minidoodle.dto.AvailabilityRuleResponse;
+import com.challenge.minidoodle.service.AvailabilityRuleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/time-slots/user/{userId}")
+@RequiredArgsConstructor
+@Tag(name = "Availability Rules", description = "Recurring weekly availability and its exceptions")
+public class AvailabilityRuleController {
+
+    private final AvailabilityRuleService availabilityRuleService;
+
+    @Operation(summary = "Add a weekly availability rule",
+            description = "Slots are expanded from the rule at query time and only stored once booked")
+    @PostMapping("/rules")
+    public ResponseEntity<AvailabilityRuleResponse> createRule(@PathVariable Long userId,
+                                                               @RequestBody AvailabilityRuleRequest request) {
+        AvailabilityRule rule = availabilityRuleService.createRule(
+                userId,
+                request.getDayOfWeek(),
+                request.getStartTime(),
+                request.getEndTime(),
+                request.getTimeZone(),
+                request.getSlotMinutes(),
+                request.getValidFrom(),
+                request.getValidUntil()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(AvailabilityRuleResponse.fromEntity(rule));
+    }
+
+    @Operation(summary = "Get availability rules for a user")
+    @Admission(EndpointClass.AVAILABILITY_READ)
+    @GetMapping("/rules")
+    public ResponseEntity<List<AvailabilityRuleResponse>> getRules(@PathVariable Long userId) {
+        List<AvailabilityRuleResponse> rules = availabilityRuleService.getRules(userId).stream()
+                .map(AvailabilityRuleResponse::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(rules);
+    }
+
+    @Operation(summary = "Delete an availability rule")
+    @DeleteMapping("/rules/{ruleId}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long userId, @PathVariable Long ruleId) {
+        availabilityRuleService.deleteRule(userId, ruleId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Block a period", description = "No rule-based slots are offered inside a blocked period")
+    @PostMapping("/blocks")
+    public ResponseEntity<AvailabilityBlockResponse> createBlock(@PathVariable Long userId,
+                                                                 @RequestBody AvailabilityBlockRequest request) {
+        AvailabilityBlock block = availabilityRuleService.createBlock(
+                userId,
+                request.getStartTime(),
+                request.getEndTime(),
+                request.getReason()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(AvailabilityBlockResponse.fromEntity(block));
+    }
+
+    @Operation(summary = "Get blocked periods for a user")
+    @Admission(EndpointClass.AVAILABILITY_READ)
+    @GetMapping("/blocks")
+    public ResponseEntity<List<AvailabilityBlockResponse>> getBlocks(@PathVariable Long userId) {
+        List<AvailabilityBlockResponse> blocks = availabilityRuleService.getBlocks(userId).stream()
+                .map(AvailabilityBlockResponse::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(blocks);
+    }
+
+    @Operation(summary = "Delete a blocked period")
+    @DeleteMapping("/blocks/{blockId}")
+    public ResponseEntity<Void> deleteBlock(@PathVariable Long userId, @PathVariable Long blockId) {
+        availabilityRuleService.deleteBlock(userId, blockId);
+        return ResponseEntity.noContent().build();
+    }
+}
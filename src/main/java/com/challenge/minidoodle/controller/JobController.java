@@ -0,0 +1,67 @@
+package com.challenge.minidoodle.controller;
+
+import com.challenge.minidoodle.admission.Admission;
+import com.challenge.minidoodle.admission.EndpointClass;
+import com.challenge.minidoodle.domain.Job;
+import com.challenge.minidoodle.dto.JobRequest;
+import com.challenge.minidoodle.dto.JobResponse;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.NotFoundException;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.job.JobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/jobs")
+@Admission(EndpointClass.BULK)
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Asynchronous bulk operations")
+public class JobController {
+
+    private static final int MAX_LIST_SIZE = 100;
+
+    private final JobService jobService;
+
+    @Operation(summary = "Submit a job",
+            description = "Queues a GENERATE_SLOTS, CANCEL_MEETINGS or REINDEX_AGENDA job and returns immediately; poll GET /api/jobs/{id} for progress")
+    @PostMapping
+    public ResponseEntity<JobResponse> submitJob(@RequestBody JobRequest request) {
+        Job job = jobService.submit(request.getType(), request.getParameters());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(JobResponse.fromEntity(job));
+    }
+
+    @Operation(summary = "Get job progress")
+    @GetMapping("/{id}")
+    public ResponseEntity<JobResponse> getJob(@PathVariable Long id) {
+        return jobService.getJob(id)
+                .map(job -> ResponseEntity.ok(JobResponse.fromEntity(job)))
+                .orElseThrow(() -> new NotFoundException(ErrorCode.JOB_NOT_FOUND, id));
+    }
+
+    @Operation(summary = "List recent jobs", description = "Most recently submitted first")
+    @GetMapping
+    public ResponseEntity<List<JobResponse>> getRecentJobs(
+            @Parameter(description = "Number of jobs (max " + MAX_LIST_SIZE + ")") @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_LIST_SIZE) {
+            throw new ValidationException(ErrorCode.INVALID_PAGE_SIZE, MAX_LIST_SIZE);
+        }
+        return ResponseEntity.ok(jobService.getRecentJobs(limit).stream()
+                .map(JobResponse::fromEntity)
+                .collect(Collectors.toList()));
+    }
+
+    @Operation(summary = "Cancel a job", description = "A queued job is cancelled at once; a running job stops after its current chunk")
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<JobResponse> cancelJob(@PathVariable Long id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(JobResponse.fromEntity(jobService.cancel(id)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.challenge.minidoodle.controller;
+
+import com.challenge.minidoodle.sharding.ShardContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.function.Consumer;
+
+/**
+ * Writes a JSON array element by element with Jackson's streaming generator, so list exports never
+ * materialise the full result as entities or DTOs.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonArrayStreamer {
+
+    private final JsonMapper jsonMapper;
+
+    /**
+     * @param source pushes each element into the supplied sink; runs on the response thread, so it must
+     *               open its own transaction (a {@code @Transactional} service call); the request's shard
+     *               binding is carried over to that thread
+     */
+    public ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<Object>> source) {
+        Integer shard = ShardContext.bound();
+        StreamingResponseBody body = outputStream -> {
+            Integer previous = ShardContext.bound();
+            ShardContext.bind(shard);
+            try (JsonGenerator generator = jsonMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                source.accept(generator::writePOJO);
+                generator.writeEndArray();
+            } finally {
+                ShardContext.bind(previous);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -1,9 +1,20 @@
 package com.challenge.minidoodle.controller;
 
+import com.challenge.minidoodle.admission.Admission;
+import com.challenge.minidoodle.admission.EndpointClass;
+import com.challenge.minidoodle.domain.AgendaRole;
 import com.challenge.minidoodle.domain.Meeting;
+import com.challenge.minidoodle.dto.BatchResponse;
+import com.challenge.minidoodle.dto.KeysetPage;
 import com.challenge.minidoodle.dto.MeetingRequest;
 import com.challenge.minidoodle.dto.MeetingResponse;
 import com.challenge.minidoodle.dto.MeetingUpdateRequest;
+import com.challenge.minidoodle.dto.PageCursor;
+import com.challenge.minidoodle.dto.ParticipantConflict;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.MeetingField;
+import com.challenge.minidoodle.service.IdempotencyService;
 import com.challenge.minidoodle.service.MeetingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,9 +23,12 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,19 +37,51 @@ import java.util.stream.Collectors;
 @Tag(name = "Meetings", description = "Meeting scheduling APIs")
 public class MeetingController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String INCLUDE_PARTICIPANTS = "participants";
+
     private final MeetingService meetingService;
+    private final IdempotencyService idempotencyService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
-    @Operation(summary = "Create a meeting", description = "Converts an available time slot into a meeting")
+    @Operation(summary = "Create a meeting",
+            description = "Converts an available time slot into a meeting, or books a window offered by the organizer's availability rules")
+    @Admission(EndpointClass.BOOKING_WRITE)
     @PostMapping
-    public ResponseEntity<MeetingResponse> createMeeting(@RequestBody MeetingRequest request) {
-        Meeting meeting = meetingService.createMeeting(
-                request.getTimeSlotId(),
-                request.getOrganizerId(),
-                request.getTitle(),
-                request.getDescription(),
-                request.getParticipantIds()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(MeetingResponse.fromEntity(meeting));
+    public ResponseEntity<MeetingResponse> createMeeting(
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody MeetingRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/meetings", request, MeetingResponse.class, () -> {
+            Meeting meeting = meetingService.createMeeting(
+                    request.getTimeSlotId(),
+                    request.getStartTime(),
+                    request.getEndTime(),
+                    request.getOrganizerId(),
+                    request.getTitle(),
+                    request.getDescription(),
+                    request.getParticipantIds()
+            );
+            return ResponseEntity.status(HttpStatus.CREATED).body(MeetingResponse.fromEntity(meeting));
+        });
+    }
+
+    @Operation(summary = "Get meetings by ids", description = "Resolves a list of ids in one query, in request order")
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResponse<MeetingResponse>> getMeetingsByIds(
+            @Parameter(description = "Comma-separated ids, at most minidoodle.batch.max-size") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(BatchResponse.of(ids, meetingService.getMeetingsByIds(ids), MeetingResponse::fromEntity));
+    }
+
+    @Operation(summary = "Find conflicting meetings",
+            description = "Meetings of the given users that overlap [start, end), grouped per user; users without conflicts are omitted")
+    @Admission(EndpointClass.AVAILABILITY_READ)
+    @GetMapping("/conflicts")
+    public ResponseEntity<List<ParticipantConflict>> findConflicts(
+            @Parameter(description = "Comma-separated user ids, at most minidoodle.batch.max-size") @RequestParam List<Long> userIds,
+            @Parameter(description = "Start of time range (ISO-8601)") @RequestParam Instant start,
+            @Parameter(description = "End of time range (ISO-8601)") @RequestParam Instant end) {
+        return ResponseEntity.ok(meetingService.findConflicts(userIds, start, end));
     }
 
     @Operation(summary = "Get meeting by ID")
@@ -47,6 +93,7 @@ public class MeetingController {
     }
 
     @Operation(summary = "Get meetings organized by a user")
+    @Admission(EndpointClass.USER_READ)
     @GetMapping("/organizer/{userId}")
     public ResponseEntity<List<MeetingResponse>> getMeetingsByOrganizer(@PathVariable Long userId) {
         List<MeetingResponse> meetings = meetingService.getMeetingsByOrganizerId(userId).stream()
@@ -55,7 +102,20 @@ public class MeetingController {
         return ResponseEntity.ok(meetings);
     }
 
+    @Operation(summary = "Get selected fields of meetings organized by a user",
+            description = "Sparse fieldset: only the requested columns are queried")
+    @Admission(EndpointClass.USER_READ)
+    @GetMapping(value = "/organizer/{userId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getMeetingFieldsByOrganizer(
+            @PathVariable Long userId,
+            @Parameter(description = "Comma-separated response fields, e.g. id,title,startTime,endTime") @RequestParam String fields,
+            @Parameter(description = "Set to 'participants' to embed the participant list") @RequestParam(required = false) String include) {
+        return ResponseEntity.ok(meetingService.getMeetingFieldsForUser(
+                userId, AgendaRole.ORGANIZER, MeetingField.parse(fields), includesParticipants(include)));
+    }
+
     @Operation(summary = "Get meetings where user is a participant")
+    @Admission(EndpointClass.USER_READ)
     @GetMapping("/participant/{userId}")
     public ResponseEntity<List<MeetingResponse>> getMeetingsByParticipant(@PathVariable Long userId) {
         List<MeetingResponse> meetings = meetingService.getMeetingsByParticipantId(userId).stream()
@@ -64,7 +124,20 @@ public class MeetingController {
         return ResponseEntity.ok(meetings);
     }
 
+    @Operation(summary = "Get selected fields of meetings where user is a participant",
+            description = "Sparse fieldset: only the requested columns are queried")
+    @Admission(EndpointClass.USER_READ)
+    @GetMapping(value = "/participant/{userId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getMeetingFieldsByParticipant(
+            @PathVariable Long userId,
+            @Parameter(description = "Comma-separated response fields, e.g. id,title,startTime,endTime") @RequestParam String fields,
+            @Parameter(description = "Set to 'participants' to embed the participant list") @RequestParam(required = false) String include) {
+        return ResponseEntity.ok(meetingService.getMeetingFieldsForUser(
+                userId, AgendaRole.PARTICIPANT, MeetingField.parse(fields), includesParticipants(include)));
+    }
+
     @Operation(summary = "Get all meetings for a user", description = "Returns meetings where user is organizer or participant")
+    @Admission(EndpointClass.USER_READ)
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<MeetingResponse>> getAllMeetingsForUser(@PathVariable Long userId) {
         List<MeetingResponse> meetings = meetingService.getAllMeetingsForUser(userId).stream()
@@ -73,18 +146,86 @@ public class MeetingController {
         return ResponseEntity.ok(meetings);
     }
 
-    @Operation(summary = "Get meetings in time range")
+    @Operation(summary = "Get selected fields of all meetings for a user",
+            description = "Sparse fieldset: only the requested columns are queried")
+    @Admission(EndpointClass.USER_READ)
+    @GetMapping(value = "/user/{userId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getMeetingFieldsForUser(
+            @PathVariable Long userId,
+            @Parameter(description = "Comma-separated response fields, e.g. id,title,startTime,endTime") @RequestParam String fields,
+            @Parameter(description = "Set to 'participants' to embed the participant list") @RequestParam(required = false) String include) {
+        return ResponseEntity.ok(meetingService.getMeetingFieldsForUser(
+                userId, null, MeetingField.parse(fields), includesParticipants(include)));
+    }
+
+    @Operation(summary = "Export all meetings for a user",
+            description = "Streams meetings where user is organizer or participant as a JSON array in constant memory")
+    @Admission(EndpointClass.EXPORT)
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportMeetingsForUser(@PathVariable Long userId) {
+        return jsonArrayStreamer.stream(sink -> meetingService.streamMeetingsForUser(userId,
+                meeting -> sink.accept(MeetingResponse.fromEntity(meeting))));
+    }
+
+    @Operation(summary = "Get a page of a user's agenda",
+            description = "Keyset-paginated meetings where user is organizer or participant, ordered by start time")
+    @Admission(EndpointClass.USER_READ)
+    @GetMapping("/user/{userId}/agenda")
+    public ResponseEntity<KeysetPage<MeetingResponse>> getAgendaForUser(
+            @PathVariable Long userId,
+            @Parameter(description = "Restrict to ORGANIZER or PARTICIPANT meetings") @RequestParam(required = false) AgendaRole role,
+            @Parameter(description = "Earliest meeting start (ISO-8601, inclusive)") @RequestParam(required = false) Instant start,
+            @Parameter(description = "Latest meeting start (ISO-8601, exclusive)") @RequestParam(required = false) Instant end,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max " + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "50") int limit) {
+        return meetingPage(cursor, limit,
+                (after, size) -> meetingService.getAgendaForUser(userId, role, start, end, after, size));
+    }
+
+    @Operation(summary = "Get a page of meetings in time range",
+            description = "Keyset-paginated meetings ordered by start time; the range is limited to minidoodle.range.max-window")
+    @Admission(EndpointClass.BULK)
     @GetMapping("/range")
-    public ResponseEntity<List<MeetingResponse>> getMeetingsInRange(
+    public ResponseEntity<KeysetPage<MeetingResponse>> getMeetingsInRange(
+            @Parameter(description = "Start of time range (ISO-8601)") @RequestParam Instant start,
+            @Parameter(description = "End of time range (ISO-8601)") @RequestParam Instant end,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max " + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "100") int limit) {
+        return meetingPage(cursor, limit,
+                (after, size) -> meetingService.getMeetingPageByTimeRange(start, end, after, size));
+    }
+
+    @Operation(summary = "Export meetings in time range",
+            description = "Streams every meeting in the range as a JSON array in constant memory, with no window limit")
+    @Admission(EndpointClass.EXPORT)
+    @GetMapping("/range/export")
+    public ResponseEntity<StreamingResponseBody> exportMeetingsInRange(
             @Parameter(description = "Start of time range (ISO-8601)") @RequestParam Instant start,
             @Parameter(description = "End of time range (ISO-8601)") @RequestParam Instant end) {
-        List<MeetingResponse> meetings = meetingService.getMeetingsByTimeRange(start, end).stream()
-                .map(MeetingResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(meetings);
+        if (!start.isBefore(end)) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        return jsonArrayStreamer.stream(sink -> meetingService.streamMeetingsByTimeRange(start, end,
+                meeting -> sink.accept(MeetingResponse.fromEntity(meeting))));
+    }
+
+    @Operation(summary = "Get a page of selected fields of meetings in time range",
+            description = "Sparse fieldset, keyset-paginated like /range: only the requested columns are queried")
+    @Admission(EndpointClass.BULK)
+    @GetMapping(value = "/range", params = "fields")
+    public ResponseEntity<KeysetPage<Map<String, Object>>> getMeetingFieldsInRange(
+            @Parameter(description = "Start of time range (ISO-8601)") @RequestParam Instant start,
+            @Parameter(description = "End of time range (ISO-8601)") @RequestParam Instant end,
+            @Parameter(description = "Comma-separated response fields, e.g. id,title,startTime,endTime") @RequestParam String fields,
+            @Parameter(description = "Set to 'participants' to embed the participant list") @RequestParam(required = false) String include,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max " + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(meetingService.getMeetingFieldsPageByTimeRange(
+                start, end, pageStart(cursor, limit), limit, MeetingField.parse(fields), includesParticipants(include)));
     }
 
     @Operation(summary = "Update meeting details")
+    @Admission(EndpointClass.BOOKING_WRITE)
     @PutMapping("/{id}")
     public ResponseEntity<MeetingResponse> updateMeeting(
             @PathVariable Long id,
@@ -99,6 +240,7 @@ public class MeetingController {
     }
 
     @Operation(summary = "Add participant to meeting")
+    @Admission(EndpointClass.BOOKING_WRITE)
     @PostMapping("/{meetingId}/participants/{userId}")
     public ResponseEntity<MeetingResponse> addParticipant(
             @PathVariable Long meetingId,
@@ -108,6 +250,7 @@ public class MeetingController {
     }
 
     @Operation(summary = "Remove participant from meeting")
+    @Admission(EndpointClass.BOOKING_WRITE)
     @DeleteMapping("/{meetingId}/participants/{userId}")
     public ResponseEntity<MeetingResponse> removeParticipant(
             @PathVariable Long meetingId,
@@ -117,9 +260,48 @@ public class MeetingController {
     }
 
     @Operation(summary = "Cancel a meeting", description = "Cancels the meeting and marks the time slot as available again")
+    @Admission(EndpointClass.BOOKING_WRITE)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> cancelMeeting(@PathVariable Long id) {
         meetingService.cancelMeeting(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Checks the page size of a keyset-paginated request and decodes its cursor; null starts at the first page.
+     */
+    private static PageCursor pageStart(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException(ErrorCode.INVALID_PAGE_SIZE, MAX_PAGE_SIZE);
+        }
+        return cursor != null ? PageCursor.decode(cursor) : null;
+    }
+
+    /**
+     * Runs one page query from the request's cursor; a full page carries the cursor of its last meeting.
+     */
+    private static ResponseEntity<KeysetPage<MeetingResponse>> meetingPage(
+            String cursor, int limit, BiFunction<PageCursor, Integer, List<Meeting>> query) {
+        List<Meeting> meetings = query.apply(pageStart(cursor, limit), limit);
+
+        PageCursor next = null;
+        if (meetings.size() == limit) {
+            Meeting last = meetings.get(meetings.size() - 1);
+            next = new PageCursor(last.getStartTime(), last.getId());
+        }
+        List<MeetingResponse> items = meetings.stream()
+                .map(MeetingResponse::fromEntity)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(KeysetPage.of(items, next));
+    }
+
+    private static boolean includesParticipants(String include) {
+        if (include == null || include.isBlank()) {
+            return false;
+        }
+        if (!INCLUDE_PARTICIPANTS.equals(include.trim())) {
+            throw new ValidationException(ErrorCode.UNSUPPORTED_INCLUDE, include);
+        }
+        return true;
+    }
 }
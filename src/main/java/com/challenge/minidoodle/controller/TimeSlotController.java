@@ -1,14 +1,20 @@
 package com.challenge.minidoodle.controller;
 
+import com.challenge.minidoodle.admission.Admission;
+import com.challenge.minidoodle.admission.EndpointClass;
 import com.challenge.minidoodle.domain.TimeSlot;
 import com.challenge.minidoodle.domain.TimeSlotStatus;
-import com.challenge.minidoodle.domain.User;
 import com.challenge.minidoodle.dto.AvailabilityResponse;
+import com.challenge.minidoodle.dto.BatchResponse;
+import com.challenge.minidoodle.dto.TeamFreeBusyResponse;
 import com.challenge.minidoodle.dto.TimeSlotRequest;
 import com.challenge.minidoodle.dto.TimeSlotResponse;
 import com.challenge.minidoodle.dto.TimeSlotUpdateRequest;
+import com.challenge.minidoodle.repository.TimeSlotField;
+import com.challenge.minidoodle.service.AvailabilityService;
+import com.challenge.minidoodle.service.FreeBusyService;
+import com.challenge.minidoodle.service.IdempotencyService;
 import com.challenge.minidoodle.service.TimeSlotService;
-import com.challenge.minidoodle.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,10 +22,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/time-slots")
@@ -28,17 +35,32 @@ import java.util.stream.Collectors;
 public class TimeSlotController {
 
     private final TimeSlotService timeSlotService;
-    private final UserService userService;
+    private final AvailabilityService availabilityService;
+    private final FreeBusyService freeBusyService;
+    private final IdempotencyService idempotencyService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @Operation(summary = "Create a new time slot", description = "Creates an available time slot for a user")
     @PostMapping
-    public ResponseEntity<TimeSlotResponse> createTimeSlot(@RequestBody TimeSlotRequest request) {
-        TimeSlot timeSlot = timeSlotService.createTimeSlot(
-                request.getUserId(),
-                request.getStartTime(),
-                request.getEndTime()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED).body(TimeSlotResponse.fromEntity(timeSlot));
+    public ResponseEntity<TimeSlotResponse> createTimeSlot(
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody TimeSlotRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/time-slots", request, TimeSlotResponse.class, () -> {
+            TimeSlot timeSlot = timeSlotService.createTimeSlot(
+                    request.getUserId(),
+                    request.getStartTime(),
+                    request.getEndTime()
+            );
+            return ResponseEntity.status(HttpStatus.CREATED).body(TimeSlotResponse.fromEntity(timeSlot));
+        });
+    }
+
+    @Operation(summary = "Get time slots by ids", description = "Resolves a list of ids in one query, in request order")
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResponse<TimeSlotResponse>> getTimeSlotsByIds(
+            @Parameter(description = "Comma-separated ids, at most minidoodle.batch.max-size") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(BatchResponse.of(ids, timeSlotService.getTimeSlotsByIds(ids), TimeSlotResponse::fromEntity));
     }
 
     @Operation(summary = "Get time slot by ID")
@@ -50,56 +72,87 @@ public class TimeSlotController {
     }
 
     @Operation(summary = "Get all time slots for a user")
+    @Admission(EndpointClass.USER_READ)
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<TimeSlotResponse>> getTimeSlotsByUserId(@PathVariable Long userId) {
-        List<TimeSlotResponse> slots = timeSlotService.getTimeSlotsByUserId(userId).stream()
-                .map(TimeSlotResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(slots);
+        return ResponseEntity.ok(availabilityService.getTimeSlots(userId, null));
+    }
+
+    @Operation(summary = "Get selected fields of all time slots for a user",
+            description = "Sparse fieldset: only the requested columns are queried")
+    @Admission(EndpointClass.USER_READ)
+    @GetMapping(value = "/user/{userId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getTimeSlotFieldsByUserId(
+            @PathVariable Long userId,
+            @Parameter(description = "Comma-separated response fields, e.g. id,startTime,endTime") @RequestParam String fields) {
+        return ResponseEntity.ok(timeSlotService.getSlotFieldsByUserId(userId, null, TimeSlotField.parse(fields)));
+    }
+
+    @Operation(summary = "Export all time slots for a user",
+            description = "Streams the full list as a JSON array in constant memory")
+    @Admission(EndpointClass.EXPORT)
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTimeSlotsByUserId(@PathVariable Long userId) {
+        return jsonArrayStreamer.stream(sink -> timeSlotService.streamTimeSlotsByUserId(userId,
+                slot -> sink.accept(TimeSlotResponse.fromEntity(slot))));
     }
 
     @Operation(summary = "Get available time slots for a user")
+    @Admission(EndpointClass.AVAILABILITY_READ)
     @GetMapping("/user/{userId}/available")
     public ResponseEntity<List<TimeSlotResponse>> getAvailableSlots(@PathVariable Long userId) {
-        List<TimeSlotResponse> slots = timeSlotService.getAvailableSlotsByUserId(userId).stream()
-                .map(TimeSlotResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(slots);
+        return ResponseEntity.ok(availabilityService.getTimeSlots(userId, TimeSlotStatus.AVAILABLE));
+    }
+
+    @Operation(summary = "Get selected fields of available time slots for a user",
+            description = "Sparse fieldset: only the requested columns are queried")
+    @Admission(EndpointClass.AVAILABILITY_READ)
+    @GetMapping(value = "/user/{userId}/available", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAvailableSlotFields(
+            @PathVariable Long userId,
+            @Parameter(description = "Comma-separated response fields, e.g. id,startTime,endTime") @RequestParam String fields) {
+        return ResponseEntity.ok(timeSlotService.getSlotFieldsByUserId(
+                userId, TimeSlotStatus.AVAILABLE, TimeSlotField.parse(fields)));
     }
 
     @Operation(summary = "Get busy time slots for a user")
+    @Admission(EndpointClass.AVAILABILITY_READ)
     @GetMapping("/user/{userId}/busy")
     public ResponseEntity<List<TimeSlotResponse>> getBusySlots(@PathVariable Long userId) {
-        List<TimeSlotResponse> slots = timeSlotService.getBusySlotsByUserId(userId).stream()
-                .map(TimeSlotResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(slots);
+        return ResponseEntity.ok(availabilityService.getTimeSlots(userId, TimeSlotStatus.BUSY));
+    }
+
+    @Operation(summary = "Get selected fields of busy time slots for a user",
+            description = "Sparse fieldset: only the requested columns are queried")
+    @Admission(EndpointClass.AVAILABILITY_READ)
+    @GetMapping(value = "/user/{userId}/busy", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getBusySlotFields(
+            @PathVariable Long userId,
+            @Parameter(description = "Comma-separated response fields, e.g. id,startTime,endTime") @RequestParam String fields) {
+        return ResponseEntity.ok(timeSlotService.getSlotFieldsByUserId(
+                userId, TimeSlotStatus.BUSY, TimeSlotField.parse(fields)));
     }
 
     @Operation(summary = "Get user availability for a time range", description = "Returns aggregated view of free and busy slots")
+    @Admission(EndpointClass.AVAILABILITY_READ)
     @GetMapping("/user/{userId}/availability")
     public ResponseEntity<AvailabilityResponse> getUserAvailability(
             @PathVariable Long userId,
             @Parameter(description = "Start of time range (ISO-8601)") @RequestParam Instant start,
             @Parameter(description = "End of time range (ISO-8601)") @RequestParam Instant end) {
+        return ResponseEntity.ok(availabilityService.getAvailability(userId, start, end));
+    }
 
-        User user = userService.getUserById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        List<TimeSlotResponse> availableSlots = timeSlotService
-                .getSlotsByUserIdAndStatusAndTimeRange(userId, TimeSlotStatus.AVAILABLE, start, end)
-                .stream()
-                .map(TimeSlotResponse::fromEntity)
-                .collect(Collectors.toList());
-
-        List<TimeSlotResponse> busySlots = timeSlotService
-                .getSlotsByUserIdAndStatusAndTimeRange(userId, TimeSlotStatus.BUSY, start, end)
-                .stream()
-                .map(TimeSlotResponse::fromEntity)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(AvailabilityResponse.create(
-                userId, user.getEmail(), start, end, availableSlots, busySlots));
+    @Operation(summary = "Get free/busy blocks of several users",
+            description = "Each user's merged free and busy blocks in [start, end), as second offsets from start, in request order")
+    @Admission(EndpointClass.AVAILABILITY_READ)
+    @GetMapping("/free-busy")
+    public ResponseEntity<TeamFreeBusyResponse> getFreeBusy(
+            @Parameter(description = "Comma-separated user ids, at most minidoodle.batch.max-size") @RequestParam List<Long> userIds,
+            @Parameter(description = "Start of time range (ISO-8601)") @RequestParam Instant start,
+            @Parameter(description = "End of time range (ISO-8601), at most minidoodle.range.max-window after start")
+            @RequestParam Instant end) {
+        return ResponseEntity.ok(freeBusyService.getFreeBusy(userIds, start, end));
     }
 
     @Operation(summary = "Update a time slot")
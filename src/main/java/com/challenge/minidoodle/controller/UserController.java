@@ -1,8 +1,13 @@
 package com.challenge.minidoodle.controller;
 
+import com.challenge.minidoodle.admission.Admission;
+import com.challenge.minidoodle.admission.EndpointClass;
+import com.challenge.minidoodle.dto.BatchResponse;
+import com.challenge.minidoodle.dto.BulkUserResponse;
 import com.challenge.minidoodle.dto.UserRequest;
 import com.challenge.minidoodle.dto.UserResponse;
 import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.service.UserProvisioningService;
 import com.challenge.minidoodle.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,7 +18,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,11 +31,14 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final UserProvisioningService userProvisioningService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @Operation(summary = "Create a new user", description = "Creates a new user with an associated calendar")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "User created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid input or email already exists")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "Email already exists")
     })
     @PostMapping
     public ResponseEntity<UserResponse> createUser(@RequestBody UserRequest request) {
@@ -40,8 +50,21 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.fromEntity(user));
     }
 
+    @Operation(summary = "Create users in bulk",
+            description = "Reads a JSON array of users as a stream and creates them with their calendars in batches")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per-row results; rejected rows are marked with a status"),
+            @ApiResponse(responseCode = "400", description = "Body is not a JSON array")
+    })
+    @Admission(EndpointClass.BULK)
+    @PostMapping(path = "/bulk", consumes = "application/json")
+    public ResponseEntity<BulkUserResponse> createUsers(InputStream body) {
+        return ResponseEntity.ok(userProvisioningService.provision(body));
+    }
+
     @Operation(summary = "Get all users", description = "Retrieves a list of all users")
     @ApiResponse(responseCode = "200", description = "List of users retrieved successfully")
+    @Admission(EndpointClass.BULK)
     @GetMapping
     public ResponseEntity<List<UserResponse>> getAllUsers() {
         List<UserResponse> users = userService.getAllUsers().stream()
@@ -50,6 +73,26 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @Operation(summary = "Get users by ids", description = "Resolves a list of ids in one query, in request order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch resolved; missing ids are marked as not found"),
+            @ApiResponse(responseCode = "400", description = "No ids or more than the maximum batch size")
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResponse<UserResponse>> getUsersByIds(
+            @Parameter(description = "Comma-separated ids, at most minidoodle.batch.max-size") @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(BatchResponse.of(ids, userService.getUsersByIds(ids), UserResponse::fromEntity));
+    }
+
+    @Operation(summary = "Export all users", description = "Streams all users as a JSON array in constant memory")
+    @ApiResponse(responseCode = "200", description = "User export streamed successfully")
+    @Admission(EndpointClass.EXPORT)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return jsonArrayStreamer.stream(sink -> userService.streamAllUsers(
+                user -> sink.accept(UserResponse.fromEntity(user))));
+    }
+
     @Operation(summary = "Get user by ID", description = "Retrieves a user by their ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found"),
@@ -80,7 +123,8 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User updated successfully"),
             @ApiResponse(responseCode = "404", description = "User not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input or email already in use")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "Email already in use")
     })
     @PutMapping("/{id}")
     public ResponseEntity<UserResponse> updateUser(
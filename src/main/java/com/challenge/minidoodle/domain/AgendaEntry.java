@@ -0,0 +1,54 @@
+package com.challenge.minidoodle.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Denormalised row of a user's agenda: one entry per meeting the user organizes or attends.
+ * Kept in sync by the meeting write path so that "my meetings" reads are a single index range scan. With the
+ * end time it also serves as the per-user busy index: overlap checks for many users are one range scan per user
+ * on {@code idx_user_agenda_user_end}.
+ */
+@Entity
+@Table(name = "user_agenda", indexes = {
+        @Index(name = "idx_user_agenda_user_start", columnList = "user_id, start_time, meeting_id"),
+        @Index(name = "idx_user_agenda_user_role_start", columnList = "user_id, role, start_time, meeting_id"),
+        @Index(name = "idx_user_agenda_user_end", columnList = "user_id, end_time, start_time"),
+        @Index(name = "idx_user_agenda_meeting", columnList = "meeting_id")
+})
+@IdClass(AgendaEntryId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class AgendaEntry {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Id
+    @Column(name = "meeting_id", nullable = false)
+    private Long meetingId;
+
+    @Column(name = "start_time", nullable = false)
+    private Instant startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private Instant endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AgendaRole role;
+
+    public AgendaEntry(Long userId, Long meetingId, Instant startTime, Instant endTime, AgendaRole role) {
+        this.userId = userId;
+        this.meetingId = meetingId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.role = role;
+    }
+}
@@ -0,0 +1,18 @@
+package com.challenge.minidoodle.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class AgendaEntryId implements Serializable {
+
+    private Long userId;
+    private Long meetingId;
+}
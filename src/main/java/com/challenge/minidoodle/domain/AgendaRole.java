@@ -0,0 +1,6 @@
+package com.challenge.minidoodle.domain;
+
+public enum AgendaRole {
+    ORGANIZER,
+    PARTICIPANT
+}
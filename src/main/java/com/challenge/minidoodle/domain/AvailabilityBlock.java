@@ -0,0 +1,46 @@
+package com.challenge.minidoodle.domain;
+
+import com.challenge.minidoodle.sharding.GlobalId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Exception to a calendar's {@link AvailabilityRule}s: no rule-based slot is offered inside this window.
+ */
+@Entity
+@Table(name = "availability_blocks", indexes = {
+        @Index(name = "idx_availability_blocks_calendar_start", columnList = "calendar_id, start_time")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class AvailabilityBlock {
+
+    @Id
+    @GlobalId
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "calendar_id", nullable = false)
+    private Calendar calendar;
+
+    @Column(name = "start_time", nullable = false)
+    private Instant startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private Instant endTime;
+
+    private String reason;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = Instant.now();
+    }
+}
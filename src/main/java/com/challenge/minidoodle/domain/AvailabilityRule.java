@@ -0,0 +1,71 @@
+package com.challenge.minidoodle.domain;
+
+import com.challenge.minidoodle.sharding.GlobalId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Weekly recurring availability of a calendar: every {@code dayOfWeek} between {@code startTime} and
+ * {@code endTime} in {@code timeZone}, offered in {@code slotMinutes} slots. Never materialised up front;
+ * slots are expanded for the queried window and only become {@link TimeSlot} rows when booked.
+ */
+@Entity
+@Table(name = "availability_rules", indexes = {
+        @Index(name = "idx_availability_rules_calendar", columnList = "calendar_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class AvailabilityRule {
+
+    @Id
+    @GlobalId
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "calendar_id", nullable = false)
+    private Calendar calendar;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false, length = 16)
+    private DayOfWeek dayOfWeek;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "time_zone", nullable = false, length = 64)
+    private String timeZone;
+
+    @Column(name = "slot_minutes", nullable = false)
+    private int slotMinutes;
+
+    @Column(name = "valid_from")
+    private LocalDate validFrom;
+
+    @Column(name = "valid_until")
+    private LocalDate validUntil;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = Instant.now();
+    }
+
+    public boolean appliesOn(LocalDate date) {
+        return date.getDayOfWeek() == dayOfWeek
+                && (validFrom == null || !date.isBefore(validFrom))
+                && (validUntil == null || !date.isAfter(validUntil));
+    }
+}
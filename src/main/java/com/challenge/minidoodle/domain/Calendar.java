@@ -1,14 +1,18 @@
 package com.challenge.minidoodle.domain;
 
+import com.challenge.minidoodle.sharding.GlobalId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
 
+/**
+ * Owner of a user's time slots. The slots are deliberately not mapped as a collection: a calendar accumulates them
+ * for as long as it exists, so they are read through the window queries of {@code TimeSlotRepository}, bounded by
+ * time range and ordered by start time, and created by saving the {@link TimeSlot} itself.
+ */
 @Entity
 @Table(name = "calendars")
 @Getter
@@ -17,16 +21,13 @@ import java.util.List;
 public class Calendar {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GlobalId
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
-    @OneToMany(mappedBy = "calendar", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<TimeSlot> timeSlots = new ArrayList<>();
-
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -38,32 +39,4 @@ public class Calendar {
     protected void onCreate() {
         this.createdAt = Instant.now();
     }
-
-    public void addTimeSlot(TimeSlot timeSlot) {
-        timeSlots.add(timeSlot);
-        timeSlot.setCalendar(this);
-    }
-
-    public void removeTimeSlot(TimeSlot timeSlot) {
-        timeSlots.remove(timeSlot);
-        timeSlot.setCalendar(null);
-    }
-
-    public List<TimeSlot> getAvailableSlots() {
-        return timeSlots.stream()
-                .filter(TimeSlot::isAvailable)
-                .toList();
-    }
-
-    public List<TimeSlot> getBusySlots() {
-        return timeSlots.stream()
-                .filter(TimeSlot::isBusy)
-                .toList();
-    }
-
-    public List<TimeSlot> getSlotsInRange(Instant start, Instant end) {
-        return timeSlots.stream()
-                .filter(slot -> !slot.getStartTime().isBefore(start) && !slot.getEndTime().isAfter(end))
-                .toList();
-    }
 }
@@ -0,0 +1,39 @@
+package com.challenge.minidoodle.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Occupancy of one calendar on one UTC day, kept up to date by the slot and meeting write paths so that
+ * utilisation reports read one row per calendar and day instead of every slot. A slot spanning midnight counts
+ * towards each day it covers; a meeting counts on the day its slot starts.
+ */
+@Entity
+@Table(name = "calendar_daily_stats")
+@IdClass(CalendarDayId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class CalendarDailyStats {
+
+    @Id
+    @Column(name = "calendar_id", nullable = false)
+    private Long calendarId;
+
+    @Id
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "available_minutes", nullable = false)
+    private long availableMinutes;
+
+    @Column(name = "busy_minutes", nullable = false)
+    private long busyMinutes;
+
+    @Column(name = "meeting_count", nullable = false)
+    private long meetingCount;
+}
@@ -0,0 +1,19 @@
+package com.challenge.minidoodle.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class CalendarDayId implements Serializable {
+
+    private Long calendarId;
+    private LocalDate day;
+}
@@ -0,0 +1,26 @@
+package com.challenge.minidoodle.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Last calendar examined by the background slot compaction on this database, so that each run continues where
+ * the previous one stopped instead of starting again from the lowest calendar id.
+ */
+@Entity
+@Table(name = "compaction_cursor")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CompactionCursor {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_calendar_id", nullable = false)
+    private Long lastCalendarId;
+}
@@ -0,0 +1,26 @@
+package com.challenge.minidoodle.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Highest scheduling-engine journal sequence whose effects are committed to the database. Written in the same
+ * transaction as each write-behind batch, so journal entries up to it are never applied twice.
+ */
+@Entity
+@Table(name = "engine_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+public class EngineCheckpoint {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+}
@@ -0,0 +1,96 @@
+package com.challenge.minidoodle.domain;
+
+import com.challenge.minidoodle.sharding.GlobalId;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A long-running administrative operation processed in chunks by {@code JobRunner}. After every committed chunk
+ * the job records the shard and the id of the last item it processed, so a job interrupted by a restart resumes
+ * from there instead of starting over. Jobs are stored on shard 0.
+ */
+@Entity
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_status_updated_at", columnList = "status, updated_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class Job {
+
+    @Id
+    @GlobalId
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private JobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status;
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String parameters;
+
+    /**
+     * Shard being processed and the id of the last item committed on it.
+     */
+    @Column(nullable = false)
+    private int shard;
+
+    @Column(name = "cursor_id", nullable = false)
+    private long cursorId = Long.MIN_VALUE;
+
+    @Column(nullable = false)
+    private long processed;
+
+    /**
+     * Items to process, counted when the job first starts; {@code null} until then.
+     */
+    private Long total;
+
+    /**
+     * Value of {@link #processed} when the current run started, to derive throughput after a resume.
+     */
+    @Column(name = "run_start_processed", nullable = false)
+    private long runStartProcessed;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    /**
+     * Heartbeat: refreshed with every checkpoint. A RUNNING job not updated for
+     * {@code minidoodle.jobs.stale-after} is assumed orphaned and resumed.
+     */
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public Job(JobType type, String parameters) {
+        this.type = type;
+        this.parameters = parameters;
+        this.status = JobStatus.QUEUED;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+}
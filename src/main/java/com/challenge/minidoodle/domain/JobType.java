@@ -0,0 +1,16 @@
+package com.challenge.minidoodle.domain;
+
+public enum JobType {
+    /**
+     * Creates AVAILABLE slots of a fixed length over a window for many users, skipping time already covered.
+     */
+    GENERATE_SLOTS,
+    /**
+     * Cancels every meeting in a time range, optionally of one organizer.
+     */
+    CANCEL_MEETINGS,
+    /**
+     * Rewrites the agenda entries of every meeting.
+     */
+    REINDEX_AGENDA
+}
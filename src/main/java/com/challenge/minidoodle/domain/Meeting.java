@@ -1,23 +1,29 @@
 package com.challenge.minidoodle.domain;
 
+import com.challenge.minidoodle.sharding.GlobalId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.Instant;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @Entity
-@Table(name = "meetings")
+@Table(name = "meetings", indexes = {
+        @Index(name = "idx_meetings_organizer", columnList = "organizer_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Meeting {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GlobalId
     private Long id;
 
     @Column(nullable = false)
@@ -34,17 +40,47 @@ public class Meeting {
     @JoinColumn(name = "organizer_id", nullable = false)
     private User organizer;
 
+    @BatchSize(size = 100)
+    @SQLRestriction("deleted_at IS NULL")
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "meeting_participants",
             joinColumns = @JoinColumn(name = "meeting_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_meeting_participants_user", columnList = "user_id")
     )
     private Set<User> participants = new HashSet<>();
 
+    /**
+     * Participants stored on another shard than the meeting, by id. Their user rows live in another database,
+     * so there is no foreign key; each one's own link to the meeting is their agenda entry on their shard.
+     */
+    @BatchSize(size = 100)
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(
+            name = "meeting_remote_participants",
+            joinColumns = @JoinColumn(name = "meeting_id"),
+            indexes = @Index(name = "idx_meeting_remote_participants_user", columnList = "user_id")
+    )
+    @Column(name = "user_id", nullable = false)
+    private Set<Long> remoteParticipantIds = new HashSet<>();
+
+    /**
+     * Active users behind {@link #remoteParticipantIds}, loaded from their shards for the response.
+     */
+    @Transient
+    private Set<User> remoteParticipants = Set.of();
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    /**
+     * Overlapping meetings of the organizer or participants found while booking or adding participants;
+     * not persisted, only reported back to the caller.
+     */
+    @Transient
+    private List<AgendaEntry> conflicts = List.of();
+
     public Meeting(String title, String description, TimeSlot timeSlot, User organizer) {
         this.title = title;
         this.description = description;
@@ -65,6 +101,14 @@ public class Meeting {
         this.participants.remove(user);
     }
 
+    public void addRemoteParticipant(Long userId) {
+        this.remoteParticipantIds.add(userId);
+    }
+
+    public boolean removeRemoteParticipant(Long userId) {
+        return this.remoteParticipantIds.remove(userId);
+    }
+
     public Instant getStartTime() {
         return timeSlot.getStartTime();
     }
@@ -0,0 +1,29 @@
+package com.challenge.minidoodle.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A node id held by one running instance until {@code expiresAt}; see {@code NodeIdLease}. Lives on shard 0.
+ */
+@Entity
+@Table(name = "node_id_leases")
+@Getter
+@Setter
+@NoArgsConstructor
+public class NodeIdLeaseRecord {
+
+    @Id
+    @Column(name = "node_id")
+    private Integer nodeId;
+
+    @Column(nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -1,5 +1,6 @@
 package com.challenge.minidoodle.domain;
 
+import com.challenge.minidoodle.sharding.GlobalId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -8,14 +9,17 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "time_slots")
+@Table(name = "time_slots", indexes = {
+        @Index(name = "idx_time_slots_start_time", columnList = "start_time"),
+        @Index(name = "idx_time_slots_calendar_start", columnList = "calendar_id, start_time")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class TimeSlot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GlobalId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
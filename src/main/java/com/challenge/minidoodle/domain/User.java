@@ -1,5 +1,6 @@
 package com.challenge.minidoodle.domain;
 
+import com.challenge.minidoodle.sharding.GlobalId;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -8,14 +9,16 @@ import lombok.Setter;
 import java.time.Instant;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_deleted_at", columnList = "deleted_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GlobalId
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -30,6 +33,13 @@ public class User {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    /**
+     * Set when the user is deleted. Deleted users are excluded by every {@code UserRepository} lookup; the row and
+     * everything hanging off it are removed later by {@code UserPurgeService}.
+     */
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Calendar calendar;
 
@@ -39,6 +49,14 @@ public class User {
         this.lastName = lastName;
     }
 
+    /**
+     * Marks the user deleted and releases the email address for a new account.
+     */
+    public void markDeleted(Instant now) {
+        this.deletedAt = now;
+        this.email = "deleted-" + id + "@deleted.invalid";
+    }
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = Instant.now();
@@ -0,0 +1,17 @@
+package com.challenge.minidoodle.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class AvailabilityBlockRequest {
+
+    private Instant startTime;
+    private Instant endTime;
+    private String reason;
+}
@@ -0,0 +1,28 @@
+package com.challenge.minidoodle.dto;
+
+import com.challenge.minidoodle.domain.AvailabilityBlock;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class AvailabilityBlockResponse {
+
+    private Long id;
+    private Instant startTime;
+    private Instant endTime;
+    private String reason;
+    private Instant createdAt;
+
+    public static AvailabilityBlockResponse fromEntity(AvailabilityBlock block) {
+        AvailabilityBlockResponse response = new AvailabilityBlockResponse();
+        response.setId(block.getId());
+        response.setStartTime(block.getStartTime());
+        response.setEndTime(block.getEndTime());
+        response.setReason(block.getReason());
+        response.setCreatedAt(block.getCreatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,23 @@
+package com.challenge.minidoodle.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class AvailabilityRuleRequest {
+
+    private DayOfWeek dayOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String timeZone;
+    private Integer slotMinutes;
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+}
@@ -0,0 +1,39 @@
+package com.challenge.minidoodle.dto;
+
+import com.challenge.minidoodle.domain.AvailabilityRule;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+public class AvailabilityRuleResponse {
+
+    private Long id;
+    private DayOfWeek dayOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String timeZone;
+    private int slotMinutes;
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+    private Instant createdAt;
+
+    public static AvailabilityRuleResponse fromEntity(AvailabilityRule rule) {
+        AvailabilityRuleResponse response = new AvailabilityRuleResponse();
+        response.setId(rule.getId());
+        response.setDayOfWeek(rule.getDayOfWeek());
+        response.setStartTime(rule.getStartTime());
+        response.setEndTime(rule.getEndTime());
+        response.setTimeZone(rule.getTimeZone());
+        response.setSlotMinutes(rule.getSlotMinutes());
+        response.setValidFrom(rule.getValidFrom());
+        response.setValidUntil(rule.getValidUntil());
+        response.setCreatedAt(rule.getCreatedAt());
+        return response;
+    }
+}
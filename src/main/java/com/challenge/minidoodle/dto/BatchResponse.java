@@ -0,0 +1,56 @@
+package com.challenge.minidoodle.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Result of a batch-get: one item per distinct requested id, in request order, each flagged as found or not.
+ */
+@Getter
+@Setter
+public class BatchResponse<T> {
+
+    private List<Item<T>> items;
+    private int requested;
+    private int found;
+    private List<Long> notFound;
+
+    @Getter
+    @Setter
+    public static class Item<T> {
+        private Long id;
+        private boolean found;
+        private T data;
+    }
+
+    public static <E, T> BatchResponse<T> of(Collection<Long> requestedIds, Map<Long, E> entities, Function<E, T> mapper) {
+        Collection<Long> ids = new LinkedHashSet<>(requestedIds);
+        List<Item<T>> items = new ArrayList<>(ids.size());
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : ids) {
+            Item<T> item = new Item<>();
+            item.setId(id);
+            E entity = entities.get(id);
+            if (entity != null) {
+                item.setFound(true);
+                item.setData(mapper.apply(entity));
+            } else {
+                notFound.add(id);
+            }
+            items.add(item);
+        }
+        BatchResponse<T> response = new BatchResponse<>();
+        response.setItems(items);
+        response.setRequested(ids.size());
+        response.setFound(ids.size() - notFound.size());
+        response.setNotFound(notFound);
+        return response;
+    }
+}
@@ -0,0 +1,55 @@
+package com.challenge.minidoodle.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkUserResponse {
+
+    private int created;
+    private int rejected;
+    private List<Row> results = new ArrayList<>();
+
+    /**
+     * Why reading the body stopped early; rows before it were processed.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public enum Status {
+        CREATED, INVALID, DUPLICATE_IN_REQUEST, EMAIL_EXISTS
+    }
+
+    @Getter
+    @Setter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Row {
+        private int index;
+        private String email;
+        private Status status;
+        private Long id;
+        private String message;
+
+        public static Row of(int index, String email, Status status) {
+            Row row = new Row();
+            row.index = index;
+            row.email = email;
+            row.status = status;
+            return row;
+        }
+    }
+
+    public void add(Row row) {
+        results.add(row);
+        if (row.getStatus() == Status.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.challenge.minidoodle.dto;
+
+import com.challenge.minidoodle.domain.JobType;
+import lombok.Getter;
+import lombok.Setter;
+import tools.jackson.databind.JsonNode;
+
+@Getter
+@Setter
+public class JobRequest {
+
+    private JobType type;
+
+    /**
+     * Type-specific parameters, e.g. {@code {"start": ..., "end": ..., "slotMinutes": 30}} for GENERATE_SLOTS.
+     */
+    private JsonNode parameters;
+}
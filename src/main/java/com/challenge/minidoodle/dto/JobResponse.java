@@ -0,0 +1,62 @@
+package com.challenge.minidoodle.dto;
+
+import com.challenge.minidoodle.domain.Job;
+import com.challenge.minidoodle.domain.JobStatus;
+import com.challenge.minidoodle.domain.JobType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Getter
+@Setter
+public class JobResponse {
+
+    private Long id;
+    private JobType type;
+    private JobStatus status;
+    @JsonRawValue
+    private String parameters;
+    private long processed;
+    private Long total;
+    private Double percentComplete;
+    private Double itemsPerSecond;
+    private boolean cancelRequested;
+    private String error;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+
+    public static JobResponse fromEntity(Job job) {
+        JobResponse response = new JobResponse();
+        response.setId(job.getId());
+        response.setType(job.getType());
+        response.setStatus(job.getStatus());
+        response.setParameters(job.getParameters());
+        response.setProcessed(job.getProcessed());
+        response.setTotal(job.getTotal());
+        response.setCancelRequested(job.isCancelRequested());
+        response.setError(job.getError());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setUpdatedAt(job.getUpdatedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        if (job.getTotal() != null && job.getTotal() > 0) {
+            response.setPercentComplete(Math.min(100.0, Math.round(job.getProcessed() * 1000.0 / job.getTotal()) / 10.0));
+        }
+        if (job.getStartedAt() != null) {
+            // Throughput of the current (or last) run only, so time spent queued or stopped does not count
+            Instant until = job.getFinishedAt() != null ? job.getFinishedAt()
+                    : job.getStatus() == JobStatus.RUNNING ? Instant.now() : job.getUpdatedAt();
+            long millis = Duration.between(job.getStartedAt(), until).toMillis();
+            if (millis > 0) {
+                double rate = (job.getProcessed() - job.getRunStartProcessed()) * 1000.0 / millis;
+                response.setItemsPerSecond(Math.round(rate * 10) / 10.0);
+            }
+        }
+        return response;
+    }
+}
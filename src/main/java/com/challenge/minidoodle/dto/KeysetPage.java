@@ -0,0 +1,23 @@
+package com.challenge.minidoodle.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class KeysetPage<T> {
+
+    private List<T> items;
+    private int size;
+    private String nextCursor;
+
+    public static <T> KeysetPage<T> of(List<T> items, PageCursor nextCursor) {
+        KeysetPage<T> page = new KeysetPage<>();
+        page.setItems(items);
+        page.setSize(items.size());
+        page.setNextCursor(nextCursor != null ? nextCursor.encode() : null);
+        return page;
+    }
+}
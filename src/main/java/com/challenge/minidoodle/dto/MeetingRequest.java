@@ -1,19 +1,29 @@
 package com.challenge.minidoodle.dto;
 
+import com.challenge.minidoodle.sharding.ShardKeyed;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.util.Set;
 
 @Getter
 @Setter
 @NoArgsConstructor
-public class MeetingRequest {
+public class MeetingRequest implements ShardKeyed {
 
     private Long timeSlotId;
+    // Alternative to timeSlotId: book against the organizer's availability rules
+    private Instant startTime;
+    private Instant endTime;
     private Long organizerId;
     private String title;
     private String description;
     private Set<Long> participantIds;
+
+    @Override
+    public Long shardOwnerId() {
+        return organizerId != null ? organizerId : timeSlotId;
+    }
 }
@@ -2,12 +2,15 @@ package com.challenge.minidoodle.dto;
 
 import com.challenge.minidoodle.domain.Meeting;
 import com.challenge.minidoodle.domain.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Getter
 @Setter
@@ -24,6 +27,9 @@ public class MeetingResponse {
     private Set<ParticipantInfo> participants;
     private Instant createdAt;
 
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<ParticipantConflict> conflicts;
+
     @Getter
     @Setter
     public static class ParticipantInfo {
@@ -54,10 +60,11 @@ public class MeetingResponse {
         response.setOrganizerEmail(meeting.getOrganizer().getEmail());
         response.setCreatedAt(meeting.getCreatedAt());
         response.setParticipants(
-                meeting.getParticipants().stream()
+                Stream.concat(meeting.getParticipants().stream(), meeting.getRemoteParticipants().stream())
                         .map(ParticipantInfo::fromUser)
                         .collect(Collectors.toSet())
         );
+        response.setConflicts(ParticipantConflict.fromEntries(meeting.getConflicts()));
         return response;
     }
 }
@@ -0,0 +1,48 @@
+package com.challenge.minidoodle.dto;
+
+import com.challenge.minidoodle.domain.CalendarDailyStats;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class OccupancyReport {
+
+    private Long userId;
+    private Long calendarId;
+    private Period total;
+    private List<Period> periods = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Period {
+        private LocalDate start;
+        private long availableMinutes;
+        private long busyMinutes;
+        private long meetingCount;
+
+        public Period(LocalDate start) {
+            this.start = start;
+        }
+
+        /**
+         * Busy share of the minutes offered, or absent when nothing was offered.
+         */
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Double getUtilisation() {
+            long offered = availableMinutes + busyMinutes;
+            return offered == 0 ? null : Math.round(busyMinutes * 1000.0 / offered) / 1000.0;
+        }
+
+        public void add(CalendarDailyStats stats) {
+            availableMinutes += stats.getAvailableMinutes();
+            busyMinutes += stats.getBusyMinutes();
+            meetingCount += stats.getMeetingCount();
+        }
+    }
+}
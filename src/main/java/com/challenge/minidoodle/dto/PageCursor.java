@@ -0,0 +1,41 @@
+package com.challenge.minidoodle.dto;
+
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over (startTime, id). Encoded as URL-safe base64 so clients treat it as a token.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private Instant startTime;
+    private Long id;
+
+    public String encode() {
+        String raw = startTime.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new PageCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+            throw new ValidationException(ErrorCode.INVALID_CURSOR, token);
+        }
+    }
+}
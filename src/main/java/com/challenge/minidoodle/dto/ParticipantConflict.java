@@ -0,0 +1,58 @@
+package com.challenge.minidoodle.dto;
+
+import com.challenge.minidoodle.domain.AgendaEntry;
+import com.challenge.minidoodle.domain.AgendaRole;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The meetings that overlap a requested time range for one user.
+ */
+@Getter
+@Setter
+public class ParticipantConflict {
+
+    private Long userId;
+    private List<BusyMeeting> meetings;
+
+    @Getter
+    @Setter
+    public static class BusyMeeting {
+        private Long meetingId;
+        private Instant startTime;
+        private Instant endTime;
+        private AgendaRole role;
+
+        public static BusyMeeting fromEntity(AgendaEntry entry) {
+            BusyMeeting meeting = new BusyMeeting();
+            meeting.setMeetingId(entry.getMeetingId());
+            meeting.setStartTime(entry.getStartTime());
+            meeting.setEndTime(entry.getEndTime());
+            meeting.setRole(entry.getRole());
+            return meeting;
+        }
+    }
+
+    /**
+     * Groups overlapping agenda entries per user, keeping the order in which users first appear.
+     */
+    public static List<ParticipantConflict> fromEntries(List<AgendaEntry> entries) {
+        Map<Long, ParticipantConflict> byUser = new LinkedHashMap<>();
+        for (AgendaEntry entry : entries) {
+            ParticipantConflict conflict = byUser.computeIfAbsent(entry.getUserId(), userId -> {
+                ParticipantConflict created = new ParticipantConflict();
+                created.setUserId(userId);
+                created.setMeetings(new ArrayList<>());
+                return created;
+            });
+            conflict.getMeetings().add(BusyMeeting.fromEntity(entry));
+        }
+        return new ArrayList<>(byUser.values());
+    }
+}
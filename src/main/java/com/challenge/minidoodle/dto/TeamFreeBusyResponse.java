@@ -0,0 +1,30 @@
+package com.challenge.minidoodle.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Free/busy blocks of several users over one window. To keep a 100-user, four-week view small, each user's blocks
+ * are flat {@code [start, end, start, end, ...]} arrays of seconds since {@link #start}, clipped to the window, with
+ * touching slots of the same kind merged into one block.
+ */
+@Getter
+@Setter
+public class TeamFreeBusyResponse {
+
+    private Instant start;
+    private Instant end;
+    private List<UserFreeBusy> users;
+    private List<Long> notFound;
+
+    @Getter
+    @Setter
+    public static class UserFreeBusy {
+        private Long userId;
+        private int[] free;
+        private int[] busy;
+    }
+}
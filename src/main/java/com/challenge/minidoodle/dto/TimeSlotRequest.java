@@ -1,5 +1,6 @@
 package com.challenge.minidoodle.dto;
 
+import com.challenge.minidoodle.sharding.ShardKeyed;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -9,9 +10,14 @@ import java.time.Instant;
 @Getter
 @Setter
 @NoArgsConstructor
-public class TimeSlotRequest {
+public class TimeSlotRequest implements ShardKeyed {
 
     private Long userId;
     private Instant startTime;
     private Instant endTime;
+
+    @Override
+    public Long shardOwnerId() {
+        return userId;
+    }
 }
@@ -5,6 +5,7 @@ import com.challenge.minidoodle.domain.TimeSlotStatus;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Duration;
 import java.time.Instant;
 
 @Getter
@@ -36,4 +37,18 @@ public class TimeSlotResponse {
         }
         return response;
     }
+
+    /**
+     * A slot expanded from an availability rule. It has no id until it is booked and materialised.
+     */
+    public static TimeSlotResponse fromRule(Long userId, String userEmail, Instant startTime, Instant endTime) {
+        TimeSlotResponse response = new TimeSlotResponse();
+        response.setUserId(userId);
+        response.setUserEmail(userEmail);
+        response.setStartTime(startTime);
+        response.setEndTime(endTime);
+        response.setStatus(TimeSlotStatus.AVAILABLE);
+        response.setDurationInMinutes(Duration.between(startTime, endTime).toMinutes());
+        return response;
+    }
 }
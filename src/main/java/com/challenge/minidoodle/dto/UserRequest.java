@@ -1,5 +1,6 @@
 package com.challenge.minidoodle.dto;
 
+import com.challenge.minidoodle.sharding.ShardKeyed;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -7,9 +8,19 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-public class UserRequest {
+public class UserRequest implements ShardKeyed {
 
     private String email;
     private String firstName;
     private String lastName;
+
+    @Override
+    public Long shardOwnerId() {
+        return null;
+    }
+
+    @Override
+    public String shardHomeKey() {
+        return email;
+    }
 }
\ No newline at end of file
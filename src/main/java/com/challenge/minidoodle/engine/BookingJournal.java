@@ -0,0 +1,115 @@
+package com.challenge.minidoodle.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Append-only file of {@link JournalEntry} records, one JSON document per line. Sequence numbers are assigned
+ * under the journal's lock and entries are handed to {@code onAppend} in that same order. Once every appended
+ * entry is committed to the database the file is truncated.
+ */
+@Slf4j
+class BookingJournal implements AutoCloseable {
+
+    private final Path file;
+    private final JsonMapper jsonMapper;
+    private final boolean sync;
+    private final Consumer<JournalEntry> onAppend;
+    private final FileChannel channel;
+    private long lastSequence;
+
+    BookingJournal(Path directory, JsonMapper jsonMapper, boolean sync, Consumer<JournalEntry> onAppend) {
+        this.file = directory.resolve("bookings.journal");
+        this.jsonMapper = jsonMapper;
+        this.sync = sync;
+        this.onAppend = onAppend;
+        try {
+            Files.createDirectories(directory);
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open booking journal " + file, e);
+        }
+    }
+
+    /**
+     * Reads every complete entry. A torn last line from a crash mid-append is skipped: its booking was never
+     * acknowledged.
+     */
+    synchronized List<JournalEntry> readAll() {
+        List<JournalEntry> entries = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    entries.add(jsonMapper.readValue(line, JournalEntry.class));
+                } catch (JacksonException e) {
+                    log.warn("Skipping unreadable booking journal line: {}", e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read booking journal " + file, e);
+        }
+        entries.forEach(entry -> lastSequence = Math.max(lastSequence, entry.sequence()));
+        return entries;
+    }
+
+    synchronized void startAfter(long sequence) {
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    synchronized JournalEntry append(LongFunction<JournalEntry> entryForSequence) {
+        JournalEntry entry = entryForSequence.apply(lastSequence + 1);
+        byte[] line = (jsonMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to booking journal " + file, e);
+        }
+        lastSequence = entry.sequence();
+        onAppend.accept(entry);
+        return entry;
+    }
+
+    /**
+     * Empties the file if nothing after {@code committedSequence} has been appended.
+     */
+    synchronized void truncateIfCommitted(long committedSequence) {
+        if (committedSequence < lastSequence) {
+            return;
+        }
+        try {
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException e) {
+            log.warn("Cannot truncate booking journal {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
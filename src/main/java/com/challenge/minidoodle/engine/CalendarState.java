@@ -0,0 +1,9 @@
+package com.challenge.minidoodle.engine;
+
+import java.util.Map;
+
+/**
+ * Authoritative in-memory view of one calendar's slots while the engine owns it.
+ */
+record CalendarState(long calendarId, long ownerId, Map<Long, SlotState> slots) {
+}
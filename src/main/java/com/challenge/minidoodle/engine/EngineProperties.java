@@ -0,0 +1,45 @@
+package com.challenge.minidoodle.engine;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.engine")
+public class EngineProperties {
+
+    /**
+     * Decide bookings against in-memory calendar state and persist them asynchronously. Requires a single
+     * application instance: the engine assumes no other writer books the same calendars.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the append-only booking journal.
+     */
+    private String journalDirectory = "data/engine";
+
+    /**
+     * Force every journal append to disk before the booking is acknowledged. Turning this off trades the last
+     * few milliseconds of bookings on a machine crash for lower latency.
+     */
+    private boolean journalSync = true;
+
+    /**
+     * How often pending bookings are written to the database.
+     */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /**
+     * Maximum bookings written per database transaction.
+     */
+    private int flushBatchSize = 500;
+
+    /**
+     * How long a database write path waits to take a calendar over from the engine.
+     */
+    private Duration claimTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,161 @@
+package com.challenge.minidoodle.engine;
+
+import com.challenge.minidoodle.domain.EngineCheckpoint;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.service.OccupancyService;
+import com.challenge.minidoodle.service.SlotUsage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access for the scheduling engine: loading calendar state and writing journal entries in batches.
+ * Bypasses the persistence context on purpose, so nothing here is cached or dirty-checked.
+ */
+@Repository
+@RequiredArgsConstructor
+class EngineStore {
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final OccupancyService occupancyService;
+
+    Optional<CalendarState> loadCalendar(long calendarId) {
+        List<Long> owners = jdbc.queryForList("SELECT user_id FROM calendars WHERE id = :calendarId",
+                Map.of("calendarId", calendarId), Long.class);
+        if (owners.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<Long, SlotState> slots = new HashMap<>();
+        jdbc.query("SELECT ts.id, ts.start_time, ts.end_time, ts.status, m.id AS meeting_id " +
+                        "FROM time_slots ts LEFT JOIN meetings m ON m.time_slot_id = ts.id " +
+                        "WHERE ts.calendar_id = :calendarId",
+                Map.of("calendarId", calendarId),
+                row -> {
+                    long meetingId = row.getLong("meeting_id");
+                    SlotState slot = new SlotState(row.getLong("id"),
+                            row.getTimestamp("start_time").toInstant(),
+                            row.getTimestamp("end_time").toInstant(),
+                            TimeSlotStatus.valueOf(row.getString("status")),
+                            row.wasNull() ? null : meetingId);
+                    slots.put(slot.id, slot);
+                });
+        return Optional.of(new CalendarState(calendarId, owners.get(0), slots));
+    }
+
+    Optional<Long> findCalendarIdBySlotId(long timeSlotId) {
+        return single("SELECT calendar_id FROM time_slots WHERE id = :id", timeSlotId);
+    }
+
+    Optional<Long> findCalendarIdByMeetingId(long meetingId) {
+        return single("SELECT ts.calendar_id FROM meetings m JOIN time_slots ts ON ts.id = m.time_slot_id " +
+                "WHERE m.id = :id", meetingId);
+    }
+
+    Optional<Long> findCalendarIdByUserId(long userId) {
+        return single("SELECT id FROM calendars WHERE user_id = :id", userId);
+    }
+
+    /**
+     * Loads id, email and name of the given users as detached {@link User} instances.
+     */
+    List<User> findUsers(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbc.query("SELECT id, email, first_name, last_name FROM users WHERE id IN (:ids) AND deleted_at IS NULL",
+                Map.of("ids", ids),
+                (row, rowNum) -> {
+                    User user = new User(row.getString("email"), row.getString("first_name"), row.getString("last_name"));
+                    user.setId(row.getLong("id"));
+                    return user;
+                });
+    }
+
+    long readCheckpoint() {
+        List<Long> sequences = jdbc.queryForList("SELECT last_sequence FROM engine_checkpoint WHERE id = :id",
+                Map.of("id", EngineCheckpoint.SINGLETON_ID), Long.class);
+        return sequences.isEmpty() ? 0 : sequences.get(0);
+    }
+
+    /**
+     * Writes the meetings, slot status, participants and agenda rows of {@code entries} and advances the
+     * checkpoint to the last entry. Must run inside a transaction.
+     *
+     * @throws DataIntegrityViolationException if a slot is no longer available or a referenced row is gone
+     */
+    void write(List<JournalEntry> entries) {
+        List<SqlParameterSource> slots = new ArrayList<>(entries.size());
+        List<SqlParameterSource> meetings = new ArrayList<>(entries.size());
+        List<SqlParameterSource> participants = new ArrayList<>();
+        List<SqlParameterSource> agenda = new ArrayList<>();
+        for (JournalEntry entry : entries) {
+            slots.add(new MapSqlParameterSource("id", entry.timeSlotId()));
+            meetings.add(new MapSqlParameterSource()
+                    .addValue("id", entry.meetingId())
+                    .addValue("title", entry.title())
+                    .addValue("description", entry.description())
+                    .addValue("timeSlotId", entry.timeSlotId())
+                    .addValue("organizerId", entry.organizerId())
+                    .addValue("createdAt", Timestamp.from(entry.createdAt())));
+            agenda.add(agendaRow(entry, entry.organizerId(), "ORGANIZER"));
+            for (Long participantId : entry.participantIds()) {
+                participants.add(new MapSqlParameterSource()
+                        .addValue("meetingId", entry.meetingId())
+                        .addValue("userId", participantId));
+                agenda.add(agendaRow(entry, participantId, "PARTICIPANT"));
+            }
+        }
+
+        int[] updated = jdbc.batchUpdate("UPDATE time_slots SET status = 'BUSY' " +
+                "WHERE id = :id AND status = 'AVAILABLE'", slots.toArray(SqlParameterSource[]::new));
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new DataIntegrityViolationException(
+                        "Time slot " + entries.get(i).timeSlotId() + " is no longer available");
+            }
+        }
+        entries.forEach(entry -> occupancyService.record(
+                new SlotUsage(entry.calendarId(), entry.startTime(), entry.endTime(), TimeSlotStatus.AVAILABLE, false),
+                new SlotUsage(entry.calendarId(), entry.startTime(), entry.endTime(), TimeSlotStatus.BUSY, true)));
+        jdbc.batchUpdate("INSERT INTO meetings (id, title, description, time_slot_id, organizer_id, created_at) " +
+                "VALUES (:id, :title, :description, :timeSlotId, :organizerId, :createdAt)",
+                meetings.toArray(SqlParameterSource[]::new));
+        if (!participants.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO meeting_participants (meeting_id, user_id) VALUES (:meetingId, :userId)",
+                    participants.toArray(SqlParameterSource[]::new));
+        }
+        jdbc.batchUpdate("INSERT INTO user_agenda (user_id, meeting_id, start_time, end_time, role) " +
+                "VALUES (:userId, :meetingId, :startTime, :endTime, :role) ON CONFLICT DO NOTHING",
+                agenda.toArray(SqlParameterSource[]::new));
+        jdbc.update("INSERT INTO engine_checkpoint (id, last_sequence) VALUES (:id, :sequence) " +
+                        "ON CONFLICT (id) DO UPDATE SET last_sequence = EXCLUDED.last_sequence",
+                new MapSqlParameterSource()
+                        .addValue("id", EngineCheckpoint.SINGLETON_ID)
+                        .addValue("sequence", entries.get(entries.size() - 1).sequence()));
+    }
+
+    private static SqlParameterSource agendaRow(JournalEntry entry, long userId, String role) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("meetingId", entry.meetingId())
+                .addValue("startTime", Timestamp.from(entry.startTime()))
+                .addValue("endTime", Timestamp.from(entry.endTime()))
+                .addValue("role", role);
+    }
+
+    private Optional<Long> single(String sql, long id) {
+        return jdbc.queryForList(sql, Map.of("id", id), Long.class).stream().findFirst();
+    }
+}
@@ -0,0 +1,13 @@
+package com.challenge.minidoodle.engine;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * One booking decided by the engine: everything needed to write the meeting, its participants, the slot status
+ * and the agenda rows without reading anything back.
+ */
+record JournalEntry(long sequence, long meetingId, long timeSlotId, long calendarId, long organizerId,
+                    String title, String description, Set<Long> participantIds, Instant startTime,
+                    Instant endTime, Instant createdAt) {
+}
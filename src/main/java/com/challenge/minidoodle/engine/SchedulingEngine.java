@@ -0,0 +1,401 @@
+package com.challenge.minidoodle.engine;
+
+import com.challenge.minidoodle.coherence.Invalidation;
+import com.challenge.minidoodle.coherence.InvalidationHandler;
+import com.challenge.minidoodle.domain.Meeting;
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.exception.ConflictException;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.NotFoundException;
+import com.challenge.minidoodle.exception.UnavailableException;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.sharding.EntityIds;
+import com.challenge.minidoodle.sharding.ShardingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory booking engine. While enabled, each calendar touched by a booking is loaded once and its
+ * slot state is kept in memory as the source of truth, guarded by one lock per calendar (a single writer per
+ * calendar, any number of calendars in parallel). A booking is decided against that state, appended to the
+ * {@link BookingJournal} and acknowledged; the {@link WriteBehindFlusher} writes it to the database shortly after.
+ * On startup, journal entries past the database checkpoint are written before the engine serves bookings.
+ * <p>
+ * Every other write path that touches a calendar's slots or meetings first {@linkplain #claimCalendar claims} it:
+ * pending bookings are flushed, the calendar's lock is held until the caller's transaction completes, and the
+ * in-memory state is dropped so that the next booking reloads it from the database.
+ */
+@Slf4j
+@Component
+public class SchedulingEngine implements SmartInitializingSingleton, DisposableBean, InvalidationHandler {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final EngineProperties properties;
+    private final EngineStore store;
+    private final EntityIds entityIds;
+    private final BookingJournal journal;
+    private final WriteBehindFlusher flusher;
+    private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final Map<Long, CalendarState> calendars = new ConcurrentHashMap<>();
+    private final Map<Long, Long> calendarBySlot = new ConcurrentHashMap<>();
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<Long, PendingBooking> pending = new ConcurrentHashMap<>();
+    private final Counter rejected;
+
+    public SchedulingEngine(EngineProperties properties, ShardingProperties shardingProperties, EngineStore store,
+                            EntityIds entityIds, JsonMapper jsonMapper, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.entityIds = entityIds;
+        this.rejected = Counter.builder("minidoodle.engine.bookings.rejected")
+                .description("Bookings acknowledged by the engine that the database refused")
+                .register(meterRegistry);
+        if (!properties.isEnabled()) {
+            this.journal = null;
+            this.flusher = null;
+            return;
+        }
+        if (shardingProperties.isEnabled()) {
+            throw new IllegalStateException("minidoodle.engine.enabled cannot be combined with minidoodle.sharding.enabled");
+        }
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flusher = new WriteBehindFlusher(store, newTransaction, properties.getFlushBatchSize(),
+                this::committed, this::rejected);
+        this.journal = new BookingJournal(Path.of(properties.getJournalDirectory()), jsonMapper,
+                properties.isJournalSync(), flusher::enqueue);
+        Gauge.builder("minidoodle.engine.bookings.pending", flusher, WriteBehindFlusher::pending)
+                .description("Bookings acknowledged but not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Replays journal entries the database has not seen yet, then starts the write-behind loop.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!isEnabled()) {
+            return;
+        }
+        long checkpoint = store.readCheckpoint();
+        List<JournalEntry> replay = journal.readAll().stream()
+                .filter(entry -> entry.sequence() > checkpoint)
+                .toList();
+        journal.startAfter(checkpoint);
+        replay.forEach(flusher::enqueue);
+        if (!replay.isEmpty()) {
+            log.info("Replaying {} journaled bookings after checkpoint {}", replay.size(), checkpoint);
+            awaitFlush();
+        }
+        journal.truncateIfCommitted(checkpoint);
+        flusher.start(properties.getFlushInterval());
+    }
+
+    /**
+     * Books an existing AVAILABLE slot without touching the database on the hot path. Validation and error
+     * messages match {@code MeetingService#createMeeting}. The returned meeting is not managed by JPA.
+     */
+    public Meeting book(Long timeSlotId, Long organizerId, String title, String description, Set<Long> participantIds) {
+        long calendarId = Optional.ofNullable(calendarBySlot.get(timeSlotId))
+                .or(() -> store.findCalendarIdBySlotId(timeSlotId))
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TIME_SLOT_NOT_FOUND, timeSlotId));
+        ReentrantLock lock = lockFor(calendarId);
+        lock.lock();
+        try {
+            CalendarState calendar = loadedCalendar(calendarId);
+            SlotState slot = calendar.slots().get(timeSlotId);
+            if (slot == null) {
+                throw new NotFoundException(ErrorCode.TIME_SLOT_NOT_FOUND, timeSlotId);
+            }
+            if (slot.status != TimeSlotStatus.AVAILABLE) {
+                throw new ConflictException(ErrorCode.SLOT_NOT_AVAILABLE, slot.status);
+            }
+            if (slot.meetingId != null) {
+                throw new ConflictException(ErrorCode.SLOT_ALREADY_BOOKED, slot.meetingId);
+            }
+
+            Set<Long> userIds = new LinkedHashSet<>();
+            userIds.add(organizerId);
+            if (participantIds != null) {
+                userIds.addAll(participantIds);
+            }
+            userIds.remove(null);
+            Map<Long, User> known = users(userIds);
+            User organizer = Optional.ofNullable(known.get(organizerId))
+                    .orElseThrow(() -> new NotFoundException(ErrorCode.ORGANIZER_NOT_FOUND, organizerId));
+            if (calendar.ownerId() != organizer.getId()) {
+                throw new ValidationException(ErrorCode.NOT_SLOT_OWNER);
+            }
+            Set<User> participants = new HashSet<>();
+            for (Long participantId : userIds) {
+                if (!participantId.equals(organizerId)) {
+                    participants.add(Optional.ofNullable(known.get(participantId))
+                            .orElseThrow(() -> new NotFoundException(ErrorCode.PARTICIPANT_NOT_FOUND, participantId)));
+                }
+            }
+
+            long meetingId = entityIds.next("meetings");
+            Meeting meeting = toMeeting(meetingId, title, description, slot, organizer, participants);
+            Set<Long> participantUserIds = participants.stream().map(User::getId).collect(Collectors.toSet());
+            try {
+                // Registered before the flusher can see the entry, so its commit always finds it
+                journal.append(sequence -> {
+                    JournalEntry entry = new JournalEntry(sequence, meetingId, timeSlotId, calendarId, organizerId,
+                            title, description, participantUserIds, slot.startTime, slot.endTime,
+                            meeting.getCreatedAt());
+                    pending.put(meetingId, new PendingBooking(entry, meeting));
+                    return entry;
+                });
+            } catch (RuntimeException e) {
+                pending.remove(meetingId);
+                throw e;
+            }
+            slot.book(meetingId);
+            return meeting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A booking acknowledged by the engine that is not in the database yet.
+     */
+    public Optional<Meeting> findPendingMeeting(Long meetingId) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(pending.get(meetingId)).map(PendingBooking::meeting);
+    }
+
+    /**
+     * Takes a calendar away from the engine for the rest of the current transaction. A no-op when the engine is
+     * disabled or the calendar is already claimed by this thread.
+     *
+     * @throws UnavailableException if pending bookings cannot be written or the calendar stays busy past
+     *                              {@code minidoodle.engine.claim-timeout}; answered with 503 and Retry-After
+     */
+    public void claimCalendar(Long calendarId) {
+        if (!isEnabled() || calendarId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Claiming a calendar from the scheduling engine requires a transaction");
+        }
+        ReentrantLock lock = lockFor(calendarId);
+        if (lock.isHeldByCurrentThread()) {
+            return;
+        }
+        try {
+            if (!lock.tryLock(properties.getClaimTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new UnavailableException(ErrorCode.CALENDAR_BUSY, calendarId, RETRY_AFTER);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnavailableException(ErrorCode.CALENDAR_BUSY, calendarId, RETRY_AFTER);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                calendars.remove(calendarId);
+                lock.unlock();
+            }
+        });
+        if (flusher.pending() > 0) {
+            awaitFlush();
+        }
+    }
+
+    public void claimSlot(Long timeSlotId) {
+        if (isEnabled() && timeSlotId != null) {
+            Optional.ofNullable(calendarBySlot.get(timeSlotId))
+                    .or(() -> store.findCalendarIdBySlotId(timeSlotId))
+                    .ifPresent(this::claimCalendar);
+        }
+    }
+
+    public void claimMeeting(Long meetingId) {
+        if (isEnabled() && meetingId != null) {
+            Optional.ofNullable(pending.get(meetingId))
+                    .map(booking -> booking.entry().calendarId())
+                    .or(() -> store.findCalendarIdByMeetingId(meetingId))
+                    .ifPresent(this::claimCalendar);
+        }
+    }
+
+    public void claimUser(Long userId) {
+        if (isEnabled() && userId != null) {
+            store.findCalendarIdByUserId(userId).ifPresent(this::claimCalendar);
+        }
+    }
+
+    /**
+     * Forgets the cached name and email of a user after they change.
+     */
+    public void evictUser(Long userId) {
+        users.remove(userId);
+    }
+
+    /**
+     * Drops state another instance changed: a user's cached name and email, or a calendar's slot state (also
+     * when only one of its slots is named), taken under the calendar's lock so no booking is decided halfway.
+     */
+    @Override
+    public void evict(Invalidation invalidation) {
+        switch (invalidation.type()) {
+            case USER -> users.remove(invalidation.id());
+            case CALENDAR -> evictCalendar(invalidation.id());
+            case TIME_SLOT -> Optional.ofNullable(calendarBySlot.get(invalidation.id())).ifPresent(this::evictCalendar);
+            case MEETING -> {
+                // the booked slot is invalidated alongside
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        users.clear();
+        List.copyOf(calendars.keySet()).forEach(this::evictCalendar);
+    }
+
+    private void evictCalendar(long calendarId) {
+        if (!calendars.containsKey(calendarId)) {
+            return;
+        }
+        ReentrantLock lock = lockFor(calendarId);
+        lock.lock();
+        try {
+            calendars.remove(calendarId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (isEnabled()) {
+            flusher.stop(properties.getClaimTimeout());
+            journal.close();
+        }
+    }
+
+    private ReentrantLock lockFor(long calendarId) {
+        return locks.computeIfAbsent(calendarId, id -> new ReentrantLock());
+    }
+
+    /**
+     * Returns the calendar's in-memory state, loading it if needed. Bookings still waiting for the flusher are
+     * applied on top of what the database returns; they are read before the database so that a booking committed
+     * in between is seen by one or the other.
+     */
+    private CalendarState loadedCalendar(long calendarId) {
+        CalendarState calendar = calendars.get(calendarId);
+        if (calendar != null) {
+            return calendar;
+        }
+        List<JournalEntry> unwritten = pending.values().stream()
+                .map(PendingBooking::entry)
+                .filter(entry -> entry.calendarId() == calendarId)
+                .toList();
+        CalendarState loaded = store.loadCalendar(calendarId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.CALENDAR_NOT_FOUND, calendarId));
+        for (JournalEntry entry : unwritten) {
+            SlotState slot = loaded.slots().get(entry.timeSlotId());
+            if (slot != null) {
+                slot.book(entry.meetingId());
+            }
+        }
+        loaded.slots().keySet().forEach(slotId -> calendarBySlot.put(slotId, calendarId));
+        calendars.put(calendarId, loaded);
+        return loaded;
+    }
+
+    private Map<Long, User> users(Set<Long> ids) {
+        Set<Long> missing = ids.stream().filter(id -> !users.containsKey(id)).collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            store.findUsers(missing).forEach(user -> users.put(user.getId(), user));
+        }
+        return ids.stream()
+                .filter(users::containsKey)
+                .collect(Collectors.toMap(Function.identity(), users::get));
+    }
+
+    private static Meeting toMeeting(long meetingId, String title, String description, SlotState slot,
+                                     User organizer, Set<User> participants) {
+        TimeSlot timeSlot = new TimeSlot();
+        timeSlot.setId(slot.id);
+        timeSlot.setStartTime(slot.startTime);
+        timeSlot.setEndTime(slot.endTime);
+        timeSlot.setStatus(TimeSlotStatus.BUSY);
+        Meeting meeting = new Meeting(title, description, timeSlot, organizer);
+        meeting.setId(meetingId);
+        meeting.setCreatedAt(Instant.now());
+        meeting.setParticipants(participants);
+        timeSlot.setMeeting(meeting);
+        return meeting;
+    }
+
+    private void awaitFlush() {
+        try {
+            flusher.flushNow().get(properties.getClaimTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnavailableException(ErrorCode.BOOKINGS_NOT_WRITTEN, null, RETRY_AFTER);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("{} pending bookings could not be written to the database", flusher.pending(),
+                    e instanceof ExecutionException ? e.getCause() : e);
+            throw new UnavailableException(ErrorCode.BOOKINGS_NOT_WRITTEN, null, RETRY_AFTER);
+        }
+    }
+
+    private void committed(List<JournalEntry> entries) {
+        entries.forEach(entry -> pending.remove(entry.meetingId()));
+        journal.truncateIfCommitted(entries.get(entries.size() - 1).sequence());
+    }
+
+    private void rejected(JournalEntry entry) {
+        rejected.increment();
+        pending.remove(entry.meetingId());
+        calendars.remove(entry.calendarId());
+        journal.truncateIfCommitted(entry.sequence());
+    }
+
+    private record PendingBooking(JournalEntry entry, Meeting meeting) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.challenge.minidoodle.engine;
+
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+
+import java.time.Instant;
+
+/**
+ * In-memory copy of one time slot; only touched while holding its calendar's lock.
+ */
+class SlotState {
+
+    final long id;
+    final Instant startTime;
+    final Instant endTime;
+    TimeSlotStatus status;
+    Long meetingId;
+
+    SlotState(long id, Instant startTime, Instant endTime, TimeSlotStatus status, Long meetingId) {
+        this.id = id;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.status = status;
+        this.meetingId = meetingId;
+    }
+
+    void book(long meetingId) {
+        this.status = TimeSlotStatus.BUSY;
+        this.meetingId = meetingId;
+    }
+}
@@ -0,0 +1,117 @@
+package com.challenge.minidoodle.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Writes journal entries to the database on a single background thread, in journal order and in batches of
+ * up to {@code batchSize} per transaction. A batch that violates a constraint is retried entry by entry so that
+ * only the offending bookings are rejected; any other failure leaves the queue untouched for the next run.
+ */
+@Slf4j
+class WriteBehindFlusher {
+
+    private final EngineStore store;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Consumer<List<JournalEntry>> onCommitted;
+    private final Consumer<JournalEntry> onRejected;
+    private final ConcurrentLinkedQueue<JournalEntry> queue = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "engine-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    WriteBehindFlusher(EngineStore store, TransactionTemplate transactionTemplate, int batchSize,
+                       Consumer<List<JournalEntry>> onCommitted, Consumer<JournalEntry> onRejected) {
+        this.store = store;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.onCommitted = onCommitted;
+        this.onRejected = onRejected;
+    }
+
+    void start(Duration interval) {
+        executor.scheduleWithFixedDelay(this::drainQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void enqueue(JournalEntry entry) {
+        queue.add(entry);
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Drains the queue on the flusher thread and completes once everything queued so far is committed, or
+     * exceptionally if the database is unavailable.
+     */
+    CompletableFuture<Void> flushNow() {
+        return CompletableFuture.runAsync(this::drain, executor);
+    }
+
+    void stop(Duration timeout) {
+        try {
+            flushNow().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("{} bookings were not written before shutdown; they will be replayed from the journal on startup",
+                    queue.size());
+        }
+        executor.shutdownNow();
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush failed, {} bookings pending: {}", queue.size(), e.getMessage());
+        }
+    }
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            List<JournalEntry> batch = new ArrayList<>(batchSize);
+            for (JournalEntry entry : queue) {
+                batch.add(entry);
+                if (batch.size() == batchSize) {
+                    break;
+                }
+            }
+            try {
+                write(batch);
+            } catch (DataIntegrityViolationException e) {
+                batch.forEach(this::writeAlone);
+            }
+        }
+    }
+
+    private void writeAlone(JournalEntry entry) {
+        try {
+            write(List.of(entry));
+        } catch (DataIntegrityViolationException e) {
+            queue.remove();
+            log.error("Rejected booking of time slot {} as meeting {}: {}",
+                    entry.timeSlotId(), entry.meetingId(), e.getMostSpecificCause().getMessage());
+            onRejected.accept(entry);
+        }
+    }
+
+    private void write(List<JournalEntry> batch) {
+        transactionTemplate.executeWithoutResult(status -> store.write(batch));
+        batch.forEach(entry -> queue.remove());
+        onCommitted.accept(batch);
+    }
+}
@@ -0,0 +1,15 @@
+package com.challenge.minidoodle.exception;
+
+/**
+ * The request is valid but clashes with the current state of a slot, meeting or user; answered with 409.
+ */
+public class ConflictException extends DomainException {
+
+    public ConflictException(ErrorCode code) {
+        super(code, null);
+    }
+
+    public ConflictException(ErrorCode code, Object detail) {
+        super(code, detail);
+    }
+}
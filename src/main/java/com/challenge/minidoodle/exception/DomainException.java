@@ -0,0 +1,27 @@
+package com.challenge.minidoodle.exception;
+
+import lombok.Getter;
+
+/**
+ * Expected rejection of a request, identified by an {@link ErrorCode}. These are control flow rather than faults,
+ * so no stack trace is captured and the message is assembled only when read: raising one costs an allocation.
+ */
+@Getter
+public abstract class DomainException extends RuntimeException {
+
+    private final ErrorCode code;
+
+    /** Appended to the code's message when present, e.g. the id that was not found. */
+    private final Object detail;
+
+    protected DomainException(ErrorCode code, Object detail) {
+        super(null, null, false, false);
+        this.code = code;
+        this.detail = detail;
+    }
+
+    @Override
+    public String getMessage() {
+        return detail == null ? code.getMessage() : code.getMessage() + detail;
+    }
+}
@@ -0,0 +1,85 @@
+package com.challenge.minidoodle.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.util.Locale;
+
+/**
+ * Stable, machine-readable reason for a rejected request. Each code carries its HTTP status and the fixed part of
+ * its message, so raising one costs no formatting; the problem type URI and title are computed once per code.
+ */
+@Getter
+public enum ErrorCode {
+
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, "User not found with id: "),
+    CALENDAR_NOT_FOUND(HttpStatus.NOT_FOUND, "Calendar not found with id: "),
+    TIME_SLOT_NOT_FOUND(HttpStatus.NOT_FOUND, "Time slot not found with id: "),
+    MEETING_NOT_FOUND(HttpStatus.NOT_FOUND, "Meeting not found with id: "),
+    ORGANIZER_NOT_FOUND(HttpStatus.NOT_FOUND, "Organizer not found with id: "),
+    PARTICIPANT_NOT_FOUND(HttpStatus.NOT_FOUND, "Participant not found with id: "),
+    AVAILABILITY_RULE_NOT_FOUND(HttpStatus.NOT_FOUND, "Availability rule not found with id: "),
+    AVAILABILITY_BLOCK_NOT_FOUND(HttpStatus.NOT_FOUND, "Availability block not found with id: "),
+    JOB_NOT_FOUND(HttpStatus.NOT_FOUND, "Job not found with id: "),
+
+    SLOT_NOT_AVAILABLE(HttpStatus.CONFLICT, "Time slot is not available for booking. Current status: "),
+    SLOT_ALREADY_BOOKED(HttpStatus.CONFLICT, "Time slot already has a meeting scheduled with ID: "),
+    SLOT_OVERLAP(HttpStatus.CONFLICT, "Time slot overlaps with an existing slot"),
+    SLOT_HAS_MEETING(HttpStatus.CONFLICT, "Cannot mark slot as available when it has a meeting scheduled"),
+    SLOT_DELETE_HAS_MEETING(HttpStatus.CONFLICT, "Cannot delete slot with a scheduled meeting. Cancel the meeting first."),
+    OUTSIDE_AVAILABILITY(HttpStatus.CONFLICT, "Requested time is not covered by the organizer's availability rules"),
+    BLOCKED_PERIOD(HttpStatus.CONFLICT, "Requested time falls inside a blocked period"),
+    EMAIL_IN_USE(HttpStatus.CONFLICT, "Email is already in use: "),
+
+    CALENDAR_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "Calendar is busy, try again: "),
+    BOOKINGS_NOT_WRITTEN(HttpStatus.SERVICE_UNAVAILABLE, "Pending bookings could not be written to the database"),
+
+    TIME_RANGE_REQUIRED(HttpStatus.BAD_REQUEST, "Start time and end time are required"),
+    INVALID_TIME_RANGE(HttpStatus.BAD_REQUEST, "Start time must be before end time"),
+    INVALID_DATE_RANGE(HttpStatus.BAD_REQUEST, "From date must be before to date"),
+    WINDOW_TOO_WIDE(HttpStatus.BAD_REQUEST, "Time range must not exceed "),
+    BOOKING_TARGET_REQUIRED(HttpStatus.BAD_REQUEST, "Either timeSlotId or startTime and endTime must be provided"),
+    RULE_HOURS_REQUIRED(HttpStatus.BAD_REQUEST, "Day of week, start time and end time are required"),
+    INVALID_SLOT_LENGTH(HttpStatus.BAD_REQUEST, "Slot length must be positive and fit inside the rule's hours"),
+    INVALID_VALIDITY_RANGE(HttpStatus.BAD_REQUEST, "validUntil must not be before validFrom"),
+    UNKNOWN_TIME_ZONE(HttpStatus.BAD_REQUEST, "Unknown time zone: "),
+    IDS_REQUIRED(HttpStatus.BAD_REQUEST, "At least one id must be requested"),
+    BATCH_TOO_LARGE(HttpStatus.BAD_REQUEST, "Too many ids requested at once; the maximum is "),
+    INVALID_PAGE_SIZE(HttpStatus.BAD_REQUEST, "Limit must be between 1 and "),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "Invalid page cursor: "),
+    FIELDS_REQUIRED(HttpStatus.BAD_REQUEST, "At least one field must be requested"),
+    UNKNOWN_FIELD(HttpStatus.BAD_REQUEST, "Unknown field: "),
+    UNSUPPORTED_INCLUDE(HttpStatus.BAD_REQUEST, "Unsupported include: "),
+    JOB_TYPE_REQUIRED(HttpStatus.BAD_REQUEST, "Job type is required"),
+    UNSUPPORTED_JOB_TYPE(HttpStatus.BAD_REQUEST, "Unsupported job type: "),
+    INVALID_JOB_PARAMETERS(HttpStatus.BAD_REQUEST, "Invalid job parameters: "),
+    INVALID_SLOT_MINUTES(HttpStatus.BAD_REQUEST, "slotMinutes must be positive"),
+    USER_LIST_REQUIRED(HttpStatus.BAD_REQUEST, "Expected a JSON array of users"),
+    MALFORMED_USER_LIST(HttpStatus.BAD_REQUEST, "Malformed user list: "),
+    TIME_IN_PAST(HttpStatus.BAD_REQUEST, "Cannot create time slot in the past"),
+    OUTSIDE_SLOT(HttpStatus.BAD_REQUEST, "Requested time is outside the time slot"),
+    NOT_SLOT_OWNER(HttpStatus.BAD_REQUEST, "Organizer does not own this time slot"),
+    ORGANIZER_AS_PARTICIPANT(HttpStatus.BAD_REQUEST, "Organizer cannot be added as a participant");
+
+    private static final String TYPE_PREFIX = "urn:minidoodle:error:";
+
+    private final HttpStatus status;
+
+    /** Complete message, or its prefix when the exception carries a detail such as an id. */
+    private final String message;
+
+    /** RFC 7807 problem type, e.g. {@code urn:minidoodle:error:time-slot-not-found}. */
+    private final URI type;
+
+    /** Human-readable summary of the code, the same for every occurrence. */
+    private final String title;
+
+    ErrorCode(HttpStatus status, String message) {
+        String slug = name().toLowerCase(Locale.ROOT);
+        this.status = status;
+        this.message = message;
+        this.type = URI.create(TYPE_PREFIX + slug.replace('_', '-'));
+        this.title = Character.toUpperCase(slug.charAt(0)) + slug.substring(1).replace('_', ' ');
+    }
+}
@@ -1,45 +1,102 @@
 package com.challenge.minidoodle.exception;
 
+import com.challenge.minidoodle.admission.AdmissionRejectedException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.sql.SQLException;
 
+/**
+ * Answers every failure with an RFC 7807 {@link ProblemDetail}. Domain rejections carry their {@link ErrorCode}
+ * as {@code type}, {@code title} and a {@code code} property; other failures only have the status as title.
+ */
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ProblemDetail> handleDomainException(DomainException ex) {
+        return problem(ex.getCode(), ex.getMessage());
+    }
+
+    @ExceptionHandler(UnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleUnavailable(UnavailableException ex) {
+        ResponseEntity<ProblemDetail> response = problem(ex.getCode(), ex.getMessage());
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
-    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException ex) {
-        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    public ResponseEntity<ProblemDetail> handleIllegalArgumentException(IllegalArgumentException ex) {
+        return problem(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
-    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+    public ResponseEntity<ProblemDetail> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (isExclusionViolation(ex)) {
+            return problem(ErrorCode.SLOT_OVERLAP, ErrorCode.SLOT_OVERLAP.getMessage());
+        }
         String message = "Data integrity violation. The resource may already exist or a constraint was violated.";
-
         if (ex.getMessage() != null && ex.getMessage().contains("time_slot_id")) {
             message = "A meeting already exists for this time slot.";
         }
+        return problem(HttpStatus.CONFLICT, message);
+    }
 
-        return buildErrorResponse(HttpStatus.CONFLICT, message);
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ProblemDetail> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return problem(ex.getStatus(), ex.getMessage());
+    }
+
+    @ExceptionHandler(ParticipantConflictException.class)
+    public ResponseEntity<ProblemDetail> handleParticipantConflict(ParticipantConflictException ex) {
+        ResponseEntity<ProblemDetail> response = problem(HttpStatus.CONFLICT, ex.getMessage());
+        response.getBody().setProperty("conflicts", ex.getConflicts());
+        return response;
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleAdmissionRejected(AdmissionRejectedException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(ProblemDetail.forStatusAndDetail(ex.getStatus(), ex.getMessage()));
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
-        return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred: " + ex.getMessage());
+    public ResponseEntity<ProblemDetail> handleGenericException(Exception ex) {
+        // the message may carry SQL, ids or other internals; it is logged, not returned
+        log.error("Unhandled exception", ex);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+    }
+
+    private static boolean isExclusionViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<ProblemDetail> problem(ErrorCode code, String detail) {
+        ProblemDetail body = ProblemDetail.forStatusAndDetail(code.getStatus(), detail);
+        body.setType(code.getType());
+        body.setTitle(code.getTitle());
+        body.setProperty("code", code.name());
+        return ResponseEntity.status(code.getStatus()).body(body);
     }
 
-    private ResponseEntity<Map<String, Object>> buildErrorResponse(HttpStatus status, String message) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", Instant.now());
-        body.put("status", status.value());
-        body.put("error", status.getReasonPhrase());
-        body.put("message", message);
-        return ResponseEntity.status(status).body(body);
+    private static ResponseEntity<ProblemDetail> problem(HttpStatusCode status, String detail) {
+        return ResponseEntity.status(status).body(ProblemDetail.forStatusAndDetail(status, detail));
     }
 }
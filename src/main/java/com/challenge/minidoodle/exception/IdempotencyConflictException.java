@@ -0,0 +1,19 @@
+package com.challenge.minidoodle.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Raised when an {@code Idempotency-Key} cannot be honoured: the original request is still running (409)
+ * or the key was already used for a different request (422).
+ */
+@Getter
+public class IdempotencyConflictException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public IdempotencyConflictException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
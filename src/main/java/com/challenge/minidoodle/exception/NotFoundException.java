@@ -0,0 +1,15 @@
+package com.challenge.minidoodle.exception;
+
+/**
+ * The requested entity does not exist; answered with 404.
+ */
+public class NotFoundException extends DomainException {
+
+    public NotFoundException(ErrorCode code) {
+        super(code, null);
+    }
+
+    public NotFoundException(ErrorCode code, Object detail) {
+        super(code, detail);
+    }
+}
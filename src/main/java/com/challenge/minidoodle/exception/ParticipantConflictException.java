@@ -0,0 +1,21 @@
+package com.challenge.minidoodle.exception;
+
+import com.challenge.minidoodle.dto.ParticipantConflict;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Raised in strict conflict mode when the organizer or a participant of a booking already has an
+ * overlapping meeting; answered with 409 and the overlaps per user.
+ */
+@Getter
+public class ParticipantConflictException extends RuntimeException {
+
+    private final List<ParticipantConflict> conflicts;
+
+    public ParticipantConflictException(List<ParticipantConflict> conflicts) {
+        super(conflicts.size() + " user(s) already have a meeting at this time");
+        this.conflicts = conflicts;
+    }
+}
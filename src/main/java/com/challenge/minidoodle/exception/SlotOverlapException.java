@@ -0,0 +1,12 @@
+package com.challenge.minidoodle.exception;
+
+/**
+ * A time slot would overlap another slot of the same calendar; answered with 409. Raised directly where the
+ * overlap is known up front, and by {@link GlobalExceptionHandler} for the database's exclusion constraint.
+ */
+public class SlotOverlapException extends ConflictException {
+
+    public SlotOverlapException() {
+        super(ErrorCode.SLOT_OVERLAP);
+    }
+}
@@ -0,0 +1,19 @@
+package com.challenge.minidoodle.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * The request is valid but cannot be served right now; answered with 503 and a {@code Retry-After} header.
+ */
+@Getter
+public class UnavailableException extends DomainException {
+
+    private final Duration retryAfter;
+
+    public UnavailableException(ErrorCode code, Object detail, Duration retryAfter) {
+        super(code, detail);
+        this.retryAfter = retryAfter;
+    }
+}
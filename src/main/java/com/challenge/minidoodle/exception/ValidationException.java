@@ -0,0 +1,15 @@
+package com.challenge.minidoodle.exception;
+
+/**
+ * The request itself is malformed or inconsistent; answered with 400.
+ */
+public class ValidationException extends DomainException {
+
+    public ValidationException(ErrorCode code) {
+        super(code, null);
+    }
+
+    public ValidationException(ErrorCode code, Object detail) {
+        super(code, detail);
+    }
+}
@@ -0,0 +1,64 @@
+package com.challenge.minidoodle.job;
+
+import com.challenge.minidoodle.domain.JobType;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.MeetingRepository;
+import com.challenge.minidoodle.service.MeetingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Cancels every meeting inside [{@code start}, {@code end}), only those of {@code organizerId} when given,
+ * freeing their slots.
+ */
+@Component
+@RequiredArgsConstructor
+class CancelMeetingsJob implements JobHandler<CancelMeetingsJob.Parameters> {
+
+    record Parameters(Instant start, Instant end, Long organizerId) {
+    }
+
+    private final MeetingRepository meetingRepository;
+    private final MeetingService meetingService;
+
+    @Override
+    public JobType type() {
+        return JobType.CANCEL_MEETINGS;
+    }
+
+    @Override
+    public Class<Parameters> parametersType() {
+        return Parameters.class;
+    }
+
+    @Override
+    public void validate(Parameters parameters) {
+        if (parameters.start() == null || parameters.end() == null) {
+            throw new ValidationException(ErrorCode.TIME_RANGE_REQUIRED);
+        }
+        if (!parameters.start().isBefore(parameters.end())) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+    }
+
+    @Override
+    public long count(Parameters parameters) {
+        return meetingRepository.countByTimeRange(parameters.start(), parameters.end(), parameters.organizerId());
+    }
+
+    @Override
+    public List<Long> nextIds(Parameters parameters, long afterId, int limit) {
+        return meetingRepository.findIdsByTimeRangeAfter(
+                parameters.start(), parameters.end(), parameters.organizerId(), afterId, Limit.of(limit));
+    }
+
+    @Override
+    public void process(Parameters parameters, List<Long> ids) {
+        ids.forEach(meetingService::cancelMeeting);
+    }
+}
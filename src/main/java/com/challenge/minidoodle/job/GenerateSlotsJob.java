@@ -0,0 +1,103 @@
+package com.challenge.minidoodle.job;
+
+import com.challenge.minidoodle.domain.JobType;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.service.TimeSlotService;
+import com.challenge.minidoodle.sharding.ShardContext;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Creates back-to-back AVAILABLE slots of {@code slotMinutes} over [{@code start}, {@code end}) for the listed
+ * users, or for every user when {@code userIds} is empty.
+ */
+@Component
+@RequiredArgsConstructor
+class GenerateSlotsJob implements JobHandler<GenerateSlotsJob.Parameters> {
+
+    static final int MAX_USER_IDS = 100_000;
+
+    record Parameters(List<Long> userIds, Instant start, Instant end, int slotMinutes) {
+
+        boolean allUsers() {
+            return userIds == null || userIds.isEmpty();
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final TimeSlotService timeSlotService;
+    private final ShardRouter shardRouter;
+
+    @Override
+    public JobType type() {
+        return JobType.GENERATE_SLOTS;
+    }
+
+    @Override
+    public Class<Parameters> parametersType() {
+        return Parameters.class;
+    }
+
+    @Override
+    public void validate(Parameters parameters) {
+        if (parameters.start() == null || parameters.end() == null) {
+            throw new ValidationException(ErrorCode.TIME_RANGE_REQUIRED);
+        }
+        if (!parameters.start().isBefore(parameters.end())) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        if (parameters.slotMinutes() <= 0) {
+            throw new ValidationException(ErrorCode.INVALID_SLOT_MINUTES);
+        }
+        if (!parameters.allUsers() && parameters.userIds().size() > MAX_USER_IDS) {
+            throw new ValidationException(ErrorCode.BATCH_TOO_LARGE, MAX_USER_IDS);
+        }
+        if (!parameters.allUsers()) {
+            parameters.userIds().forEach(shardRouter::shardOf);
+        }
+    }
+
+    @Override
+    public long count(Parameters parameters) {
+        return parameters.allUsers() ? userRepository.count() : idsOnCurrentShard(parameters).count();
+    }
+
+    @Override
+    public List<Long> nextIds(Parameters parameters, long afterId, int limit) {
+        if (parameters.allUsers()) {
+            return userRepository.findIdsAfter(afterId, Limit.of(limit));
+        }
+        return idsOnCurrentShard(parameters)
+                .filter(id -> id > afterId)
+                .sorted()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void process(Parameters parameters, List<Long> ids) {
+        Duration length = Duration.ofMinutes(parameters.slotMinutes());
+        for (Long userId : ids) {
+            // Listed users may have been deleted since the job was submitted
+            if (parameters.allUsers() || userRepository.existsById(userId)) {
+                timeSlotService.generateSlots(userId, parameters.start(), parameters.end(), length);
+            }
+        }
+    }
+
+    private Stream<Long> idsOnCurrentShard(Parameters parameters) {
+        int shard = ShardContext.current();
+        return parameters.userIds().stream()
+                .distinct()
+                .filter(id -> shardRouter.shardOf(id) == shard);
+    }
+}
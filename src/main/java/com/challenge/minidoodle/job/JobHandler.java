@@ -0,0 +1,38 @@
+package com.challenge.minidoodle.job;
+
+import com.challenge.minidoodle.domain.JobType;
+
+import java.util.List;
+
+/**
+ * One kind of job. The runner walks the items of every shard in ascending id order, one chunk per transaction;
+ * {@link #count}, {@link #nextIds} and {@link #process} run on the shard being processed. A chunk may be
+ * processed again after a crash between its commit and the job's checkpoint, so {@link #process} must be
+ * idempotent.
+ *
+ * @param <P> parameters, bound from the submitted JSON
+ */
+public interface JobHandler<P> {
+
+    JobType type();
+
+    Class<P> parametersType();
+
+    /**
+     * Rejects unusable parameters with a {@link com.challenge.minidoodle.exception.ValidationException} before the
+     * job is stored.
+     */
+    void validate(P parameters);
+
+    /**
+     * Number of items on the current shard, for progress reporting.
+     */
+    long count(P parameters);
+
+    /**
+     * Ids of up to {@code limit} items on the current shard after {@code afterId}, ascending.
+     */
+    List<Long> nextIds(P parameters, long afterId, int limit);
+
+    void process(P parameters, List<Long> ids);
+}
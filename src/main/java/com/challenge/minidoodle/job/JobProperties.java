@@ -0,0 +1,45 @@
+package com.challenge.minidoodle.job;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.jobs")
+public class JobProperties {
+
+    /**
+     * Jobs running at the same time on this instance.
+     */
+    private int workers = 2;
+
+    /**
+     * Jobs waiting for a worker in memory. Further jobs stay queued in the database and are picked up by the
+     * next recovery scan.
+     */
+    private int queueCapacity = 50;
+
+    /**
+     * Run workers on virtual threads when the runtime supports them (Java 21+).
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * Items processed and committed per transaction.
+     */
+    private int chunkSize = 200;
+
+    /**
+     * How often queued and orphaned jobs are looked for.
+     */
+    private Duration recoveryInterval = Duration.ofMinutes(1);
+
+    /**
+     * A running job whose last checkpoint is older than this is assumed to have lost its worker and is resumed.
+     * Must be well above the time one chunk takes.
+     */
+    private Duration staleAfter = Duration.ofMinutes(2);
+}
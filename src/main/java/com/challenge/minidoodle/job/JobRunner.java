@@ -0,0 +1,202 @@
+package com.challenge.minidoodle.job;
+
+import com.challenge.minidoodle.domain.Job;
+import com.challenge.minidoodle.domain.JobStatus;
+import com.challenge.minidoodle.domain.JobType;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.JobRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs jobs on a fixed number of workers. A job walks every shard in id order, committing one chunk per
+ * transaction and then checkpointing (shard, last id, processed count) on the job row, which doubles as its
+ * heartbeat. Queued jobs and running jobs whose heartbeat went stale (their instance died) are picked up by a
+ * periodic scan, which also resumes interrupted jobs after a restart. On shutdown, running jobs finish their
+ * current chunk and go back to the queue.
+ */
+@Slf4j
+@Component
+public class JobRunner {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JobProperties properties;
+    private final JobRepository jobRepository;
+    private final ShardRouter shardRouter;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<JobType, JobHandler<?>> handlers = new EnumMap<>(JobType.class);
+    private final Set<Long> accepted = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+    private volatile boolean stopping;
+
+    public JobRunner(JobProperties properties, JobRepository jobRepository, List<JobHandler<?>> handlers,
+                     ShardRouter shardRouter, JsonMapper jsonMapper, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.jobRepository = jobRepository;
+        this.shardRouter = shardRouter;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        handlers.forEach(handler -> this.handlers.put(handler.type(), handler));
+        this.executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), workerThreads(properties.isVirtualThreads()));
+    }
+
+    JobHandler<?> handler(JobType type) {
+        JobHandler<?> handler = handlers.get(type);
+        if (handler == null) {
+            throw new ValidationException(ErrorCode.UNSUPPORTED_JOB_TYPE, type);
+        }
+        return handler;
+    }
+
+    /**
+     * Hands a job to a worker. When every worker and queue slot is taken the job simply stays queued in the
+     * database until the next recovery scan.
+     */
+    void submit(Long jobId) {
+        if (stopping || !accepted.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    accepted.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            accepted.remove(jobId);
+            log.debug("Job {} deferred, all {} workers busy", jobId, properties.getWorkers());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${minidoodle.jobs.recovery-interval:PT1M}")
+    public void recover() {
+        if (stopping) {
+            return;
+        }
+        Instant staleBefore = Instant.now().minus(properties.getStaleAfter());
+        jobRepository.findRunnableIds(staleBefore).forEach(this::submit);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(Long jobId) {
+        Instant now = Instant.now();
+        Integer claimed = transactionTemplate.execute(
+                status -> jobRepository.claim(jobId, now, now.minus(properties.getStaleAfter())));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        Job job = jobRepository.findById(jobId).orElseThrow();
+        log.info("Job {} ({}) started at shard {} after id {}", jobId, job.getType(), job.getShard(), job.getCursorId());
+        try {
+            execute(job, handler(job.getType()));
+        } catch (RuntimeException e) {
+            log.error("Job {} ({}) failed", jobId, job.getType(), e);
+            finish(jobId, JobStatus.FAILED, abbreviate(String.valueOf(e.getMessage())));
+        }
+    }
+
+    private <P> void execute(Job job, JobHandler<P> handler) {
+        Long jobId = job.getId();
+        P parameters = jsonMapper.readValue(job.getParameters(), handler.parametersType());
+        if (job.getTotal() == null) {
+            AtomicLong total = new AtomicLong();
+            shardRouter.forEachShard(shard -> total.addAndGet(handler.count(parameters)));
+            transactionTemplate.executeWithoutResult(status -> jobRepository.setTotal(jobId, total.get(), Instant.now()));
+        }
+
+        long cursor = job.getCursorId();
+        for (int shard = job.getShard(); shard < shardRouter.shardCount(); shard++) {
+            int target = shard;
+            while (true) {
+                if (stopping) {
+                    transactionTemplate.executeWithoutResult(status -> jobRepository.release(jobId, Instant.now()));
+                    log.info("Job {} ({}) paused for shutdown, will resume on the next start", jobId, job.getType());
+                    return;
+                }
+                if (jobRepository.isCancelRequested(jobId)) {
+                    finish(jobId, JobStatus.CANCELLED, null);
+                    return;
+                }
+                long after = cursor;
+                List<Long> ids = shardRouter.callOn(target, () -> transactionTemplate.execute(status -> {
+                    List<Long> chunk = handler.nextIds(parameters, after, properties.getChunkSize());
+                    if (!chunk.isEmpty()) {
+                        handler.process(parameters, chunk);
+                    }
+                    return chunk;
+                }));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                cursor = ids.get(ids.size() - 1);
+                checkpoint(jobId, target, cursor, ids.size());
+            }
+            cursor = Long.MIN_VALUE;
+            if (target + 1 < shardRouter.shardCount()) {
+                checkpoint(jobId, target + 1, cursor, 0);
+            }
+        }
+        finish(jobId, JobStatus.SUCCEEDED, null);
+    }
+
+    private void checkpoint(Long jobId, int shard, long cursor, int processed) {
+        transactionTemplate.executeWithoutResult(
+                status -> jobRepository.checkpoint(jobId, shard, cursor, processed, Instant.now()));
+    }
+
+    private void finish(Long jobId, JobStatus status, String error) {
+        transactionTemplate.executeWithoutResult(tx -> jobRepository.finish(jobId, status, error, Instant.now()));
+        log.info("Job {} {}", jobId, status);
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static ThreadFactory workerThreads(boolean virtual) {
+        if (virtual && Runtime.version().feature() >= 21) {
+            return new VirtualThreadTaskExecutor("job-worker-").getVirtualThreadFactory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.challenge.minidoodle.job;
+
+import com.challenge.minidoodle.domain.Job;
+import com.challenge.minidoodle.domain.JobType;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.NotFoundException;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.JobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class JobService {
+
+    private final JobRepository jobRepository;
+    private final JobRunner jobRunner;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * Validates the parameters, stores the job as QUEUED and hands it to a worker once the job row is committed.
+     */
+    public Job submit(JobType type, JsonNode parameters) {
+        if (type == null) {
+            throw new ValidationException(ErrorCode.JOB_TYPE_REQUIRED);
+        }
+        Job job = jobRepository.save(new Job(type, bind(jobRunner.handler(type), parameters)));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                jobRunner.submit(job.getId());
+            }
+        });
+        return job;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Job> getJob(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Job> getRecentJobs(int limit) {
+        return jobRepository.findRecent(Limit.of(limit));
+    }
+
+    /**
+     * Cancels a queued job immediately; a running job stops before its next chunk. Finished jobs are left as they are.
+     */
+    public Job cancel(Long id) {
+        Instant now = Instant.now();
+        if (jobRepository.cancelQueued(id, now) == 0) {
+            jobRepository.requestCancel(id, now);
+        }
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.JOB_NOT_FOUND, id));
+    }
+
+    private <P> String bind(JobHandler<P> handler, JsonNode parameters) {
+        P bound;
+        try {
+            bound = jsonMapper.treeToValue(parameters != null ? parameters : jsonMapper.createObjectNode(),
+                    handler.parametersType());
+        } catch (JacksonException e) {
+            throw new ValidationException(ErrorCode.INVALID_JOB_PARAMETERS, handler.type() + ": " + e.getOriginalMessage());
+        }
+        handler.validate(bound);
+        return jsonMapper.writeValueAsString(bound);
+    }
+}
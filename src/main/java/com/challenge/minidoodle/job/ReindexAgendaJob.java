@@ -0,0 +1,55 @@
+package com.challenge.minidoodle.job;
+
+import com.challenge.minidoodle.domain.JobType;
+import com.challenge.minidoodle.repository.MeetingRepository;
+import com.challenge.minidoodle.service.AgendaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rewrites the agenda entries of every meeting, one chunk of meetings per transaction. Unlike
+ * {@code POST /api/admin/agenda/rebuild} it never empties the table, so agenda reads stay correct while it runs,
+ * but it leaves entries of meetings that no longer exist untouched.
+ */
+@Component
+@RequiredArgsConstructor
+class ReindexAgendaJob implements JobHandler<ReindexAgendaJob.Parameters> {
+
+    record Parameters() {
+    }
+
+    private final MeetingRepository meetingRepository;
+    private final AgendaService agendaService;
+
+    @Override
+    public JobType type() {
+        return JobType.REINDEX_AGENDA;
+    }
+
+    @Override
+    public Class<Parameters> parametersType() {
+        return Parameters.class;
+    }
+
+    @Override
+    public void validate(Parameters parameters) {
+    }
+
+    @Override
+    public long count(Parameters parameters) {
+        return meetingRepository.count();
+    }
+
+    @Override
+    public List<Long> nextIds(Parameters parameters, long afterId, int limit) {
+        return meetingRepository.findIdsAfter(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public void process(Parameters parameters, List<Long> ids) {
+        agendaService.refreshMeetings(ids);
+    }
+}
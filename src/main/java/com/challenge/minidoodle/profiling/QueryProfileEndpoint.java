@@ -0,0 +1,30 @@
+package com.challenge.minidoodle.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "queryprofile")
+@RequiredArgsConstructor
+public class QueryProfileEndpoint {
+
+    private final QueryProfiler queryProfiler;
+
+    @ReadOperation
+    public Map<String, Object> queryProfile() {
+        return queryProfiler.snapshot(null);
+    }
+
+    /**
+     * Only the queries issued while serving one controller method, e.g. {@code MeetingController.createMeeting}.
+     */
+    @ReadOperation
+    public Map<String, Object> queryProfileForEndpoint(@Selector String endpoint) {
+        return queryProfiler.snapshot(endpoint);
+    }
+}
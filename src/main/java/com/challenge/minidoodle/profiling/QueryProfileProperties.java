@@ -0,0 +1,29 @@
+package com.challenge.minidoodle.profiling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.query-profile")
+public class QueryProfileProperties {
+
+    /**
+     * Time every repository method call and count the rows it returns.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Calls slower than this are logged with their parameters and the calling controller method.
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    /**
+     * Include bind parameters in the slow-query log. Off by default since they may carry personal data such as
+     * email addresses.
+     */
+    private boolean logParameters = false;
+}
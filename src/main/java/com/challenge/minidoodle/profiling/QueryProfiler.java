@@ -0,0 +1,215 @@
+package com.challenge.minidoodle.profiling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Times every repository method call and counts the rows it returns, per query ({@code Repository.method}) and
+ * per calling controller method. Calls slower than {@code minidoodle.query-profile.slow-threshold} are logged
+ * with their parameters. A returned {@link Stream} is measured until it is closed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryProfiler {
+
+    static final String NO_ENDPOINT = "background";
+    private static final int MAX_LOGGED_ELEMENTS = 10;
+
+    private final QueryProfileProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, QueryStats> byQuery = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, QueryStats>> byEndpoint = new ConcurrentHashMap<>();
+
+    MethodInterceptor adviceFor(Class<?> repositoryInterface) {
+        String repository = repositoryInterface.getSimpleName();
+        return invocation -> {
+            Method method = invocation.getMethod();
+            if (!properties.isEnabled() || method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            String query = repository + "." + method.getName();
+            String endpoint = currentEndpoint();
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = invocation.proceed();
+                if (result instanceof Stream<?> stream) {
+                    AtomicLong rows = new AtomicLong();
+                    return stream.peek(row -> rows.incrementAndGet())
+                            .onClose(() -> record(query, endpoint, start, rows.get(), method, invocation.getArguments()));
+                }
+                return result;
+            } finally {
+                // calls that throw are recorded too, with no rows; streams are recorded when closed
+                if (!(result instanceof Stream<?>)) {
+                    record(query, endpoint, start, rowsOf(method, result), method, invocation.getArguments());
+                }
+            }
+        };
+    }
+
+    /**
+     * Queries ordered by total time spent, optionally restricted to one calling controller method.
+     */
+    Map<String, Object> snapshot(String endpoint) {
+        Map<String, QueryStats> stats = endpoint == null ? byQuery : byEndpoint.getOrDefault(endpoint, Map.of());
+        List<Map<String, Object>> queries = stats.entrySet().stream()
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<String, QueryStats> entry) -> entry.getValue().timer().totalTime(TimeUnit.MILLISECONDS))
+                        .reversed())
+                .map(entry -> entry.getValue().describe(entry.getKey()))
+                .collect(Collectors.toList());
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("slowThresholdMs", properties.getSlowThreshold().toMillis());
+        if (endpoint == null) {
+            snapshot.put("endpoints", byEndpoint.keySet().stream().sorted().toList());
+        } else {
+            snapshot.put("endpoint", endpoint);
+        }
+        snapshot.put("queries", queries);
+        return snapshot;
+    }
+
+    private void record(String query, String endpoint, long startNanos, long rows, Method method, Object[] arguments) {
+        long elapsed = System.nanoTime() - startNanos;
+        byQuery.computeIfAbsent(query, name -> QueryStats.register(meterRegistry, name, null))
+                .record(elapsed, rows);
+        byEndpoint.computeIfAbsent(endpoint, name -> new ConcurrentHashMap<>())
+                .computeIfAbsent(query, name -> QueryStats.register(meterRegistry, name, endpoint))
+                .record(elapsed, rows);
+        if (elapsed >= properties.getSlowThreshold().toNanos()) {
+            log.warn("Slow query {} took {} ms and returned {} rows, called from {}{}", query,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), rows, endpoint,
+                    properties.isLogParameters() ? " with " + describeArguments(method, arguments) : "");
+        }
+    }
+
+    private static long rowsOf(Method method, Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number affected && method.isAnnotationPresent(Modifying.class)) {
+            return affected.longValue();
+        }
+        return 1;
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return NO_ENDPOINT;
+        }
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return NO_ENDPOINT;
+    }
+
+    private static String describeArguments(Method method, Object[] arguments) {
+        Parameter[] parameters = method.getParameters();
+        List<String> described = new ArrayList<>(arguments.length);
+        for (int i = 0; i < arguments.length; i++) {
+            Param param = parameters[i].getAnnotation(Param.class);
+            String name = param != null ? param.value() : parameters[i].getName();
+            described.add(name + "=" + describe(arguments[i]));
+        }
+        return "[" + String.join(", ", described) + "]";
+    }
+
+    private static String describe(Object argument) {
+        if (argument instanceof Collection<?> collection && collection.size() > MAX_LOGGED_ELEMENTS) {
+            return collection.stream().limit(MAX_LOGGED_ELEMENTS).map(String::valueOf)
+                    .collect(Collectors.joining(", ", "[", ", ... " + collection.size() + " total]"));
+        }
+        return String.valueOf(argument);
+    }
+
+    private record QueryStats(Timer timer, DistributionSummary rows) {
+
+        static QueryStats register(MeterRegistry registry, String query, String endpoint) {
+            String name = endpoint == null ? "minidoodle.repository.query" : "minidoodle.repository.query.endpoint";
+            Timer.Builder timer = Timer.builder(name)
+                    .description("Repository method execution time")
+                    .tag("query", query)
+                    .publishPercentiles(0.99);
+            DistributionSummary.Builder rows = DistributionSummary.builder(name + ".rows")
+                    .description("Rows returned or affected by a repository method")
+                    .tag("query", query);
+            if (endpoint != null) {
+                timer.tag("endpoint", endpoint);
+                rows.tag("endpoint", endpoint);
+            }
+            return new QueryStats(timer.register(registry), rows.register(registry));
+        }
+
+        void record(long nanos, long rowCount) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            rows.record(rowCount);
+        }
+
+        Map<String, Object> describe(String query) {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("query", query);
+            description.put("count", timer.count());
+            description.put("totalMs", round(timer.totalTime(TimeUnit.MILLISECONDS)));
+            description.put("meanMs", round(timer.mean(TimeUnit.MILLISECONDS)));
+            description.put("p99Ms", round(p99(timer)));
+            description.put("maxMs", round(timer.max(TimeUnit.MILLISECONDS)));
+            description.put("rows", (long) rows.totalAmount());
+            description.put("maxRows", (long) rows.max());
+            return description;
+        }
+
+        private static double p99(Timer timer) {
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == 0.99) {
+                    return percentile.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return 0;
+        }
+
+        private static double round(double millis) {
+            return Math.round(millis * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.challenge.minidoodle.profiling;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Adds the {@link QueryProfiler} advice to every Spring Data repository proxy as it is created, and to every
+ * hand-written {@link Repository @Repository} class (JDBC and criteria queries) once it is initialised. The profiler
+ * is looked up lazily so that this post-processor does not pull the meter registry into early initialisation.
+ */
+@Component
+@RequiredArgsConstructor
+class RepositoryProfilingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryProfiler> queryProfiler;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repository) -> proxyFactory.addAdvice(
+                            queryProfiler.getObject().adviceFor(repository.getRepositoryInterface()))));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> repositoryClass = AopUtils.getTargetClass(bean);
+        // Spring Data proxies are already advised above; their implementation classes carry @Repository too
+        if (bean instanceof org.springframework.data.repository.Repository<?, ?>
+                || !repositoryClass.isAnnotationPresent(Repository.class)) {
+            return bean;
+        }
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, queryProfiler.getObject().adviceFor(repositoryClass));
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(queryProfiler.getObject().adviceFor(repositoryClass));
+        return proxyFactory.getProxy(repositoryClass.getClassLoader());
+    }
+}
@@ -0,0 +1,177 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.AgendaEntry;
+import com.challenge.minidoodle.domain.AgendaEntryId;
+import com.challenge.minidoodle.domain.AgendaRole;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AgendaEntryRepository extends JpaRepository<AgendaEntry, AgendaEntryId> {
+
+    String REMOTE_ENTRIES = "SELECT new com.challenge.minidoodle.domain.AgendaEntry(r, m.id, ts.startTime, ts.endTime, " +
+            "com.challenge.minidoodle.domain.AgendaRole.PARTICIPANT) " +
+            "FROM Meeting m JOIN m.timeSlot ts JOIN m.remoteParticipantIds r ";
+
+    /**
+     * Entries of a user marked deleted stay until {@code UserPurgeService} removes them; reads skip them.
+     */
+    String OF_ACTIVE_USER = "NOT EXISTS (SELECT 1 FROM User du WHERE du.id = a.userId AND du.deletedAt IS NOT NULL)";
+
+    /**
+     * Entries of meetings whose organizer is marked deleted stay until the purge; reads skip them. Meetings stored
+     * on another shard are checked when they are loaded there.
+     */
+    String OF_ACTIVE_ORGANIZER = "NOT EXISTS (SELECT 1 FROM Meeting dm WHERE dm.id = a.meetingId " +
+            "AND dm.organizer.deletedAt IS NOT NULL)";
+
+    String VISIBLE_ROW = "AND NOT EXISTS (SELECT 1 FROM users du WHERE du.id = a.user_id AND du.deleted_at IS NOT NULL) " +
+            "AND NOT EXISTS (SELECT 1 FROM meetings dm JOIN users o ON o.id = dm.organizer_id " +
+            "WHERE dm.id = a.meeting_id AND o.deleted_at IS NOT NULL) ";
+
+    @Query(value = "SELECT a.meeting_id FROM user_agenda a " +
+            "WHERE a.user_id = :userId " +
+            "AND (a.start_time, a.meeting_id) > (:afterStart, :afterMeetingId) " +
+            "AND a.start_time < :end " + VISIBLE_ROW +
+            "ORDER BY a.start_time, a.meeting_id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findMeetingIdsPage(
+            @Param("userId") Long userId,
+            @Param("afterStart") Instant afterStart,
+            @Param("afterMeetingId") Long afterMeetingId,
+            @Param("end") Instant end,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT a.meeting_id FROM user_agenda a " +
+            "WHERE a.user_id = :userId AND a.role = :role " +
+            "AND (a.start_time, a.meeting_id) > (:afterStart, :afterMeetingId) " +
+            "AND a.start_time < :end " + VISIBLE_ROW +
+            "ORDER BY a.start_time, a.meeting_id " +
+            "LIMIT :limit", nativeQuery = true)
+    List<Long> findMeetingIdsPageByRole(
+            @Param("userId") Long userId,
+            @Param("role") String role,
+            @Param("afterStart") Instant afterStart,
+            @Param("afterMeetingId") Long afterMeetingId,
+            @Param("end") Instant end,
+            @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AgendaEntry a WHERE a.meetingId = :meetingId")
+    int deleteByMeetingId(@Param("meetingId") Long meetingId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AgendaEntry a WHERE a.meetingId IN :meetingIds")
+    int deleteByMeetingIdIn(@Param("meetingIds") Collection<Long> meetingIds);
+
+    @Modifying
+    @Query("DELETE FROM AgendaEntry a WHERE a.meetingId = :meetingId AND a.userId = :userId")
+    int deleteByMeetingIdAndUserId(@Param("meetingId") Long meetingId, @Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AgendaEntry a SET a.startTime = :startTime, a.endTime = :endTime WHERE a.meetingId = :meetingId")
+    int updateTimes(@Param("meetingId") Long meetingId,
+                    @Param("startTime") Instant startTime,
+                    @Param("endTime") Instant endTime);
+
+    @Query("SELECT a FROM AgendaEntry a " +
+            "WHERE a.userId IN :userIds " +
+            "AND a.endTime > :start AND a.startTime < :end " +
+            "AND a.meetingId <> :excludeMeetingId AND " + OF_ACTIVE_ORGANIZER + " " +
+            "ORDER BY a.userId, a.startTime, a.meetingId")
+    List<AgendaEntry> findOverlapping(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("start") Instant start,
+            @Param("end") Instant end,
+            @Param("excludeMeetingId") Long excludeMeetingId);
+
+    /**
+     * Agenda entries owed to participants stored on other shards for the given meetings of this shard.
+     */
+    @Query(REMOTE_ENTRIES + "WHERE m.id IN :meetingIds")
+    List<AgendaEntry> findRemoteEntries(@Param("meetingIds") Collection<Long> meetingIds);
+
+    @Query(REMOTE_ENTRIES)
+    List<AgendaEntry> findAllRemoteEntries();
+
+    @Query("SELECT a.meetingId FROM AgendaEntry a WHERE a.userId = :userId AND (:role IS NULL OR a.role = :role) " +
+            "AND " + OF_ACTIVE_USER + " AND " + OF_ACTIVE_ORGANIZER + " ORDER BY a.startTime, a.meetingId")
+    List<Long> findMeetingIds(@Param("userId") Long userId, @Param("role") AgendaRole role);
+
+    /**
+     * Deletes up to {@code limit} agenda entries of meetings organized by {@code organizerId}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM user_agenda WHERE (user_id, meeting_id) IN (" +
+            "SELECT a.user_id, a.meeting_id FROM user_agenda a JOIN meetings m ON m.id = a.meeting_id " +
+            "WHERE m.organizer_id = :organizerId LIMIT :limit)", nativeQuery = true)
+    int deleteOfOrganizer(@Param("organizerId") Long organizerId, @Param("limit") int limit);
+
+    /**
+     * Deletes up to {@code limit} of a user's own agenda entries.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM user_agenda WHERE (user_id, meeting_id) IN (" +
+            "SELECT a.user_id, a.meeting_id FROM user_agenda a WHERE a.user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_agenda (user_id, meeting_id, start_time, end_time, role) " +
+            "SELECT m.organizer_id, m.id, ts.start_time, ts.end_time, 'ORGANIZER' " +
+            "FROM meetings m JOIN time_slots ts ON ts.id = m.time_slot_id " +
+            "WHERE m.id = :meetingId " +
+            "UNION ALL " +
+            "SELECT mp.user_id, m.id, ts.start_time, ts.end_time, 'PARTICIPANT' " +
+            "FROM meeting_participants mp " +
+            "JOIN meetings m ON m.id = mp.meeting_id " +
+            "JOIN time_slots ts ON ts.id = m.time_slot_id " +
+            "WHERE m.id = :meetingId AND mp.user_id <> m.organizer_id " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertForMeeting(@Param("meetingId") Long meetingId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_agenda (user_id, meeting_id, start_time, end_time, role) " +
+            "SELECT m.organizer_id, m.id, ts.start_time, ts.end_time, 'ORGANIZER' " +
+            "FROM meetings m JOIN time_slots ts ON ts.id = m.time_slot_id " +
+            "WHERE m.id IN (:meetingIds) " +
+            "UNION ALL " +
+            "SELECT mp.user_id, m.id, ts.start_time, ts.end_time, 'PARTICIPANT' " +
+            "FROM meeting_participants mp " +
+            "JOIN meetings m ON m.id = mp.meeting_id " +
+            "JOIN time_slots ts ON ts.id = m.time_slot_id " +
+            "WHERE m.id IN (:meetingIds) AND mp.user_id <> m.organizer_id " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertForMeetings(@Param("meetingIds") Collection<Long> meetingIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_agenda (user_id, meeting_id, start_time, end_time, role) " +
+            "SELECT :userId, m.id, ts.start_time, ts.end_time, 'PARTICIPANT' " +
+            "FROM meetings m JOIN time_slots ts ON ts.id = m.time_slot_id " +
+            "WHERE m.id = :meetingId " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertParticipant(@Param("meetingId") Long meetingId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_agenda", nativeQuery = true)
+    int deleteAllEntries();
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO user_agenda (user_id, meeting_id, start_time, end_time, role) " +
+            "SELECT m.organizer_id, m.id, ts.start_time, ts.end_time, 'ORGANIZER' " +
+            "FROM meetings m JOIN time_slots ts ON ts.id = m.time_slot_id " +
+            "UNION ALL " +
+            "SELECT mp.user_id, m.id, ts.start_time, ts.end_time, 'PARTICIPANT' " +
+            "FROM meeting_participants mp " +
+            "JOIN meetings m ON m.id = mp.meeting_id " +
+            "JOIN time_slots ts ON ts.id = m.time_slot_id " +
+            "WHERE mp.user_id <> m.organizer_id", nativeQuery = true)
+    int insertAllFromMeetings();
+}
@@ -0,0 +1,29 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.AvailabilityBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface AvailabilityBlockRepository extends JpaRepository<AvailabilityBlock, Long> {
+
+    @Query("SELECT b FROM AvailabilityBlock b WHERE b.calendar.user.id = :userId ORDER BY b.startTime")
+    List<AvailabilityBlock> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT b FROM AvailabilityBlock b WHERE b.calendar.user.id = :userId " +
+            "AND b.startTime < :end AND b.endTime > :start ORDER BY b.startTime")
+    List<AvailabilityBlock> findOverlapping(
+            @Param("userId") Long userId,
+            @Param("start") Instant start,
+            @Param("end") Instant end);
+
+    @Modifying
+    @Query("DELETE FROM AvailabilityBlock b WHERE b.calendar.id = :calendarId")
+    int deleteByCalendarId(@Param("calendarId") Long calendarId);
+}
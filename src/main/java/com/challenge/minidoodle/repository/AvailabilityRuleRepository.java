@@ -0,0 +1,21 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.AvailabilityRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule, Long> {
+
+    @Query("SELECT r FROM AvailabilityRule r WHERE r.calendar.user.id = :userId ORDER BY r.dayOfWeek, r.startTime")
+    List<AvailabilityRule> findByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM AvailabilityRule r WHERE r.calendar.id = :calendarId")
+    int deleteByCalendarId(@Param("calendarId") Long calendarId);
+}
@@ -0,0 +1,74 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.CalendarDailyStats;
+import com.challenge.minidoodle.domain.CalendarDayId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CalendarDailyStatsRepository extends JpaRepository<CalendarDailyStats, CalendarDayId> {
+
+    @Query("SELECT s FROM CalendarDailyStats s WHERE s.calendarId IN :calendarIds " +
+            "AND s.day >= :from AND s.day < :to ORDER BY s.calendarId, s.day")
+    List<CalendarDailyStats> findByCalendarIdsAndDays(@Param("calendarIds") Collection<Long> calendarIds,
+                                                      @Param("from") LocalDate from,
+                                                      @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO calendar_daily_stats (calendar_id, day, available_minutes, busy_minutes, meeting_count) " +
+            "VALUES (:calendarId, :day, :availableMinutes, :busyMinutes, :meetingCount) " +
+            "ON CONFLICT (calendar_id, day) DO UPDATE SET " +
+            "available_minutes = calendar_daily_stats.available_minutes + EXCLUDED.available_minutes, " +
+            "busy_minutes = calendar_daily_stats.busy_minutes + EXCLUDED.busy_minutes, " +
+            "meeting_count = calendar_daily_stats.meeting_count + EXCLUDED.meeting_count", nativeQuery = true)
+    int increment(@Param("calendarId") Long calendarId,
+                  @Param("day") LocalDate day,
+                  @Param("availableMinutes") long availableMinutes,
+                  @Param("busyMinutes") long busyMinutes,
+                  @Param("meetingCount") long meetingCount);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM calendar_daily_stats)", nativeQuery = true)
+    boolean hasAny();
+
+    @Modifying
+    @Query("DELETE FROM CalendarDailyStats s WHERE s.calendarId = :calendarId")
+    int deleteByCalendarId(@Param("calendarId") Long calendarId);
+
+    /**
+     * Blocks concurrent increments until the current transaction ends, so a rebuild cannot interleave with them.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE calendar_daily_stats IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM calendar_daily_stats", nativeQuery = true)
+    int deleteAllStats();
+
+    /**
+     * Recomputes every row from the slots and meetings, splitting slots at UTC midnight the same way
+     * {@code OccupancyService} does.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO calendar_daily_stats (calendar_id, day, available_minutes, busy_minutes, meeting_count) " +
+            "SELECT ts.calendar_id, CAST(d.day AS date), " +
+            "SUM(CASE WHEN ts.status = 'AVAILABLE' THEN m.minutes ELSE 0 END), " +
+            "SUM(CASE WHEN ts.status = 'BUSY' THEN m.minutes ELSE 0 END), " +
+            "COUNT(mt.id) FILTER (WHERE d.day = date_trunc('day', ts.start_time AT TIME ZONE 'UTC')) " +
+            "FROM time_slots ts " +
+            "LEFT JOIN meetings mt ON mt.time_slot_id = ts.id " +
+            "CROSS JOIN LATERAL generate_series(date_trunc('day', ts.start_time AT TIME ZONE 'UTC'), " +
+            "ts.end_time AT TIME ZONE 'UTC' - INTERVAL '1 microsecond', INTERVAL '1 day') AS d(day) " +
+            "CROSS JOIN LATERAL (SELECT CAST(FLOOR(EXTRACT(EPOCH FROM " +
+            "LEAST(ts.end_time AT TIME ZONE 'UTC', d.day + INTERVAL '1 day') - " +
+            "GREATEST(ts.start_time AT TIME ZONE 'UTC', d.day)) / 60) AS bigint) AS minutes) m " +
+            "GROUP BY ts.calendar_id, d.day", nativeQuery = true)
+    int insertAllFromSlots();
+}
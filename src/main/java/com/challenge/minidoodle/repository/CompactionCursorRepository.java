@@ -0,0 +1,23 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.CompactionCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CompactionCursorRepository extends JpaRepository<CompactionCursor, Integer> {
+
+    @Query("SELECT c.lastCalendarId FROM CompactionCursor c WHERE c.id = " + CompactionCursor.SINGLETON_ID)
+    Optional<Long> findLastCalendarId();
+
+    @Modifying
+    @Query(value = "INSERT INTO compaction_cursor (id, last_calendar_id) VALUES (" + CompactionCursor.SINGLETON_ID +
+            ", :calendarId) ON CONFLICT (id) DO UPDATE SET last_calendar_id = EXCLUDED.last_calendar_id",
+            nativeQuery = true)
+    int moveTo(@Param("calendarId") long calendarId);
+}
@@ -0,0 +1,56 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads the slots of many users in a window with one statement, without entities or a persistence context.
+ */
+@Repository
+public class FreeBusyRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public FreeBusyRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * One row per slot overlapping [start, end). {@code startTime}, {@code endTime} and {@code status} are null on
+     * the single row of a user who exists but has no such slot.
+     */
+    public record SlotRow(long userId, Instant startTime, Instant endTime, TimeSlotStatus status) {
+    }
+
+    /**
+     * Slots of the non-deleted {@code userIds} that overlap [start, end), ordered by user and start time. Users
+     * that do not exist have no row.
+     */
+    public List<SlotRow> findSlots(Collection<Long> userIds, Instant start, Instant end) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userIds", userIds)
+                .addValue("start", Timestamp.from(start))
+                .addValue("end", Timestamp.from(end));
+        return jdbc.query("SELECT c.user_id, ts.start_time, ts.end_time, ts.status FROM calendars c " +
+                        "JOIN users u ON u.id = c.user_id AND u.deleted_at IS NULL " +
+                        "LEFT JOIN time_slots ts ON ts.calendar_id = c.id " +
+                        "AND ts.start_time < :end AND ts.end_time > :start " +
+                        "WHERE c.user_id IN (:userIds) ORDER BY c.user_id, ts.start_time",
+                params,
+                (row, rowNum) -> {
+                    Timestamp startTime = row.getTimestamp("start_time");
+                    if (startTime == null) {
+                        return new SlotRow(row.getLong("user_id"), null, null, null);
+                    }
+                    return new SlotRow(row.getLong("user_id"), startTime.toInstant(),
+                            row.getTimestamp("end_time").toInstant(), TimeSlotStatus.valueOf(row.getString("status")));
+                });
+    }
+}
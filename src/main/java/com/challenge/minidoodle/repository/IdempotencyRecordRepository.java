@@ -0,0 +1,55 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims {@code key} for one request until {@code leaseExpiresAt}. A key whose claim lease or stored response
+     * has expired is taken over, so a claim left behind by a crashed request does not block retries for long.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys " +
+            "(idempotency_key, scope, request_hash, status, claim_token, created_at, expires_at) " +
+            "VALUES (:key, :scope, :requestHash, 'IN_PROGRESS', :token, :now, :leaseExpiresAt) " +
+            "ON CONFLICT (idempotency_key) DO UPDATE SET scope = EXCLUDED.scope, " +
+            "request_hash = EXCLUDED.request_hash, status = EXCLUDED.status, claim_token = EXCLUDED.claim_token, " +
+            "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at, " +
+            "response_status = NULL, response_body = NULL " +
+            "WHERE idempotency_keys.expires_at < :now", nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("scope") String scope,
+              @Param("requestHash") String requestHash,
+              @Param("token") String token,
+              @Param("now") Instant now,
+              @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    /**
+     * Stores the response of the claim identified by {@code token}; updates nothing when a retry took the key over.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.challenge.minidoodle.domain.IdempotencyStatus.COMPLETED, " +
+            "r.responseStatus = :responseStatus, r.responseBody = :responseBody, r.expiresAt = :expiresAt " +
+            "WHERE r.key = :key AND r.claimToken = :token")
+    int complete(@Param("key") String key,
+                 @Param("token") String token,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.claimToken = :token")
+    int release(@Param("key") String key, @Param("token") String token);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,76 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.Job;
+import com.challenge.minidoodle.domain.JobStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    @Query("SELECT j FROM Job j ORDER BY j.createdAt DESC, j.id DESC")
+    List<Job> findRecent(Limit limit);
+
+    /**
+     * Queued jobs, and running jobs whose heartbeat is older than {@code staleBefore}, oldest first.
+     */
+    @Query("SELECT j.id FROM Job j WHERE j.status = com.challenge.minidoodle.domain.JobStatus.QUEUED " +
+            "OR (j.status = com.challenge.minidoodle.domain.JobStatus.RUNNING AND j.updatedAt < :staleBefore) " +
+            "ORDER BY j.createdAt")
+    List<Long> findRunnableIds(@Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Takes a runnable job for this worker; returns 0 when another worker already has it.
+     */
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.challenge.minidoodle.domain.JobStatus.RUNNING, " +
+            "j.startedAt = :now, j.updatedAt = :now, j.runStartProcessed = j.processed " +
+            "WHERE j.id = :id AND (j.status = com.challenge.minidoodle.domain.JobStatus.QUEUED " +
+            "OR (j.status = com.challenge.minidoodle.domain.JobStatus.RUNNING AND j.updatedAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.shard = :shard, j.cursorId = :cursorId, j.processed = j.processed + :processed, " +
+            "j.updatedAt = :now WHERE j.id = :id")
+    int checkpoint(@Param("id") Long id, @Param("shard") int shard, @Param("cursorId") long cursorId,
+                   @Param("processed") long processed, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.total = :total, j.updatedAt = :now WHERE j.id = :id")
+    int setTotal(@Param("id") Long id, @Param("total") long total, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.status = :status, j.error = :error, j.updatedAt = :now, j.finishedAt = :now " +
+            "WHERE j.id = :id")
+    int finish(@Param("id") Long id, @Param("status") JobStatus status,
+               @Param("error") String error, @Param("now") Instant now);
+
+    /**
+     * Hands a running job back to the queue, e.g. on shutdown, so the next start resumes it immediately.
+     */
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.challenge.minidoodle.domain.JobStatus.QUEUED, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.challenge.minidoodle.domain.JobStatus.RUNNING")
+    int release(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.challenge.minidoodle.domain.JobStatus.CANCELLED, " +
+            "j.cancelRequested = true, j.updatedAt = :now, j.finishedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.challenge.minidoodle.domain.JobStatus.QUEUED")
+    int cancelQueued(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.cancelRequested = true, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status = com.challenge.minidoodle.domain.JobStatus.RUNNING")
+    int requestCancel(@Param("id") Long id, @Param("now") Instant now);
+
+    @Query("SELECT j.cancelRequested FROM Job j WHERE j.id = :id")
+    boolean isCancelRequested(@Param("id") Long id);
+}
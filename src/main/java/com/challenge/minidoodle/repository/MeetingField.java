@@ -0,0 +1,55 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Selectable {@code MeetingResponse} fields for sparse fieldsets, with the JPQL expression each one reads.
+ * Only fields that need the time slot or organizer row cause those joins.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum MeetingField {
+    ID("id", "m.id", Join.NONE),
+    TITLE("title", "m.title", Join.NONE),
+    DESCRIPTION("description", "m.description", Join.NONE),
+    TIME_SLOT_ID("timeSlotId", "m.timeSlot.id", Join.NONE),
+    START_TIME("startTime", "ts.startTime", Join.TIME_SLOT),
+    END_TIME("endTime", "ts.endTime", Join.TIME_SLOT),
+    ORGANIZER_ID("organizerId", "m.organizer.id", Join.NONE),
+    ORGANIZER_EMAIL("organizerEmail", "o.email", Join.ORGANIZER),
+    CREATED_AT("createdAt", "m.createdAt", Join.NONE);
+
+    private final String jsonName;
+    private final String expression;
+    private final Join join;
+
+    public enum Join {
+        NONE,
+        TIME_SLOT,
+        ORGANIZER
+    }
+
+    public static Set<MeetingField> parse(String fields) {
+        Set<MeetingField> selected = EnumSet.noneOf(MeetingField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                selected.add(Arrays.stream(values())
+                        .filter(field -> field.jsonName.equals(trimmed))
+                        .findFirst()
+                        .orElseThrow(() -> new ValidationException(ErrorCode.UNKNOWN_FIELD, trimmed)));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new ValidationException(ErrorCode.FIELDS_REQUIRED);
+        }
+        return selected;
+    }
+}
@@ -1,18 +1,31 @@
 package com.challenge.minidoodle.repository;
 
 import com.challenge.minidoodle.domain.Meeting;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
 
+    // Meetings of deleted organizers stay until purged; lookups by id, user or time range skip them
+
+    @Override
+    @Query("SELECT m FROM Meeting m WHERE m.id = :id AND m.organizer.deletedAt IS NULL")
+    Optional<Meeting> findById(@Param("id") Long id);
+
     boolean existsByTimeSlotId(Long timeSlotId);
 
     Optional<Meeting> findByTimeSlotId(Long timeSlotId);
@@ -23,16 +36,117 @@ public interface MeetingRepository extends JpaRepository<Meeting, Long> {
     @Query("SELECT m FROM Meeting m JOIN m.participants p WHERE p.id = :userId")
     List<Meeting> findByParticipantId(@Param("userId") Long userId);
 
-    @Query("SELECT m FROM Meeting m WHERE m.organizer.id = :userId OR :userId IN (SELECT p.id FROM m.participants p)")
-    List<Meeting> findByUserIdAsOrganizerOrParticipant(@Param("userId") Long userId);
+    @Query("SELECT DISTINCT m FROM Meeting m JOIN FETCH m.timeSlot JOIN FETCH m.organizer o " +
+            "LEFT JOIN FETCH m.participants WHERE m.id IN :ids AND o.deletedAt IS NULL")
+    List<Meeting> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Meeting m JOIN FETCH m.timeSlot ts JOIN FETCH m.organizer o " +
+            "WHERE m.id IN (SELECT a.meetingId FROM AgendaEntry a WHERE a.userId = :userId AND " +
+            AgendaEntryRepository.OF_ACTIVE_USER + ") AND o.deletedAt IS NULL " +
+            "ORDER BY ts.startTime, m.id")
+    Stream<Meeting> streamByUserId(@Param("userId") Long userId);
+
+    /**
+     * One keyset page of meetings inside [start, end), ordered by (start time, id) and strictly after
+     * ({@code afterStart}, {@code afterId}). Participants are left to {@code @BatchSize} so the limit applies in SQL.
+     */
+    @Query("SELECT m FROM Meeting m JOIN FETCH m.timeSlot ts JOIN FETCH m.organizer o " +
+            "WHERE ts.startTime >= :start AND ts.endTime <= :end AND o.deletedAt IS NULL " +
+            "AND (ts.startTime > :afterStart OR (ts.startTime = :afterStart AND m.id > :afterId)) " +
+            "ORDER BY ts.startTime, m.id")
+    List<Meeting> findPageByTimeRange(
+            @Param("start") Instant start,
+            @Param("end") Instant end,
+            @Param("afterStart") Instant afterStart,
+            @Param("afterId") Long afterId,
+            Limit limit);
 
-    @Query("SELECT m FROM Meeting m WHERE m.timeSlot.startTime >= :start AND m.timeSlot.endTime <= :end")
-    List<Meeting> findByTimeRange(@Param("start") Instant start, @Param("end") Instant end);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Meeting m JOIN FETCH m.timeSlot ts JOIN FETCH m.organizer o " +
+            "WHERE ts.startTime >= :start AND ts.endTime <= :end AND o.deletedAt IS NULL ORDER BY ts.startTime, m.id")
+    Stream<Meeting> streamByTimeRange(@Param("start") Instant start, @Param("end") Instant end);
 
-    @Query("SELECT m FROM Meeting m WHERE m.organizer.id = :userId " +
+    @Query("SELECT m FROM Meeting m WHERE m.organizer.id = :userId AND m.organizer.deletedAt IS NULL " +
             "AND m.timeSlot.startTime >= :start AND m.timeSlot.endTime <= :end")
     List<Meeting> findByOrganizerIdAndTimeRange(
             @Param("userId") Long userId,
             @Param("start") Instant start,
             @Param("end") Instant end);
+
+    @Modifying
+    @Query(value = "DELETE FROM meeting_participants WHERE (meeting_id, user_id) IN (" +
+            "SELECT mp.meeting_id, mp.user_id FROM meeting_participants mp " +
+            "JOIN meetings m ON m.id = mp.meeting_id WHERE m.organizer_id = :organizerId LIMIT :limit)", nativeQuery = true)
+    int deleteParticipantsOfOrganizer(@Param("organizerId") Long organizerId, @Param("limit") int limit);
+
+    /**
+     * Up to {@code limit} ids, after {@code afterId}, of an organizer's meetings with participants on other shards.
+     */
+    @Query(value = "SELECT DISTINCT rp.meeting_id FROM meeting_remote_participants rp " +
+            "JOIN meetings m ON m.id = rp.meeting_id WHERE m.organizer_id = :organizerId AND rp.meeting_id > :afterId " +
+            "ORDER BY rp.meeting_id LIMIT :limit", nativeQuery = true)
+    List<Long> findRemotelyAttendedIdsOfOrganizer(@Param("organizerId") Long organizerId,
+                                                  @Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM meeting_remote_participants WHERE (meeting_id, user_id) IN (" +
+            "SELECT rp.meeting_id, rp.user_id FROM meeting_remote_participants rp " +
+            "JOIN meetings m ON m.id = rp.meeting_id WHERE m.organizer_id = :organizerId LIMIT :limit)", nativeQuery = true)
+    int deleteRemoteParticipantsOfOrganizer(@Param("organizerId") Long organizerId, @Param("limit") int limit);
+
+    /**
+     * Deletes up to {@code limit} meetings of an organizer whose participant rows are already gone.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM meetings WHERE id IN (" +
+            "SELECT m.id FROM meetings m WHERE m.organizer_id = :organizerId LIMIT :limit)", nativeQuery = true)
+    int deleteByOrganizerId(@Param("organizerId") Long organizerId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM meeting_participants WHERE (meeting_id, user_id) IN (" +
+            "SELECT mp.meeting_id, mp.user_id FROM meeting_participants mp WHERE mp.user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteParticipations(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * Removes a user stored on another shard from up to {@code limit} meetings of this shard.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM meeting_remote_participants WHERE (meeting_id, user_id) IN (" +
+            "SELECT rp.meeting_id, rp.user_id FROM meeting_remote_participants rp WHERE rp.user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteRemoteParticipations(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Query("SELECT m.id FROM Meeting m WHERE m.id > :afterId ORDER BY m.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * Ids of the meetings inside [start, end), of one organizer or of all when {@code organizerId} is null,
+     * in id order after {@code afterId}.
+     */
+    @Query("SELECT m.id FROM Meeting m JOIN m.timeSlot ts " +
+            "WHERE ts.startTime >= :start AND ts.endTime <= :end AND m.organizer.deletedAt IS NULL " +
+            "AND (:organizerId IS NULL OR m.organizer.id = :organizerId) " +
+            "AND m.id > :afterId ORDER BY m.id")
+    List<Long> findIdsByTimeRangeAfter(
+            @Param("start") Instant start,
+            @Param("end") Instant end,
+            @Param("organizerId") Long organizerId,
+            @Param("afterId") long afterId,
+            Limit limit);
+
+    @Query("SELECT COUNT(m) FROM Meeting m JOIN m.timeSlot ts " +
+            "WHERE ts.startTime >= :start AND ts.endTime <= :end AND m.organizer.deletedAt IS NULL " +
+            "AND (:organizerId IS NULL OR m.organizer.id = :organizerId)")
+    long countByTimeRange(
+            @Param("start") Instant start,
+            @Param("end") Instant end,
+            @Param("organizerId") Long organizerId);
 }
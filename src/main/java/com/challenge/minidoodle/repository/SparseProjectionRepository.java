@@ -0,0 +1,215 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.domain.AgendaRole;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Column-level projections for sparse fieldsets. Each query selects only the requested columns and only
+ * joins the tables those columns live in, returning one ordered map per row keyed by JSON field name.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SparseProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    public List<Map<String, Object>> findMeetingsForUser(Long userId, AgendaRole role, Set<MeetingField> fields) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(selectList(fields))
+                .append(" FROM AgendaEntry a JOIN Meeting m ON m.id = a.meetingId");
+        if (requiresJoin(fields, MeetingField.Join.TIME_SLOT)) {
+            jpql.append(" JOIN m.timeSlot ts");
+        }
+        appendOrganizerJoin(jpql, fields);
+        jpql.append(" WHERE a.userId = :userId AND m.organizer.deletedAt IS NULL AND ")
+                .append(AgendaEntryRepository.OF_ACTIVE_USER);
+        if (role != null) {
+            jpql.append(" AND a.role = :role");
+        }
+        jpql.append(" ORDER BY a.startTime, a.meetingId");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("userId", userId);
+        if (role != null) {
+            query.setParameter("role", role);
+        }
+        return toMeetingRows(query.getResultList(), fields);
+    }
+
+    /**
+     * One keyset page of meetings inside [start, end), ordered by (start time, id) and strictly after
+     * ({@code afterStart}, {@code afterId}).
+     */
+    public List<Map<String, Object>> findMeetingPageInRange(Instant start, Instant end, Instant afterStart, long afterId,
+                                                            int limit, Set<MeetingField> fields) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(selectList(fields))
+                .append(" FROM Meeting m JOIN m.timeSlot ts");
+        appendOrganizerJoin(jpql, fields);
+        jpql.append(" WHERE ts.startTime >= :start AND ts.endTime <= :end AND m.organizer.deletedAt IS NULL");
+        jpql.append(" AND (ts.startTime > :afterStart OR (ts.startTime = :afterStart AND m.id > :afterId))");
+        jpql.append(" ORDER BY ts.startTime, m.id");
+
+        List<Tuple> tuples = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setParameter("afterStart", afterStart)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+        return toMeetingRows(tuples, fields);
+    }
+
+    public List<Map<String, Object>> findMeetingsByIds(Collection<Long> meetingIds, Set<MeetingField> fields) {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(selectList(fields)).append(" FROM Meeting m");
+        if (requiresJoin(fields, MeetingField.Join.TIME_SLOT)) {
+            jpql.append(" JOIN m.timeSlot ts");
+        }
+        appendOrganizerJoin(jpql, fields);
+        jpql.append(" WHERE m.id IN :ids AND m.organizer.deletedAt IS NULL");
+
+        List<Tuple> tuples = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("ids", meetingIds)
+                .getResultList();
+        return toMeetingRows(tuples, fields);
+    }
+
+    /**
+     * Loads participants of the given meetings in one query, grouped by meeting id.
+     */
+    public Map<Long, List<Map<String, Object>>> findParticipants(Collection<Long> meetingIds) {
+        if (meetingIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Tuple> tuples = entityManager.createQuery(
+                        "SELECT m.id, p.id, p.email, p.firstName, p.lastName " +
+                                "FROM Meeting m JOIN m.participants p WHERE m.id IN :ids AND p.deletedAt IS NULL " +
+                                "ORDER BY m.id, p.id", Tuple.class)
+                .setParameter("ids", meetingIds)
+                .getResultList();
+        return tuples.stream().collect(Collectors.groupingBy(
+                tuple -> tuple.get(0, Long.class),
+                LinkedHashMap::new,
+                Collectors.mapping(tuple -> participantRow(tuple.get(1, Long.class), tuple.get(2, String.class),
+                        tuple.get(3, String.class), tuple.get(4, String.class)), Collectors.toList())));
+    }
+
+    /**
+     * Ids of the participants stored on other shards, grouped by meeting id.
+     */
+    public Map<Long, List<Long>> findRemoteParticipantIds(Collection<Long> meetingIds) {
+        if (meetingIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Tuple> tuples = entityManager.createQuery(
+                        "SELECT m.id, r FROM Meeting m JOIN m.remoteParticipantIds r WHERE m.id IN :ids ORDER BY m.id, r",
+                        Tuple.class)
+                .setParameter("ids", meetingIds)
+                .getResultList();
+        return tuples.stream().collect(Collectors.groupingBy(
+                tuple -> tuple.get(0, Long.class),
+                LinkedHashMap::new,
+                Collectors.mapping(tuple -> tuple.get(1, Long.class), Collectors.toList())));
+    }
+
+    public static Map<String, Object> participantRow(Long id, String email, String firstName, String lastName) {
+        Map<String, Object> participant = new LinkedHashMap<>();
+        participant.put("id", id);
+        participant.put("email", email);
+        participant.put("firstName", firstName);
+        participant.put("lastName", lastName);
+        return participant;
+    }
+
+    public List<Map<String, Object>> findTimeSlotsForUser(Long userId, TimeSlotStatus status, Set<TimeSlotField> fields) {
+        List<String> expressions = new ArrayList<>();
+        for (TimeSlotField field : fields) {
+            if (field != TimeSlotField.DURATION_IN_MINUTES) {
+                expressions.add(field.getExpression());
+            }
+        }
+        boolean duration = fields.contains(TimeSlotField.DURATION_IN_MINUTES);
+        if (duration) {
+            expressions.add("ts.startTime");
+            expressions.add("ts.endTime");
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT ").append(String.join(", ", expressions))
+                .append(" FROM TimeSlot ts JOIN ts.calendar c");
+        if (fields.stream().anyMatch(field -> field.getJoin() == TimeSlotField.Join.USER)) {
+            jpql.append(" JOIN c.user u");
+        }
+        if (fields.stream().anyMatch(field -> field.getJoin() == TimeSlotField.Join.MEETING)) {
+            jpql.append(" LEFT JOIN ts.meeting mt");
+        }
+        jpql.append(" WHERE c.user.id = :userId AND c.user.deletedAt IS NULL");
+        if (status != null) {
+            jpql.append(" AND ts.status = :status");
+        }
+        jpql.append(" ORDER BY ts.startTime, ts.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("userId", userId);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int column = 0;
+            for (TimeSlotField field : fields) {
+                if (field != TimeSlotField.DURATION_IN_MINUTES) {
+                    row.put(field.getJsonName(), tuple.get(column++));
+                }
+            }
+            if (duration) {
+                Instant start = tuple.get(column, Instant.class);
+                Instant end = tuple.get(column + 1, Instant.class);
+                row.put(TimeSlotField.DURATION_IN_MINUTES.getJsonName(), Duration.between(start, end).toMinutes());
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static String selectList(Set<MeetingField> fields) {
+        return fields.stream().map(MeetingField::getExpression).collect(Collectors.joining(", "));
+    }
+
+    private static boolean requiresJoin(Set<MeetingField> fields, MeetingField.Join join) {
+        return fields.stream().anyMatch(field -> field.getJoin() == join);
+    }
+
+    private static void appendOrganizerJoin(StringBuilder jpql, Set<MeetingField> fields) {
+        if (requiresJoin(fields, MeetingField.Join.ORGANIZER)) {
+            jpql.append(" JOIN m.organizer o");
+        }
+    }
+
+    private static List<Map<String, Object>> toMeetingRows(List<Tuple> tuples, Set<MeetingField> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int column = 0;
+            for (MeetingField field : fields) {
+                row.put(field.getJsonName(), tuple.get(column++));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,55 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Selectable {@code TimeSlotResponse} fields for sparse fieldsets, with the JPQL expression each one reads.
+ * {@code durationInMinutes} is derived from the start and end columns.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TimeSlotField {
+    ID("id", "ts.id", Join.NONE),
+    USER_ID("userId", "c.user.id", Join.NONE),
+    USER_EMAIL("userEmail", "u.email", Join.USER),
+    START_TIME("startTime", "ts.startTime", Join.NONE),
+    END_TIME("endTime", "ts.endTime", Join.NONE),
+    STATUS("status", "ts.status", Join.NONE),
+    DURATION_IN_MINUTES("durationInMinutes", null, Join.NONE),
+    MEETING_ID("meetingId", "mt.id", Join.MEETING),
+    CREATED_AT("createdAt", "ts.createdAt", Join.NONE);
+
+    private final String jsonName;
+    private final String expression;
+    private final Join join;
+
+    public enum Join {
+        NONE,
+        USER,
+        MEETING
+    }
+
+    public static Set<TimeSlotField> parse(String fields) {
+        Set<TimeSlotField> selected = EnumSet.noneOf(TimeSlotField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                selected.add(Arrays.stream(values())
+                        .filter(field -> field.jsonName.equals(trimmed))
+                        .findFirst()
+                        .orElseThrow(() -> new ValidationException(ErrorCode.UNKNOWN_FIELD, trimmed)));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new ValidationException(ErrorCode.FIELDS_REQUIRED);
+        }
+        return selected;
+    }
+}
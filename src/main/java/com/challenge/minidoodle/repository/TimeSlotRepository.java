@@ -3,22 +3,31 @@ package com.challenge.minidoodle.repository;
 import com.challenge.minidoodle.domain.TimeSlot;
 import com.challenge.minidoodle.domain.TimeSlotStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
 
-    List<TimeSlot> findByCalendarId(Long calendarId);
+    // Slots of deleted users stay until purged; lookups by id or user skip them
 
-    List<TimeSlot> findByCalendarIdAndStatus(Long calendarId, TimeSlotStatus status);
+    @Override
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.id = :id AND ts.calendar.user.deletedAt IS NULL")
+    Optional<TimeSlot> findById(@Param("id") Long id);
 
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.id = :calendarId " +
-            "AND ts.startTime >= :start AND ts.endTime <= :end")
+            "AND ts.startTime >= :start AND ts.endTime <= :end ORDER BY ts.startTime")
     List<TimeSlot> findByCalendarIdAndTimeRange(
             @Param("calendarId") Long calendarId,
             @Param("start") Instant start,
@@ -26,24 +35,79 @@ public interface TimeSlotRepository extends JpaRepository<TimeSlot, Long> {
 
     @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.id = :calendarId " +
             "AND ts.status = :status " +
-            "AND ts.startTime >= :start AND ts.endTime <= :end")
+            "AND ts.startTime >= :start AND ts.endTime <= :end ORDER BY ts.startTime")
     List<TimeSlot> findByCalendarIdAndStatusAndTimeRange(
             @Param("calendarId") Long calendarId,
             @Param("status") TimeSlotStatus status,
             @Param("start") Instant start,
             @Param("end") Instant end);
 
-    @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.user.id = :userId")
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.user.id = :userId AND ts.calendar.user.deletedAt IS NULL")
     List<TimeSlot> findByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.user.id = :userId AND ts.status = :status")
+    @Query("SELECT ts FROM TimeSlot ts JOIN FETCH ts.calendar c JOIN FETCH c.user u LEFT JOIN FETCH ts.meeting " +
+            "WHERE ts.id IN :ids AND u.deletedAt IS NULL")
+    List<TimeSlot> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ts FROM TimeSlot ts JOIN FETCH ts.calendar c JOIN FETCH c.user u LEFT JOIN FETCH ts.meeting " +
+            "WHERE u.id = :userId AND u.deletedAt IS NULL ORDER BY ts.startTime, ts.id")
+    Stream<TimeSlot> streamByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.user.id = :userId AND ts.calendar.user.deletedAt IS NULL " +
+            "AND ts.startTime < :end AND ts.endTime > :start ORDER BY ts.startTime")
+    List<TimeSlot> findOverlappingByUserId(
+            @Param("userId") Long userId,
+            @Param("start") Instant start,
+            @Param("end") Instant end);
+
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.user.id = :userId AND ts.calendar.user.deletedAt IS NULL " +
+            "AND ts.status = :status")
     List<TimeSlot> findByUserIdAndStatus(@Param("userId") Long userId, @Param("status") TimeSlotStatus status);
 
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.id = :calendarId AND ts.status = :status " +
+            "AND NOT EXISTS (SELECT m.id FROM Meeting m WHERE m.timeSlot = ts) " +
+            "AND ts.startTime <= :end AND ts.endTime >= :start ORDER BY ts.startTime, ts.id")
+    List<TimeSlot> findUnbookedTouching(
+            @Param("calendarId") Long calendarId,
+            @Param("status") TimeSlotStatus status,
+            @Param("start") Instant start,
+            @Param("end") Instant end);
+
+    @Query("SELECT ts FROM TimeSlot ts WHERE ts.calendar.id = :calendarId AND ts.status = :status " +
+            "AND NOT EXISTS (SELECT m.id FROM Meeting m WHERE m.timeSlot = ts) ORDER BY ts.startTime, ts.id")
+    List<TimeSlot> findUnbookedByCalendarId(
+            @Param("calendarId") Long calendarId,
+            @Param("status") TimeSlotStatus status);
+
+    @Query(value = "SELECT c.id FROM calendars c WHERE c.id > :afterId ORDER BY c.id LIMIT :limit", nativeQuery = true)
+    List<Long> findCalendarIdsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Whether any two slots of the calendar with the given status touch or overlap: one range scan of
+     * {@code idx_time_slots_calendar_start}, comparing each start with the latest end seen before it.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM (" +
+            "SELECT ts.start_time, MAX(ts.end_time) OVER (ORDER BY ts.start_time " +
+            "ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS reached " +
+            "FROM time_slots ts WHERE ts.calendar_id = :calendarId AND ts.status = :status) s " +
+            "WHERE s.start_time <= s.reached)", nativeQuery = true)
+    boolean hasTouchingSlots(@Param("calendarId") Long calendarId, @Param("status") String status);
+
+    @Modifying
+    @Query(value = "DELETE FROM time_slots WHERE id IN (" +
+            "SELECT ts.id FROM time_slots ts WHERE ts.calendar_id = :calendarId LIMIT :limit)", nativeQuery = true)
+    int deleteByCalendarId(@Param("calendarId") Long calendarId, @Param("limit") int limit);
+
     @Query("SELECT CASE WHEN COUNT(ts) > 0 THEN true ELSE false END FROM TimeSlot ts " +
-            "WHERE ts.calendar.id = :calendarId " +
+            "WHERE ts.calendar.id = :calendarId AND ts.id <> :excludedSlotId " +
             "AND ((ts.startTime < :endTime AND ts.endTime > :startTime))")
     boolean existsOverlappingSlot(
             @Param("calendarId") Long calendarId,
             @Param("startTime") Instant startTime,
-            @Param("endTime") Instant endTime);
+            @Param("endTime") Instant endTime,
+            @Param("excludedSlotId") Long excludedSlotId);
 }
@@ -0,0 +1,103 @@
+package com.challenge.minidoodle.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Set-based user reads and writes for bulk provisioning, bypassing the persistence context.
+ */
+@Repository
+public class UserBulkRepository {
+
+    private static final int EMAIL_FETCH_SIZE = 5000;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final JdbcTemplate streamingJdbc;
+
+    public UserBulkRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+        this.streamingJdbc = new JdbcTemplate(jdbc.getJdbcTemplate().getDataSource());
+        this.streamingJdbc.setFetchSize(EMAIL_FETCH_SIZE);
+    }
+
+    public record NewUser(long id, long calendarId, String email, String firstName, String lastName, Instant createdAt) {
+    }
+
+    /**
+     * Which of {@code emails} are already taken, in one query.
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbc.queryForList("SELECT email FROM users WHERE email IN (:emails)",
+                Map.of("emails", emails), String.class));
+    }
+
+    public Optional<String> findEmail(long userId) {
+        return jdbc.queryForList("SELECT email FROM users WHERE id = :id", Map.of("id", userId), String.class)
+                .stream().findFirst();
+    }
+
+    /**
+     * Passes every registered email to {@code action}. Streams with a server-side cursor when called inside a
+     * transaction.
+     */
+    public void forEachEmail(Consumer<String> action) {
+        streamingJdbc.query("SELECT email FROM users", row -> {
+            action.accept(row.getString(1));
+        });
+    }
+
+    /**
+     * Inserts the users and their calendars in two batched statements. Users whose email was taken concurrently
+     * are skipped, along with their calendar.
+     *
+     * @return for each row, whether it was inserted
+     */
+    public boolean[] insert(List<NewUser> users) {
+        int[] counts = jdbc.batchUpdate("INSERT INTO users (id, email, first_name, last_name, created_at) " +
+                        "VALUES (:id, :email, :firstName, :lastName, :createdAt) ON CONFLICT (email) DO NOTHING",
+                users.stream().map(UserBulkRepository::userRow).toArray(SqlParameterSource[]::new));
+        boolean[] inserted = new boolean[users.size()];
+        List<SqlParameterSource> calendars = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            inserted[i] = counts[i] != 0;
+            if (inserted[i]) {
+                NewUser user = users.get(i);
+                calendars.add(new MapSqlParameterSource()
+                        .addValue("id", user.calendarId())
+                        .addValue("userId", user.id())
+                        .addValue("createdAt", Timestamp.from(user.createdAt())));
+            }
+        }
+        if (!calendars.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO calendars (id, user_id, created_at) VALUES (:id, :userId, :createdAt)",
+                    calendars.toArray(SqlParameterSource[]::new));
+        }
+        return inserted;
+    }
+
+    private static SqlParameterSource userRow(NewUser user) {
+        return new MapSqlParameterSource()
+                .addValue("id", user.id())
+                .addValue("email", user.email())
+                .addValue("firstName", user.firstName())
+                .addValue("lastName", user.lastName())
+                .addValue("createdAt", Timestamp.from(user.createdAt()));
+    }
+}
@@ -1,15 +1,75 @@
 package com.challenge.minidoodle.repository;
 
 import com.challenge.minidoodle.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    Optional<User> findByEmail(String email);
+    // Deleted users keep their row until purged; every lookup below skips them
 
-    boolean existsByEmail(String email);
+    @Override
+    @Query("SELECT u FROM User u WHERE u.id = :id AND u.deletedAt IS NULL")
+    Optional<User> findById(@Param("id") Long id);
+
+    @Override
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.id = :id AND u.deletedAt IS NULL")
+    boolean existsById(@Param("id") Long id);
+
+    @Override
+    @Query("SELECT COUNT(u) FROM User u WHERE u.deletedAt IS NULL")
+    long count();
+
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND u.deletedAt IS NULL")
+    List<User> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u FROM User u WHERE u.email = :email AND u.deletedAt IS NULL")
+    Optional<User> findByEmail(@Param("email") String email);
+
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u " +
+            "WHERE u.email = :email AND u.deletedAt IS NULL")
+    boolean existsByEmail(@Param("email") String email);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.calendar WHERE u.deletedAt IS NULL ORDER BY u.id")
+    List<User> findAllWithCalendar();
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.calendar WHERE u.id IN :ids AND u.deletedAt IS NULL")
+    List<User> findAllWithCalendarByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND u.deletedAt IS NULL ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.calendar WHERE u.deletedAt IS NULL ORDER BY u.id")
+    Stream<User> streamAll();
+
+    @Query("SELECT u.id FROM User u WHERE u.deletedAt IS NOT NULL ORDER BY u.deletedAt")
+    List<Long> findDeletedIds(Limit limit);
+
+    @Query(value = "SELECT c.id FROM calendars c WHERE c.user_id = :userId", nativeQuery = true)
+    Optional<Long> findCalendarIdIncludingDeleted(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM calendars WHERE user_id = :userId", nativeQuery = true)
+    int deleteCalendarOf(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id = :userId AND deleted_at IS NOT NULL", nativeQuery = true)
+    int deletePurged(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,263 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.AgendaEntry;
+import com.challenge.minidoodle.domain.AgendaRole;
+import com.challenge.minidoodle.domain.Meeting;
+import com.challenge.minidoodle.dto.PageCursor;
+import com.challenge.minidoodle.repository.AgendaEntryRepository;
+import com.challenge.minidoodle.repository.MeetingRepository;
+import com.challenge.minidoodle.sharding.ShardContext;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-user agenda read model ({@code user_agenda}) and serves "my meetings" reads from it.
+ * <p>
+ * Each entry lives on its user's shard. Participants stored on another shard than the meeting get their entry
+ * there once the meeting's transaction commits, so their agenda and conflict checks include it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AgendaService {
+
+    private static final Instant OPEN_END = Instant.parse("9999-12-31T00:00:00Z");
+    private static final long BEFORE_ANY_ID = Long.MIN_VALUE;
+    private static final int CONFLICT_BATCH_SIZE = 1000;
+
+    private final AgendaEntryRepository agendaEntryRepository;
+    private final MeetingRepository meetingRepository;
+    private final ShardRouter shardRouter;
+
+    public void recordMeeting(Meeting meeting) {
+        agendaEntryRepository.insertForMeeting(meeting.getId());
+        publishRemote(List.of(meeting.getId()), Set.of());
+    }
+
+    /**
+     * Rewrites the agenda entries of a meeting whose participants changed.
+     *
+     * @param previousRemoteIds participants stored on other shards before the change, whose entries are replaced
+     */
+    public void refreshMeeting(Meeting meeting, Collection<Long> previousRemoteIds) {
+        agendaEntryRepository.deleteByMeetingId(meeting.getId());
+        agendaEntryRepository.insertForMeeting(meeting.getId());
+        publishRemote(List.of(meeting.getId()), shardsOf(previousRemoteIds));
+    }
+
+    /**
+     * Rewrites the agenda entries of the given meetings from their current participants and times.
+     */
+    public int refreshMeetings(Collection<Long> meetingIds) {
+        agendaEntryRepository.deleteByMeetingIdIn(meetingIds);
+        int inserted = agendaEntryRepository.insertForMeetings(meetingIds);
+        publishRemote(meetingIds, otherShards());
+        return inserted;
+    }
+
+    public void addParticipant(Meeting meeting, Long userId) {
+        int shard = shardRouter.shardOf(userId);
+        if (shard == shardRouter.shardOf(meeting.getId())) {
+            agendaEntryRepository.insertParticipant(meeting.getId(), userId);
+            return;
+        }
+        AgendaEntry entry = new AgendaEntry(userId, meeting.getId(), meeting.getStartTime(), meeting.getEndTime(),
+                AgendaRole.PARTICIPANT);
+        shardRouter.afterCommit(shard, () -> agendaEntryRepository.save(entry));
+    }
+
+    public void removeParticipant(Long meetingId, Long userId) {
+        int shard = shardRouter.shardOf(userId);
+        if (shard == shardRouter.shardOf(meetingId)) {
+            agendaEntryRepository.deleteByMeetingIdAndUserId(meetingId, userId);
+            return;
+        }
+        shardRouter.afterCommit(shard, () -> agendaEntryRepository.deleteByMeetingIdAndUserId(meetingId, userId));
+    }
+
+    public void rescheduleMeeting(Long meetingId, Instant startTime, Instant endTime) {
+        agendaEntryRepository.updateTimes(meetingId, startTime, endTime);
+        publishRemote(List.of(meetingId), Set.of());
+    }
+
+    public void removeMeeting(Meeting meeting) {
+        agendaEntryRepository.deleteByMeetingId(meeting.getId());
+        if (shardRouter.isEnabled()) {
+            List<Long> meetingIds = List.of(meeting.getId());
+            shardsOf(meeting.getRemoteParticipantIds()).forEach(shard ->
+                    shardRouter.afterCommit(shard, () -> agendaEntryRepository.deleteByMeetingIdIn(meetingIds)));
+        }
+    }
+
+    /**
+     * Rebuilds this shard's agenda from its meetings. With sharding, entries of participants stored on other shards
+     * are written by {@link #publishRemoteEntries()} on the shard of their meeting, so that runs once every shard
+     * has been rebuilt.
+     */
+    public int rebuild() {
+        int removed = agendaEntryRepository.deleteAllEntries();
+        int inserted = agendaEntryRepository.insertAllFromMeetings();
+        log.info("Rebuilt user agenda: removed {} entries, inserted {}", removed, inserted);
+        return inserted;
+    }
+
+    /**
+     * Writes the agenda entries of every participant of this shard's meetings who is stored on another shard,
+     * to that shard. Returns the number of entries written.
+     */
+    public int publishRemoteEntries() {
+        if (!shardRouter.isEnabled()) {
+            return 0;
+        }
+        List<AgendaEntry> entries = agendaEntryRepository.findAllRemoteEntries();
+        byShard(entries).forEach((shard, shardEntries) ->
+                shardRouter.afterCommit(shard, () -> agendaEntryRepository.saveAll(shardEntries)));
+        return entries.size();
+    }
+
+    /**
+     * Returns the agenda entries of {@code userIds} that overlap [start, end), ordered by user and start time,
+     * looking up at most {@value #CONFLICT_BATCH_SIZE} users per query.
+     *
+     * @param excludeMeetingId meeting to ignore, e.g. the one being edited; {@code null} for none
+     */
+    @Transactional(readOnly = true)
+    public List<AgendaEntry> findConflicts(Collection<Long> userIds, Instant start, Instant end, Long excludeMeetingId) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        long excluded = excludeMeetingId != null ? excludeMeetingId : BEFORE_ANY_ID;
+        List<AgendaEntry> conflicts = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CONFLICT_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + CONFLICT_BATCH_SIZE, ids.size()));
+            conflicts.addAll(agendaEntryRepository.findOverlapping(batch, start, end, excluded));
+        }
+        return conflicts;
+    }
+
+    /**
+     * Returns one keyset page of a user's meetings ordered by (start time, meeting id).
+     *
+     * @param role  restricts to meetings the user organizes or attends; {@code null} for both
+     * @param start inclusive lower bound on start time; {@code null} for unbounded
+     * @param end   exclusive upper bound on start time; {@code null} for unbounded
+     * @param after cursor of the last meeting of the previous page; {@code null} for the first page
+     */
+    @Transactional(readOnly = true)
+    public List<Meeting> getAgenda(Long userId, AgendaRole role, Instant start, Instant end,
+                                   PageCursor after, int limit) {
+        Instant afterStart = start != null ? start : Instant.EPOCH;
+        long afterMeetingId = BEFORE_ANY_ID;
+        if (after != null && !after.getStartTime().isBefore(afterStart)) {
+            afterStart = after.getStartTime();
+            afterMeetingId = after.getId();
+        }
+        Instant upperBound = end != null ? end : OPEN_END;
+
+        List<Long> meetingIds = role == null
+                ? agendaEntryRepository.findMeetingIdsPage(userId, afterStart, afterMeetingId, upperBound, limit)
+                : agendaEntryRepository.findMeetingIdsPageByRole(
+                        userId, role.name(), afterStart, afterMeetingId, upperBound, limit);
+        return getMeetings(meetingIds);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Meeting> getAllMeetings(Long userId, AgendaRole role) {
+        return getAgenda(userId, role, null, null, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Ids of every meeting a user organizes or attends, ordered by start time.
+     *
+     * @param role restricts to meetings the user organizes or attends; {@code null} for both
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findMeetingIds(Long userId, AgendaRole role) {
+        return agendaEntryRepository.findMeetingIds(userId, role);
+    }
+
+    /**
+     * Loads meetings by id in the given order, skipping missing ones. With sharding, meetings of other shards are
+     * loaded there, together with everything a response maps.
+     */
+    @Transactional(readOnly = true)
+    public List<Meeting> getMeetings(List<Long> meetingIds) {
+        if (meetingIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Meeting> byId = shardRouter.gather(meetingIds, ids -> {
+                    List<Meeting> meetings = meetingRepository.findAllWithDetailsByIdIn(ids);
+                    if (shardRouter.isEnabled()) {
+                        meetings.forEach(meeting -> Hibernate.initialize(meeting.getRemoteParticipantIds()));
+                    }
+                    return meetings;
+                }).stream()
+                .collect(Collectors.toMap(Meeting::getId, Function.identity()));
+        return meetingIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Writes the entries of the given meetings' participants stored on other shards there, once the caller commits.
+     * Entries of these meetings on {@code staleShards} are removed first. A write that fails is logged and restored
+     * by {@code POST /api/admin/agenda/rebuild}.
+     */
+    private void publishRemote(Collection<Long> meetingIds, Set<Integer> staleShards) {
+        if (!shardRouter.isEnabled()) {
+            return;
+        }
+        Map<Integer, List<AgendaEntry>> byShard = byShard(agendaEntryRepository.findRemoteEntries(meetingIds));
+        staleShards.forEach(shard -> byShard.putIfAbsent(shard, List.of()));
+        List<Long> ids = List.copyOf(meetingIds);
+        byShard.forEach((shard, entries) -> shardRouter.afterCommit(shard, () -> {
+            if (staleShards.contains(shard)) {
+                agendaEntryRepository.deleteByMeetingIdIn(ids);
+            }
+            agendaEntryRepository.saveAll(entries);
+        }));
+    }
+
+    private Map<Integer, List<AgendaEntry>> byShard(List<AgendaEntry> entries) {
+        Map<Integer, List<AgendaEntry>> byShard = new HashMap<>();
+        entries.forEach(entry -> byShard.computeIfAbsent(shardRouter.shardOf(entry.getUserId()), shard -> new ArrayList<>())
+                .add(entry));
+        return byShard;
+    }
+
+    private Set<Integer> shardsOf(Collection<Long> userIds) {
+        if (!shardRouter.isEnabled()) {
+            return Set.of();
+        }
+        return userIds.stream().map(shardRouter::shardOf).collect(Collectors.toSet());
+    }
+
+    private Set<Integer> otherShards() {
+        if (!shardRouter.isEnabled()) {
+            return Set.of();
+        }
+        Set<Integer> shards = new HashSet<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shards.add(shard);
+        }
+        shards.remove(ShardContext.current());
+        return shards;
+    }
+}
@@ -0,0 +1,240 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.AvailabilityBlock;
+import com.challenge.minidoodle.domain.AvailabilityRule;
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.dto.TimeSlotResponse;
+import com.challenge.minidoodle.exception.ConflictException;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.NotFoundException;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.AvailabilityBlockRepository;
+import com.challenge.minidoodle.repository.AvailabilityRuleRepository;
+import com.challenge.minidoodle.repository.TimeSlotRepository;
+import com.challenge.minidoodle.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Recurring availability. Rules and their exceptions are stored per calendar and expanded only for the
+ * window being queried; a concrete {@link TimeSlot} is written only when a rule-based slot is booked.
+ * Concrete slots always win over rule-based ones: any overlap hides the expanded slot.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AvailabilityRuleService {
+
+    static final int DEFAULT_SLOT_MINUTES = 30;
+    static final long MAX_EXPANSION_DAYS = 92;
+
+    private final AvailabilityRuleRepository ruleRepository;
+    private final AvailabilityBlockRepository blockRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final UserRepository userRepository;
+    private final OccupancyService occupancyService;
+    private final SlotOverlapGuard slotOverlapGuard;
+
+    public AvailabilityRule createRule(Long userId, DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime,
+                                       String timeZone, Integer slotMinutes, LocalDate validFrom, LocalDate validUntil) {
+        if (dayOfWeek == null || startTime == null || endTime == null) {
+            throw new ValidationException(ErrorCode.RULE_HOURS_REQUIRED);
+        }
+        if (!startTime.isBefore(endTime)) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        int minutes = slotMinutes != null ? slotMinutes : DEFAULT_SLOT_MINUTES;
+        if (minutes <= 0 || Duration.between(startTime, endTime).toMinutes() < minutes) {
+            throw new ValidationException(ErrorCode.INVALID_SLOT_LENGTH);
+        }
+        if (validFrom != null && validUntil != null && validUntil.isBefore(validFrom)) {
+            throw new ValidationException(ErrorCode.INVALID_VALIDITY_RANGE);
+        }
+
+        AvailabilityRule rule = new AvailabilityRule();
+        rule.setCalendar(findUser(userId).getCalendar());
+        rule.setDayOfWeek(dayOfWeek);
+        rule.setStartTime(startTime);
+        rule.setEndTime(endTime);
+        rule.setTimeZone(resolveZone(timeZone).getId());
+        rule.setSlotMinutes(minutes);
+        rule.setValidFrom(validFrom);
+        rule.setValidUntil(validUntil);
+        return ruleRepository.save(rule);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AvailabilityRule> getRules(Long userId) {
+        return ruleRepository.findByUserId(userId);
+    }
+
+    public void deleteRule(Long userId, Long ruleId) {
+        AvailabilityRule rule = ruleRepository.findById(ruleId)
+                .filter(candidate -> candidate.getCalendar().getUser().getId().equals(userId))
+                .orElseThrow(() -> new NotFoundException(ErrorCode.AVAILABILITY_RULE_NOT_FOUND, ruleId));
+        ruleRepository.delete(rule);
+    }
+
+    public AvailabilityBlock createBlock(Long userId, Instant startTime, Instant endTime, String reason) {
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        AvailabilityBlock block = new AvailabilityBlock();
+        block.setCalendar(findUser(userId).getCalendar());
+        block.setStartTime(startTime);
+        block.setEndTime(endTime);
+        block.setReason(reason);
+        return blockRepository.save(block);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AvailabilityBlock> getBlocks(Long userId) {
+        return blockRepository.findByUserId(userId);
+    }
+
+    public void deleteBlock(Long userId, Long blockId) {
+        AvailabilityBlock block = blockRepository.findById(blockId)
+                .filter(candidate -> candidate.getCalendar().getUser().getId().equals(userId))
+                .orElseThrow(() -> new NotFoundException(ErrorCode.AVAILABILITY_BLOCK_NOT_FOUND, blockId));
+        blockRepository.delete(block);
+    }
+
+    /**
+     * Removes all rules and blocks of a calendar ahead of deleting it.
+     */
+    public void removeCalendar(Long calendarId) {
+        blockRepository.deleteByCalendarId(calendarId);
+        ruleRepository.deleteByCalendarId(calendarId);
+    }
+
+    /**
+     * Expands the user's rules into available slots fully contained in [start, end), minus blocked windows and
+     * anything overlapping a concrete slot. Returns an empty list without further queries when the user has no rules.
+     */
+    @Transactional(readOnly = true)
+    public List<TimeSlotResponse> expandAvailableSlots(User user, Instant start, Instant end) {
+        List<AvailabilityRule> rules = ruleRepository.findByUserId(user.getId());
+        if (rules.isEmpty()) {
+            return List.of();
+        }
+        if (Duration.between(start, end).toDays() > MAX_EXPANSION_DAYS) {
+            throw new ValidationException(ErrorCode.WINDOW_TOO_WIDE, MAX_EXPANSION_DAYS + " days");
+        }
+        List<AvailabilityBlock> blocks = blockRepository.findOverlapping(user.getId(), start, end);
+        List<TimeSlot> concrete = timeSlotRepository.findOverlappingByUserId(user.getId(), start, end);
+
+        TreeMap<Instant, TimeSlotResponse> slots = new TreeMap<>();
+        for (AvailabilityRule rule : rules) {
+            ZoneId zone = ZoneId.of(rule.getTimeZone());
+            Duration length = Duration.ofMinutes(rule.getSlotMinutes());
+            LocalDate last = end.atZone(zone).toLocalDate();
+            for (LocalDate day = start.atZone(zone).toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+                if (!rule.appliesOn(day)) {
+                    continue;
+                }
+                ZonedDateTime windowEnd = day.atTime(rule.getEndTime()).atZone(zone);
+                for (ZonedDateTime slot = day.atTime(rule.getStartTime()).atZone(zone);
+                     !slot.plus(length).isAfter(windowEnd); slot = slot.plus(length)) {
+                    Instant slotStart = slot.toInstant();
+                    Instant slotEnd = slotStart.plus(length);
+                    if (slotStart.isBefore(start) || slotEnd.isAfter(end)
+                            || isBlocked(blocks, slotStart, slotEnd) || overlapsConcrete(concrete, slotStart, slotEnd)) {
+                        continue;
+                    }
+                    slots.putIfAbsent(slotStart, TimeSlotResponse.fromRule(user.getId(), user.getEmail(), slotStart, slotEnd));
+                }
+            }
+        }
+        return new ArrayList<>(slots.values());
+    }
+
+    /**
+     * Writes a concrete slot for a booking made against the user's rules. The requested window must be one or more
+     * consecutive slots of one rule on a single day, must not touch a blocked window and must not overlap an
+     * existing slot.
+     */
+    public TimeSlot materializeSlot(Long userId, Instant startTime, Instant endTime) {
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        User user = findUser(userId);
+        Long calendarId = user.getCalendar().getId();
+
+        boolean covered = ruleRepository.findByUserId(userId).stream()
+                .anyMatch(rule -> covers(rule, startTime, endTime));
+        if (!covered) {
+            throw new ConflictException(ErrorCode.OUTSIDE_AVAILABILITY);
+        }
+        if (!blockRepository.findOverlapping(userId, startTime, endTime).isEmpty()) {
+            throw new ConflictException(ErrorCode.BLOCKED_PERIOD);
+        }
+        slotOverlapGuard.checkFree(calendarId, startTime, endTime);
+        TimeSlot slot = timeSlotRepository.saveAndFlush(new TimeSlot(user.getCalendar(), startTime, endTime));
+        occupancyService.record(null, SlotUsage.of(slot));
+        return slot;
+    }
+
+    /**
+     * Whether [startTime, endTime) is a run of whole slots the rule offers on one day, i.e. starts on the rule's
+     * slot grid and lasts a multiple of its slot length.
+     */
+    private static boolean covers(AvailabilityRule rule, Instant startTime, Instant endTime) {
+        ZoneId zone = ZoneId.of(rule.getTimeZone());
+        LocalDate day = startTime.atZone(zone).toLocalDate();
+        Instant windowStart = day.atTime(rule.getStartTime()).atZone(zone).toInstant();
+        long slotNanos = Duration.ofMinutes(rule.getSlotMinutes()).toNanos();
+        return rule.appliesOn(day)
+                && !startTime.isBefore(windowStart)
+                && !endTime.isAfter(day.atTime(rule.getEndTime()).atZone(zone).toInstant())
+                && Duration.between(windowStart, startTime).toNanos() % slotNanos == 0
+                && Duration.between(startTime, endTime).toNanos() % slotNanos == 0;
+    }
+
+    private static boolean isBlocked(List<AvailabilityBlock> blocks, Instant start, Instant end) {
+        for (AvailabilityBlock block : blocks) {
+            if (block.getStartTime().isBefore(end) && block.getEndTime().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean overlapsConcrete(List<TimeSlot> slots, Instant start, Instant end) {
+        for (TimeSlot slot : slots) {
+            if (slot.getStartTime().isBefore(end) && slot.getEndTime().isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ZoneId resolveZone(String timeZone) {
+        if (timeZone == null || timeZone.isBlank()) {
+            return ZoneId.of("UTC");
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            throw new ValidationException(ErrorCode.UNKNOWN_TIME_ZONE, timeZone);
+        }
+    }
+
+    private User findUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, userId));
+    }
+}
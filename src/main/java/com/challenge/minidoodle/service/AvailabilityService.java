@@ -0,0 +1,83 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.dto.AvailabilityResponse;
+import com.challenge.minidoodle.dto.TimeSlotResponse;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.NotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of availability and slot listing. Identical concurrent requests are coalesced into one
+ * computation; the shared result is mapped to DTOs inside the leader's transaction so followers never
+ * touch another thread's persistence context.
+ */
+@Service
+public class AvailabilityService {
+
+    private final TimeSlotService timeSlotService;
+    private final UserService userService;
+    private final AvailabilityRuleService availabilityRuleService;
+    private final RequestCoalescer requestCoalescer;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AvailabilityService(TimeSlotService timeSlotService, UserService userService,
+                               AvailabilityRuleService availabilityRuleService, RequestCoalescer requestCoalescer,
+                               PlatformTransactionManager transactionManager) {
+        this.timeSlotService = timeSlotService;
+        this.userService = userService;
+        this.availabilityRuleService = availabilityRuleService;
+        this.requestCoalescer = requestCoalescer;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public AvailabilityResponse getAvailability(Long userId, Instant start, Instant end) {
+        return requestCoalescer.execute("availability", Arrays.asList(userId, start, end),
+                () -> readOnlyTransaction.execute(status -> computeAvailability(userId, start, end)));
+    }
+
+    /**
+     * Lists a user's concrete slots, optionally restricted to one status. Rule-based availability has no
+     * bounded window here and is only expanded by {@link #getAvailability}.
+     */
+    public List<TimeSlotResponse> getTimeSlots(Long userId, TimeSlotStatus status) {
+        return requestCoalescer.execute("slot-listing", Arrays.asList(userId, status),
+                () -> readOnlyTransaction.execute(tx -> toResponses(status == null
+                        ? timeSlotService.getTimeSlotsByUserId(userId)
+                        : timeSlotService.getSlotsByUserIdAndStatus(userId, status))));
+    }
+
+    private AvailabilityResponse computeAvailability(Long userId, Instant start, Instant end) {
+        User user = userService.getUserById(userId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, userId));
+
+        List<TimeSlotResponse> availableSlots = toResponses(timeSlotService
+                .getSlotsByUserIdAndStatusAndTimeRange(userId, TimeSlotStatus.AVAILABLE, start, end));
+        List<TimeSlotResponse> ruleSlots = availabilityRuleService.expandAvailableSlots(user, start, end);
+        if (!ruleSlots.isEmpty()) {
+            availableSlots.addAll(ruleSlots);
+            availableSlots.sort(Comparator.comparing(TimeSlotResponse::getStartTime));
+        }
+        List<TimeSlotResponse> busySlots = toResponses(timeSlotService
+                .getSlotsByUserIdAndStatusAndTimeRange(userId, TimeSlotStatus.BUSY, start, end));
+
+        return AvailabilityResponse.create(userId, user.getEmail(), start, end, availableSlots, busySlots);
+    }
+
+    private static List<TimeSlotResponse> toResponses(List<TimeSlot> slots) {
+        return slots.stream()
+                .map(TimeSlotResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+}
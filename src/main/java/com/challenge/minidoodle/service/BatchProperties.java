@@ -0,0 +1,33 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Collection;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.batch")
+public class BatchProperties {
+
+    /**
+     * Maximum number of ids accepted by a single batch-get request.
+     */
+    private int maxSize = 100;
+
+    /**
+     * Bounds every request that takes a list of ids (batch gets, conflicts, free/busy, occupancy): {@code ids}, with
+     * duplicates already removed by the caller, must hold between 1 and {@link #getMaxSize()} entries.
+     */
+    public void checkSize(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException(ErrorCode.IDS_REQUIRED);
+        }
+        if (ids.size() > maxSize) {
+            throw new ValidationException(ErrorCode.BATCH_TOO_LARGE, maxSize);
+        }
+    }
+}
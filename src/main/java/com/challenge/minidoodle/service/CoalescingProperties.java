@@ -0,0 +1,19 @@
+package com.challenge.minidoodle.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Longest a caller waits for an identical read already in flight. Past it the caller runs the read itself,
+     * so a stuck leader slows one request down instead of every request with the same key.
+     */
+    private Duration maxWait = Duration.ofSeconds(2);
+}
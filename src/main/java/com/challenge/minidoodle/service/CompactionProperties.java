@@ -0,0 +1,26 @@
+package com.challenge.minidoodle.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.compaction")
+public class CompactionProperties {
+
+    /**
+     * Merge contiguous or overlapping AVAILABLE slots of a calendar into maximal intervals.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Also merge when a slot is created or marked available, not only in the background job.
+     */
+    private boolean writeTime = true;
+
+    /**
+     * Upper bound on calendars examined by one background run; the next run continues after the last one.
+     */
+    private int maxCalendarsPerRun = 500;
+}
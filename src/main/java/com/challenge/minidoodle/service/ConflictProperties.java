@@ -0,0 +1,17 @@
+package com.challenge.minidoodle.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.conflicts")
+public class ConflictProperties {
+
+    /**
+     * Reject a booking with 409 when the organizer or a participant already has an overlapping meeting.
+     * When off, the booking goes through and the overlaps are reported in the response.
+     */
+    private boolean strict = false;
+}
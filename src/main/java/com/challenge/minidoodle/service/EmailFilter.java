@@ -0,0 +1,143 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.coherence.EntityType;
+import com.challenge.minidoodle.coherence.Invalidation;
+import com.challenge.minidoodle.coherence.InvalidationHandler;
+import com.challenge.minidoodle.repository.UserBulkRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory Bloom filter over all registered emails, so that signing up with a new email usually needs no
+ * "already registered" query. Until the first build completes every email is reported as possibly taken.
+ * <p>
+ * With cache coherence enabled, the email of a user created or changed by another instance is added when its
+ * {@code USER} invalidation arrives, and a full flush rebuilds the filter. Otherwise such users are only picked up
+ * by the next rebuild; until then the unique constraint on {@code users.email} still rejects a duplicate, just with
+ * a less specific error.
+ */
+@Slf4j
+@Component
+public class EmailFilter implements InvalidationHandler {
+
+    private final EmailFilterProperties properties;
+    private final UserBulkRepository userBulkRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter skipped;
+    private final Counter checked;
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private volatile long lastCount;
+
+    public EmailFilter(EmailFilterProperties properties, UserBulkRepository userBulkRepository, ShardRouter shardRouter,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.userBulkRepository = userBulkRepository;
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.skipped = Counter.builder("minidoodle.email-filter.lookups")
+                .description("Email uniqueness checks answered by the Bloom filter or the database")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+        this.checked = Counter.builder("minidoodle.email-filter.lookups")
+                .description("Email uniqueness checks answered by the Bloom filter or the database")
+                .tag("result", "checked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * False only if no user has {@code email}; true means the database must be asked.
+     */
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        boolean maybe = !properties.isEnabled() || current == null || current.mightContain(email);
+        (maybe ? checked : skipped).increment();
+        return maybe;
+    }
+
+    /**
+     * Records an email just taken by this instance.
+     */
+    public void add(String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+    }
+
+    /**
+     * Adds the current email of a user another instance created or changed. Emails a user gave up stay in the
+     * filter until the next rebuild, which only costs a database check.
+     */
+    @Override
+    public void evict(Invalidation invalidation) {
+        if (invalidation.type() != EntityType.USER || !properties.isEnabled()) {
+            return;
+        }
+        long userId = invalidation.id();
+        shardRouter.callOn(shardRouter.shardOf(userId), () -> userBulkRepository.findEmail(userId))
+                .ifPresent(this::add);
+    }
+
+    /**
+     * Invalidations were missed, so any email may be missing: every lookup goes to the database until a rebuild,
+     * started off the listener thread, completes.
+     */
+    @Override
+    public void evictAll() {
+        if (properties.isEnabled()) {
+            filter = null;
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void build() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${minidoodle.email-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${minidoodle.email-filter.rebuild-interval:PT1H}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        BloomFilter next = new BloomFilter(Math.max(properties.getExpectedEmails(), lastCount * 2),
+                properties.getFalsePositiveRate());
+        AtomicLong count = new AtomicLong();
+        building = next;
+        try {
+            shardRouter.forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status ->
+                    userBulkRepository.forEachEmail(email -> {
+                        next.put(email);
+                        count.incrementAndGet();
+                    })));
+            filter = next;
+            lastCount = count.get();
+            log.info("Built email filter over {} users ({} KB) in {} ms", count.get(), next.sizeInBytes() / 1024,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Email filter rebuild failed, keeping the previous one: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.challenge.minidoodle.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.email-filter")
+public class EmailFilterProperties {
+
+    /**
+     * Skip the "email already registered" query for emails the in-memory Bloom filter has never seen.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Minimum number of emails the filter is sized for; it grows to twice the current count on each rebuild.
+     */
+    private long expectedEmails = 1_000_000;
+
+    /**
+     * Share of unknown emails still checked against the database while the filter is within its size.
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * How often the filter is rebuilt from the database, picking up users created by other instances.
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
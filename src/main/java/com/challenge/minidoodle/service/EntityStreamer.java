@@ -0,0 +1,53 @@
+package com.challenge.minidoodle.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Drains a repository {@link Stream} in fixed-size chunks, clearing the persistence context after each chunk
+ * so memory stays constant however many rows the cursor returns. Rows of a chunk are all attached while it is
+ * processed, which lets {@code @BatchSize} collections initialise with one query per chunk.
+ * Must be called inside a transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityStreamer {
+
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    private final EntityManager entityManager;
+
+    public <T> long forEach(Stream<T> rows, Consumer<? super T> action) {
+        return forEach(rows, DEFAULT_CHUNK_SIZE, action);
+    }
+
+    public <T> long forEach(Stream<T> rows, int chunkSize, Consumer<? super T> action) {
+        List<T> chunk = new ArrayList<>(chunkSize);
+        long processed = 0;
+        try (rows) {
+            var iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    processed += drain(chunk, action);
+                }
+            }
+            processed += drain(chunk, action);
+        }
+        return processed;
+    }
+
+    private <T> int drain(List<T> chunk, Consumer<? super T> action) {
+        int size = chunk.size();
+        chunk.forEach(action);
+        chunk.clear();
+        entityManager.clear();
+        return size;
+    }
+}
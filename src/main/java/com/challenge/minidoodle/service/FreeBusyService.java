@@ -0,0 +1,102 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.dto.TeamFreeBusyResponse;
+import com.challenge.minidoodle.repository.FreeBusyRepository;
+import com.challenge.minidoodle.repository.FreeBusyRepository.SlotRow;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Side-by-side free/busy view of a team. All users' slots in the window are read with one query per shard and merged
+ * per user in memory; the users' availability rules are not expanded, so only concrete slots show up as free.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class FreeBusyService {
+
+    private final FreeBusyRepository freeBusyRepository;
+    private final ShardRouter shardRouter;
+    private final BatchProperties batchProperties;
+    private final RangeQueryProperties rangeQueryProperties;
+
+    public TeamFreeBusyResponse getFreeBusy(Collection<Long> userIds, Instant start, Instant end) {
+        Collection<Long> distinct = new LinkedHashSet<>(userIds);
+        batchProperties.checkSize(distinct);
+        rangeQueryProperties.checkWindow(start, end);
+
+        Map<Long, Blocks[]> blocksByUser = new HashMap<>();
+        for (SlotRow row : shardRouter.gather(distinct, ids -> freeBusyRepository.findSlots(ids, start, end))) {
+            Blocks[] blocks = blocksByUser.computeIfAbsent(row.userId(), id -> new Blocks[]{new Blocks(), new Blocks()});
+            if (row.startTime() != null) {
+                Instant from = row.startTime().isBefore(start) ? start : row.startTime();
+                Instant to = row.endTime().isAfter(end) ? end : row.endTime();
+                blocks[row.status() == TimeSlotStatus.AVAILABLE ? 0 : 1]
+                        .add(secondsSince(start, from), secondsSince(start, to));
+            }
+        }
+
+        List<TeamFreeBusyResponse.UserFreeBusy> users = new ArrayList<>(blocksByUser.size());
+        List<Long> notFound = new ArrayList<>();
+        for (Long userId : distinct) {
+            Blocks[] blocks = blocksByUser.get(userId);
+            if (blocks == null) {
+                notFound.add(userId);
+                continue;
+            }
+            TeamFreeBusyResponse.UserFreeBusy user = new TeamFreeBusyResponse.UserFreeBusy();
+            user.setUserId(userId);
+            user.setFree(blocks[0].toArray());
+            user.setBusy(blocks[1].toArray());
+            users.add(user);
+        }
+
+        TeamFreeBusyResponse response = new TeamFreeBusyResponse();
+        response.setStart(start);
+        response.setEnd(end);
+        response.setUsers(users);
+        response.setNotFound(notFound);
+        return response;
+    }
+
+    private static int secondsSince(Instant origin, Instant instant) {
+        return Math.toIntExact(instant.getEpochSecond() - origin.getEpochSecond());
+    }
+
+    /**
+     * Flat start/end pairs fed in start order; a block that starts where (or before) the previous one ends extends it.
+     */
+    private static final class Blocks {
+
+        private int[] bounds = new int[16];
+        private int size;
+
+        void add(int start, int end) {
+            if (size > 0 && start <= bounds[size - 1]) {
+                bounds[size - 1] = Math.max(bounds[size - 1], end);
+                return;
+            }
+            if (size == bounds.length) {
+                bounds = Arrays.copyOf(bounds, size * 2);
+            }
+            bounds[size++] = start;
+            bounds[size++] = end;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(bounds, size);
+        }
+    }
+}
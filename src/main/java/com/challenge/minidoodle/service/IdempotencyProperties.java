@@ -0,0 +1,31 @@
+package com.challenge.minidoodle.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a stored response is replayed for its key.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * How long a claimed key makes retries wait (409) while its request runs. A claim whose request never finished,
+     * e.g. because its instance crashed, is taken over by the next retry once this has passed. Must exceed the
+     * slowest create.
+     */
+    private Duration inProgressLease = Duration.ofMinutes(1);
+
+    /**
+     * Upper bound on responses kept in the local in-memory tier, beyond which the least recently used are evicted;
+     * the database tier is unbounded.
+     */
+    private int localMaxEntries = 10_000;
+}
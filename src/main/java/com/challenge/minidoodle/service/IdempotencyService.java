@@ -0,0 +1,181 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.IdempotencyRecord;
+import com.challenge.minidoodle.domain.IdempotencyStatus;
+import com.challenge.minidoodle.exception.IdempotencyConflictException;
+import com.challenge.minidoodle.repository.IdempotencyRecordRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executes create operations at most once per {@code Idempotency-Key}. The first response is stored in a
+ * local LRU map and in the {@code idempotency_keys} table; retries with the same key and payload get that
+ * response replayed without the operation running again.
+ * <p>
+ * The key is claimed in its own transaction before the operation runs, so a concurrent retry sees the claim
+ * and gets a 409 instead of racing the original request. The operation and the stored response commit in one
+ * transaction, so a key is completed exactly when its create is. A failed operation releases its claim; the claim
+ * of a request that never finished is only held for {@code in-progress-lease}.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate newTransaction;
+    private final ShardRouter shardRouter;
+    private final Map<String, StoredResponse> localResponses;
+
+    public IdempotencyService(IdempotencyRecordRepository repository, IdempotencyProperties properties,
+                              JsonMapper jsonMapper, PlatformTransactionManager transactionManager,
+                              ShardRouter shardRouter) {
+        this.repository = repository;
+        this.properties = properties;
+        this.jsonMapper = jsonMapper;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardRouter = shardRouter;
+        this.localResponses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > properties.getLocalMaxEntries();
+            }
+        });
+    }
+
+    public <T> ResponseEntity<T> execute(String key, String scope, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> operation) {
+        if (key == null || key.isBlank()) {
+            return operation.get();
+        }
+        String requestHash = fingerprint(scope, request);
+
+        StoredResponse local = localResponses.get(key);
+        if (local != null && local.expiresAt().isAfter(Instant.now())) {
+            return replay(key, local, scope, requestHash, responseType);
+        }
+
+        Instant now = Instant.now();
+        String token = UUID.randomUUID().toString();
+        Integer claimed = newTransaction.execute(status -> repository.claim(
+                key, scope, requestHash, token, now, now.plus(properties.getInProgressLease())));
+        if (claimed == null || claimed == 0) {
+            return replayStored(key, scope, requestHash, responseType);
+        }
+
+        Completion<T> completion;
+        try {
+            completion = newTransaction.execute(status -> {
+                ResponseEntity<T> response = operation.get();
+                StoredResponse stored = new StoredResponse(scope, requestHash, response.getStatusCode().value(),
+                        jsonMapper.writeValueAsString(response.getBody()), Instant.now().plus(properties.getTtl()));
+                if (repository.complete(key, token, stored.status(), stored.body(), stored.expiresAt()) == 0) {
+                    throw new IdempotencyConflictException(HttpStatus.CONFLICT,
+                            "Idempotency key " + key + " was taken over by a retry after its claim expired");
+                }
+                return new Completion<>(response, stored);
+            });
+        } catch (RuntimeException | Error ex) {
+            newTransaction.executeWithoutResult(status -> repository.release(key, token));
+            throw ex;
+        }
+        remember(key, completion.stored());
+        return completion.response();
+    }
+
+    @Scheduled(fixedDelayString = "${minidoodle.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        synchronized (localResponses) {
+            localResponses.values().removeIf(stored -> stored.expiresAt().isBefore(now));
+        }
+        // Keys are stored on the shard of the request they belong to
+        AtomicInteger removed = new AtomicInteger();
+        shardRouter.forEachShard(shard -> {
+            Integer shardRemoved = newTransaction.execute(status -> repository.deleteExpired(now));
+            removed.addAndGet(shardRemoved != null ? shardRemoved : 0);
+        });
+        log.debug("Purged {} expired idempotency keys", removed);
+    }
+
+    private <T> ResponseEntity<T> replayStored(String key, String scope, String requestHash, Class<T> responseType) {
+        Optional<IdempotencyRecord> record = repository.findById(key);
+        if (record.isEmpty() || record.get().getExpiresAt().isBefore(Instant.now())) {
+            throw new IdempotencyConflictException(HttpStatus.CONFLICT,
+                    "Idempotency key " + key + " has expired or was just released, retry with a new key");
+        }
+        if (record.get().getStatus() == IdempotencyStatus.IN_PROGRESS) {
+            if (!record.get().getRequestHash().equals(requestHash)) {
+                throw mismatch(key);
+            }
+            throw new IdempotencyConflictException(HttpStatus.CONFLICT,
+                    "A request with idempotency key " + key + " is still being processed");
+        }
+        StoredResponse stored = new StoredResponse(record.get().getScope(), record.get().getRequestHash(),
+                record.get().getResponseStatus(), record.get().getResponseBody(), record.get().getExpiresAt());
+        remember(key, stored);
+        return replay(key, stored, scope, requestHash, responseType);
+    }
+
+    private <T> ResponseEntity<T> replay(String key, StoredResponse stored, String scope, String requestHash, Class<T> responseType) {
+        if (!stored.scope().equals(scope) || !stored.requestHash().equals(requestHash)) {
+            throw mismatch(key);
+        }
+        T body = jsonMapper.readValue(stored.body(), responseType);
+        return ResponseEntity.status(stored.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private void remember(String key, StoredResponse stored) {
+        localResponses.put(key, stored);
+    }
+
+    private String fingerprint(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update(jsonMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static IdempotencyConflictException mismatch(String key) {
+        return new IdempotencyConflictException(HttpStatus.UNPROCESSABLE_CONTENT,
+                "Idempotency key " + key + " was already used for a different request");
+    }
+
+    private record Completion<T>(ResponseEntity<T> response, StoredResponse stored) {
+    }
+
+    private record StoredResponse(String scope, String requestHash, int status, String body, Instant expiresAt) {
+    }
+}
@@ -1,21 +1,50 @@
 package com.challenge.minidoodle.service;
 
+import com.challenge.minidoodle.coherence.CacheInvalidator;
+import com.challenge.minidoodle.coherence.EntityType;
+import com.challenge.minidoodle.domain.AgendaEntry;
+import com.challenge.minidoodle.domain.AgendaRole;
 import com.challenge.minidoodle.domain.Meeting;
 import com.challenge.minidoodle.domain.TimeSlot;
 import com.challenge.minidoodle.domain.TimeSlotStatus;
 import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.dto.KeysetPage;
+import com.challenge.minidoodle.dto.PageCursor;
+import com.challenge.minidoodle.dto.ParticipantConflict;
+import com.challenge.minidoodle.engine.SchedulingEngine;
+import com.challenge.minidoodle.exception.ConflictException;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.NotFoundException;
+import com.challenge.minidoodle.exception.ParticipantConflictException;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.MeetingField;
 import com.challenge.minidoodle.repository.MeetingRepository;
+import com.challenge.minidoodle.repository.SparseProjectionRepository;
 import com.challenge.minidoodle.repository.TimeSlotRepository;
 import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,91 +54,469 @@ public class MeetingService {
     private final MeetingRepository meetingRepository;
     private final TimeSlotRepository timeSlotRepository;
     private final UserRepository userRepository;
-
-    public Meeting createMeeting(Long timeSlotId, Long organizerId, String title,
+    private final AgendaService agendaService;
+    private final AvailabilityRuleService availabilityRuleService;
+    private final SlotCompactionService slotCompactionService;
+    private final EntityStreamer entityStreamer;
+    private final SparseProjectionRepository sparseProjectionRepository;
+    private final BatchProperties batchProperties;
+    private final ShardRouter shardRouter;
+    private final SchedulingEngine schedulingEngine;
+    private final RangeQueryProperties rangeQueryProperties;
+    private final ConflictProperties conflictProperties;
+    private final OccupancyService occupancyService;
+    private final CacheInvalidator cacheInvalidator;
+
+    private static final int PARTICIPANT_BATCH_SIZE = 1000;
+    private static final int MEETING_CHUNK_SIZE = EntityStreamer.DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Books either an existing slot ({@code timeSlotId}) or, when only {@code startTime}/{@code endTime} are
+     * given, a window offered by the organizer's availability rules, materialising its slot now. With both, the
+     * meeting takes [{@code startTime}, {@code endTime}) out of a larger AVAILABLE slot, which is split around it.
+     * With the scheduling engine enabled, whole-slot bookings are decided in memory and written behind.
+     * <p>
+     * Participants may live on another shard than the organizer; the meeting links those by id and their agenda
+     * entries are written on their own shard once the booking commits.
+     * <p>
+     * The organizer and all participants are checked for overlapping meetings in one batched lookup; overlaps
+     * reject the booking in strict mode and are returned on {@link Meeting#getConflicts()} otherwise.
+     */
+    public Meeting createMeeting(Long timeSlotId, Instant startTime, Instant endTime, Long organizerId, String title,
                                  String description, Set<Long> participantIds) {
-        TimeSlot timeSlot = timeSlotRepository.findById(timeSlotId)
-                .orElseThrow(() -> new IllegalArgumentException("Time slot not found with id: " + timeSlotId));
+        if (schedulingEngine.isEnabled() && !conflictProperties.isStrict() && timeSlotId != null && startTime == null && endTime == null) {
+            Meeting booked = schedulingEngine.book(timeSlotId, organizerId, title, description, participantIds);
+            Set<Long> attendeeIds = new HashSet<>();
+            attendeeIds.add(organizerId);
+            booked.getParticipants().forEach(participant -> attendeeIds.add(participant.getId()));
+            booked.setConflicts(checkConflicts(attendeeIds, booked.getStartTime(), booked.getEndTime(), booked.getId()));
+            return booked;
+        }
+        if (timeSlotId != null) {
+            schedulingEngine.claimSlot(timeSlotId);
+        } else {
+            schedulingEngine.claimUser(organizerId);
+        }
+
+        TimeSlot timeSlot;
+        if (timeSlotId != null) {
+            timeSlot = timeSlotRepository.findById(timeSlotId)
+                    .orElseThrow(() -> new NotFoundException(ErrorCode.TIME_SLOT_NOT_FOUND, timeSlotId));
+            if (startTime != null && endTime != null) {
+                timeSlot = slotCompactionService.carve(timeSlot, startTime, endTime);
+            } else if (startTime != null || endTime != null) {
+                throw new ValidationException(ErrorCode.TIME_RANGE_REQUIRED);
+            }
+        } else if (startTime != null && endTime != null) {
+            timeSlot = availabilityRuleService.materializeSlot(organizerId, startTime, endTime);
+        } else {
+            throw new ValidationException(ErrorCode.BOOKING_TARGET_REQUIRED);
+        }
 
         // Check if time slot is available
         if (timeSlot.getStatus() != TimeSlotStatus.AVAILABLE) {
-            throw new IllegalArgumentException("Time slot is not available for booking. Current status: " + timeSlot.getStatus());
+            throw new ConflictException(ErrorCode.SLOT_NOT_AVAILABLE, timeSlot.getStatus());
         }
 
         // Check if a meeting already exists for this time slot (database check)
-        Optional<Meeting> existingMeeting = meetingRepository.findByTimeSlotId(timeSlotId);
+        Optional<Meeting> existingMeeting = meetingRepository.findByTimeSlotId(timeSlot.getId());
         if (existingMeeting.isPresent()) {
-            throw new IllegalArgumentException("Time slot already has a meeting scheduled with ID: " + existingMeeting.get().getId());
+            throw new ConflictException(ErrorCode.SLOT_ALREADY_BOOKED, existingMeeting.get().getId());
         }
 
         User organizer = userRepository.findById(organizerId)
-                .orElseThrow(() -> new IllegalArgumentException("Organizer not found with id: " + organizerId));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.ORGANIZER_NOT_FOUND, organizerId));
 
         // Verify organizer owns the time slot
         if (!timeSlot.getCalendar().getUser().getId().equals(organizerId)) {
-            throw new IllegalArgumentException("Organizer does not own this time slot");
+            throw new ValidationException(ErrorCode.NOT_SLOT_OWNER);
         }
 
         // Create the meeting
         Meeting meeting = new Meeting(title, description, timeSlot, organizer);
 
-        // Add participants (excluding the organizer)
+        // Add participants (excluding the organizer); those on other shards are linked by id
         if (participantIds != null && !participantIds.isEmpty()) {
-            Set<User> participants = new HashSet<>();
+            Set<Long> localIds = new HashSet<>();
+            Set<Long> remoteIds = new HashSet<>();
+            int shard = shardRouter.shardOf(organizerId);
             for (Long participantId : participantIds) {
-                if (!participantId.equals(organizerId)) {
-                    User participant = userRepository.findById(participantId)
-                            .orElseThrow(() -> new IllegalArgumentException("Participant not found with id: " + participantId));
-                    participants.add(participant);
+                if (participantId.equals(organizerId)) {
+                    continue;
                 }
+                if (shardRouter.shardOf(participantId) == shard) {
+                    localIds.add(participantId);
+                } else {
+                    remoteIds.add(participantId);
+                }
+            }
+            Set<User> participants = localIds.isEmpty() ? new HashSet<>()
+                    : new HashSet<>(userRepository.findActiveByIdIn(localIds));
+            participants.forEach(participant -> localIds.remove(participant.getId()));
+            if (!localIds.isEmpty()) {
+                throw new NotFoundException(ErrorCode.PARTICIPANT_NOT_FOUND, localIds.iterator().next());
             }
             meeting.setParticipants(participants);
+            Set<User> remoteParticipants = loadRemoteUsers(remoteIds);
+            remoteParticipants.forEach(participant -> remoteIds.remove(participant.getId()));
+            if (!remoteIds.isEmpty()) {
+                throw new NotFoundException(ErrorCode.PARTICIPANT_NOT_FOUND, remoteIds.iterator().next());
+            }
+            remoteParticipants.forEach(participant -> meeting.addRemoteParticipant(participant.getId()));
+            meeting.setRemoteParticipants(remoteParticipants);
         }
 
+        Set<Long> attendeeIds = new HashSet<>();
+        attendeeIds.add(organizerId);
+        meeting.getParticipants().forEach(participant -> attendeeIds.add(participant.getId()));
+        attendeeIds.addAll(meeting.getRemoteParticipantIds());
+        List<AgendaEntry> conflicts = checkConflicts(attendeeIds, timeSlot.getStartTime(), timeSlot.getEndTime(), null);
+
         // Save the meeting first
         Meeting savedMeeting = meetingRepository.save(meeting);
+        savedMeeting.setConflicts(conflicts);
 
         // Update the time slot - set both sides of the relationship
+        SlotUsage before = SlotUsage.of(timeSlot);
         timeSlot.setStatus(TimeSlotStatus.BUSY);
         timeSlot.setMeeting(savedMeeting);
         timeSlotRepository.save(timeSlot);
+        occupancyService.record(before, SlotUsage.of(timeSlot));
+        cacheInvalidator.invalidate(EntityType.MEETING, savedMeeting.getId());
+        cacheInvalidator.invalidateSlot(timeSlot);
 
+        agendaService.recordMeeting(savedMeeting);
         return savedMeeting;
     }
 
+    /**
+     * Returns the meetings of {@code userIds} that overlap [start, end), grouped per user.
+     */
+    @Transactional(readOnly = true)
+    public List<ParticipantConflict> findConflicts(Collection<Long> userIds, Instant start, Instant end) {
+        Collection<Long> distinct = new LinkedHashSet<>(userIds);
+        batchProperties.checkSize(distinct);
+        if (!start.isBefore(end)) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        return ParticipantConflict.fromEntries(
+                shardRouter.gather(distinct, ids -> agendaService.findConflicts(ids, start, end, null)));
+    }
+
     @Transactional(readOnly = true)
     public Optional<Meeting> getMeetingById(Long id) {
-        return meetingRepository.findById(id);
+        return schedulingEngine.findPendingMeeting(id).or(() -> meetingRepository.findById(id))
+                .map(this::withRemoteParticipants);
+    }
+
+    /**
+     * Meetings with their slot, organizer and participants, including those on other shards, keyed by id. Unknown
+     * ids and meetings of deleted organizers are absent. The ids are limited by {@link BatchProperties#checkSize}.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Meeting> getMeetingsByIds(Collection<Long> ids) {
+        Collection<Long> distinct = new LinkedHashSet<>(ids);
+        batchProperties.checkSize(distinct);
+        List<Meeting> meetings = shardRouter.gather(distinct, shardIds -> {
+            List<Meeting> found = meetingRepository.findAllWithDetailsByIdIn(shardIds);
+            initializeRemoteParticipantIds(found);
+            return found;
+        });
+        return withRemoteParticipants(meetings).stream()
+                .collect(Collectors.toMap(Meeting::getId, Function.identity()));
     }
 
     @Transactional(readOnly = true)
     public List<Meeting> getMeetingsByOrganizerId(Long organizerId) {
-        return meetingRepository.findByOrganizerId(organizerId);
+        return withRemoteParticipants(agendaService.getAllMeetings(organizerId, AgendaRole.ORGANIZER));
     }
 
     @Transactional(readOnly = true)
     public List<Meeting> getMeetingsByParticipantId(Long participantId) {
-        return meetingRepository.findByParticipantId(participantId);
+        return withRemoteParticipants(agendaService.getAllMeetings(participantId, AgendaRole.PARTICIPANT));
     }
 
     @Transactional(readOnly = true)
     public List<Meeting> getAllMeetingsForUser(Long userId) {
-        return meetingRepository.findByUserIdAsOrganizerOrParticipant(userId);
+        return withRemoteParticipants(agendaService.getAllMeetings(userId, null));
+    }
+
+    /**
+     * Streams every meeting a user organizes or attends, ordered by start time, through {@code action}
+     * in constant memory. With sharding, meetings on other shards are only reachable through the user's agenda:
+     * its meeting ids are read first and the meetings loaded from their shards {@value #MEETING_CHUNK_SIZE} at a time.
+     */
+    @Transactional(readOnly = true)
+    public long streamMeetingsForUser(Long userId, Consumer<Meeting> action) {
+        if (!shardRouter.isEnabled()) {
+            return entityStreamer.forEach(meetingRepository.streamByUserId(userId), action);
+        }
+        List<Long> meetingIds = agendaService.findMeetingIds(userId, null);
+        long count = 0;
+        for (int from = 0; from < meetingIds.size(); from += MEETING_CHUNK_SIZE) {
+            List<Meeting> chunk = withRemoteParticipants(agendaService.getMeetings(
+                    meetingIds.subList(from, Math.min(from + MEETING_CHUNK_SIZE, meetingIds.size()))));
+            chunk.forEach(action);
+            count += chunk.size();
+        }
+        return count;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Meeting> getAgendaForUser(Long userId, AgendaRole role, Instant start, Instant end,
+                                          PageCursor after, int limit) {
+        return withRemoteParticipants(agendaService.getAgenda(userId, role, start, end, after, limit));
+    }
+
+    /**
+     * Returns one keyset page of the meetings inside [start, end), ordered by (start time, meeting id). The range
+     * may span at most {@link RangeQueryProperties#getMaxWindow()}.
+     *
+     * @param after cursor of the last meeting of the previous page; {@code null} for the first page
+     */
+    @Transactional(readOnly = true)
+    public List<Meeting> getMeetingPageByTimeRange(Instant start, Instant end, PageCursor after, int limit) {
+        rangeQueryProperties.checkWindow(start, end);
+        Instant afterStart = start;
+        long afterId = Long.MIN_VALUE;
+        if (after != null && !after.getStartTime().isBefore(start)) {
+            afterStart = after.getStartTime();
+            afterId = after.getId();
+        }
+        Instant pageStart = afterStart;
+        long pageAfterId = afterId;
+        List<Meeting> meetings = shardRouter.scatter(() -> {
+            List<Meeting> page = meetingRepository.findPageByTimeRange(start, end, pageStart, pageAfterId, Limit.of(limit));
+            page.forEach(meeting -> Hibernate.initialize(meeting.getParticipants()));
+            initializeRemoteParticipantIds(page);
+            return page;
+        });
+        if (shardRouter.shardCount() > 1) {
+            meetings.sort(Comparator.comparing(Meeting::getStartTime).thenComparing(Meeting::getId));
+            meetings = new ArrayList<>(meetings.subList(0, Math.min(limit, meetings.size())));
+        }
+        return withRemoteParticipants(meetings);
+    }
+
+    /**
+     * Streams every meeting inside [start, end) through {@code action} in constant memory over a forward-only
+     * database cursor, ordered by start time within each shard. Not limited by the maximum window.
+     */
+    @Transactional(readOnly = true)
+    public long streamMeetingsByTimeRange(Instant start, Instant end, Consumer<Meeting> action) {
+        if (!start.isBefore(end)) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        Consumer<Meeting> mapped = shardRouter.isEnabled() ? meeting -> action.accept(withRemoteParticipants(meeting)) : action;
+        AtomicLong count = new AtomicLong();
+        shardRouter.readEachShard(() -> count.addAndGet(
+                entityStreamer.forEach(meetingRepository.streamByTimeRange(start, end), mapped)));
+        return count.get();
+    }
+
+    /**
+     * Sparse variant of the per-user listings: selects only {@code fields}, joining the time slot and
+     * organizer only when a requested field lives there. Participants are loaded in one extra query per
+     * {@value #PARTICIPANT_BATCH_SIZE} meetings when {@code includeParticipants} is set, which also forces {@code id}.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getMeetingFieldsForUser(Long userId, AgendaRole role, Set<MeetingField> fields,
+                                                             boolean includeParticipants) {
+        if (shardRouter.isEnabled()) {
+            return getMeetingFieldsByIds(agendaService.findMeetingIds(userId, role), fields, includeParticipants);
+        }
+        Set<MeetingField> selected = withIdIfNeeded(fields, includeParticipants);
+        List<Map<String, Object>> rows = sparseProjectionRepository.findMeetingsForUser(userId, role, selected);
+        return includeParticipants ? attachParticipants(rows) : rows;
+    }
+
+    /**
+     * Selects {@code fields} of the given meetings on each meeting's shard, in the order of {@code meetingIds}.
+     * Used with sharding, where a user's agenda can list meetings of other shards that cannot be joined.
+     */
+    private List<Map<String, Object>> getMeetingFieldsByIds(List<Long> meetingIds, Set<MeetingField> fields,
+                                                            boolean includeParticipants) {
+        if (meetingIds.isEmpty()) {
+            return List.of();
+        }
+        Set<MeetingField> selected = withIdIfNeeded(fields, true);
+        String idKey = MeetingField.ID.getJsonName();
+        Map<Long, Map<String, Object>> byId = shardRouter.gather(meetingIds, ids -> {
+                    List<Map<String, Object>> rows = sparseProjectionRepository.findMeetingsByIds(ids, selected);
+                    return includeParticipants ? attachParticipants(rows) : rows;
+                }).stream()
+                .collect(Collectors.toMap(row -> (Long) row.get(idKey), Function.identity()));
+        List<Map<String, Object>> rows = new ArrayList<>(byId.size());
+        for (Long id : meetingIds) {
+            Map<String, Object> row = byId.get(id);
+            if (row != null) {
+                if (!includeParticipants && !fields.contains(MeetingField.ID)) {
+                    row.remove(idKey);
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
     }
 
+    /**
+     * Sparse variant of {@link #getMeetingPageByTimeRange}. Start time and id are always selected to order the page
+     * and build its cursor, and dropped from the rows unless requested.
+     */
     @Transactional(readOnly = true)
-    public List<Meeting> getMeetingsByTimeRange(Instant start, Instant end) {
-        return meetingRepository.findByTimeRange(start, end);
+    public KeysetPage<Map<String, Object>> getMeetingFieldsPageByTimeRange(Instant start, Instant end, PageCursor after,
+                                                                           int limit, Set<MeetingField> fields,
+                                                                           boolean includeParticipants) {
+        rangeQueryProperties.checkWindow(start, end);
+        Instant afterStart = start;
+        long afterId = Long.MIN_VALUE;
+        if (after != null && !after.getStartTime().isBefore(start)) {
+            afterStart = after.getStartTime();
+            afterId = after.getId();
+        }
+        Set<MeetingField> selected = EnumSet.copyOf(fields);
+        selected.add(MeetingField.ID);
+        selected.add(MeetingField.START_TIME);
+        String idKey = MeetingField.ID.getJsonName();
+        String startKey = MeetingField.START_TIME.getJsonName();
+        Instant pageStart = afterStart;
+        long pageAfterId = afterId;
+        List<Map<String, Object>> rows = shardRouter.scatter(() -> {
+            List<Map<String, Object>> shardRows = sparseProjectionRepository.findMeetingPageInRange(
+                    start, end, pageStart, pageAfterId, limit, selected);
+            return includeParticipants ? attachParticipants(shardRows) : shardRows;
+        });
+        if (shardRouter.shardCount() > 1) {
+            rows.sort(Comparator.comparing((Map<String, Object> row) -> (Instant) row.get(startKey))
+                    .thenComparing(row -> (Long) row.get(idKey)));
+            rows = new ArrayList<>(rows.subList(0, Math.min(limit, rows.size())));
+        }
+
+        PageCursor next = null;
+        if (rows.size() == limit) {
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            next = new PageCursor((Instant) last.get(startKey), (Long) last.get(idKey));
+        }
+        for (Map<String, Object> row : rows) {
+            if (!fields.contains(MeetingField.START_TIME)) {
+                row.remove(startKey);
+            }
+            if (!fields.contains(MeetingField.ID) && !includeParticipants) {
+                row.remove(idKey);
+            }
+        }
+        return KeysetPage.of(rows, next);
+    }
+
+    /**
+     * Looks up overlapping meetings of {@code userIds} in one batched query. Any overlap rejects the operation in
+     * strict mode; otherwise the overlaps are returned so the caller can report them.
+     */
+    private List<AgendaEntry> checkConflicts(Collection<Long> userIds, Instant start, Instant end, Long excludeMeetingId) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        List<AgendaEntry> conflicts = shardRouter.gather(userIds,
+                ids -> agendaService.findConflicts(ids, start, end, excludeMeetingId));
+        if (!conflicts.isEmpty() && conflictProperties.isStrict()) {
+            throw new ParticipantConflictException(ParticipantConflict.fromEntries(conflicts));
+        }
+        return conflicts;
+    }
+
+    private static Set<MeetingField> withIdIfNeeded(Set<MeetingField> fields, boolean includeParticipants) {
+        if (!includeParticipants || fields.contains(MeetingField.ID)) {
+            return fields;
+        }
+        Set<MeetingField> selected = EnumSet.copyOf(fields);
+        selected.add(MeetingField.ID);
+        return selected;
+    }
+
+    private List<Map<String, Object>> attachParticipants(List<Map<String, Object>> rows) {
+        String idKey = MeetingField.ID.getJsonName();
+        for (int from = 0; from < rows.size(); from += PARTICIPANT_BATCH_SIZE) {
+            List<Map<String, Object>> batch = rows.subList(from, Math.min(from + PARTICIPANT_BATCH_SIZE, rows.size()));
+            List<Long> ids = new ArrayList<>(batch.size());
+            batch.forEach(row -> ids.add((Long) row.get(idKey)));
+            Map<Long, List<Map<String, Object>>> participants = sparseProjectionRepository.findParticipants(ids);
+            if (shardRouter.isEnabled()) {
+                attachRemoteParticipants(ids, participants);
+            }
+            batch.forEach(row -> row.put("participants", participants.getOrDefault((Long) row.get(idKey), List.of())));
+        }
+        return rows;
+    }
+
+    private void attachRemoteParticipants(List<Long> meetingIds, Map<Long, List<Map<String, Object>>> participants) {
+        Map<Long, List<Long>> remoteIds = sparseProjectionRepository.findRemoteParticipantIds(meetingIds);
+        if (remoteIds.isEmpty()) {
+            return;
+        }
+        Map<Long, User> users = new HashMap<>();
+        Set<Long> userIds = remoteIds.values().stream().flatMap(List::stream).collect(Collectors.toSet());
+        loadRemoteUsers(userIds).forEach(user -> users.put(user.getId(), user));
+        remoteIds.forEach((meetingId, ids) -> {
+            List<Map<String, Object>> rows = new ArrayList<>(participants.getOrDefault(meetingId, List.of()));
+            for (Long id : ids) {
+                User user = users.get(id);
+                if (user != null) {
+                    rows.add(SparseProjectionRepository.participantRow(
+                            user.getId(), user.getEmail(), user.getFirstName(), user.getLastName()));
+                }
+            }
+            participants.put(meetingId, rows);
+        });
+    }
+
+    /**
+     * Active users among {@code userIds}, each read on its own shard.
+     */
+    private Set<User> loadRemoteUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(shardRouter.gather(userIds, userRepository::findActiveByIdIn));
+    }
+
+    private static void initializeRemoteParticipantIds(List<Meeting> meetings) {
+        meetings.forEach(meeting -> Hibernate.initialize(meeting.getRemoteParticipantIds()));
+    }
+
+    private Meeting withRemoteParticipants(Meeting meeting) {
+        withRemoteParticipants(List.of(meeting));
+        return meeting;
+    }
+
+    /**
+     * Loads the participants stored on other shards than their meetings onto {@link Meeting#getRemoteParticipants()},
+     * one query per shard for all meetings. Deleted users are left out, as on the meeting's own shard.
+     */
+    private List<Meeting> withRemoteParticipants(List<Meeting> meetings) {
+        if (!shardRouter.isEnabled()) {
+            return meetings;
+        }
+        Set<Long> userIds = new HashSet<>();
+        meetings.forEach(meeting -> userIds.addAll(meeting.getRemoteParticipantIds()));
+        Map<Long, User> users = new HashMap<>();
+        loadRemoteUsers(userIds).forEach(user -> users.put(user.getId(), user));
+        for (Meeting meeting : meetings) {
+            Set<User> remote = new HashSet<>();
+            meeting.getRemoteParticipantIds().forEach(id -> Optional.ofNullable(users.get(id)).ifPresent(remote::add));
+            meeting.setRemoteParticipants(remote);
+        }
+        return meetings;
     }
 
     @Transactional(readOnly = true)
     public List<Meeting> getMeetingsByOrganizerAndTimeRange(Long organizerId, Instant start, Instant end) {
-        return meetingRepository.findByOrganizerIdAndTimeRange(organizerId, start, end);
+        return withRemoteParticipants(meetingRepository.findByOrganizerIdAndTimeRange(organizerId, start, end));
     }
 
     public Meeting updateMeeting(Long id, String title, String description, Set<Long> participantIds) {
+        schedulingEngine.claimMeeting(id);
         Meeting meeting = meetingRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Meeting not found with id: " + id));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.MEETING_NOT_FOUND, id));
 
         if (title != null && !title.isBlank()) {
             meeting.setTitle(title);
@@ -119,52 +526,107 @@ public class MeetingService {
             meeting.setDescription(description);
         }
 
+        List<AgendaEntry> conflicts = List.of();
+        Set<Long> previousRemoteIds = Set.copyOf(meeting.getRemoteParticipantIds());
         if (participantIds != null) {
-            Set<User> participants = new HashSet<>(userRepository.findAllById(participantIds));
+            int shard = shardRouter.shardOf(id);
+            Set<Long> localIds = new HashSet<>();
+            Set<Long> remoteIds = new HashSet<>();
+            participantIds.forEach(participantId ->
+                    (shardRouter.shardOf(participantId) == shard ? localIds : remoteIds).add(participantId));
+            Set<User> participants = new HashSet<>(userRepository.findActiveByIdIn(localIds));
             participants.removeIf(p -> p.getId().equals(meeting.getOrganizer().getId()));
+            Set<User> remoteParticipants = loadRemoteUsers(remoteIds);
+
+            Set<Long> addedIds = new HashSet<>();
+            participants.forEach(participant -> addedIds.add(participant.getId()));
+            remoteParticipants.forEach(participant -> addedIds.add(participant.getId()));
+            meeting.getParticipants().forEach(participant -> addedIds.remove(participant.getId()));
+            addedIds.removeAll(previousRemoteIds);
+            conflicts = checkConflicts(addedIds, meeting.getStartTime(), meeting.getEndTime(), id);
             meeting.setParticipants(participants);
+            meeting.getRemoteParticipantIds().clear();
+            remoteParticipants.forEach(participant -> meeting.addRemoteParticipant(participant.getId()));
         }
 
-        return meetingRepository.save(meeting);
+        Meeting savedMeeting = meetingRepository.save(meeting);
+        savedMeeting.setConflicts(conflicts);
+        cacheInvalidator.invalidate(EntityType.MEETING, id);
+        if (participantIds != null) {
+            agendaService.refreshMeeting(savedMeeting, previousRemoteIds);
+        }
+        return withRemoteParticipants(savedMeeting);
     }
 
     public Meeting addParticipant(Long meetingId, Long userId) {
+        schedulingEngine.claimMeeting(meetingId);
         Meeting meeting = meetingRepository.findById(meetingId)
-                .orElseThrow(() -> new IllegalArgumentException("Meeting not found with id: " + meetingId));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.MEETING_NOT_FOUND, meetingId));
 
         if (meeting.getOrganizer().getId().equals(userId)) {
-            throw new IllegalArgumentException("Organizer cannot be added as a participant");
+            throw new ValidationException(ErrorCode.ORGANIZER_AS_PARTICIPANT);
         }
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
-
-        meeting.addParticipant(user);
-        return meetingRepository.save(meeting);
+        boolean remote = shardRouter.shardOf(userId) != shardRouter.shardOf(meetingId);
+
+        User user = (remote ? loadRemoteUsers(List.of(userId)).stream().findFirst() : userRepository.findById(userId))
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, userId));
+
+        boolean attending = remote
+                ? meeting.getRemoteParticipantIds().contains(userId)
+                : meeting.getParticipants().stream().anyMatch(p -> p.getId().equals(userId));
+        List<AgendaEntry> conflicts = attending
+                ? List.<AgendaEntry>of()
+                : checkConflicts(List.of(userId), meeting.getStartTime(), meeting.getEndTime(), meetingId);
+        if (remote) {
+            meeting.addRemoteParticipant(userId);
+        } else {
+            meeting.addParticipant(user);
+        }
+        Meeting savedMeeting = meetingRepository.save(meeting);
+        savedMeeting.setConflicts(conflicts);
+        agendaService.addParticipant(savedMeeting, userId);
+        cacheInvalidator.invalidate(EntityType.MEETING, meetingId);
+        return withRemoteParticipants(savedMeeting);
     }
 
     public Meeting removeParticipant(Long meetingId, Long userId) {
+        schedulingEngine.claimMeeting(meetingId);
         Meeting meeting = meetingRepository.findById(meetingId)
-                .orElseThrow(() -> new IllegalArgumentException("Meeting not found with id: " + meetingId));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.MEETING_NOT_FOUND, meetingId));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+        if (shardRouter.shardOf(userId) != shardRouter.shardOf(meetingId)) {
+            if (!meeting.removeRemoteParticipant(userId) && loadRemoteUsers(List.of(userId)).isEmpty()) {
+                throw new NotFoundException(ErrorCode.USER_NOT_FOUND, userId);
+            }
+        } else {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, userId));
+            meeting.removeParticipant(user);
+        }
 
-        meeting.removeParticipant(user);
-        return meetingRepository.save(meeting);
+        Meeting savedMeeting = meetingRepository.save(meeting);
+        agendaService.removeParticipant(meetingId, userId);
+        cacheInvalidator.invalidate(EntityType.MEETING, meetingId);
+        return withRemoteParticipants(savedMeeting);
     }
 
     public void cancelMeeting(Long id) {
+        schedulingEngine.claimMeeting(id);
         Meeting meeting = meetingRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Meeting not found with id: " + id));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.MEETING_NOT_FOUND, id));
 
         TimeSlot timeSlot = meeting.getTimeSlot();
 
         // Clear the relationship on both sides
+        SlotUsage before = SlotUsage.of(timeSlot);
         timeSlot.setMeeting(null);
         timeSlot.setStatus(TimeSlotStatus.AVAILABLE);
         timeSlotRepository.save(timeSlot);
+        occupancyService.record(before, SlotUsage.of(timeSlot));
 
+        agendaService.removeMeeting(meeting);
         meetingRepository.delete(meeting);
+        cacheInvalidator.invalidate(EntityType.MEETING, id);
+        cacheInvalidator.invalidateSlot(timeSlot);
     }
 }
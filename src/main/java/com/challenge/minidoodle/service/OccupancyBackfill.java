@@ -0,0 +1,31 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the occupancy counters from existing slots on every shard that has none yet, so reports cover data
+ * written before the counters existed. Finds nothing to do once a shard has any counter row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class OccupancyBackfill {
+
+    private final OccupancyService occupancyService;
+    private final ShardRouter shardRouter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeCounters() {
+        shardRouter.forEachShard(shard -> {
+            int inserted = occupancyService.initializeIfEmpty();
+            if (inserted > 0) {
+                log.info("Built {} occupancy counter rows on shard {}", inserted, shard);
+            }
+        });
+    }
+}
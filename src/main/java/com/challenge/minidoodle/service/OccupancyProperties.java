@@ -0,0 +1,16 @@
+package com.challenge.minidoodle.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.occupancy")
+public class OccupancyProperties {
+
+    /**
+     * Most days one occupancy report may cover.
+     */
+    private int maxDays = 366;
+}
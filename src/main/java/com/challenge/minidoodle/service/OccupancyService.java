@@ -0,0 +1,214 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.CalendarDailyStats;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.dto.OccupancyReport;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.CalendarDailyStatsRepository;
+import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains and reads the per-calendar daily occupancy counters. Write paths report each slot change as a
+ * before/after {@link SlotUsage}; the resulting deltas are summed per calendar and day for the whole transaction
+ * and applied just before it commits, in key order, so concurrent writers never deadlock on the counter rows and
+ * a rolled-back change leaves the counters untouched.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OccupancyService {
+
+    public enum Granularity {
+        DAY, WEEK
+    }
+
+    private final CalendarDailyStatsRepository statsRepository;
+    private final UserRepository userRepository;
+    private final BatchProperties batchProperties;
+    private final OccupancyProperties properties;
+    private final ShardRouter shardRouter;
+
+    /**
+     * Records that a slot changed from {@code before} to {@code after}; {@code null} stands for a slot that did
+     * not exist before or no longer exists. Must be called inside the transaction making the change.
+     */
+    public void record(SlotUsage before, SlotUsage after) {
+        PendingCounters pending = pendingCounters();
+        if (before != null) {
+            pending.add(before, -1);
+        }
+        if (after != null) {
+            pending.add(after, 1);
+        }
+    }
+
+    public void removeCalendar(Long calendarId) {
+        statsRepository.deleteByCalendarId(calendarId);
+    }
+
+    /**
+     * Recomputes all counters of the current shard from the slots. Counter updates of concurrent transactions wait
+     * for the rebuild and are applied on top of it.
+     */
+    public int rebuild() {
+        statsRepository.lockForRebuild();
+        int removed = statsRepository.deleteAllStats();
+        int inserted = statsRepository.insertAllFromSlots();
+        log.info("Rebuilt occupancy counters: removed {} rows, inserted {}", removed, inserted);
+        return inserted;
+    }
+
+    /**
+     * Builds the counters of the current shard if there are none yet, e.g. on first start after upgrading.
+     *
+     * @return rows inserted
+     */
+    public int initializeIfEmpty() {
+        return statsRepository.hasAny() ? 0 : rebuild();
+    }
+
+    /**
+     * Occupancy of each user's calendar over [from, to), per day or per ISO week (weeks start on Monday and the
+     * range is widened to whole weeks). Unknown users are omitted.
+     */
+    @Transactional(readOnly = true)
+    public List<OccupancyReport> getOccupancy(Collection<Long> userIds, LocalDate from, LocalDate to,
+                                              Granularity granularity) {
+        Collection<Long> distinct = new LinkedHashSet<>(userIds);
+        batchProperties.checkSize(distinct);
+        if (!from.isBefore(to)) {
+            throw new ValidationException(ErrorCode.INVALID_DATE_RANGE);
+        }
+        if (ChronoUnit.DAYS.between(from, to) > properties.getMaxDays()) {
+            throw new ValidationException(ErrorCode.WINDOW_TOO_WIDE, properties.getMaxDays() + " days");
+        }
+        LocalDate start = granularity == Granularity.WEEK
+                ? from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : from;
+        LocalDate end = granularity == Granularity.WEEK
+                ? to.with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY)) : to;
+
+        List<OccupancyReport> reports = shardRouter.gather(distinct, ids -> {
+            Map<Long, Long> calendarByUser = userRepository.findAllWithCalendarByIdIn(ids).stream()
+                    .filter(user -> user.getCalendar() != null)
+                    .collect(Collectors.toMap(User::getId, user -> user.getCalendar().getId()));
+            Map<Long, List<CalendarDailyStats>> statsByCalendar = calendarByUser.isEmpty() ? Map.of()
+                    : statsRepository.findByCalendarIdsAndDays(calendarByUser.values(), start, end).stream()
+                    .collect(Collectors.groupingBy(CalendarDailyStats::getCalendarId));
+            List<OccupancyReport> shardReports = new ArrayList<>(calendarByUser.size());
+            calendarByUser.forEach((userId, calendarId) -> shardReports.add(report(userId, calendarId,
+                    statsByCalendar.getOrDefault(calendarId, List.of()), start, end, granularity)));
+            return shardReports;
+        });
+        reports.sort(Comparator.comparing(OccupancyReport::getUserId));
+        return reports;
+    }
+
+    private static OccupancyReport report(Long userId, Long calendarId, List<CalendarDailyStats> days,
+                                          LocalDate start, LocalDate end, Granularity granularity) {
+        int step = granularity == Granularity.WEEK ? 7 : 1;
+        OccupancyReport report = new OccupancyReport();
+        report.setUserId(userId);
+        report.setCalendarId(calendarId);
+        report.setTotal(new OccupancyReport.Period(start));
+        for (LocalDate periodStart = start; periodStart.isBefore(end); periodStart = periodStart.plusDays(step)) {
+            report.getPeriods().add(new OccupancyReport.Period(periodStart));
+        }
+        for (CalendarDailyStats day : days) {
+            int period = (int) (ChronoUnit.DAYS.between(start, day.getDay()) / step);
+            report.getPeriods().get(period).add(day);
+            report.getTotal().add(day);
+        }
+        return report;
+    }
+
+    private PendingCounters pendingCounters() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Occupancy changes must be recorded inside a transaction");
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingCounters pending) {
+                return pending;
+            }
+        }
+        PendingCounters pending = new PendingCounters(statsRepository);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    private record DayKey(long calendarId, LocalDate day) implements Comparable<DayKey> {
+
+        private static final Comparator<DayKey> ORDER =
+                Comparator.comparingLong(DayKey::calendarId).thenComparing(DayKey::day);
+
+        @Override
+        public int compareTo(DayKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class PendingCounters implements TransactionSynchronization {
+
+        private final CalendarDailyStatsRepository statsRepository;
+        private final Map<DayKey, long[]> deltas = new TreeMap<>();
+
+        PendingCounters(CalendarDailyStatsRepository statsRepository) {
+            this.statsRepository = statsRepository;
+        }
+
+        void add(SlotUsage usage, int sign) {
+            Instant start = usage.startTime();
+            LocalDate day = LocalDate.ofInstant(start, ZoneOffset.UTC);
+            if (usage.booked()) {
+                delta(usage.calendarId(), day)[2] += sign;
+            }
+            int column = usage.status() == TimeSlotStatus.AVAILABLE ? 0 : 1;
+            while (start.isBefore(usage.endTime())) {
+                Instant nextDay = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+                Instant end = usage.endTime().isBefore(nextDay) ? usage.endTime() : nextDay;
+                delta(usage.calendarId(), day)[column] += sign * (Duration.between(start, end).getSeconds() / 60);
+                start = end;
+                day = day.plusDays(1);
+            }
+        }
+
+        private long[] delta(long calendarId, LocalDate day) {
+            return deltas.computeIfAbsent(new DayKey(calendarId, day), key -> new long[3]);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            deltas.forEach((key, delta) -> {
+                if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0) {
+                    statsRepository.increment(key.calendarId(), key.day(), delta[0], delta[1], delta[2]);
+                }
+            });
+            deltas.clear();
+        }
+    }
+}
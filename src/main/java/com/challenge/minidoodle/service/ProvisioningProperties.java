@@ -0,0 +1,21 @@
+package com.challenge.minidoodle.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.provisioning")
+public class ProvisioningProperties {
+
+    /**
+     * Users checked and inserted together by POST /api/users/bulk; each batch commits on its own.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Most users read from one request; the rest of the body is ignored and reported.
+     */
+    private int maxUsers = 100_000;
+}
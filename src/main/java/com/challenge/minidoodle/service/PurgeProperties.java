@@ -0,0 +1,28 @@
+package com.challenge.minidoodle.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.purge")
+public class PurgeProperties {
+
+    /**
+     * How often deleted users are looked for and purged.
+     */
+    private Duration interval = Duration.ofSeconds(30);
+
+    /**
+     * Rows deleted per statement and transaction, which bounds how long any purge transaction holds locks.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Deleted users purged per shard and run; the rest wait for the next run.
+     */
+    private int maxUsersPerRun = 20;
+}
@@ -0,0 +1,31 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.range")
+public class RangeQueryProperties {
+
+    /**
+     * Widest time range accepted by the paged and sparse range queries; exports are not limited.
+     */
+    private Duration maxWindow = Duration.ofDays(31);
+
+    public void checkWindow(Instant start, Instant end) {
+        if (!start.isBefore(end)) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        if (Duration.between(start, end).compareTo(maxWindow) > 0) {
+            throw new ValidationException(ErrorCode.WINDOW_TOO_WIDE,
+                    maxWindow.toDays() + " days; use /api/meetings/range/export for longer ranges");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.challenge.minidoodle.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical reads: while a computation for a key is in flight, concurrent callers
+ * with the same key wait for it and share its result instead of running their own queries. Nothing is kept
+ * once the computation completes, so results are never staler than the in-flight read itself. A caller waits at
+ * most {@code minidoodle.coalescing.max-wait} for the leader and then runs the read itself.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, OperationMeters> meters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final CoalescingProperties properties;
+
+    public RequestCoalescer(MeterRegistry meterRegistry, CoalescingProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        Gauge.builder("minidoodle.coalescing.in.flight", inFlight, ConcurrentMap::size)
+                .description("Distinct computations currently in flight")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, List<?> key, Supplier<T> loader) {
+        List<Object> flightKey = List.of(operation, key);
+        OperationMeters operationMeters = meters.computeIfAbsent(operation, OperationMeters::new);
+
+        CompletableFuture<Object> leaderFuture = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, leaderFuture);
+        if (existing != null) {
+            operationMeters.followers.increment();
+            return (T) await(existing, loader, operationMeters);
+        }
+
+        operationMeters.leaders.increment();
+        try {
+            T result = loader.get();
+            leaderFuture.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            leaderFuture.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(flightKey, leaderFuture);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future, Supplier<?> loader, OperationMeters operationMeters) {
+        try {
+            return future.get(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            operationMeters.fallbacks.increment();
+            return loader.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            operationMeters.fallbacks.increment();
+            return loader.get();
+        }
+    }
+
+    private final class OperationMeters {
+
+        private final Counter leaders;
+        private final Counter followers;
+        private final Counter fallbacks;
+
+        private OperationMeters(String operation) {
+            this.leaders = Counter.builder("minidoodle.coalescing.calls")
+                    .description("Calls that executed the computation themselves")
+                    .tag("operation", operation)
+                    .tag("role", "leader")
+                    .register(meterRegistry);
+            this.followers = Counter.builder("minidoodle.coalescing.calls")
+                    .description("Calls that joined a computation already in flight")
+                    .tag("operation", operation)
+                    .tag("role", "follower")
+                    .register(meterRegistry);
+            this.fallbacks = Counter.builder("minidoodle.coalescing.fallbacks")
+                    .description("Followers that gave up waiting and ran the computation themselves")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+            Gauge.builder("minidoodle.coalescing.ratio", this, OperationMeters::ratio)
+                    .description("Share of calls served by joining an in-flight computation")
+                    .tag("operation", operation)
+                    .register(meterRegistry);
+        }
+
+        private double ratio() {
+            double total = leaders.count() + followers.count();
+            return total == 0 ? 0 : followers.count() / total;
+        }
+    }
+}
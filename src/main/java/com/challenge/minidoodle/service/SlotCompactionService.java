@@ -0,0 +1,247 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.Calendar;
+import com.challenge.minidoodle.domain.CompactionCursor;
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.engine.SchedulingEngine;
+import com.challenge.minidoodle.exception.ConflictException;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.SlotOverlapException;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.CompactionCursorRepository;
+import com.challenge.minidoodle.repository.TimeSlotRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps AVAILABLE slots as maximal intervals: contiguous or overlapping unbooked AVAILABLE slots of a calendar
+ * are merged into the earliest one and the rest are deleted. Runs at write time (when enabled) and as a
+ * background job, one calendar per transaction. A booking that lands inside an interval carves it with
+ * {@link #carve}. A slot booked concurrently with a merge keeps its row: the meeting's foreign key makes the
+ * merge's delete fail and that calendar is simply retried on the next run.
+ * <p>
+ * The background job examines up to {@code minidoodle.compaction.max-calendars-per-run} calendars per run in id
+ * order, resuming after the last one examined (a {@link CompactionCursor} per database) and wrapping around at the
+ * end, so every calendar is reached eventually however many need no work.
+ */
+@Slf4j
+@Service
+@Transactional
+public class SlotCompactionService {
+
+    private static final long BEFORE_ANY_ID = Long.MIN_VALUE;
+
+    private final TimeSlotRepository timeSlotRepository;
+    private final CompactionCursorRepository compactionCursorRepository;
+    private final CompactionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final SchedulingEngine schedulingEngine;
+    private final OccupancyService occupancyService;
+    private final Counter rowsRemoved;
+
+    public SlotCompactionService(TimeSlotRepository timeSlotRepository,
+                                 CompactionCursorRepository compactionCursorRepository, CompactionProperties properties,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                 ShardRouter shardRouter, SchedulingEngine schedulingEngine,
+                                 OccupancyService occupancyService) {
+        this.timeSlotRepository = timeSlotRepository;
+        this.compactionCursorRepository = compactionCursorRepository;
+        this.occupancyService = occupancyService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.schedulingEngine = schedulingEngine;
+        this.rowsRemoved = Counter.builder("minidoodle.compaction.rows.removed")
+                .description("AVAILABLE slot rows absorbed into a neighbouring interval")
+                .register(meterRegistry);
+    }
+
+    public boolean isWriteTimeEnabled() {
+        return properties.isEnabled() && properties.isWriteTime();
+    }
+
+    /**
+     * Write-time policy for a new slot: if it touches existing unbooked AVAILABLE slots, they absorb it and
+     * the surviving row is returned; otherwise nothing is written and the caller persists the slot itself.
+     */
+    public Optional<TimeSlot> absorb(Calendar calendar, Instant startTime, Instant endTime) {
+        if (!isWriteTimeEnabled()) {
+            return Optional.empty();
+        }
+        List<TimeSlot> touching = timeSlotRepository.findUnbookedTouching(
+                calendar.getId(), TimeSlotStatus.AVAILABLE, startTime, endTime);
+        if (touching.isEmpty()) {
+            return Optional.empty();
+        }
+        if (touching.stream().anyMatch(slot -> slot.getStartTime().isBefore(endTime) && slot.getEndTime().isAfter(startTime))) {
+            throw new SlotOverlapException();
+        }
+        TimeSlot survivor = touching.get(0);
+        SlotUsage before = SlotUsage.of(survivor);
+        extend(survivor, startTime, endTime);
+        return Optional.of(mergeInto(survivor, before, touching.subList(1, touching.size())));
+    }
+
+    /**
+     * Write-time policy for a slot that just became AVAILABLE: its unbooked AVAILABLE neighbours are merged into it.
+     */
+    public TimeSlot mergeNeighbours(TimeSlot slot) {
+        if (!isWriteTimeEnabled() || !slot.isAvailable()) {
+            return slot;
+        }
+        List<TimeSlot> touching = new ArrayList<>(timeSlotRepository.findUnbookedTouching(
+                slot.getCalendar().getId(), TimeSlotStatus.AVAILABLE, slot.getStartTime(), slot.getEndTime()));
+        touching.removeIf(candidate -> candidate.getId().equals(slot.getId()));
+        return mergeInto(slot, SlotUsage.of(slot), touching);
+    }
+
+    /**
+     * Shrinks an unbooked AVAILABLE slot to [startTime, endTime) for a booking, re-creating the parts before and
+     * after it as AVAILABLE slots. The booked part keeps the original id.
+     */
+    public TimeSlot carve(TimeSlot slot, Instant startTime, Instant endTime) {
+        if (!startTime.isBefore(endTime)) {
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        if (startTime.isBefore(slot.getStartTime()) || endTime.isAfter(slot.getEndTime())) {
+            throw new ValidationException(ErrorCode.OUTSIDE_SLOT);
+        }
+        if (startTime.equals(slot.getStartTime()) && endTime.equals(slot.getEndTime())) {
+            return slot;
+        }
+        if (!slot.isAvailable() || slot.getMeeting() != null) {
+            throw new ConflictException(ErrorCode.SLOT_NOT_AVAILABLE, slot.getStatus());
+        }
+        // Shrink first and flush, so the new neighbours never overlap the old extent in the database
+        SlotUsage before = SlotUsage.of(slot);
+        Instant originalStart = slot.getStartTime();
+        Instant originalEnd = slot.getEndTime();
+        slot.setStartTime(startTime);
+        slot.setEndTime(endTime);
+        timeSlotRepository.saveAndFlush(slot);
+        occupancyService.record(before, SlotUsage.of(slot));
+        if (originalStart.isBefore(startTime)) {
+            TimeSlot head = timeSlotRepository.save(new TimeSlot(slot.getCalendar(), originalStart, startTime));
+            occupancyService.record(null, SlotUsage.of(head));
+        }
+        if (endTime.isBefore(originalEnd)) {
+            TimeSlot tail = timeSlotRepository.save(new TimeSlot(slot.getCalendar(), endTime, originalEnd));
+            occupancyService.record(null, SlotUsage.of(tail));
+        }
+        return slot;
+    }
+
+    /**
+     * Merges every run of contiguous or overlapping unbooked AVAILABLE slots of one calendar.
+     *
+     * @return number of rows removed
+     */
+    public int compactCalendar(Long calendarId) {
+        schedulingEngine.claimCalendar(calendarId);
+        List<TimeSlot> slots = timeSlotRepository.findUnbookedByCalendarId(calendarId, TimeSlotStatus.AVAILABLE);
+        int removed = 0;
+        TimeSlot current = null;
+        Instant runEnd = null;
+        List<TimeSlot> run = new ArrayList<>();
+        for (TimeSlot slot : slots) {
+            if (current != null && !slot.getStartTime().isAfter(runEnd)) {
+                run.add(slot);
+                if (slot.getEndTime().isAfter(runEnd)) {
+                    runEnd = slot.getEndTime();
+                }
+                continue;
+            }
+            if (!run.isEmpty()) {
+                removed += run.size();
+                mergeInto(current, SlotUsage.of(current), run);
+            }
+            current = slot;
+            runEnd = slot.getEndTime();
+            run = new ArrayList<>();
+        }
+        if (!run.isEmpty()) {
+            removed += run.size();
+            mergeInto(current, SlotUsage.of(current), run);
+        }
+        return removed;
+    }
+
+    @Scheduled(fixedDelayString = "${minidoodle.compaction.interval:PT15M}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void compactAll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        shardRouter.forEachShard(this::compactShard);
+    }
+
+    private void compactShard(int shard) {
+        long afterId = compactionCursorRepository.findLastCalendarId().orElse(BEFORE_ANY_ID);
+        int limit = properties.getMaxCalendarsPerRun();
+        List<Long> calendarIds = timeSlotRepository.findCalendarIdsAfter(afterId, limit);
+        AtomicInteger removed = new AtomicInteger();
+        int compacted = 0;
+        for (Long calendarId : calendarIds) {
+            if (!timeSlotRepository.hasTouchingSlots(calendarId, TimeSlotStatus.AVAILABLE.name())) {
+                continue;
+            }
+            compacted++;
+            try {
+                Integer calendarRemoved = transactionTemplate.execute(status -> compactCalendar(calendarId));
+                removed.addAndGet(calendarRemoved != null ? calendarRemoved : 0);
+            } catch (RuntimeException e) {
+                log.warn("Compaction of calendar {} failed, will retry on the next run: {}", calendarId, e.getMessage());
+            }
+        }
+        long next = calendarIds.size() < limit ? BEFORE_ANY_ID : calendarIds.get(calendarIds.size() - 1);
+        transactionTemplate.executeWithoutResult(status -> compactionCursorRepository.moveTo(next));
+        if (removed.get() > 0) {
+            log.info("Compacted {} calendars on shard {}, removed {} slot rows", compacted, shard, removed.get());
+        }
+    }
+
+    /**
+     * Deletes {@code absorbed} and flushes before growing the survivor over their extent, since the database
+     * rejects overlapping rows and would otherwise see the update before the deletes.
+     *
+     * @param before the survivor's usage before it was extended
+     */
+    private TimeSlot mergeInto(TimeSlot survivor, SlotUsage before, List<TimeSlot> absorbed) {
+        if (!absorbed.isEmpty()) {
+            absorbed.forEach(slot -> occupancyService.record(SlotUsage.of(slot), null));
+            timeSlotRepository.deleteAll(absorbed);
+            timeSlotRepository.flush();
+            rowsRemoved.increment(absorbed.size());
+        }
+        for (TimeSlot slot : absorbed) {
+            extend(survivor, slot.getStartTime(), slot.getEndTime());
+        }
+        occupancyService.record(before, SlotUsage.of(survivor));
+        return timeSlotRepository.saveAndFlush(survivor);
+    }
+
+    private static void extend(TimeSlot slot, Instant startTime, Instant endTime) {
+        if (startTime.isBefore(slot.getStartTime())) {
+            slot.setStartTime(startTime);
+        }
+        if (endTime.isAfter(slot.getEndTime())) {
+            slot.setEndTime(endTime);
+        }
+    }
+}
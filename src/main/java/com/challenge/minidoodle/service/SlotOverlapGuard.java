@@ -0,0 +1,101 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.exception.SlotOverlapException;
+import com.challenge.minidoodle.repository.TimeSlotRepository;
+import com.challenge.minidoodle.sharding.ShardContext;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import com.challenge.minidoodle.sharding.ShardSchemaInitializer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes PostgreSQL reject overlapping slots of a calendar with an exclusion constraint on
+ * {@code (calendar_id, tstzrange(start_time, end_time))}, installed on every shard as part of schema initialization,
+ * right after the tables exist and before any request is served. Writers then insert or update without checking
+ * first and a violation surfaces as {@link SlotOverlapException}. Where the constraint cannot be installed (no
+ * {@code btree_gist}, or overlaps already present), {@link #checkFree} falls back to checking under a
+ * transaction-scoped advisory lock on the calendar, so only writers of the same calendar wait for each other.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlotOverlapGuard implements SmartInitializingSingleton {
+
+    static final String CONSTRAINT = "time_slots_no_overlap";
+    private static final long NO_SLOT = Long.MIN_VALUE;
+
+    private final JdbcTemplate jdbc;
+    private final TimeSlotRepository timeSlotRepository;
+    private final ShardRouter shardRouter;
+    private final ObjectProvider<ShardSchemaInitializer> shardSchemaInitializer;
+    private final Set<Integer> enforcedShards = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Ensures [startTime, endTime) is still free on the calendar when this transaction commits: a no-op where the
+     * database enforces it, a locked check otherwise.
+     */
+    public void checkFree(Long calendarId, Instant startTime, Instant endTime) {
+        checkFree(calendarId, startTime, endTime, null);
+    }
+
+    /**
+     * As {@link #checkFree(Long, Instant, Instant)} for moving slot {@code slotId} to [startTime, endTime); the slot
+     * itself does not count as an overlap.
+     */
+    public void checkFree(Long calendarId, Instant startTime, Instant endTime, Long slotId) {
+        if (lockCalendar(calendarId) && timeSlotRepository.existsOverlappingSlot(calendarId, startTime, endTime,
+                slotId != null ? slotId : NO_SLOT)) {
+            throw new SlotOverlapException();
+        }
+    }
+
+    /**
+     * Where the database does not enforce the constraint, makes other writers of the calendar wait until this
+     * transaction ends, so a caller inserting many slots can check them against one read of the calendar.
+     *
+     * @return whether the lock was taken, i.e. whether the caller has to check for overlaps itself
+     */
+    public boolean lockCalendar(Long calendarId) {
+        if (enforcedShards.contains(ShardContext.current())) {
+            return false;
+        }
+        jdbc.queryForList("SELECT pg_advisory_xact_lock(?)", calendarId);
+        return true;
+    }
+
+    /**
+     * Installs the constraint where it is missing. With sharding, the other shards only get their tables from
+     * {@link ShardSchemaInitializer}, so that runs first.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        shardSchemaInitializer.ifAvailable(ShardSchemaInitializer::initialize);
+        shardRouter.forEachShard(shard -> {
+            try {
+                if (!constraintExists()) {
+                    jdbc.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+                    jdbc.execute("ALTER TABLE time_slots ADD CONSTRAINT " + CONSTRAINT +
+                            " EXCLUDE USING gist (calendar_id WITH =, tstzrange(start_time, end_time) WITH &&)");
+                    log.info("Installed slot overlap constraint on shard {}", shard);
+                }
+                enforcedShards.add(shard);
+            } catch (RuntimeException e) {
+                log.warn("Slot overlap constraint not available on shard {}, using advisory locks instead: {}",
+                        shard, e.getMessage());
+            }
+        });
+    }
+
+    private boolean constraintExists() {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class, CONSTRAINT));
+    }
+}
@@ -0,0 +1,18 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+
+import java.time.Instant;
+
+/**
+ * What a slot contributes to its calendar's occupancy counters. Taken before and after a change and handed to
+ * {@link OccupancyService#record}.
+ */
+public record SlotUsage(long calendarId, Instant startTime, Instant endTime, TimeSlotStatus status, boolean booked) {
+
+    public static SlotUsage of(TimeSlot slot) {
+        return new SlotUsage(slot.getCalendar().getId(), slot.getStartTime(), slot.getEndTime(), slot.getStatus(),
+                slot.getMeeting() != null);
+    }
+}
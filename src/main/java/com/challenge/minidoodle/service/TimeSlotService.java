@@ -1,17 +1,36 @@
 package com.challenge.minidoodle.service;
 
+import com.challenge.minidoodle.coherence.CacheInvalidator;
+import com.challenge.minidoodle.coherence.EntityType;
 import com.challenge.minidoodle.domain.TimeSlot;
 import com.challenge.minidoodle.domain.TimeSlotStatus;
 import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.engine.SchedulingEngine;
+import com.challenge.minidoodle.exception.ConflictException;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.NotFoundException;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.SparseProjectionRepository;
+import com.challenge.minidoodle.repository.TimeSlotField;
 import com.challenge.minidoodle.repository.TimeSlotRepository;
 import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,21 +39,71 @@ public class TimeSlotService {
 
     private final TimeSlotRepository timeSlotRepository;
     private final UserRepository userRepository;
+    private final AgendaService agendaService;
+    private final EntityStreamer entityStreamer;
+    private final SparseProjectionRepository sparseProjectionRepository;
+    private final BatchProperties batchProperties;
+    private final SlotCompactionService slotCompactionService;
+    private final ShardRouter shardRouter;
+    private final SchedulingEngine schedulingEngine;
+    private final OccupancyService occupancyService;
+    private final CacheInvalidator cacheInvalidator;
+    private final SlotOverlapGuard slotOverlapGuard;
 
     public TimeSlot createTimeSlot(Long userId, Instant startTime, Instant endTime) {
         validateTimeRange(startTime, endTime);
+        schedulingEngine.claimUser(userId);
 
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, userId));
 
-        Long calendarId = user.getCalendar().getId();
+        slotOverlapGuard.checkFree(user.getCalendar().getId(), startTime, endTime);
 
-        if (timeSlotRepository.existsOverlappingSlot(calendarId, startTime, endTime)) {
-            throw new IllegalArgumentException("Time slot overlaps with an existing slot");
+        Optional<TimeSlot> merged = slotCompactionService.absorb(user.getCalendar(), startTime, endTime);
+        if (merged.isPresent()) {
+            cacheInvalidator.invalidateSlot(merged.get());
+            return merged.get();
         }
+        TimeSlot timeSlot = timeSlotRepository.saveAndFlush(new TimeSlot(user.getCalendar(), startTime, endTime));
+        occupancyService.record(null, SlotUsage.of(timeSlot));
+        cacheInvalidator.invalidateSlot(timeSlot);
+        return timeSlot;
+    }
 
-        TimeSlot timeSlot = new TimeSlot(user.getCalendar(), startTime, endTime);
-        return timeSlotRepository.save(timeSlot);
+    /**
+     * Fills [start, end) of a user's calendar with back-to-back AVAILABLE slots of {@code length}, leaving out
+     * candidates that start in the past or overlap an existing slot, so running it twice creates nothing new.
+     * The calendar is read once, under {@link SlotOverlapGuard#lockCalendar} where the database does not reject
+     * overlaps itself.
+     *
+     * @return number of slots created
+     */
+    public int generateSlots(Long userId, Instant start, Instant end, Duration length) {
+        schedulingEngine.claimUser(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, userId));
+
+        slotOverlapGuard.lockCalendar(user.getCalendar().getId());
+        List<TimeSlot> existing = timeSlotRepository.findOverlappingByUserId(userId, start, end);
+        Instant now = Instant.now();
+        List<TimeSlot> created = new ArrayList<>();
+        int next = 0;
+        for (Instant slotStart = start; !slotStart.plus(length).isAfter(end); slotStart = slotStart.plus(length)) {
+            Instant slotEnd = slotStart.plus(length);
+            while (next < existing.size() && !existing.get(next).getEndTime().isAfter(slotStart)) {
+                next++;
+            }
+            boolean overlaps = next < existing.size() && existing.get(next).getStartTime().isBefore(slotEnd);
+            if (!overlaps && !slotStart.isBefore(now)) {
+                created.add(new TimeSlot(user.getCalendar(), slotStart, slotEnd));
+            }
+        }
+        timeSlotRepository.saveAll(created);
+        created.forEach(slot -> occupancyService.record(null, SlotUsage.of(slot)));
+        if (!created.isEmpty()) {
+            cacheInvalidator.invalidate(EntityType.CALENDAR, user.getCalendar().getId());
+        }
+        return created.size();
     }
 
     @Transactional(readOnly = true)
@@ -42,11 +111,45 @@ public class TimeSlotService {
         return timeSlotRepository.findById(id);
     }
 
+    /**
+     * Slots with their calendar owner and meeting, keyed by id; unknown ids and slots of deleted users are absent.
+     * The ids are limited by {@link BatchProperties#checkSize}.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, TimeSlot> getTimeSlotsByIds(Collection<Long> ids) {
+        Collection<Long> distinct = new LinkedHashSet<>(ids);
+        batchProperties.checkSize(distinct);
+        return shardRouter.gather(distinct, timeSlotRepository::findAllWithDetailsByIdIn).stream()
+                .collect(Collectors.toMap(TimeSlot::getId, Function.identity()));
+    }
+
     @Transactional(readOnly = true)
     public List<TimeSlot> getTimeSlotsByUserId(Long userId) {
         return timeSlotRepository.findByUserId(userId);
     }
 
+    /**
+     * Streams every slot of a user, ordered by start time, through {@code action} in constant memory.
+     */
+    @Transactional(readOnly = true)
+    public long streamTimeSlotsByUserId(Long userId, Consumer<TimeSlot> action) {
+        return entityStreamer.forEach(timeSlotRepository.streamByUserId(userId), action);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TimeSlot> getSlotsByUserIdAndStatus(Long userId, TimeSlotStatus status) {
+        return timeSlotRepository.findByUserIdAndStatus(userId, status);
+    }
+
+    /**
+     * Sparse variant of the per-user slot listings: selects only {@code fields}, joining the user and
+     * meeting tables only when a requested field lives there. {@code status} may be null for all slots.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getSlotFieldsByUserId(Long userId, TimeSlotStatus status, Set<TimeSlotField> fields) {
+        return sparseProjectionRepository.findTimeSlotsForUser(userId, status, fields);
+    }
+
     @Transactional(readOnly = true)
     public List<TimeSlot> getAvailableSlotsByUserId(Long userId) {
         return timeSlotRepository.findByUserIdAndStatus(userId, TimeSlotStatus.AVAILABLE);
@@ -60,7 +163,7 @@ public class TimeSlotService {
     @Transactional(readOnly = true)
     public List<TimeSlot> getSlotsByUserIdAndTimeRange(Long userId, Instant start, Instant end) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, userId));
 
         return timeSlotRepository.findByCalendarIdAndTimeRange(user.getCalendar().getId(), start, end);
     }
@@ -69,73 +172,92 @@ public class TimeSlotService {
     public List<TimeSlot> getSlotsByUserIdAndStatusAndTimeRange(
             Long userId, TimeSlotStatus status, Instant start, Instant end) {
         User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, userId));
 
         return timeSlotRepository.findByCalendarIdAndStatusAndTimeRange(
                 user.getCalendar().getId(), status, start, end);
     }
 
     public TimeSlot updateTimeSlot(Long id, Instant startTime, Instant endTime, TimeSlotStatus status) {
+        schedulingEngine.claimSlot(id);
         TimeSlot timeSlot = timeSlotRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Time slot not found with id: " + id));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TIME_SLOT_NOT_FOUND, id));
 
         if (timeSlot.getMeeting() != null && status == TimeSlotStatus.AVAILABLE) {
-            throw new IllegalArgumentException("Cannot mark slot as available when it has a meeting scheduled");
+            throw new ConflictException(ErrorCode.SLOT_HAS_MEETING);
         }
 
+        SlotUsage before = SlotUsage.of(timeSlot);
         if (startTime != null && endTime != null) {
             validateTimeRange(startTime, endTime);
+            slotOverlapGuard.checkFree(timeSlot.getCalendar().getId(), startTime, endTime, id);
             timeSlot.setStartTime(startTime);
             timeSlot.setEndTime(endTime);
+            if (timeSlot.getMeeting() != null) {
+                agendaService.rescheduleMeeting(timeSlot.getMeeting().getId(), startTime, endTime);
+            }
         }
 
         if (status != null) {
             timeSlot.setStatus(status);
         }
 
-        return timeSlotRepository.save(timeSlot);
+        occupancyService.record(before, SlotUsage.of(timeSlot));
+        cacheInvalidator.invalidateSlot(timeSlot);
+        return timeSlotRepository.saveAndFlush(timeSlot);
     }
 
     public TimeSlot markSlotAsBusy(Long id) {
+        schedulingEngine.claimSlot(id);
         TimeSlot timeSlot = timeSlotRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Time slot not found with id: " + id));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TIME_SLOT_NOT_FOUND, id));
 
+        SlotUsage before = SlotUsage.of(timeSlot);
         timeSlot.markAsBusy();
+        occupancyService.record(before, SlotUsage.of(timeSlot));
+        cacheInvalidator.invalidateSlot(timeSlot);
         return timeSlotRepository.save(timeSlot);
     }
 
     public TimeSlot markSlotAsAvailable(Long id) {
+        schedulingEngine.claimSlot(id);
         TimeSlot timeSlot = timeSlotRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Time slot not found with id: " + id));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TIME_SLOT_NOT_FOUND, id));
 
         if (timeSlot.getMeeting() != null) {
-            throw new IllegalArgumentException("Cannot mark slot as available when it has a meeting scheduled");
+            throw new ConflictException(ErrorCode.SLOT_HAS_MEETING);
         }
 
+        SlotUsage before = SlotUsage.of(timeSlot);
         timeSlot.markAsAvailable();
-        return timeSlotRepository.save(timeSlot);
+        occupancyService.record(before, SlotUsage.of(timeSlot));
+        cacheInvalidator.invalidateSlot(timeSlot);
+        return slotCompactionService.mergeNeighbours(timeSlotRepository.save(timeSlot));
     }
 
     public void deleteTimeSlot(Long id) {
+        schedulingEngine.claimSlot(id);
         TimeSlot timeSlot = timeSlotRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Time slot not found with id: " + id));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.TIME_SLOT_NOT_FOUND, id));
 
         if (timeSlot.getMeeting() != null) {
-            throw new IllegalArgumentException("Cannot delete slot with a scheduled meeting. Cancel the meeting first.");
+            throw new ConflictException(ErrorCode.SLOT_DELETE_HAS_MEETING);
         }
 
+        occupancyService.record(SlotUsage.of(timeSlot), null);
+        cacheInvalidator.invalidateSlot(timeSlot);
         timeSlotRepository.delete(timeSlot);
     }
 
     private void validateTimeRange(Instant startTime, Instant endTime) {
         if (startTime == null || endTime == null) {
-            throw new IllegalArgumentException("Start time and end time are required");
+            throw new ValidationException(ErrorCode.TIME_RANGE_REQUIRED);
         }
         if (!startTime.isBefore(endTime)) {
-            throw new IllegalArgumentException("Start time must be before end time");
+            throw new ValidationException(ErrorCode.INVALID_TIME_RANGE);
         }
         if (startTime.isBefore(Instant.now())) {
-            throw new IllegalArgumentException("Cannot create time slot in the past");
+            throw new ValidationException(ErrorCode.TIME_IN_PAST);
         }
     }
 }
@@ -0,0 +1,181 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.coherence.CacheInvalidator;
+import com.challenge.minidoodle.coherence.EntityType;
+import com.challenge.minidoodle.dto.BulkUserResponse;
+import com.challenge.minidoodle.dto.BulkUserResponse.Row;
+import com.challenge.minidoodle.dto.BulkUserResponse.Status;
+import com.challenge.minidoodle.dto.UserRequest;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.UserBulkRepository;
+import com.challenge.minidoodle.repository.UserBulkRepository.NewUser;
+import com.challenge.minidoodle.sharding.EntityIds;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Creates users (with their calendars) from a streamed JSON array, one batch at a time: duplicates within the
+ * request are dropped in memory, emails already registered are found with one query per batch and shard, and the
+ * rest are written with batched inserts. Every row read gets a result; a batch commits independently of the next.
+ */
+@Slf4j
+@Service
+public class UserProvisioningService {
+
+    private final UserBulkRepository userBulkRepository;
+    private final EmailFilter emailFilter;
+    private final ShardRouter shardRouter;
+    private final EntityIds entityIds;
+    private final ProvisioningProperties properties;
+    private final JsonMapper jsonMapper;
+    private final ObjectReader userReader;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidator cacheInvalidator;
+
+    public UserProvisioningService(UserBulkRepository userBulkRepository, EmailFilter emailFilter,
+                                   ShardRouter shardRouter, EntityIds entityIds, ProvisioningProperties properties,
+                                   JsonMapper jsonMapper, PlatformTransactionManager transactionManager,
+                                   CacheInvalidator cacheInvalidator) {
+        this.userBulkRepository = userBulkRepository;
+        this.emailFilter = emailFilter;
+        this.shardRouter = shardRouter;
+        this.entityIds = entityIds;
+        this.properties = properties;
+        this.jsonMapper = jsonMapper;
+        // each element is read off a shared parser, so the rest of the array must not count as trailing input
+        this.userReader = jsonMapper.readerFor(UserRequest.class)
+                .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    public BulkUserResponse provision(InputStream body) {
+        BulkUserResponse response = new BulkUserResponse();
+        Set<String> seen = new HashSet<>();
+        List<UserRequest> batch = new ArrayList<>(properties.getBatchSize());
+        int read = 0;
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException(ErrorCode.USER_LIST_REQUIRED);
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (read == properties.getMaxUsers()) {
+                    response.setError("Stopped after " + read + " users, the maximum per request");
+                    break;
+                }
+                batch.add(userReader.readValue(parser));
+                read++;
+                if (batch.size() == properties.getBatchSize()) {
+                    provisionBatch(read - batch.size(), batch, seen, response);
+                    batch.clear();
+                }
+            }
+        } catch (JacksonException e) {
+            if (read == 0) {
+                throw new ValidationException(ErrorCode.MALFORMED_USER_LIST, e.getOriginalMessage());
+            }
+            response.setError("Malformed input after row " + (read - 1) + ": " + e.getOriginalMessage());
+        }
+        if (!batch.isEmpty()) {
+            provisionBatch(read - batch.size(), batch, seen, response);
+        }
+        log.info("Provisioned {} users, rejected {}", response.getCreated(), response.getRejected());
+        return response;
+    }
+
+    private void provisionBatch(int firstIndex, List<UserRequest> batch, Set<String> seen, BulkUserResponse response) {
+        Row[] rows = new Row[batch.size()];
+        List<Integer> candidates = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            UserRequest request = batch.get(i);
+            String problem = validate(request);
+            if (problem != null) {
+                rows[i] = Row.of(firstIndex + i, request.getEmail(), Status.INVALID);
+                rows[i].setMessage(problem);
+            } else if (!seen.add(request.getEmail())) {
+                rows[i] = Row.of(firstIndex + i, request.getEmail(), Status.DUPLICATE_IN_REQUEST);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        List<String> possiblyTaken = candidates.stream()
+                .map(i -> batch.get(i).getEmail())
+                .filter(emailFilter::mightExist)
+                .toList();
+        Set<String> taken = possiblyTaken.isEmpty() ? Set.of()
+                : new HashSet<>(shardRouter.scatter(() -> new ArrayList<>(userBulkRepository.findExistingEmails(possiblyTaken))));
+
+        Map<Integer, List<Integer>> byShard = new TreeMap<>();
+        for (int i : candidates) {
+            String email = batch.get(i).getEmail();
+            if (taken.contains(email)) {
+                rows[i] = Row.of(firstIndex + i, email, Status.EMAIL_EXISTS);
+            } else {
+                byShard.computeIfAbsent(shardRouter.shardForKey(email), shard -> new ArrayList<>()).add(i);
+            }
+        }
+        byShard.forEach((shard, indexes) -> insert(shard, firstIndex, batch, indexes, rows));
+
+        for (Row row : rows) {
+            response.add(row);
+        }
+    }
+
+    private void insert(int shard, int firstIndex, List<UserRequest> batch, List<Integer> indexes, Row[] rows) {
+        Instant now = Instant.now();
+        List<NewUser> users = new ArrayList<>(indexes.size());
+        boolean[] inserted = shardRouter.callOn(shard, () -> {
+            long[] userIds = entityIds.next(shard, "users", indexes.size());
+            long[] calendarIds = entityIds.next(shard, "calendars", indexes.size());
+            for (int j = 0; j < indexes.size(); j++) {
+                UserRequest request = batch.get(indexes.get(j));
+                users.add(new NewUser(userIds[j], calendarIds[j], request.getEmail(),
+                        request.getFirstName(), request.getLastName(), now));
+            }
+            return transactionTemplate.execute(status -> userBulkRepository.insert(users));
+        });
+        for (int j = 0; j < indexes.size(); j++) {
+            int i = indexes.get(j);
+            NewUser user = users.get(j);
+            if (inserted[j]) {
+                rows[i] = Row.of(firstIndex + i, user.email(), Status.CREATED);
+                rows[i].setId(user.id());
+                emailFilter.add(user.email());
+                cacheInvalidator.invalidate(EntityType.USER, user.id());
+            } else {
+                rows[i] = Row.of(firstIndex + i, user.email(), Status.EMAIL_EXISTS);
+            }
+        }
+    }
+
+    private static String validate(UserRequest request) {
+        if (request.getEmail() == null || request.getEmail().isBlank() || !request.getEmail().contains("@")) {
+            return "A valid email is required";
+        }
+        if (request.getFirstName() == null || request.getFirstName().isBlank()
+                || request.getLastName() == null || request.getLastName().isBlank()) {
+            return "First and last name are required";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.engine.SchedulingEngine;
+import com.challenge.minidoodle.repository.AgendaEntryRepository;
+import com.challenge.minidoodle.repository.MeetingRepository;
+import com.challenge.minidoodle.repository.TimeSlotRepository;
+import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Removes the rows of users marked deleted by {@link UserService#deleteUser}: agenda entries and participant rows of
+ * the meetings they organized (on every shard, with sharding), those meetings, their own agenda entries and
+ * participations (on every shard, with sharding), their slots,
+ * availability rules and blocks, and finally the calendar and user. Every step is a set-based delete of at most
+ * {@code minidoodle.purge.chunk-size} rows per transaction, repeated until nothing is left, so no entity is loaded
+ * and no lock is held for long. A purge interrupted halfway simply continues on the next run.
+ */
+@Slf4j
+@Service
+public class UserPurgeService {
+
+    private final UserRepository userRepository;
+    private final MeetingRepository meetingRepository;
+    private final AgendaEntryRepository agendaEntryRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final AvailabilityRuleService availabilityRuleService;
+    private final OccupancyService occupancyService;
+    private final SchedulingEngine schedulingEngine;
+    private final ShardRouter shardRouter;
+    private final PurgeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserPurgeService(UserRepository userRepository, MeetingRepository meetingRepository,
+                            AgendaEntryRepository agendaEntryRepository, TimeSlotRepository timeSlotRepository, AvailabilityRuleService availabilityRuleService,
+                            OccupancyService occupancyService, SchedulingEngine schedulingEngine, ShardRouter shardRouter, PurgeProperties properties,
+                            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.meetingRepository = meetingRepository;
+        this.agendaEntryRepository = agendaEntryRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.availabilityRuleService = availabilityRuleService;
+        this.occupancyService = occupancyService;
+        this.schedulingEngine = schedulingEngine;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${minidoodle.purge.interval:PT30S}")
+    public void purgeDeletedUsers() {
+        shardRouter.forEachShard(this::purgeShard);
+    }
+
+    private void purgeShard(int shard) {
+        List<Long> userIds = userRepository.findDeletedIds(Limit.of(properties.getMaxUsersPerRun()));
+        for (Long userId : userIds) {
+            try {
+                long rows = purgeUser(userId);
+                log.info("Purged deleted user {} on shard {}, removed {} rows", userId, shard, rows);
+            } catch (RuntimeException e) {
+                log.warn("Purge of user {} failed, will retry on the next run: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private long purgeUser(Long userId) {
+        int limit = properties.getChunkSize();
+        long rows = drain(userId, () -> agendaEntryRepository.deleteOfOrganizer(userId, limit));
+        if (shardRouter.isEnabled()) {
+            rows += purgeRemoteAgendaOfOrganizer(userId, limit);
+        }
+        rows += drain(userId, () -> meetingRepository.deleteParticipantsOfOrganizer(userId, limit));
+        rows += drain(userId, () -> meetingRepository.deleteRemoteParticipantsOfOrganizer(userId, limit));
+        rows += drain(userId, () -> meetingRepository.deleteByOrganizerId(userId, limit));
+        rows += drain(userId, () -> agendaEntryRepository.deleteByUserId(userId, limit));
+        rows += drain(userId, () -> meetingRepository.deleteParticipations(userId, limit));
+        AtomicLong remote = new AtomicLong();
+        shardRouter.forEachShard(shard ->
+                remote.addAndGet(drain(userId, () -> meetingRepository.deleteRemoteParticipations(userId, limit))));
+        rows += remote.get();
+        Long calendarId = userRepository.findCalendarIdIncludingDeleted(userId).orElse(null);
+        if (calendarId != null) {
+            rows += drain(userId, () -> timeSlotRepository.deleteByCalendarId(calendarId, limit));
+        }
+        Integer removed = transactionTemplate.execute(status -> {
+            if (calendarId != null) {
+                availabilityRuleService.removeCalendar(calendarId);
+                occupancyService.removeCalendar(calendarId);
+            }
+            return userRepository.deleteCalendarOf(userId) + userRepository.deletePurged(userId);
+        });
+        return rows + (removed != null ? removed : 0);
+    }
+
+    /**
+     * Deletes the agenda entries that participants on other shards hold for the organizer's meetings, reading the
+     * meeting ids on this shard {@code limit} at a time. Must run while the remote participant rows still exist.
+     */
+    private long purgeRemoteAgendaOfOrganizer(Long userId, int limit) {
+        long total = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            long after = afterId;
+            List<Long> meetingIds = transactionTemplate.execute(status ->
+                    meetingRepository.findRemotelyAttendedIdsOfOrganizer(userId, after, limit));
+            if (meetingIds == null || meetingIds.isEmpty()) {
+                return total;
+            }
+            AtomicLong deleted = new AtomicLong();
+            shardRouter.forEachShard(shard -> deleted.addAndGet(Objects.requireNonNullElse(transactionTemplate.execute(
+                    status -> agendaEntryRepository.deleteByMeetingIdIn(meetingIds)), 0)));
+            total += deleted.get();
+            afterId = meetingIds.get(meetingIds.size() - 1);
+        }
+    }
+
+    /**
+     * Runs {@code chunk} in its own transaction until it deletes nothing, returning the total rows deleted.
+     */
+    private long drain(Long userId, IntSupplier chunk) {
+        long total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                schedulingEngine.claimUser(userId);
+                return chunk.getAsInt();
+            });
+            if (deleted == null || deleted == 0) {
+                return total;
+            }
+            total += deleted;
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.challenge.minidoodle.service;
 
+import com.challenge.minidoodle.coherence.CacheInvalidator;
+import com.challenge.minidoodle.coherence.EntityType;
 import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.engine.SchedulingEngine;
+import com.challenge.minidoodle.exception.ConflictException;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.NotFoundException;
 import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -15,18 +31,43 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final SchedulingEngine schedulingEngine;
+    private final EntityStreamer entityStreamer;
+    private final BatchProperties batchProperties;
+    private final ShardRouter shardRouter;
+    private final EmailFilter emailFilter;
+    private final CacheInvalidator cacheInvalidator;
 
     public User createUser(String email, String firstName, String lastName) {
-        if (userRepository.existsByEmail(email)) {
-            throw new IllegalArgumentException("User with email " + email + " already exists");
+        if (emailFilter.mightExist(email) && emailInUse(email)) {
+            throw new ConflictException(ErrorCode.EMAIL_IN_USE, email);
         }
-        User user = new User(email, firstName, lastName);
-        return userRepository.save(user);
+        User user = userRepository.save(new User(email, firstName, lastName));
+        emailFilter.add(email);
+        cacheInvalidator.invalidate(EntityType.USER, user.getId());
+        return user;
     }
 
+    /**
+     * All users of all shards, ordered by id.
+     */
     @Transactional(readOnly = true)
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        List<User> users = shardRouter.scatter(userRepository::findAllWithCalendar);
+        if (shardRouter.shardCount() > 1) {
+            users.sort(Comparator.comparing(User::getId));
+        }
+        return users;
+    }
+
+    /**
+     * Streams all users through {@code action} in constant memory, ordered by id within each shard.
+     */
+    @Transactional(readOnly = true)
+    public long streamAllUsers(Consumer<User> action) {
+        AtomicLong count = new AtomicLong();
+        shardRouter.readEachShard(() -> count.addAndGet(entityStreamer.forEach(userRepository.streamAll(), action)));
+        return count.get();
     }
 
     @Transactional(readOnly = true)
@@ -34,29 +75,56 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    /**
+     * Users with their calendars, keyed by id, read with one query per shard; unknown and deleted users are absent.
+     * The ids are limited by {@link BatchProperties#checkSize}.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, User> getUsersByIds(Collection<Long> ids) {
+        Collection<Long> distinct = new LinkedHashSet<>(ids);
+        batchProperties.checkSize(distinct);
+        return shardRouter.gather(distinct, userRepository::findAllWithCalendarByIdIn).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
     @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return shardRouter.findFirst(() -> userRepository.findByEmail(email));
     }
 
     public User updateUser(Long id, String email, String firstName, String lastName) {
         User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, id));
 
-        if (!user.getEmail().equals(email) && userRepository.existsByEmail(email)) {
-            throw new IllegalArgumentException("Email " + email + " is already in use");
+        if (!user.getEmail().equals(email) && emailInUse(email)) {
+            throw new ConflictException(ErrorCode.EMAIL_IN_USE, email);
         }
 
         user.setEmail(email);
         user.setFirstName(firstName);
         user.setLastName(lastName);
+        schedulingEngine.evictUser(id);
+        emailFilter.add(email);
+        cacheInvalidator.invalidate(EntityType.USER, id);
         return userRepository.save(user);
     }
 
+    /**
+     * Hides the user and their agenda at once and frees their email; the calendar, slots, meetings and
+     * participations are removed in the background by {@link UserPurgeService}.
+     */
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new IllegalArgumentException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        schedulingEngine.claimUser(id);
+        schedulingEngine.evictUser(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(ErrorCode.USER_NOT_FOUND, id));
+        user.markDeleted(Instant.now());
+        userRepository.save(user);
+        cacheInvalidator.invalidate(EntityType.USER, id);
+    }
+
+    // Email decides the home shard of a new user but not where an existing user lives after a change, so check all
+    private boolean emailInUse(String email) {
+        return shardRouter.anyMatch(() -> userRepository.existsByEmail(email));
     }
 }
\ No newline at end of file
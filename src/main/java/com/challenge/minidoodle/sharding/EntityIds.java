@@ -0,0 +1,71 @@
+package com.challenge.minidoodle.sharding;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ids for rows inserted without Hibernate, e.g. bulk JDBC inserts or engine bookings, matching what
+ * {@link GlobalId} would assign: {@link GlobalIds} with sharding enabled, otherwise values drawn from the table's
+ * identity sequence.
+ */
+@Component
+public class EntityIds {
+
+    private static final int RESERVED_BLOCK = 100;
+
+    private final ShardRouter shardRouter;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final Map<String, Deque<Long>> reserved = new HashMap<>();
+
+    public EntityIds(ShardRouter shardRouter, NamedParameterJdbcTemplate jdbc) {
+        this.shardRouter = shardRouter;
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * {@code count} new ids for rows of {@code table} on {@code shard}, in one round trip without sharding.
+     */
+    public long[] next(int shard, String table, int count) {
+        long[] ids = new long[count];
+        if (shardRouter.isEnabled()) {
+            for (int i = 0; i < count; i++) {
+                ids[i] = GlobalIds.next(shard);
+            }
+            return ids;
+        }
+        List<Long> values = reserve(table, count);
+        for (int i = 0; i < count; i++) {
+            ids[i] = values.get(i);
+        }
+        return ids;
+    }
+
+    /**
+     * One new id for a row of {@code table} on the current shard. Without sharding, ids are reserved from the
+     * sequence in blocks, so most calls do not touch the database.
+     */
+    public long next(String table) {
+        if (shardRouter.isEnabled()) {
+            return GlobalIds.next(ShardContext.current());
+        }
+        synchronized (reserved) {
+            Deque<Long> block = reserved.computeIfAbsent(table, key -> new ArrayDeque<>());
+            if (block.isEmpty()) {
+                block.addAll(reserve(table, RESERVED_BLOCK));
+            }
+            return block.removeFirst();
+        }
+    }
+
+    private List<Long> reserve(String table, int count) {
+        return jdbc.queryForList("SELECT nextval(pg_get_serial_sequence(:table, 'id')) FROM generate_series(1, :count)",
+                new MapSqlParameterSource().addValue("table", table).addValue("count", count), Long.class);
+    }
+}
@@ -0,0 +1,18 @@
+package com.challenge.minidoodle.sharding;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns a {@link GlobalIds} id for the shard the entity is inserted into when sharding is enabled, and a database
+ * identity value otherwise.
+ */
+@IdGeneratorType(GlobalIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GlobalId {
+}
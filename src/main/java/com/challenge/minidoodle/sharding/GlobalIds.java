@@ -0,0 +1,82 @@
+package com.challenge.minidoodle.sharding;
+
+import java.time.Instant;
+
+/**
+ * Time-ordered ids that are unique across shards and nodes and encode the shard they were written to: 40 bits of
+ * milliseconds since 2025-01-01, 4 bits shard, 4 bits node, 5 bits sequence. They stay below 2^53 (until 2059), so
+ * JavaScript clients can hold them as plain numbers. Ids below {@link #LEGACY_LIMIT} predate this scheme (database
+ * identity values) and belong to shard 0.
+ * <p>
+ * Only used with sharding enabled; otherwise ids come from the tables' identity columns. A node id must be
+ * {@linkplain NodeIdLease leased} before the first id is generated.
+ */
+public final class GlobalIds {
+
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int TIME_BITS = 40;
+    static final int SEQUENCE_BITS = 5;
+    static final int NODE_BITS = 4;
+    static final int SHARD_BITS = 4;
+    static final long LEGACY_LIMIT = 1L << 40;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    public static final int MAX_NODES = 1 << NODE_BITS;
+
+    private static final int NO_NODE = -1;
+
+    private static volatile int nodeId = NO_NODE;
+    private static long lastMillis = -1;
+    private static int sequence;
+
+    private GlobalIds() {
+    }
+
+    static void setNodeId(int node) {
+        if (node < 0 || node >= MAX_NODES) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + (MAX_NODES - 1));
+        }
+        nodeId = node;
+    }
+
+    /**
+     * Stops id generation, e.g. because this node's lease was lost and another instance may now hold its id.
+     */
+    static void clearNodeId() {
+        nodeId = NO_NODE;
+    }
+
+    public static synchronized long next(int shard) {
+        int node = nodeId;
+        if (node == NO_NODE) {
+            throw new IllegalStateException("No node id is leased; ids cannot be generated");
+        }
+        long now = Math.max(System.currentTimeMillis(), lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & ((1 << SEQUENCE_BITS) - 1);
+            if (sequence == 0) {
+                while (now <= lastMillis) {
+                    now = System.currentTimeMillis();
+                }
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        long elapsed = now - EPOCH_MILLIS;
+        if (elapsed >= 1L << TIME_BITS) {
+            throw new IllegalStateException("Global id time range exhausted");
+        }
+        return (elapsed << (SHARD_BITS + NODE_BITS + SEQUENCE_BITS))
+                | ((long) shard << (NODE_BITS + SEQUENCE_BITS))
+                | ((long) node << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    public static int shardOf(long id) {
+        if (id < LEGACY_LIMIT) {
+            return ShardContext.DEFAULT_SHARD;
+        }
+        return (int) ((id >>> (NODE_BITS + SEQUENCE_BITS)) & (MAX_SHARDS - 1));
+    }
+}
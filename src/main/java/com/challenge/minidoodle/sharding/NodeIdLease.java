@@ -0,0 +1,111 @@
+package com.challenge.minidoodle.sharding;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Gives this instance a node id for {@link GlobalIds} that no other running instance holds, by leasing it in
+ * {@code node_id_leases} on shard 0 before the application serves requests. Startup fails if the configured id is
+ * taken or, without a configured id, if all ids are. The lease is renewed in the background; if a renewal finds it
+ * lost, id generation stops rather than risk duplicates.
+ */
+@Slf4j
+public class NodeIdLease implements SmartInitializingSingleton {
+
+    private static final String CLAIM = "INSERT INTO node_id_leases (node_id, owner, expires_at) " +
+            "VALUES (:node, :owner, now() + :seconds * interval '1 second') " +
+            "ON CONFLICT (node_id) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+            "WHERE node_id_leases.owner = EXCLUDED.owner OR node_id_leases.expires_at < now()";
+
+    private final ShardingProperties properties;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final String owner = UUID.randomUUID().toString();
+
+    private volatile Integer nodeId;
+
+    public NodeIdLease(ShardingProperties properties, NamedParameterJdbcTemplate jdbc) {
+        this.properties = properties;
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Integer configured = properties.getNodeId();
+        if (configured != null) {
+            if (!claim(configured)) {
+                throw new IllegalStateException("Node id " + configured + " is leased by another running instance; "
+                        + "give each instance a unique minidoodle.sharding.node-id or leave it unset");
+            }
+        } else {
+            for (int node = 0; node < GlobalIds.MAX_NODES && nodeId == null; node++) {
+                claim(node);
+            }
+            if (nodeId == null) {
+                throw new IllegalStateException("All " + GlobalIds.MAX_NODES + " node ids are leased by running instances");
+            }
+        }
+        GlobalIds.setNodeId(nodeId);
+        log.info("Leased node id {}", nodeId);
+    }
+
+    @Scheduled(fixedDelayString = "${minidoodle.sharding.node-lease-renewal:PT20S}")
+    public void renew() {
+        Integer node = nodeId;
+        if (node == null) {
+            return;
+        }
+        int renewed = onDefaultShard(() -> jdbc.update("UPDATE node_id_leases " +
+                "SET expires_at = now() + :seconds * interval '1 second' WHERE node_id = :node AND owner = :owner",
+                params(node)));
+        if (renewed == 0) {
+            GlobalIds.clearNodeId();
+            nodeId = null;
+            log.error("Lease of node id {} was lost; id generation is stopped until restart", node);
+        }
+    }
+
+    @PreDestroy
+    void release() {
+        Integer node = nodeId;
+        if (node != null) {
+            GlobalIds.clearNodeId();
+            onDefaultShard(() -> jdbc.update("DELETE FROM node_id_leases WHERE node_id = :node AND owner = :owner",
+                    params(node)));
+        }
+    }
+
+    private boolean claim(int node) {
+        if (node < 0 || node >= GlobalIds.MAX_NODES) {
+            throw new IllegalStateException("minidoodle.sharding.node-id must be between 0 and " + (GlobalIds.MAX_NODES - 1));
+        }
+        if (onDefaultShard(() -> jdbc.update(CLAIM, params(node))) == 0) {
+            return false;
+        }
+        nodeId = node;
+        return true;
+    }
+
+    private MapSqlParameterSource params(int node) {
+        return new MapSqlParameterSource()
+                .addValue("node", node)
+                .addValue("owner", owner)
+                .addValue("seconds", properties.getNodeLease().toSeconds());
+    }
+
+    private static int onDefaultShard(IntSupplier statement) {
+        Integer previous = ShardContext.bound();
+        ShardContext.bind(ShardContext.DEFAULT_SHARD);
+        try {
+            return statement.getAsInt();
+        } finally {
+            ShardContext.bind(previous);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.challenge.minidoodle.sharding;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Binds requests that carry their owner in the body (creates) to its shard, before the handler runs.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ShardBindingBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private final ShardRouter shardRouter;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return shardRouter.isEnabled() && ShardKeyed.class.isAssignableFrom(methodParameter.getParameterType());
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        if (shardRouter.isEnabled() && !ShardContext.isBound() && body instanceof ShardKeyed keyed) {
+            ShardContext.bind(keyed.shardOwnerId() != null
+                    ? shardRouter.shardOf(keyed.shardOwnerId())
+                    : shardRouter.shardForKey(keyed.shardHomeKey()));
+        }
+        return body;
+    }
+}
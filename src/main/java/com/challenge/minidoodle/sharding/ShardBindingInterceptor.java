@@ -0,0 +1,61 @@
+package com.challenge.minidoodle.sharding;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds the request to the shard owning the first id found among its path variables, before any data access,
+ * so the request's persistence context only ever holds a connection to that shard. Requests without such an
+ * id stay unbound until {@link ShardBindingBodyAdvice} reads their body; global reads fan out explicitly
+ * through {@link ShardRouter}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardBindingInterceptor implements AsyncHandlerInterceptor {
+
+    // A meeting's participant routes are keyed by meeting first: the meeting's shard holds the relation
+    private static final List<String> ID_VARIABLES = List.of("meetingId", "id", "userId", "organizerId");
+
+    private final ShardRouter shardRouter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!shardRouter.isEnabled()) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            return true;
+        }
+        for (String name : ID_VARIABLES) {
+            String value = variables.get(name);
+            if (value != null) {
+                try {
+                    ShardContext.bind(shardRouter.shardOf(Long.parseLong(value)));
+                } catch (NumberFormatException e) {
+                    // Left to argument binding, which reports the malformed id
+                }
+                return true;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ShardContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+}
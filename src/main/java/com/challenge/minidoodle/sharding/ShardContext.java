@@ -0,0 +1,44 @@
+package com.challenge.minidoodle.sharding;
+
+/**
+ * Shard the current thread reads from and writes to. Bound once per request by {@link ShardBindingInterceptor}
+ * and {@link ShardBindingBodyAdvice}, or around a unit of work by {@link ShardRouter#callOn}; unbound threads
+ * use shard 0.
+ */
+public final class ShardContext {
+
+    public static final int DEFAULT_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static boolean isBound() {
+        return CURRENT.get() != null;
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : DEFAULT_SHARD;
+    }
+
+    /**
+     * The bound shard, or null; pass it to {@link #bind} on another thread to continue work there.
+     */
+    public static Integer bound() {
+        return CURRENT.get();
+    }
+
+    public static void bind(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
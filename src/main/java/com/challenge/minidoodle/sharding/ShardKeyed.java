@@ -0,0 +1,19 @@
+package com.challenge.minidoodle.sharding;
+
+/**
+ * Request body that determines the shard of the request it arrives with.
+ */
+public interface ShardKeyed {
+
+    /**
+     * Id of an existing row on the target shard (a user, slot or meeting id), or null.
+     */
+    Long shardOwnerId();
+
+    /**
+     * Key hashed to the home shard of a new owner, used when {@link #shardOwnerId()} is null.
+     */
+    default String shardHomeKey() {
+        return null;
+    }
+}
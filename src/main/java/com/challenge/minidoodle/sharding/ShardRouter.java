@@ -0,0 +1,263 @@
+package com.challenge.minidoodle.sharding;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Maps owners and ids to shards and runs work on a given shard. With sharding disabled there is a single
+ * shard and every helper simply runs its work inline in the caller's transaction.
+ * <p>
+ * Work for a shard other than the caller's runs on a dedicated thread, so it never shares the caller's
+ * persistence context or the connection that context already holds. Cross-shard reads run there in their own
+ * read-only transaction and return detached entities, so their queries must fetch everything the caller maps.
+ */
+@Slf4j
+@Component
+public class ShardRouter {
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService executor;
+
+    public ShardRouter(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        this.enabled = properties.isEnabled();
+        this.shardCount = enabled ? properties.getShards().size() + 1 : 1;
+        if (enabled && AotDetector.useGeneratedArtifacts()) {
+            // ShardingConfig is conditional and was left out when the build evaluated the default configuration
+            throw new IllegalStateException("Sharding cannot be enabled on an AOT-processed build; run without -Dspring.aot.enabled");
+        }
+        if (shardCount > GlobalIds.MAX_SHARDS) {
+            throw new IllegalStateException("At most " + GlobalIds.MAX_SHARDS + " shards are supported");
+        }
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = enabled ? Executors.newCachedThreadPool(shardThreads()) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Shard that owns the row with this id, and therefore every row hanging off the same user.
+     */
+    public int shardOf(Long id) {
+        if (!enabled || id == null) {
+            return ShardContext.DEFAULT_SHARD;
+        }
+        int shard = GlobalIds.shardOf(id);
+        if (shard >= shardCount) {
+            throw new IllegalArgumentException("Unknown id: " + id);
+        }
+        return shard;
+    }
+
+    /**
+     * Home shard for a new user, derived from a stable key such as the email address.
+     */
+    public int shardForKey(String key) {
+        if (!enabled || key == null) {
+            return ShardContext.DEFAULT_SHARD;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(key.toLowerCase().getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount);
+    }
+
+    /**
+     * Runs {@code action} bound to {@code shard}. The action manages its own transaction.
+     */
+    public <T> T callOn(int shard, Supplier<T> action) {
+        if (!enabled || (ShardContext.isBound() && ShardContext.current() == shard)) {
+            return action.get();
+        }
+        return join(CompletableFuture.supplyAsync(() -> bound(shard, action), executor));
+    }
+
+    /**
+     * Runs {@code action} on {@code shard} in its own transaction once the caller's transaction has committed, or
+     * right away outside a transaction. Meant for rows a change keeps on another shard than its own: they are only
+     * written once the change is durable, and a failure there is logged instead of undoing the committed change.
+     */
+    public void afterCommit(int shard, Runnable action) {
+        Runnable write = () -> {
+            try {
+                callOn(shard, () -> writeTransaction.execute(status -> {
+                    action.run();
+                    return null;
+                }));
+            } catch (RuntimeException ex) {
+                log.error("Write on shard {} after commit failed", shard, ex);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write.run();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code action} once per shard, one shard after the other.
+     */
+    public void forEachShard(IntConsumer action) {
+        if (!enabled) {
+            action.accept(ShardContext.current());
+            return;
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            callOn(target, () -> {
+                action.accept(target);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs {@code action} once per shard, one shard after the other, each inside its own read-only transaction.
+     * Suited to streaming reads whose consumer must see results in shard order.
+     */
+    public void readEachShard(Runnable action) {
+        if (!enabled) {
+            action.run();
+            return;
+        }
+        forEachShard(shard -> readOnlyTransaction.executeWithoutResult(status -> action.run()));
+    }
+
+    /**
+     * Runs a read-only query on every shard in parallel and concatenates the results in shard order.
+     */
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> bound(target, () -> readOnlyTransaction.execute(status -> query.get())), executor));
+        }
+        List<T> results = new ArrayList<>();
+        futures.forEach(future -> results.addAll(join(future)));
+        return results;
+    }
+
+    /**
+     * Runs a read-only lookup on every shard and returns the first hit in shard order.
+     */
+    public <T> Optional<T> findFirst(Supplier<Optional<T>> lookup) {
+        if (!enabled) {
+            return lookup.get();
+        }
+        return scatter(() -> lookup.get().map(List::of).orElse(List.of())).stream().findFirst();
+    }
+
+    public boolean anyMatch(BooleanSupplier check) {
+        if (!enabled) {
+            return check.getAsBoolean();
+        }
+        return !scatter(() -> check.getAsBoolean() ? List.of(Boolean.TRUE) : List.<Boolean>of()).isEmpty();
+    }
+
+    /**
+     * Groups ids by shard and runs {@code query} once per shard that owns any of them, in its own read-only
+     * transaction, concatenating the results.
+     */
+    public <T> List<T> gather(Collection<Long> ids, Function<Collection<Long>, List<T>> query) {
+        if (!enabled) {
+            return query.apply(ids);
+        }
+        Map<Integer, List<Long>> byShard = new LinkedHashMap<>();
+        for (Long id : ids) {
+            byShard.computeIfAbsent(shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(byShard.size());
+        byShard.forEach((shard, shardIds) -> futures.add(CompletableFuture.supplyAsync(
+                () -> bound(shard, () -> readOnlyTransaction.execute(status -> query.apply(shardIds))), executor)));
+        List<T> results = new ArrayList<>();
+        futures.forEach(future -> results.addAll(join(future)));
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static <T> T bound(int shard, Supplier<T> action) {
+        Integer previous = ShardContext.bound();
+        ShardContext.bind(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.bind(previous);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private static ThreadFactory shardThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "shard-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
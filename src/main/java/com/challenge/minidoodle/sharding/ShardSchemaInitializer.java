@@ -0,0 +1,71 @@
+package com.challenge.minidoodle.sharding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate only manages the schema of the datasource it boots against, which is shard 0. This captures the
+ * mapping metadata during bootstrap and replays the configured {@code ddl-auto} action on every other shard
+ * once the context is up. It also switches {@link GlobalIdGenerator} from identity columns to {@link GlobalIds}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaInitializer implements Integrator, HibernatePropertiesCustomizer, SmartInitializingSingleton {
+
+    private final ShardingProperties properties;
+
+    private Metadata metadata;
+    private SessionFactoryImplementor sessionFactory;
+    private boolean initialized;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(this));
+        hibernateProperties.put(GlobalIdGenerator.ENABLED_SETTING, true);
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        initialize();
+    }
+
+    /**
+     * Applies the schema to every other shard, once. Beans that add their own DDL call this first, since singletons
+     * are not initialized in dependency order.
+     */
+    public synchronized void initialize() {
+        if (metadata == null || initialized) {
+            return;
+        }
+        initialized = true;
+        Map<String, Object> settings = sessionFactory.getProperties();
+        for (int shard = 1; shard <= properties.getShards().size(); shard++) {
+            ShardContext.bind(shard);
+            try {
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings, action -> {
+                });
+                log.info("Schema management applied to shard {}", shard);
+            } finally {
+                ShardContext.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.challenge.minidoodle.sharding;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single datasource with one routing across all shards. The routing datasource is wrapped in a
+ * lazy proxy so a transaction only picks its physical connection, and therefore its shard, at the first
+ * statement rather than when it begins.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "minidoodle.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties primary, ShardingProperties properties) {
+        Map<Object, Object> shards = new HashMap<>();
+        DataSource first = primary.initializeDataSourceBuilder().build();
+        shards.put(0, first);
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            shards.put(i + 1, DataSourceBuilder.create()
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build());
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(shards);
+        routing.setDefaultTargetDataSource(first);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public NodeIdLease nodeIdLease(ShardingProperties properties, NamedParameterJdbcTemplate jdbc) {
+        return new NodeIdLease(properties, jdbc);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(ShardingProperties properties) {
+        return new ShardSchemaInitializer(properties);
+    }
+}
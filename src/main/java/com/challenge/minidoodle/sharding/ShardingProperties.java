@@ -0,0 +1,44 @@
+package com.challenge.minidoodle.sharding;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "minidoodle.sharding")
+public class ShardingProperties {
+
+    /**
+     * Route each user's data to one of several databases. Shard 0 is {@code spring.datasource}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Distinguishes application instances in generated ids. Each instance leases its node id in the database at
+     * startup and fails to start if another running instance holds it; when unset, the first free id is leased.
+     */
+    private Integer nodeId;
+
+    /**
+     * How long a node id lease lasts without renewal; a crashed instance's id becomes free after this.
+     */
+    private Duration nodeLease = Duration.ofMinutes(1);
+
+    /**
+     * Additional shards 1..N, in order. Never reorder or remove entries: ids encode their shard number.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,151 @@
+package com.challenge.minidoodle;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures time from JVM launch to the first successful request for the packaged application: the plain jar,
+ * the extracted jar with an AppCDS archive, and (when built with {@code -Pstartup}) the same with Spring AOT.
+ * Needs the database from {@code docker compose up postgres} and a packaged jar. Not part of the regular test run;
+ * execute with
+ * {@code mvn package -Pstartup -DskipTests && mvn test -Dtest=StartupBenchmark -Dsurefire.failIfNoSpecifiedTests=false}.
+ * <p>
+ * System properties: {@code startup.jar} (default: the jar in {@code target}), {@code startup.url} (default:
+ * the health endpoint, which checks the database) and {@code startup.runs} (default 5).
+ */
+class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final String AOT_INITIALIZER =
+            "BOOT-INF/classes/com/challenge/minidoodle/MinidoodleApplication__ApplicationContextInitializer.class";
+    private static final List<String> TRAINING_OPTIONS = List.of(
+            "-Dspring.context.exit=onRefresh",
+            "-Dspring.jpa.hibernate.ddl-auto=none",
+            "-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+            "-Dspring.sql.init.mode=never");
+
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+    private final URI url = URI.create(System.getProperty("startup.url", "http://localhost:8080/actuator/health"));
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        Path jar = packagedJar();
+        Path extracted = Path.of("target", "startup-benchmark");
+        extract(jar, extracted);
+        Path app = extracted.resolve(jar.getFileName());
+
+        System.out.printf("%nTime to first successful request, %d runs, %s%n", runs, url);
+        System.out.printf("  %-28s %8s %8s %8s%n", "variant", "min ms", "median", "max ms");
+        report("jar", List.of("-jar", jar.toString()));
+
+        Path archive = train(app, extracted.resolve("app.jsa"), List.of());
+        report("extracted + AppCDS", List.of("-XX:SharedArchiveFile=" + archive, "-jar", app.toString()));
+
+        if (hasAotInitializer(jar)) {
+            Path aotArchive = train(app, extracted.resolve("app-aot.jsa"), List.of("-Dspring.aot.enabled=true"));
+            report("extracted + AppCDS + AOT", List.of("-XX:SharedArchiveFile=" + aotArchive,
+                    "-Dspring.aot.enabled=true", "-jar", app.toString()));
+        } else {
+            System.out.printf("  %-28s skipped, package with -Pstartup%n", "extracted + AppCDS + AOT");
+        }
+    }
+
+    private void report(String variant, List<String> options) throws Exception {
+        List<Long> millis = new ArrayList<>(runs);
+        for (int i = 0; i < runs; i++) {
+            millis.add(timeToFirstRequest(options));
+        }
+        millis.sort(Long::compare);
+        System.out.printf("  %-28s %8d %8d %8d%n", variant, millis.get(0), millis.get(millis.size() / 2),
+                millis.get(millis.size() - 1));
+    }
+
+    private long timeToFirstRequest(List<String> options) throws Exception {
+        long start = System.nanoTime();
+        Process process = launch(options);
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                assertThat(process.isAlive()).as("application exited during startup").isTrue();
+                if (succeeds()) {
+                    return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("No successful response from " + url + " within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private boolean succeeds() throws InterruptedException {
+        try {
+            HttpResponse<Void> response = http.send(HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path train(Path app, Path archive, List<String> options) throws Exception {
+        List<String> training = new ArrayList<>();
+        training.add("-XX:ArchiveClassesAtExit=" + archive);
+        training.addAll(options);
+        training.addAll(TRAINING_OPTIONS);
+        training.addAll(List.of("-jar", app.toString()));
+        assertThat(launch(training).waitFor()).as("training run exit code").isZero();
+        return archive;
+    }
+
+    private void extract(Path jar, Path destination) throws Exception {
+        Process process = launch(List.of("-Djarmode=tools", "-jar", jar.toString(), "extract", "--force",
+                "--destination", destination.toString()));
+        assertThat(process.waitFor()).as("jar extraction exit code").isZero();
+    }
+
+    private Process launch(List<String> options) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(options);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File("target/startup-benchmark.log")))
+                .start();
+    }
+
+    private static Path packagedJar() throws IOException {
+        String configured = System.getProperty("startup.jar");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        try (Stream<Path> files = Files.list(Path.of("target"))) {
+            return files.filter(file -> file.getFileName().toString().matches("minidoodle-.*(?<!-plain)\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No packaged jar in target, run mvn package first"));
+        }
+    }
+
+    private static boolean hasAotInitializer(Path jar) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            return zip.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+}
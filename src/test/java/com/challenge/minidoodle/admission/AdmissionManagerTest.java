@@ -0,0 +1,65 @@
+package com.challenge.minidoodle.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionManagerTest {
+
+    private final AdmissionProperties properties = new AdmissionProperties();
+
+    @Test
+    void slowResponsesShrinkTheLimit() {
+        properties.getClasses().put(EndpointClass.BULK, new AdmissionProperties.ClassLimits(4, 1, 8, Duration.ZERO));
+        AdmissionManager manager = new AdmissionManager(properties);
+
+        manager.acquire(EndpointClass.BULK).release(false);
+
+        assertThat(limit(manager, EndpointClass.BULK)).isEqualTo(3);
+    }
+
+    @Test
+    void streamedResponsesDoNotFeedTheirDurationBack() {
+        properties.getClasses().put(EndpointClass.BULK, new AdmissionProperties.ClassLimits(4, 1, 8, Duration.ZERO));
+        AdmissionManager manager = new AdmissionManager(properties);
+
+        for (int i = 0; i < 10; i++) {
+            AdmissionManager.Permit permit = manager.acquire(EndpointClass.BULK);
+            permit.streamed();
+            permit.release(false);
+        }
+
+        assertThat(limit(manager, EndpointClass.BULK)).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void exportsOnlyBackOffOnFailure() {
+        AdmissionManager manager = new AdmissionManager(properties);
+
+        manager.acquire(EndpointClass.EXPORT).release(false);
+        assertThat(limit(manager, EndpointClass.EXPORT)).isEqualTo(4);
+
+        manager.acquire(EndpointClass.EXPORT).release(true);
+        assertThat(limit(manager, EndpointClass.EXPORT)).isEqualTo(3);
+    }
+
+    @Test
+    void aThrottledExportLeavesUserReadsAlone() {
+        AdmissionManager manager = new AdmissionManager(properties);
+        for (int i = 0; i < 20; i++) {
+            manager.acquire(EndpointClass.EXPORT).release(true);
+        }
+
+        assertThat(limit(manager, EndpointClass.EXPORT)).isEqualTo(1);
+        assertThat(limit(manager, EndpointClass.USER_READ)).isEqualTo(16);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int limit(AdmissionManager manager, EndpointClass endpointClass) {
+        Map<String, Object> classes = (Map<String, Object>) manager.snapshot().get("classes");
+        return (int) ((Map<String, Object>) classes.get(endpointClass.name())).get("limit");
+    }
+}
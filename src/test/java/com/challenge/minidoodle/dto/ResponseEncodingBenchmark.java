@@ -0,0 +1,130 @@
+package com.challenge.minidoodle.dto;
+
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size and serialization cost of the response DTOs across JSON, gzipped JSON, CBOR and Smile.
+ * Not part of the regular test run; execute with
+ * {@code mvn test -Dtest=ResponseEncodingBenchmark -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+class ResponseEncodingBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    private final JsonMapper json = JsonMapper.builder().build();
+    private final CBORMapper cbor = CBORMapper.builder().enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private final SmileMapper smile = SmileMapper.builder().enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+    @Test
+    void timeSlotList() throws IOException {
+        compare("List<TimeSlotResponse> x1000", timeSlots(1_000));
+    }
+
+    @Test
+    void meetingList() throws IOException {
+        compare("List<MeetingResponse> x200, 10 participants", meetings(200, 10));
+    }
+
+    private void compare(String label, Object payload) throws IOException {
+        byte[] jsonBytes = json.writeValueAsBytes(payload);
+        byte[] gzipBytes = gzip(jsonBytes);
+        byte[] cborBytes = cbor.writeValueAsBytes(payload);
+        byte[] smileBytes = smile.writeValueAsBytes(payload);
+
+        System.out.printf("%n%s%n", label);
+        System.out.printf("  %-10s %10s %12s%n", "encoding", "bytes", "us/op");
+        System.out.printf("  %-10s %10d %12.1f%n", "json", jsonBytes.length, microsPerOp(json, payload));
+        System.out.printf("  %-10s %10d %12s%n", "json+gzip", gzipBytes.length, "n/a");
+        System.out.printf("  %-10s %10d %12.1f%n", "cbor", cborBytes.length, microsPerOp(cbor, payload));
+        System.out.printf("  %-10s %10d %12.1f%n", "smile", smileBytes.length, microsPerOp(smile, payload));
+
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+        assertThat(smileBytes.length).isLessThan(jsonBytes.length);
+    }
+
+    private static double microsPerOp(ObjectMapper mapper, Object payload) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<TimeSlotResponse> timeSlots(int count) {
+        Instant base = Instant.parse("2030-01-06T08:00:00Z");
+        List<TimeSlotResponse> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TimeSlotResponse slot = new TimeSlotResponse();
+            slot.setId(10_000L + i);
+            slot.setUserId(42L);
+            slot.setUserEmail("host@example.com");
+            slot.setStartTime(base.plus(Duration.ofMinutes(30L * i)));
+            slot.setEndTime(base.plus(Duration.ofMinutes(30L * i + 30)));
+            slot.setStatus(i % 3 == 0 ? TimeSlotStatus.BUSY : TimeSlotStatus.AVAILABLE);
+            slot.setDurationInMinutes(30L);
+            slot.setMeetingId(i % 3 == 0 ? 50_000L + i : null);
+            slot.setCreatedAt(base.minus(Duration.ofDays(7)));
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    private static List<MeetingResponse> meetings(int count, int participantsPerMeeting) {
+        Instant base = Instant.parse("2030-01-06T08:00:00Z");
+        List<MeetingResponse> meetings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MeetingResponse meeting = new MeetingResponse();
+            meeting.setId(50_000L + i);
+            meeting.setTitle("Weekly sync " + i);
+            meeting.setDescription("Agenda: status, blockers, next steps");
+            meeting.setTimeSlotId(10_000L + i);
+            meeting.setStartTime(base.plus(Duration.ofHours(i)));
+            meeting.setEndTime(base.plus(Duration.ofHours(i)).plus(Duration.ofMinutes(30)));
+            meeting.setOrganizerId(42L);
+            meeting.setOrganizerEmail("host@example.com");
+            meeting.setCreatedAt(base.minus(Duration.ofDays(7)));
+            Set<MeetingResponse.ParticipantInfo> participants = new HashSet<>();
+            for (int p = 0; p < participantsPerMeeting; p++) {
+                MeetingResponse.ParticipantInfo participant = new MeetingResponse.ParticipantInfo();
+                participant.setId(100L + p);
+                participant.setEmail("participant" + p + "@example.com");
+                participant.setFirstName("First" + p);
+                participant.setLastName("Last" + p);
+                participants.add(participant);
+            }
+            meeting.setParticipants(participants);
+            meetings.add(meeting);
+        }
+        return meetings;
+    }
+}
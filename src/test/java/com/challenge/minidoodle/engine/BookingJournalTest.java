@@ -0,0 +1,75 @@
+package com.challenge.minidoodle.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingJournalTest {
+
+    private static final Instant START = Instant.parse("2030-01-07T09:00:00Z");
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesAreHandedOnInSequenceAndReadBackAfterRestart() throws Exception {
+        List<JournalEntry> appended = new ArrayList<>();
+        try (BookingJournal journal = new BookingJournal(directory, jsonMapper, false, appended::add)) {
+            journal.append(sequence -> entry(sequence, 100));
+            journal.append(sequence -> entry(sequence, 101));
+        }
+
+        try (BookingJournal reopened = new BookingJournal(directory, jsonMapper, false, entry -> { })) {
+            assertThat(reopened.readAll()).containsExactlyElementsOf(appended);
+            assertThat(reopened.append(sequence -> entry(sequence, 102)).sequence()).isEqualTo(3);
+        }
+        assertThat(appended).extracting(JournalEntry::sequence).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void tornLastLineIsSkipped() throws Exception {
+        try (BookingJournal journal = new BookingJournal(directory, jsonMapper, false, entry -> { })) {
+            journal.append(sequence -> entry(sequence, 100));
+        }
+        Files.writeString(directory.resolve("bookings.journal"), "{\"sequence\":2,\"meetingId\":10",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (BookingJournal reopened = new BookingJournal(directory, jsonMapper, false, entry -> { })) {
+            assertThat(reopened.readAll()).extracting(JournalEntry::sequence).containsExactly(1L);
+        }
+    }
+
+    @Test
+    void sequencesContinueAfterTheCheckpointOnceTheFileIsTruncated() throws Exception {
+        try (BookingJournal journal = new BookingJournal(directory, jsonMapper, false, entry -> { })) {
+            journal.startAfter(41);
+            JournalEntry first = journal.append(sequence -> entry(sequence, 100));
+            journal.append(sequence -> entry(sequence, 101));
+
+            journal.truncateIfCommitted(first.sequence());
+            assertThat(journal.readAll()).hasSize(2);
+
+            journal.truncateIfCommitted(43);
+            assertThat(journal.readAll()).isEmpty();
+            assertThat(journal.append(sequence -> entry(sequence, 102)).sequence()).isEqualTo(44);
+        }
+    }
+
+    static JournalEntry entry(long sequence, long meetingId) {
+        return new JournalEntry(sequence, meetingId, 10, 1, 7, "Sync", null, Set.of(8L), START,
+                START.plusSeconds(1800), START.minusSeconds(60));
+    }
+}
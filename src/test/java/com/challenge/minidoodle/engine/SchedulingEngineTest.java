@@ -0,0 +1,169 @@
+package com.challenge.minidoodle.engine;
+
+import com.challenge.minidoodle.domain.Meeting;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.UnavailableException;
+import com.challenge.minidoodle.sharding.EntityIds;
+import com.challenge.minidoodle.sharding.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.challenge.minidoodle.engine.BookingJournalTest.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+
+class SchedulingEngineTest {
+
+    private static final Instant START = Instant.parse("2030-01-07T09:00:00Z");
+
+    private final EngineStore store = mock(EngineStore.class);
+    private final EntityIds entityIds = mock(EntityIds.class);
+    private final EngineProperties properties = new EngineProperties();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private SchedulingEngine engine;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setJournalDirectory(directory.toString());
+        properties.setJournalSync(false);
+        properties.setFlushInterval(Duration.ofHours(1));
+        properties.setClaimTimeout(Duration.ofMillis(200));
+        Map<Long, SlotState> slots = new HashMap<>();
+        slots.put(10L, new SlotState(10, START, START.plusSeconds(1800), TimeSlotStatus.AVAILABLE, null));
+        when(store.loadCalendar(1L)).thenReturn(Optional.of(new CalendarState(1, 7, slots)));
+        when(store.findCalendarIdBySlotId(10L)).thenReturn(Optional.of(1L));
+        when(store.findUsers(anyCollection())).thenReturn(List.of(user(7L)));
+        when(entityIds.next("meetings")).thenReturn(100L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TransactionSynchronizationManager.clear();
+        engine.destroy();
+    }
+
+    @Test
+    void startupReplaysOnlyEntriesPastTheCheckpointAndSkipsATornLine() throws Exception {
+        List<JournalEntry> journaled = List.of(entry(1, 100), entry(2, 101), entry(3, 102));
+        StringBuilder lines = new StringBuilder();
+        for (JournalEntry entry : journaled) {
+            lines.append(jsonMapper.writeValueAsString(entry)).append('\n');
+        }
+        lines.append("{\"sequence\":4,\"meeting");
+        Files.writeString(directory.resolve("bookings.journal"), lines, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE);
+        when(store.readCheckpoint()).thenReturn(1L);
+
+        start();
+
+        verify(store).write(journaled.subList(1, 3));
+        assertThat(Files.size(directory.resolve("bookings.journal"))).isZero();
+    }
+
+    @Test
+    void claimingACalendarWritesItsPendingBookingsFirst() {
+        start();
+        Meeting booked = engine.book(10L, 7L, "Sync", null, Set.of());
+        assertThat(engine.findPendingMeeting(100L)).isPresent();
+        verify(store, never()).write(anyList());
+
+        TransactionSynchronizationManager.initSynchronization();
+        engine.claimCalendar(1L);
+
+        verify(store).write(List.of(new JournalEntry(1, 100, 10, 1, 7, "Sync", null, Set.of(), START,
+                START.plusSeconds(1800), booked.getCreatedAt())));
+        assertThat(engine.findPendingMeeting(100L)).isEmpty();
+    }
+
+    @Test
+    void unwritablePendingBookingsAnswer503() {
+        start();
+        engine.book(10L, 7L, "Sync", null, Set.of());
+        doThrow(new DataAccessResourceFailureException("connection refused")).when(store).write(anyList());
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThatThrownBy(() -> engine.claimCalendar(1L))
+                .isInstanceOfSatisfying(UnavailableException.class,
+                        ex -> assertThat(ex.getCode()).isEqualTo(ErrorCode.BOOKINGS_NOT_WRITTEN));
+        assertThat(engine.findPendingMeeting(100L)).isPresent();
+    }
+
+    @Test
+    void calendarClaimedByAnotherTransactionAnswers503() throws Exception {
+        start();
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                engine.claimCalendar(1L);
+                claimed.countDown();
+                done.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(synchronization -> synchronization.afterCompletion(STATUS_COMMITTED));
+                TransactionSynchronizationManager.clear();
+            }
+        });
+        assertThat(claimed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThatThrownBy(() -> engine.claimCalendar(1L))
+                .isInstanceOfSatisfying(UnavailableException.class, ex -> {
+                    assertThat(ex.getCode()).isEqualTo(ErrorCode.CALENDAR_BUSY);
+                    assertThat(ex.getRetryAfter()).isPositive();
+                });
+        done.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    private void start() {
+        engine = new SchedulingEngine(properties, new ShardingProperties(), store, entityIds, jsonMapper,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        engine.afterSingletonsInstantiated();
+    }
+
+    private static User user(Long id) {
+        User user = new User("user" + id + "@example.com", "User", String.valueOf(id));
+        user.setId(id);
+        return user;
+    }
+}
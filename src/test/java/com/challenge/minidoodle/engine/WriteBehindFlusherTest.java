@@ -0,0 +1,91 @@
+package com.challenge.minidoodle.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static com.challenge.minidoodle.engine.BookingJournalTest.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+class WriteBehindFlusherTest {
+
+    private final EngineStore store = mock(EngineStore.class);
+    private final List<JournalEntry> committed = new ArrayList<>();
+    private final List<JournalEntry> rejected = new ArrayList<>();
+    private final WriteBehindFlusher flusher = new WriteBehindFlusher(store,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 10, committed::addAll, rejected::add);
+
+    private final JournalEntry first = entry(1, 100);
+    private final JournalEntry second = entry(2, 101);
+    private final JournalEntry third = entry(3, 102);
+
+    @AfterEach
+    void stop() {
+        flusher.stop(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void violatingBatchIsRetriedEntryByEntryAndOnlyTheOffenderRejected() throws Exception {
+        doAnswer(invocation -> {
+            if (invocation.<List<JournalEntry>>getArgument(0).contains(second)) {
+                throw new DataIntegrityViolationException("duplicate key on time_slot_id");
+            }
+            return null;
+        }).when(store).write(anyList());
+        List.of(first, second, third).forEach(flusher::enqueue);
+
+        flusher.flushNow().get();
+
+        var order = inOrder(store);
+        order.verify(store).write(List.of(first, second, third));
+        order.verify(store).write(List.of(first));
+        order.verify(store).write(List.of(second));
+        order.verify(store).write(List.of(third));
+        assertThat(committed).containsExactly(first, third);
+        assertThat(rejected).containsExactly(second);
+        assertThat(flusher.pending()).isZero();
+    }
+
+    @Test
+    void entriesAfterARejectionStayQueuedInOrderWhenTheDatabaseFails() throws Exception {
+        doAnswer(invocation -> {
+            List<JournalEntry> batch = invocation.getArgument(0);
+            if (batch.contains(first) && batch.size() > 1) {
+                throw new DataIntegrityViolationException("duplicate key on time_slot_id");
+            }
+            if (batch.contains(second)) {
+                throw new DataAccessResourceFailureException("connection refused");
+            }
+            return null;
+        }).when(store).write(anyList());
+        List.of(first, second, third).forEach(flusher::enqueue);
+
+        assertThatThrownBy(() -> flusher.flushNow().get()).isInstanceOf(ExecutionException.class);
+        assertThat(committed).containsExactly(first);
+        assertThat(flusher.pending()).isEqualTo(2);
+
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException("duplicate key on time_slot_id");
+        doThrow(duplicate, duplicate)
+                .doAnswer(invocation -> null)
+                .when(store).write(anyList());
+        flusher.flushNow().get();
+
+        assertThat(rejected).containsExactly(second);
+        assertThat(committed).containsExactly(first, third);
+        assertThat(flusher.pending()).isZero();
+    }
+}
@@ -0,0 +1,98 @@
+package com.challenge.minidoodle.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the cost of rejecting a request the old way (an {@link IllegalArgumentException} with a concatenated
+ * message, answered with a fresh map) against a {@link DomainException} answered with a {@link ProblemDetail}. The
+ * exception is thrown from {@value #STACK_DEPTH} frames down to approximate a servlet request's stack.
+ * Not part of the regular test run; execute with
+ * {@code mvn test -Dtest=ErrorPathBenchmark -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+class ErrorPathBenchmark {
+
+    private static final int STACK_DEPTH = 120;
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 200_000;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void notFound() {
+        compare("time slot not found",
+                id -> new IllegalArgumentException("Time slot not found with id: " + id),
+                id -> new NotFoundException(ErrorCode.TIME_SLOT_NOT_FOUND, id));
+    }
+
+    @Test
+    void fixedMessage() {
+        compare("start time after end time",
+                id -> new IllegalArgumentException("Start time must be before end time"),
+                id -> new ValidationException(ErrorCode.INVALID_TIME_RANGE));
+    }
+
+    private void compare(String label, LongFunction<RuntimeException> before, LongFunction<DomainException> after) {
+        double legacy = nanosPerOp(id -> legacyResponse(throwFrom(STACK_DEPTH, before, id)));
+        double domain = nanosPerOp(id -> handler.handleDomainException(throwFrom(STACK_DEPTH, after, id)).getBody());
+
+        System.out.printf("%n%s, thrown %d frames deep%n", label, STACK_DEPTH);
+        System.out.printf("  %-36s %12s%n", "path", "ns/op");
+        System.out.printf("  %-36s %12.0f%n", "IllegalArgumentException + HashMap", legacy);
+        System.out.printf("  %-36s %12.0f%n", "DomainException + ProblemDetail", domain);
+
+        assertThat(domain).isLessThan(legacy);
+    }
+
+    private static double nanosPerOp(LongFunction<Object> rejection) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += rejection.apply(i).hashCode();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += rejection.apply(i).hashCode();
+        }
+        double nanos = (double) (System.nanoTime() - start) / MEASURED_ITERATIONS;
+        assertThat(sink).isNotZero();
+        return nanos;
+    }
+
+    private static <E extends RuntimeException> E throwFrom(int depth, LongFunction<E> factory, long id) {
+        try {
+            descend(depth, factory, id);
+        } catch (RuntimeException e) {
+            @SuppressWarnings("unchecked")
+            E caught = (E) e;
+            return caught;
+        }
+        throw new AssertionError("nothing thrown");
+    }
+
+    private static void descend(int depth, LongFunction<? extends RuntimeException> factory, long id) {
+        if (depth == 0) {
+            throw factory.apply(id);
+        }
+        descend(depth - 1, factory, id);
+    }
+
+    /** The body {@link GlobalExceptionHandler} built before it switched to {@link ProblemDetail}. */
+    private static Map<String, Object> legacyResponse(RuntimeException ex) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(status).body(body).getBody();
+    }
+}
@@ -0,0 +1,71 @@
+package com.challenge.minidoodle.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void exclusionConstraintViolationIsAnsweredAsSlotOverlap() {
+        SQLException sql = new SQLException("conflicting key value violates exclusion constraint", "23P01");
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sql, "time_slots_no_overlap"));
+
+        ResponseEntity<ProblemDetail> response = handler.handleDataIntegrityViolation(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getType()).isEqualTo(ErrorCode.SLOT_OVERLAP.getType());
+        assertThat(response.getBody().getDetail()).isEqualTo(ErrorCode.SLOT_OVERLAP.getMessage());
+        assertThat(response.getBody().getProperties()).containsEntry("code", "SLOT_OVERLAP");
+    }
+
+    @Test
+    void otherIntegrityViolationsStayGenericConflicts() {
+        SQLException sql = new SQLException("duplicate key value violates unique constraint", "23505");
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("duplicate key on time_slot_id", sql);
+
+        ResponseEntity<ProblemDetail> response = handler.handleDataIntegrityViolation(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getDetail()).isEqualTo("A meeting already exists for this time slot.");
+        assertThat(response.getBody().getProperties()).isNull();
+    }
+
+    @Test
+    void validationFailuresCarryTheirCode() {
+        ResponseEntity<ProblemDetail> response =
+                handler.handleDomainException(new ValidationException(ErrorCode.BATCH_TOO_LARGE, 100));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().getDetail()).isEqualTo("Too many ids requested at once; the maximum is 100");
+        assertThat(response.getBody().getProperties()).containsEntry("code", "BATCH_TOO_LARGE");
+    }
+
+    @Test
+    void missingJobIsA404() {
+        ResponseEntity<ProblemDetail> response =
+                handler.handleDomainException(new NotFoundException(ErrorCode.JOB_NOT_FOUND, 42));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody().getDetail()).isEqualTo("Job not found with id: 42");
+    }
+
+    @Test
+    void unexpectedFailuresDoNotEchoTheirMessage() {
+        ResponseEntity<ProblemDetail> response = handler.handleGenericException(
+                new IllegalStateException("relation \"users\" does not exist at character 15"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().getDetail()).isEqualTo("An unexpected error occurred");
+    }
+}
@@ -0,0 +1,62 @@
+package com.challenge.minidoodle.profiling;
+
+import com.challenge.minidoodle.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryProfilerTest {
+
+    private final QueryProfiler profiler = new QueryProfiler(new QueryProfileProperties(), new SimpleMeterRegistry());
+    private final MethodInterceptor advice = profiler.adviceFor(UserRepository.class);
+
+    @Test
+    void parametersAreNotLoggedByDefault() {
+        assertThat(new QueryProfileProperties().isLogParameters()).isFalse();
+    }
+
+    @Test
+    void callsThatThrowAreRecorded() throws Throwable {
+        MethodInvocation invocation = invocation("findAll");
+        when(invocation.proceed()).thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        assertThatThrownBy(() -> advice.invoke(invocation)).isInstanceOf(QueryTimeoutException.class);
+
+        assertThat(queries()).singleElement().satisfies(query -> {
+            assertThat(query).containsEntry("query", "UserRepository.findAll");
+            assertThat(query).containsEntry("count", 1L);
+        });
+    }
+
+    @Test
+    void successfulCallsAreRecordedWithTheirRows() throws Throwable {
+        MethodInvocation invocation = invocation("findAll");
+        when(invocation.proceed()).thenReturn(List.of("a", "b"));
+
+        assertThat(advice.invoke(invocation)).isEqualTo(List.of("a", "b"));
+
+        assertThat(queries()).singleElement().satisfies(query -> assertThat(query).containsEntry("count", 1L));
+    }
+
+    private static MethodInvocation invocation(String method) throws NoSuchMethodException {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(UserRepository.class.getMethod(method));
+        when(invocation.getArguments()).thenReturn(new Object[0]);
+        return invocation;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> queries() {
+        return (List<Map<String, Object>>) profiler.snapshot(null).get("queries");
+    }
+}
@@ -0,0 +1,44 @@
+package com.challenge.minidoodle.profiling;
+
+import com.challenge.minidoodle.repository.FreeBusyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RepositoryProfilingPostProcessorTest {
+
+    private final QueryProfiler profiler = new QueryProfiler(new QueryProfileProperties(), new SimpleMeterRegistry());
+    private final RepositoryProfilingPostProcessor postProcessor = new RepositoryProfilingPostProcessor(
+            new StaticListableBeanFactory(Map.of("queryProfiler", profiler)).getBeanProvider(QueryProfiler.class));
+
+    @Test
+    void handWrittenRepositoriesAreTimedToo() {
+        FreeBusyRepository repository = (FreeBusyRepository) postProcessor.postProcessAfterInitialization(
+                new FreeBusyRepository(mock(NamedParameterJdbcTemplate.class)), "freeBusyRepository");
+
+        assertThat(repository.findSlots(List.of(1L), Instant.EPOCH, Instant.EPOCH.plusSeconds(60))).isEmpty();
+
+        assertThat(queries()).singleElement()
+                .satisfies(query -> assertThat(query).containsEntry("query", "FreeBusyRepository.findSlots"));
+    }
+
+    @Test
+    void otherBeansAreLeftAlone() {
+        Object bean = new Object();
+
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "bean")).isSameAs(bean);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> queries() {
+        return (List<Map<String, Object>>) profiler.snapshot(null).get("queries");
+    }
+}
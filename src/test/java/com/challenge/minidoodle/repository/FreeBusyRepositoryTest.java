@@ -0,0 +1,42 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.PostgresIntegrationTest;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.repository.FreeBusyRepository.SlotRow;
+import com.challenge.minidoodle.service.TimeSlotService;
+import com.challenge.minidoodle.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FreeBusyRepositoryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FreeBusyRepository repository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    @Test
+    void deletedAndUnknownUsersHaveNoRows() {
+        Instant start = Instant.now().plus(Duration.ofDays(30)).truncatedTo(ChronoUnit.HOURS);
+        User active = userService.createUser(UUID.randomUUID() + "@example.com", "Alma", "Active");
+        User deleted = userService.createUser(UUID.randomUUID() + "@example.com", "Dirk", "Deleted");
+        timeSlotService.createTimeSlot(active.getId(), start, start.plus(Duration.ofHours(1)));
+        timeSlotService.createTimeSlot(deleted.getId(), start, start.plus(Duration.ofHours(1)));
+        userService.deleteUser(deleted.getId());
+
+        List<SlotRow> rows = repository.findSlots(List.of(active.getId(), deleted.getId(), Long.MAX_VALUE),
+                start, start.plus(Duration.ofDays(1)));
+
+        assertThat(rows).extracting(SlotRow::userId).containsExactly(active.getId());
+    }
+}
@@ -0,0 +1,55 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.PostgresIntegrationTest;
+import com.challenge.minidoodle.domain.IdempotencyStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+class IdempotencyRecordRepositoryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Test
+    void liveClaimBlocksOtherClaims() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        assertThat(repository.claim("live", "scope", "hash", "first", now, now.plusSeconds(60))).isEqualTo(1);
+
+        assertThat(repository.claim("live", "scope", "hash", "second", now.plusSeconds(1), now.plusSeconds(61)))
+                .isZero();
+    }
+
+    @Test
+    void claimLeftByACrashedRequestIsTakenOverOnceItsLeaseExpires() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        repository.claim("crashed", "scope", "hash", "first", now.minusSeconds(120), now.minusSeconds(60));
+
+        assertThat(repository.claim("crashed", "scope", "hash", "retry", now, now.plusSeconds(60))).isEqualTo(1);
+
+        // the crashed request can no longer complete or release the key it lost
+        assertThat(repository.complete("crashed", "first", 201, "{}", now.plusSeconds(3600))).isZero();
+        assertThat(repository.release("crashed", "first")).isZero();
+        assertThat(repository.complete("crashed", "retry", 201, "{}", now.plusSeconds(3600))).isEqualTo(1);
+        assertThat(repository.findById("crashed")).hasValueSatisfying(record -> {
+            assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+            assertThat(record.getExpiresAt()).isEqualTo(now.plusSeconds(3600));
+        });
+    }
+
+    @Test
+    void completedResponseIsKeptUntilItsTtl() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        repository.claim("done", "scope", "hash", "first", now, now.plusSeconds(60));
+        repository.complete("done", "first", 201, "{}", now.plusSeconds(3600));
+
+        assertThat(repository.claim("done", "scope", "hash", "retry", now.plusSeconds(120), now.plusSeconds(180)))
+                .isZero();
+    }
+}
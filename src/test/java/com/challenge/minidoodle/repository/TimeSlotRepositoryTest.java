@@ -0,0 +1,73 @@
+package com.challenge.minidoodle.repository;
+
+import com.challenge.minidoodle.PostgresIntegrationTest;
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.service.TimeSlotService;
+import com.challenge.minidoodle.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeSlotRepositoryTest extends PostgresIntegrationTest {
+
+    private static final String AVAILABLE = TimeSlotStatus.AVAILABLE.name();
+
+    @Autowired
+    private TimeSlotRepository repository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TimeSlotService timeSlotService;
+
+    private User user;
+    private Instant start;
+
+    @BeforeEach
+    void createUser() {
+        user = userService.createUser(UUID.randomUUID() + "@example.com", "Carl", "Compact");
+        start = Instant.now().plus(Duration.ofDays(30)).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void separatedSlotsDoNotTouch() {
+        slot(0, 60);
+        slot(90, 120);
+
+        assertThat(repository.hasTouchingSlots(calendarId(), AVAILABLE)).isFalse();
+    }
+
+    @Test
+    void adjacentSlotsTouch() {
+        slot(0, 60);
+        slot(60, 120);
+
+        assertThat(repository.hasTouchingSlots(calendarId(), AVAILABLE)).isTrue();
+    }
+
+    @Test
+    void calendarsAreListedInIdOrderAfterTheCursor() {
+        long calendarId = calendarId();
+
+        assertThat(repository.findCalendarIdsAfter(calendarId - 1, 1)).containsExactly(calendarId);
+        assertThat(repository.findCalendarIdsAfter(calendarId, 10)).doesNotContain(calendarId);
+    }
+
+    private void slot(int fromMinute, int toMinute) {
+        timeSlotService.createTimeSlot(user.getId(), start.plus(Duration.ofMinutes(fromMinute)),
+                start.plus(Duration.ofMinutes(toMinute)));
+    }
+
+    private long calendarId() {
+        return userRepository.findCalendarIdIncludingDeleted(user.getId()).orElseThrow();
+    }
+}
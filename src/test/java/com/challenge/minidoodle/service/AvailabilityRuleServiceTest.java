@@ -0,0 +1,93 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.AvailabilityRule;
+import com.challenge.minidoodle.domain.Calendar;
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.exception.ConflictException;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.repository.AvailabilityBlockRepository;
+import com.challenge.minidoodle.repository.AvailabilityRuleRepository;
+import com.challenge.minidoodle.repository.TimeSlotRepository;
+import com.challenge.minidoodle.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AvailabilityRuleServiceTest {
+
+    // a Monday; the rule offers 30-minute slots from 09:00 to 12:00 Berlin time, i.e. from 08:00 UTC
+    private static final Instant WINDOW_START = Instant.parse("2030-01-07T08:00:00Z");
+
+    private final AvailabilityRuleRepository ruleRepository = mock(AvailabilityRuleRepository.class);
+    private final TimeSlotRepository timeSlotRepository = mock(TimeSlotRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private AvailabilityRuleService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AvailabilityRuleService(ruleRepository, mock(AvailabilityBlockRepository.class),
+                timeSlotRepository, userRepository, mock(OccupancyService.class), mock(SlotOverlapGuard.class));
+        User user = new User("host@example.com", "Hannah", "Host");
+        user.setId(1L);
+        Calendar calendar = new Calendar(user);
+        calendar.setId(10L);
+        user.setCalendar(calendar);
+        AvailabilityRule rule = new AvailabilityRule();
+        rule.setDayOfWeek(DayOfWeek.MONDAY);
+        rule.setStartTime(LocalTime.of(9, 0));
+        rule.setEndTime(LocalTime.of(12, 0));
+        rule.setTimeZone("Europe/Berlin");
+        rule.setSlotMinutes(30);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(ruleRepository.findByUserId(1L)).thenReturn(List.of(rule));
+        when(timeSlotRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void consecutiveSlotsOnTheGridAreBookable() {
+        Instant start = WINDOW_START.plus(Duration.ofMinutes(60));
+
+        TimeSlot slot = service.materializeSlot(1L, start, start.plus(Duration.ofMinutes(60)));
+
+        assertThat(slot.getStartTime()).isEqualTo(start);
+        assertThat(slot.getEndTime()).isEqualTo(start.plus(Duration.ofMinutes(60)));
+    }
+
+    @Test
+    void startOffTheGridIsOutsideAvailability() {
+        Instant start = WINDOW_START.plus(Duration.ofMinutes(10));
+
+        assertOutsideAvailability(start, start.plus(Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void partialSlotIsOutsideAvailability() {
+        assertOutsideAvailability(WINDOW_START, WINDOW_START.plus(Duration.ofMinutes(45)));
+    }
+
+    @Test
+    void windowPastTheRulesHoursIsOutsideAvailability() {
+        Instant start = WINDOW_START.plus(Duration.ofMinutes(150));
+
+        assertOutsideAvailability(start, start.plus(Duration.ofMinutes(60)));
+    }
+
+    private void assertOutsideAvailability(Instant start, Instant end) {
+        assertThatThrownBy(() -> service.materializeSlot(1L, start, end))
+                .isInstanceOfSatisfying(ConflictException.class,
+                        ex -> assertThat(ex.getCode()).isEqualTo(ErrorCode.OUTSIDE_AVAILABILITY));
+    }
+}
@@ -0,0 +1,69 @@
+package com.challenge.minidoodle.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int EXPECTED = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void addedValuesAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(EXPECTED, FALSE_POSITIVE_RATE);
+        IntStream.range(0, EXPECTED).forEach(i -> filter.put(email(i)));
+
+        assertThat(IntStream.range(0, EXPECTED).filter(i -> !filter.mightContain(email(i))).count()).isZero();
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(EXPECTED, FALSE_POSITIVE_RATE);
+        IntStream.range(0, EXPECTED).forEach(i -> filter.put(email(i)));
+
+        int probes = 100_000;
+        long falsePositives = IntStream.range(EXPECTED, EXPECTED + probes)
+                .filter(i -> filter.mightContain(email(i)))
+                .count();
+
+        assertThat((double) falsePositives / probes).isBetween(FALSE_POSITIVE_RATE / 2, FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(EXPECTED, FALSE_POSITIVE_RATE);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = offset; i < EXPECTED; i += threads) {
+                        filter.put(email(i));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(IntStream.range(0, EXPECTED).filter(i -> !filter.mightContain(email(i))).count()).isZero();
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+}
@@ -0,0 +1,80 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.coherence.EntityType;
+import com.challenge.minidoodle.coherence.Invalidation;
+import com.challenge.minidoodle.repository.UserBulkRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailFilterTest {
+
+    private final UserBulkRepository userBulkRepository = mock(UserBulkRepository.class);
+    private final ShardRouter shardRouter = mock(ShardRouter.class);
+    private final EmailFilterProperties properties = new EmailFilterProperties();
+    private EmailFilter emailFilter;
+
+    @BeforeEach
+    void setUp() {
+        properties.setExpectedEmails(1000);
+        emailFilter = new EmailFilter(properties, userBulkRepository, shardRouter,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        when(shardRouter.callOn(anyInt(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+        doAnswer(invocation -> {
+            invocation.<IntConsumer>getArgument(0).accept(0);
+            return null;
+        }).when(shardRouter).forEachShard(any());
+        doAnswer(invocation -> {
+            invocation.<Consumer<String>>getArgument(0).accept("known@example.com");
+            return null;
+        }).when(userBulkRepository).forEachEmail(any());
+        emailFilter.rebuild();
+    }
+
+    @Test
+    void emailTakenOnAnotherInstanceIsAddedFromItsInvalidation() {
+        when(userBulkRepository.findEmail(7L)).thenReturn(Optional.of("peer@example.com"));
+        assertThat(emailFilter.mightExist("peer@example.com")).isFalse();
+
+        emailFilter.evict(new Invalidation(EntityType.USER, 7L, 1L));
+
+        assertThat(emailFilter.mightExist("peer@example.com")).isTrue();
+    }
+
+    @Test
+    void otherInvalidationsAreIgnored() {
+        emailFilter.evict(new Invalidation(EntityType.CALENDAR, 7L, 1L));
+
+        assertThat(emailFilter.mightExist("peer@example.com")).isFalse();
+    }
+
+    @Test
+    void fullFlushRebuildsFromTheDatabase() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<String>>getArgument(0).accept("missed@example.com");
+            return null;
+        }).when(userBulkRepository).forEachEmail(any());
+
+        emailFilter.evictAll();
+
+        assertThat(emailFilter.mightExist("missed@example.com")).isTrue();
+        await().untilAsserted(() -> assertThat(emailFilter.mightExist("other@example.com")).isFalse());
+        assertThat(emailFilter.mightExist("missed@example.com")).isTrue();
+    }
+}
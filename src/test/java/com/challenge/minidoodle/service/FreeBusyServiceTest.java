@@ -0,0 +1,104 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.dto.TeamFreeBusyResponse;
+import com.challenge.minidoodle.dto.TeamFreeBusyResponse.UserFreeBusy;
+import com.challenge.minidoodle.repository.FreeBusyRepository;
+import com.challenge.minidoodle.repository.FreeBusyRepository.SlotRow;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FreeBusyServiceTest {
+
+    private static final Instant START = Instant.parse("2030-01-07T08:00:00Z");
+    private static final Instant END = Instant.parse("2030-01-07T18:00:00Z");
+
+    private final FreeBusyRepository freeBusyRepository = mock(FreeBusyRepository.class);
+    private final ShardRouter shardRouter = mock(ShardRouter.class);
+    private final List<SlotRow> rows = new ArrayList<>();
+    private FreeBusyService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new FreeBusyService(freeBusyRepository, shardRouter, new BatchProperties(),
+                new RangeQueryProperties());
+        when(shardRouter.gather(anyCollection(), any())).thenAnswer(invocation ->
+                invocation.<Function<Collection<Long>, List<?>>>getArgument(1).apply(invocation.getArgument(0)));
+        when(freeBusyRepository.findSlots(anyCollection(), any(), any())).thenReturn(rows);
+    }
+
+    @Test
+    void overlappingContainedAndAdjacentSlotsMergeIntoOneBlock() {
+        slot(1L, "09:00", "10:00", TimeSlotStatus.AVAILABLE);
+        slot(1L, "09:30", "10:30", TimeSlotStatus.AVAILABLE);
+        slot(1L, "09:45", "10:15", TimeSlotStatus.AVAILABLE);
+        slot(1L, "10:30", "11:00", TimeSlotStatus.AVAILABLE);
+        slot(1L, "12:00", "13:00", TimeSlotStatus.AVAILABLE);
+
+        UserFreeBusy user = single(service.getFreeBusy(List.of(1L), START, END));
+
+        assertThat(user.getFree()).containsExactly(hours(1), hours(3), hours(4), hours(5));
+        assertThat(user.getBusy()).isEmpty();
+    }
+
+    @Test
+    void freeAndBusySlotsAreKeptApart() {
+        slot(1L, "09:00", "10:00", TimeSlotStatus.AVAILABLE);
+        slot(1L, "10:00", "11:00", TimeSlotStatus.BUSY);
+
+        UserFreeBusy user = single(service.getFreeBusy(List.of(1L), START, END));
+
+        assertThat(user.getFree()).containsExactly(hours(1), hours(2));
+        assertThat(user.getBusy()).containsExactly(hours(2), hours(3));
+    }
+
+    @Test
+    void slotsReachingPastTheWindowAreClippedToIt() {
+        slot(1L, "07:00", "09:00", TimeSlotStatus.BUSY);
+        slot(1L, "17:00", "19:00", TimeSlotStatus.AVAILABLE);
+
+        UserFreeBusy user = single(service.getFreeBusy(List.of(1L), START, END));
+
+        assertThat(user.getBusy()).containsExactly(0, hours(1));
+        assertThat(user.getFree()).containsExactly(hours(9), hours(10));
+    }
+
+    @Test
+    void usersWithoutRowsAreReportedAsNotFound() {
+        // the repository returns one empty row for an existing user without slots, none for unknown or deleted users
+        rows.add(new SlotRow(1L, null, null, null));
+
+        TeamFreeBusyResponse response = service.getFreeBusy(List.of(1L, 2L, 1L), START, END);
+
+        assertThat(single(response).getFree()).isEmpty();
+        assertThat(response.getNotFound()).containsExactly(2L);
+    }
+
+    private void slot(long userId, String from, String to, TimeSlotStatus status) {
+        rows.add(new SlotRow(userId, Instant.parse("2030-01-07T" + from + ":00Z"),
+                Instant.parse("2030-01-07T" + to + ":00Z"), status));
+    }
+
+    private static UserFreeBusy single(TeamFreeBusyResponse response) {
+        assertThat(response.getUsers()).hasSize(1);
+        return response.getUsers().get(0);
+    }
+
+    private static int hours(int hours) {
+        return hours * 3600;
+    }
+}
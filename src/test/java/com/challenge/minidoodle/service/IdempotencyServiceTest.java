@@ -0,0 +1,157 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.IdempotencyRecord;
+import com.challenge.minidoodle.domain.IdempotencyStatus;
+import com.challenge.minidoodle.exception.IdempotencyConflictException;
+import com.challenge.minidoodle.repository.IdempotencyRecordRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/meetings";
+
+    record Created(Long id) {
+    }
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final AtomicInteger runs = new AtomicInteger();
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.setInProgressLease(Duration.ofSeconds(30));
+        properties.setLocalMaxEntries(2);
+        service = new IdempotencyService(repository, properties, JsonMapper.builder().build(), transactionManager,
+                mock(ShardRouter.class));
+        when(repository.claim(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
+        when(repository.complete(anyString(), anyString(), anyInt(), anyString(), any())).thenReturn(1);
+    }
+
+    @Test
+    void retryReplaysTheStoredResponseWithoutRunningTheOperationAgain() {
+        ResponseEntity<Created> first = create("key-1", Map.of("title", "Sync"));
+        ResponseEntity<Created> retry = create("key-1", Map.of("title", "Sync"));
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void reusingAKeyForAnotherPayloadIsRejectedWith422() {
+        create("key-1", Map.of("title", "Sync"));
+
+        assertThatThrownBy(() -> create("key-1", Map.of("title", "Other")))
+                .isInstanceOfSatisfying(IdempotencyConflictException.class,
+                        ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void claimIsLeasedBrieflyAndCompletedWithItsTokenForTheFullTtl() {
+        Instant before = Instant.now();
+        create("key-1", Map.of("title", "Sync"));
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Instant> leaseExpiresAt = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> expiresAt = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).claim(eq("key-1"), eq(SCOPE), anyString(), token.capture(), any(), leaseExpiresAt.capture());
+        verify(repository).complete(eq("key-1"), eq(token.getValue()), eq(201), anyString(), expiresAt.capture());
+        assertThat(leaseExpiresAt.getValue()).isBetween(before.plusSeconds(30), Instant.now().plusSeconds(30));
+        assertThat(expiresAt.getValue()).isAfter(before.plus(properties.getTtl()).minusSeconds(1));
+    }
+
+    @Test
+    void retryWhileTheOriginalIsRunningGets409AndRunsOnceTheLeaseIsTakenOver() {
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setKey("key-1");
+        claim.setScope(SCOPE);
+        claim.setStatus(IdempotencyStatus.IN_PROGRESS);
+        claim.setExpiresAt(Instant.now().plusSeconds(30));
+        when(repository.claim(eq("key-1"), anyString(), anyString(), anyString(), any(), any())).thenReturn(0, 1);
+        when(repository.findById("key-1")).thenReturn(Optional.of(claim));
+        create("key-0", Map.of("title", "Sync"));
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(eq("key-0"), anyString(), hash.capture(), anyString(), any(), any());
+        claim.setRequestHash(hash.getValue());
+
+        assertThatThrownBy(() -> create("key-1", Map.of("title", "Sync")))
+                .isInstanceOfSatisfying(IdempotencyConflictException.class,
+                        ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(runs).hasValue(1);
+
+        // the crashed request's lease ran out, so the next claim succeeds and the create runs
+        assertThat(create("key-1", Map.of("title", "Sync")).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void failedOperationRollsBackAndReleasesOnlyItsOwnClaim() {
+        assertThatThrownBy(() -> service.execute("key-1", SCOPE, Map.of(), Created.class, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(repository).claim(eq("key-1"), anyString(), anyString(), token.capture(), any(), any());
+        verify(repository).release("key-1", token.getValue());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void completionAfterATakeoverRollsTheOperationBack() {
+        when(repository.complete(anyString(), anyString(), anyInt(), anyString(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> create("key-1", Map.of("title", "Sync")))
+                .isInstanceOfSatisfying(IdempotencyConflictException.class,
+                        ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void localTierEvictsTheLeastRecentlyUsedResponse() {
+        create("key-1", Map.of("title", "One"));
+        create("key-2", Map.of("title", "Two"));
+        create("key-1", Map.of("title", "One"));
+        create("key-3", Map.of("title", "Three"));
+
+        when(repository.claim(anyString(), anyString(), anyString(), anyString(), any(), any())).thenReturn(0);
+        create("key-1", Map.of("title", "One"));
+        verify(repository, never()).findById("key-1");
+        assertThatThrownBy(() -> create("key-2", Map.of("title", "Two")))
+                .isInstanceOf(IdempotencyConflictException.class);
+        verify(repository).findById("key-2");
+    }
+
+    private ResponseEntity<Created> create(String key, Object request) {
+        return service.execute(key, SCOPE, request, Created.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(new Created((long) runs.incrementAndGet())));
+    }
+}
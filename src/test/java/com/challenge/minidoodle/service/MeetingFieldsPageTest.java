@@ -0,0 +1,90 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.coherence.CacheInvalidator;
+import com.challenge.minidoodle.dto.KeysetPage;
+import com.challenge.minidoodle.dto.PageCursor;
+import com.challenge.minidoodle.engine.SchedulingEngine;
+import com.challenge.minidoodle.repository.MeetingField;
+import com.challenge.minidoodle.repository.MeetingRepository;
+import com.challenge.minidoodle.repository.SparseProjectionRepository;
+import com.challenge.minidoodle.repository.TimeSlotRepository;
+import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MeetingFieldsPageTest {
+
+    private static final Instant START = Instant.parse("2030-01-07T00:00:00Z");
+    private static final Instant END = START.plusSeconds(86_400);
+
+    private final SparseProjectionRepository sparseProjectionRepository = mock(SparseProjectionRepository.class);
+    private final ShardRouter shardRouter = mock(ShardRouter.class);
+    private MeetingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MeetingService(mock(MeetingRepository.class), mock(TimeSlotRepository.class),
+                mock(UserRepository.class), mock(AgendaService.class), mock(AvailabilityRuleService.class),
+                mock(SlotCompactionService.class), mock(EntityStreamer.class), sparseProjectionRepository,
+                new BatchProperties(), shardRouter, mock(SchedulingEngine.class), new RangeQueryProperties(),
+                new ConflictProperties(), mock(OccupancyService.class), mock(CacheInvalidator.class));
+        when(shardRouter.scatter(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        when(shardRouter.shardCount()).thenReturn(1);
+    }
+
+    @Test
+    void fullPageCarriesACursorFromFieldsThatWereNotRequested() {
+        when(sparseProjectionRepository.findMeetingPageInRange(eq(START), eq(END), any(), anyLong(), anyInt(), any()))
+                .thenReturn(List.of(row(1L, START.plusSeconds(60), "a"), row(2L, START.plusSeconds(120), "b")));
+
+        KeysetPage<Map<String, Object>> page = service.getMeetingFieldsPageByTimeRange(START, END, null, 2,
+                EnumSet.of(MeetingField.TITLE), false);
+
+        assertThat(page.getItems()).containsExactly(Map.of("title", "a"), Map.of("title", "b"));
+        assertThat(PageCursor.decode(page.getNextCursor()).getId()).isEqualTo(2L);
+        assertThat(PageCursor.decode(page.getNextCursor()).getStartTime()).isEqualTo(START.plusSeconds(120));
+        verify(sparseProjectionRepository).findMeetingPageInRange(START, END, START, Long.MIN_VALUE, 2,
+                EnumSet.of(MeetingField.ID, MeetingField.TITLE, MeetingField.START_TIME));
+    }
+
+    @Test
+    void nextPageStartsAfterTheCursorAndTheLastPageHasNone() {
+        when(sparseProjectionRepository.findMeetingPageInRange(eq(START), eq(END), any(), anyLong(), anyInt(), any()))
+                .thenReturn(List.of(row(3L, START.plusSeconds(180), "c")));
+        Instant cursorStart = START.plusSeconds(120);
+
+        KeysetPage<Map<String, Object>> page = service.getMeetingFieldsPageByTimeRange(START, END,
+                new PageCursor(cursorStart, 2L), 2, Set.of(MeetingField.ID, MeetingField.START_TIME), false);
+
+        assertThat(page.getItems()).singleElement().satisfies(row -> assertThat(row).containsKeys("id", "startTime"));
+        assertThat(page.getNextCursor()).isNull();
+        verify(sparseProjectionRepository).findMeetingPageInRange(eq(START), eq(END), eq(cursorStart), eq(2L), eq(2),
+                any());
+    }
+
+    private static Map<String, Object> row(Long id, Instant startTime, String title) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("title", title);
+        row.put("startTime", startTime);
+        return row;
+    }
+}
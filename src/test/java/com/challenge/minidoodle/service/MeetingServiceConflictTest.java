@@ -0,0 +1,137 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.coherence.CacheInvalidator;
+import com.challenge.minidoodle.domain.AgendaEntry;
+import com.challenge.minidoodle.domain.AgendaRole;
+import com.challenge.minidoodle.domain.Calendar;
+import com.challenge.minidoodle.domain.Meeting;
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.engine.SchedulingEngine;
+import com.challenge.minidoodle.exception.NotFoundException;
+import com.challenge.minidoodle.exception.ParticipantConflictException;
+import com.challenge.minidoodle.repository.MeetingRepository;
+import com.challenge.minidoodle.repository.SparseProjectionRepository;
+import com.challenge.minidoodle.repository.TimeSlotRepository;
+import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MeetingServiceConflictTest {
+
+    private static final Instant START = Instant.parse("2030-01-07T09:00:00Z");
+    private static final Instant END = START.plusSeconds(1800);
+
+    private final MeetingRepository meetingRepository = mock(MeetingRepository.class);
+    private final TimeSlotRepository timeSlotRepository = mock(TimeSlotRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AgendaService agendaService = mock(AgendaService.class);
+    private final ShardRouter shardRouter = mock(ShardRouter.class);
+    private final SchedulingEngine schedulingEngine = mock(SchedulingEngine.class);
+    private final ConflictProperties conflictProperties = new ConflictProperties();
+    private MeetingService service;
+
+    private final User organizer = user(1L);
+    private final User participant = user(2L);
+    private final TimeSlot slot = slot(10L);
+    private final AgendaEntry overlap = new AgendaEntry(2L, 99L, START, END, AgendaRole.PARTICIPANT);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new MeetingService(meetingRepository, timeSlotRepository, userRepository, agendaService,
+                mock(AvailabilityRuleService.class), mock(SlotCompactionService.class), mock(EntityStreamer.class),
+                mock(SparseProjectionRepository.class), new BatchProperties(), shardRouter, schedulingEngine,
+                new RangeQueryProperties(), conflictProperties, mock(OccupancyService.class),
+                mock(CacheInvalidator.class));
+        when(shardRouter.gather(anyCollection(), any())).thenAnswer(invocation ->
+                invocation.<Function<Collection<Long>, List<?>>>getArgument(1).apply(invocation.getArgument(0)));
+        when(timeSlotRepository.findById(10L)).thenReturn(Optional.of(slot));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(organizer));
+        when(userRepository.findActiveByIdIn(Set.of(2L))).thenReturn(List.of(participant));
+        when(meetingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(agendaService.findConflicts(anyCollection(), eq(START), eq(END), any())).thenReturn(List.of(overlap));
+    }
+
+    @Test
+    void strictModeRejectsAnOverlappingBookingBeforeSavingIt() {
+        conflictProperties.setStrict(true);
+
+        assertThatThrownBy(() -> book())
+                .isInstanceOfSatisfying(ParticipantConflictException.class,
+                        ex -> assertThat(ex.getConflicts()).singleElement()
+                                .satisfies(conflict -> assertThat(conflict.getUserId()).isEqualTo(2L)));
+        verify(meetingRepository, never()).save(any());
+    }
+
+    @Test
+    void nonStrictModeBooksAndReportsTheOverlaps() {
+        Meeting meeting = book();
+
+        assertThat(meeting.getConflicts()).containsExactly(overlap);
+        verify(agendaService).findConflicts(Set.of(1L, 2L), START, END, null);
+        verify(meetingRepository).save(meeting);
+    }
+
+    @Test
+    void engineBookingsAreCheckedForOverlapsToo() {
+        Meeting booked = new Meeting("Sync", null, slot, organizer);
+        booked.setId(50L);
+        booked.setParticipants(Set.of(participant));
+        when(schedulingEngine.isEnabled()).thenReturn(true);
+        when(schedulingEngine.book(10L, 1L, "Sync", null, Set.of(2L))).thenReturn(booked);
+
+        Meeting meeting = book();
+
+        assertThat(meeting).isSameAs(booked);
+        assertThat(meeting.getConflicts()).containsExactly(overlap);
+        verify(agendaService).findConflicts(Set.of(1L, 2L), START, END, 50L);
+        verify(meetingRepository, never()).save(any());
+    }
+
+    @Test
+    void participantsAreLoadedInOneQueryAndMissingOnesReported() {
+        when(userRepository.findActiveByIdIn(Set.of(2L, 3L))).thenReturn(List.of(participant));
+
+        assertThatThrownBy(() -> service.createMeeting(10L, null, null, 1L, "Sync", null, Set.of(2L, 3L)))
+                .isInstanceOf(NotFoundException.class);
+        verify(userRepository, never()).findById(2L);
+        verify(userRepository, never()).findById(3L);
+    }
+
+    private Meeting book() {
+        return service.createMeeting(10L, null, null, 1L, "Sync", null, Set.of(2L));
+    }
+
+    private static User user(Long id) {
+        User user = new User("user" + id + "@example.com", "User", String.valueOf(id));
+        user.setId(id);
+        return user;
+    }
+
+    private TimeSlot slot(Long id) {
+        Calendar calendar = new Calendar(organizer);
+        calendar.setId(100L);
+        TimeSlot timeSlot = new TimeSlot(calendar, START, END);
+        timeSlot.setId(id);
+        return timeSlot;
+    }
+}
@@ -0,0 +1,62 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.PostgresIntegrationTest;
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OccupancyRebuildIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TimeSlotService timeSlotService;
+    @Autowired
+    private MeetingService meetingService;
+    @Autowired
+    private OccupancyService occupancyService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuildingFromTheSlotsGivesTheIncrementalTotals() {
+        User organizer = userService.createUser(UUID.randomUUID() + "@example.com", "Olga", "Organizer");
+        User participant = userService.createUser(UUID.randomUUID() + "@example.com", "Paul", "Participant");
+        Instant midnight = Instant.now().plus(Duration.ofDays(30)).truncatedTo(ChronoUnit.DAYS);
+        timeSlotService.createTimeSlot(organizer.getId(), midnight.minus(Duration.ofMinutes(90)),
+                midnight.plus(Duration.ofMinutes(45)));
+        TimeSlot booked = timeSlotService.createTimeSlot(organizer.getId(), midnight.plus(Duration.ofHours(9)),
+                midnight.plus(Duration.ofHours(10)));
+        TimeSlot moved = timeSlotService.createTimeSlot(organizer.getId(), midnight.plus(Duration.ofHours(12)),
+                midnight.plus(Duration.ofHours(13)));
+        meetingService.createMeeting(booked.getId(), null, null, organizer.getId(), "Sync", null,
+                Set.of(participant.getId()));
+        timeSlotService.updateTimeSlot(moved.getId(), midnight.plus(Duration.ofDays(1)),
+                midnight.plus(Duration.ofDays(1)).plus(Duration.ofMinutes(30)), null);
+        Long calendarId = booked.getCalendar().getId();
+        List<Map<String, Object>> incremental = stats(calendarId);
+
+        occupancyService.rebuild();
+
+        assertThat(incremental).hasSize(3);
+        assertThat(stats(calendarId)).isEqualTo(incremental);
+    }
+
+    private List<Map<String, Object>> stats(Long calendarId) {
+        return jdbcTemplate.queryForList("SELECT day, available_minutes, busy_minutes, meeting_count " +
+                "FROM calendar_daily_stats WHERE calendar_id = ? " +
+                "AND (available_minutes <> 0 OR busy_minutes <> 0 OR meeting_count <> 0) ORDER BY day", calendarId);
+    }
+}
@@ -0,0 +1,110 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.domain.TimeSlotStatus;
+import com.challenge.minidoodle.repository.CalendarDailyStatsRepository;
+import com.challenge.minidoodle.repository.UserRepository;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+class OccupancyServiceTest {
+
+    private static final long CALENDAR = 10L;
+    private static final LocalDate MONDAY = LocalDate.parse("2030-01-07");
+    private static final Instant NINE = Instant.parse("2030-01-07T09:00:00Z");
+    private static final Instant TEN = Instant.parse("2030-01-07T10:00:00Z");
+
+    private final CalendarDailyStatsRepository statsRepository = mock(CalendarDailyStatsRepository.class);
+    private OccupancyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OccupancyService(statsRepository, mock(UserRepository.class), new BatchProperties(),
+                new OccupancyProperties(), mock(ShardRouter.class));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void aSlotSpanningMidnightIsSplitAcrossBothDays() {
+        service.record(null, new SlotUsage(CALENDAR, Instant.parse("2030-01-07T22:30:00Z"),
+                Instant.parse("2030-01-08T01:00:00Z"), TimeSlotStatus.AVAILABLE, false));
+
+        commit();
+
+        InOrder order = inOrder(statsRepository);
+        order.verify(statsRepository).increment(CALENDAR, MONDAY, 90, 0, 0);
+        order.verify(statsRepository).increment(CALENDAR, MONDAY.plusDays(1), 60, 0, 0);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void bookingMovesMinutesFromAvailableToBusyAndCountsTheMeeting() {
+        service.record(new SlotUsage(CALENDAR, NINE, TEN, TimeSlotStatus.AVAILABLE, false),
+                new SlotUsage(CALENDAR, NINE, TEN, TimeSlotStatus.BUSY, true));
+
+        commit();
+
+        verify(statsRepository).increment(CALENDAR, MONDAY, -60, 60, 1);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void changesThatCancelOutWriteNothing() {
+        SlotUsage slot = new SlotUsage(CALENDAR, NINE, TEN, TimeSlotStatus.AVAILABLE, false);
+        service.record(null, slot);
+        service.record(slot, null);
+
+        commit();
+
+        verify(statsRepository, never()).increment(any(), any(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void aRolledBackChangeLeavesTheCountersUnchanged() {
+        service.record(null, new SlotUsage(CALENDAR, NINE, TEN, TimeSlotStatus.AVAILABLE, false));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        verify(statsRepository, never()).increment(any(), any(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void changesOutsideATransactionAreRejected() {
+        TransactionSynchronizationManager.clearSynchronization();
+        try {
+            assertThatThrownBy(() -> service.record(null, new SlotUsage(CALENDAR, NINE, TEN,
+                    TimeSlotStatus.AVAILABLE, false))).isInstanceOf(IllegalStateException.class);
+        } finally {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.challenge.minidoodle.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CoalescingProperties properties = new CoalescingProperties();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, properties);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalReadsLoadOnce() throws Exception {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.execute("availability", List.of(1L), this::blockingLoad)));
+        }
+        await().atMost(Duration.ofSeconds(5)).until(() -> calls("follower") == CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("slots");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(calls("leader")).isEqualTo(1);
+        assertThat(calls("follower")).isEqualTo(CALLERS - 1);
+        assertThat(fallbacks()).isZero();
+    }
+
+    @Test
+    void aFollowerThatWaitsTooLongLoadsItself() throws Exception {
+        properties.setMaxWait(Duration.ofMillis(50));
+        Future<String> leader = executor.submit(() -> coalescer.execute("availability", List.of(1L), this::blockingLoad));
+        await().atMost(Duration.ofSeconds(5)).until(() -> loads.get() == 1);
+
+        String follower = coalescer.execute("availability", List.of(1L), () -> {
+            loads.incrementAndGet();
+            return "own slots";
+        });
+
+        assertThat(follower).isEqualTo("own slots");
+        assertThat(loads).hasValue(2);
+        assertThat(fallbacks()).isEqualTo(1);
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("slots");
+    }
+
+    @Test
+    void differentKeysAreNotShared() {
+        coalescer.execute("availability", List.of(1L), () -> loads.incrementAndGet());
+        coalescer.execute("availability", List.of(2L), () -> loads.incrementAndGet());
+
+        assertThat(loads).hasValue(2);
+        assertThat(calls("leader")).isEqualTo(2);
+    }
+
+    private String blockingLoad() {
+        loads.incrementAndGet();
+        try {
+            release.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return "slots";
+    }
+
+    private double calls(String role) {
+        return meterRegistry.get("minidoodle.coalescing.calls").tag("role", role).counter().count();
+    }
+
+    private double fallbacks() {
+        return meterRegistry.get("minidoodle.coalescing.fallbacks").counter().count();
+    }
+}
@@ -0,0 +1,74 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.PostgresIntegrationTest;
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.User;
+import com.challenge.minidoodle.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class SlotOverlapIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TimeSlotService timeSlotService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private TimeSlot first;
+    private Instant start;
+
+    @BeforeEach
+    void createSlot() {
+        user = userService.createUser(UUID.randomUUID() + "@example.com", "Olga", "Organizer");
+        start = Instant.now().plus(Duration.ofDays(30)).truncatedTo(ChronoUnit.HOURS);
+        first = timeSlotService.createTimeSlot(user.getId(), start, start.plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void constraintIsInstalledBeforeTheApplicationServes() {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint WHERE conname = ?",
+                Integer.class, SlotOverlapGuard.CONSTRAINT)).isEqualTo(1);
+    }
+
+    @Test
+    void movingASlotOntoAnotherIsRejectedWith409() {
+        TimeSlot second = timeSlotService.createTimeSlot(user.getId(), start.plus(Duration.ofHours(3)),
+                start.plus(Duration.ofHours(4)));
+
+        DataIntegrityViolationException ex = catchThrowableOfType(DataIntegrityViolationException.class,
+                () -> timeSlotService.updateTimeSlot(second.getId(), start.plus(Duration.ofMinutes(30)),
+                        start.plus(Duration.ofMinutes(90)), null));
+
+        ResponseEntity<ProblemDetail> response = new GlobalExceptionHandler().handleDataIntegrityViolation(ex);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getProperties()).containsEntry("code", "SLOT_OVERLAP");
+    }
+
+    @Test
+    void generatedSlotsLeaveExistingOnesAlone() {
+        int created = timeSlotService.generateSlots(user.getId(), start.minus(Duration.ofHours(1)),
+                start.plus(Duration.ofHours(3)), Duration.ofHours(1));
+
+        assertThat(created).isEqualTo(3);
+        assertThat(timeSlotService.getTimeSlotsByUserId(user.getId())).hasSize(4);
+        assertThat(timeSlotService.getTimeSlotById(first.getId())).hasValueSatisfying(slot ->
+                assertThat(slot.getEndTime()).isEqualTo(start.plus(Duration.ofHours(1))));
+    }
+}
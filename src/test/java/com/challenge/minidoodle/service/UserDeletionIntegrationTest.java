@@ -0,0 +1,125 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.PostgresIntegrationTest;
+import com.challenge.minidoodle.domain.Meeting;
+import com.challenge.minidoodle.domain.TimeSlot;
+import com.challenge.minidoodle.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDeletionIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private TimeSlotService timeSlotService;
+    @Autowired
+    private MeetingService meetingService;
+    @Autowired
+    private AgendaService agendaService;
+    @Autowired
+    private UserPurgeService userPurgeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User organizer;
+    private User participant;
+    private TimeSlot slot;
+    private Meeting meeting;
+    private Instant start;
+
+    @BeforeEach
+    void bookMeeting() {
+        organizer = userService.createUser(UUID.randomUUID() + "@example.com", "Olga", "Organizer");
+        participant = userService.createUser(UUID.randomUUID() + "@example.com", "Paul", "Participant");
+        start = Instant.now().plus(Duration.ofDays(30)).truncatedTo(ChronoUnit.HOURS);
+        slot = timeSlotService.createTimeSlot(organizer.getId(), start, start.plus(Duration.ofHours(1)));
+        meeting = meetingService.createMeeting(slot.getId(), null, null, organizer.getId(), "Sync", null,
+                Set.of(participant.getId()));
+    }
+
+    @Test
+    void deletedOrganizersSlotsAndMeetingsAreHiddenFromEveryRead() {
+        userService.deleteUser(organizer.getId());
+
+        assertThat(timeSlotService.getTimeSlotById(slot.getId())).isEmpty();
+        assertThat(timeSlotService.getTimeSlotsByIds(List.of(slot.getId()))).isEmpty();
+        assertThat(timeSlotService.getTimeSlotsByUserId(organizer.getId())).isEmpty();
+        assertThat(timeSlotService.getBusySlotsByUserId(organizer.getId())).isEmpty();
+        assertThat(timeSlotService.streamTimeSlotsByUserId(organizer.getId(), ignored -> { })).isZero();
+
+        assertThat(meetingService.getMeetingById(meeting.getId())).isEmpty();
+        assertThat(meetingService.getMeetingsByIds(List.of(meeting.getId()))).isEmpty();
+        assertThat(meetingService.getMeetingsByParticipantId(participant.getId())).isEmpty();
+        assertThat(meetingService.getMeetingPageByTimeRange(start, start.plus(Duration.ofDays(1)), null, 100))
+                .extracting(Meeting::getId).doesNotContain(meeting.getId());
+        List<Long> exported = new ArrayList<>();
+        meetingService.streamMeetingsByTimeRange(start, start.plus(Duration.ofDays(1)), m -> exported.add(m.getId()));
+        assertThat(exported).doesNotContain(meeting.getId());
+        assertThat(meetingService.streamMeetingsForUser(participant.getId(), ignored -> { })).isZero();
+    }
+
+    @Test
+    void agendaEntriesOfADeletedOrganizerAreHiddenUntilThePurge() {
+        userService.deleteUser(organizer.getId());
+
+        assertThat(count("SELECT count(*) FROM user_agenda WHERE meeting_id = ?", meeting.getId())).isEqualTo(2);
+        assertThat(agendaService.getAgenda(participant.getId(), null, null, null, null, 100)).isEmpty();
+        assertThat(agendaService.findMeetingIds(participant.getId(), null)).isEmpty();
+        assertThat(agendaService.findConflicts(List.of(participant.getId()), start, start.plus(Duration.ofHours(1)),
+                null)).isEmpty();
+    }
+
+    @Test
+    void deletedParticipantsAgendaIsHiddenUntilThePurge() {
+        userService.deleteUser(participant.getId());
+
+        assertThat(agendaService.getAgenda(participant.getId(), null, null, null, null, 100)).isEmpty();
+        assertThat(meetingService.streamMeetingsForUser(participant.getId(), ignored -> { })).isZero();
+
+        userPurgeService.purgeDeletedUsers();
+
+        assertThat(count("SELECT count(*) FROM user_agenda WHERE user_id = ?", participant.getId())).isZero();
+        assertThat(agendaService.getAgenda(organizer.getId(), null, null, null, null, 100))
+                .extracting(Meeting::getId).containsExactly(meeting.getId());
+    }
+
+    @Test
+    void deletedParticipantDisappearsFromTheMeeting() {
+        userService.deleteUser(participant.getId());
+
+        assertThat(meetingService.getMeetingsByIds(List.of(meeting.getId())).get(meeting.getId()).getParticipants())
+                .isEmpty();
+    }
+
+    @Test
+    void purgeRemovesEverythingTheDeletedUserOwned() {
+        userService.deleteUser(organizer.getId());
+
+        userPurgeService.purgeDeletedUsers();
+
+        assertThat(count("SELECT count(*) FROM users WHERE id = ?", organizer.getId())).isZero();
+        assertThat(count("SELECT count(*) FROM time_slots WHERE id = ?", slot.getId())).isZero();
+        assertThat(count("SELECT count(*) FROM meetings WHERE id = ?", meeting.getId())).isZero();
+        assertThat(count("SELECT count(*) FROM meeting_participants WHERE meeting_id = ?", meeting.getId())).isZero();
+        assertThat(count("SELECT count(*) FROM user_agenda WHERE meeting_id = ?", meeting.getId())).isZero();
+        assertThat(count("SELECT count(*) FROM users WHERE id = ?", participant.getId())).isEqualTo(1);
+    }
+
+    private long count(String sql, Long id) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, id);
+        return count != null ? count : 0;
+    }
+}
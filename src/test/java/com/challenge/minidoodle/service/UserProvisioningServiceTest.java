@@ -0,0 +1,125 @@
+package com.challenge.minidoodle.service;
+
+import com.challenge.minidoodle.coherence.CacheInvalidator;
+import com.challenge.minidoodle.dto.BulkUserResponse;
+import com.challenge.minidoodle.dto.BulkUserResponse.Row;
+import com.challenge.minidoodle.dto.BulkUserResponse.Status;
+import com.challenge.minidoodle.exception.ErrorCode;
+import com.challenge.minidoodle.exception.ValidationException;
+import com.challenge.minidoodle.repository.UserBulkRepository;
+import com.challenge.minidoodle.sharding.EntityIds;
+import com.challenge.minidoodle.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserProvisioningServiceTest {
+
+    private final UserBulkRepository userBulkRepository = mock(UserBulkRepository.class);
+    private final EmailFilter emailFilter = mock(EmailFilter.class);
+    private final ShardRouter shardRouter = mock(ShardRouter.class);
+    private final EntityIds entityIds = mock(EntityIds.class);
+    private UserProvisioningService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new UserProvisioningService(userBulkRepository, emailFilter, shardRouter, entityIds,
+                new ProvisioningProperties(), JsonMapper.builder().build(), mock(PlatformTransactionManager.class),
+                mock(CacheInvalidator.class));
+        when(emailFilter.mightExist(anyString())).thenReturn(true);
+        when(shardRouter.scatter(any())).thenAnswer(invocation -> invocation.<Supplier<List<?>>>getArgument(0).get());
+        when(shardRouter.callOn(anyInt(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(1).get());
+        when(entityIds.next(eq(0), anyString(), anyInt())).thenAnswer(invocation ->
+                LongStream.rangeClosed(1, invocation.<Integer>getArgument(2)).toArray());
+        when(userBulkRepository.insert(anyList())).thenAnswer(invocation -> {
+            boolean[] inserted = new boolean[invocation.<List<?>>getArgument(0).size()];
+            Arrays.fill(inserted, true);
+            return inserted;
+        });
+    }
+
+    @Test
+    void everyRowGetsItsOwnStatus() {
+        when(userBulkRepository.findExistingEmails(any())).thenReturn(Set.of("taken@example.com"));
+
+        BulkUserResponse response = provision("""
+                [{"email": "new@example.com", "firstName": "Nina", "lastName": "New"},
+                 {"email": "not-an-email", "firstName": "Ivan", "lastName": "Invalid"},
+                 {"email": "new@example.com", "firstName": "Nina", "lastName": "Again"},
+                 {"email": "taken@example.com", "firstName": "Tom", "lastName": "Taken"},
+                 {"email": "nameless@example.com"}]""");
+
+        assertThat(response.getResults()).extracting(Row::getIndex, Row::getStatus).containsExactly(
+                tuple(0, Status.CREATED),
+                tuple(1, Status.INVALID),
+                tuple(2, Status.DUPLICATE_IN_REQUEST),
+                tuple(3, Status.EMAIL_EXISTS),
+                tuple(4, Status.INVALID));
+        assertThat(response.getResults().get(0).getId()).isEqualTo(1L);
+        assertThat(response.getResults().get(4).getMessage()).isEqualTo("First and last name are required");
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(4);
+    }
+
+    @Test
+    void anEmailTakenByAConcurrentInsertIsReportedAsExisting() {
+        when(userBulkRepository.insert(anyList())).thenReturn(new boolean[] {false});
+
+        BulkUserResponse response = provision("""
+                [{"email": "raced@example.com", "firstName": "Rita", "lastName": "Race"}]""");
+
+        assertThat(response.getResults()).singleElement()
+                .satisfies(row -> assertThat(row.getStatus()).isEqualTo(Status.EMAIL_EXISTS));
+    }
+
+    @Test
+    void aTruncatedArrayKeepsTheRowsReadBeforeIt() {
+        BulkUserResponse response = provision("""
+                [{"email": "first@example.com", "firstName": "Fay", "lastName": "First"},
+                 {"email": "second@exam""");
+
+        assertThat(response.getResults()).singleElement()
+                .satisfies(row -> assertThat(row.getStatus()).isEqualTo(Status.CREATED));
+        assertThat(response.getError()).startsWith("Malformed input after row 0");
+    }
+
+    @Test
+    void aBodyThatIsNotAnArrayIsRejected() {
+        assertThatThrownBy(() -> provision("{\"email\": \"solo@example.com\"}"))
+                .isInstanceOfSatisfying(ValidationException.class,
+                        ex -> assertThat(ex.getCode()).isEqualTo(ErrorCode.USER_LIST_REQUIRED));
+    }
+
+    @Test
+    void aMalformedFirstRowRejectsTheRequest() {
+        assertThatThrownBy(() -> provision("[{\"email\": }]"))
+                .isInstanceOfSatisfying(ValidationException.class,
+                        ex -> assertThat(ex.getCode()).isEqualTo(ErrorCode.MALFORMED_USER_LIST));
+    }
+
+    private BulkUserResponse provision(String json) {
+        return service.provision(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
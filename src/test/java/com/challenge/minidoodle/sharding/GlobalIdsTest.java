@@ -0,0 +1,69 @@
+package com.challenge.minidoodle.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GlobalIdsTest {
+
+    private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+    @AfterEach
+    void clearNode() {
+        GlobalIds.clearNodeId();
+    }
+
+    @Test
+    void idsAreUniqueIncreasingAndSafeForJavaScript() {
+        GlobalIds.setNodeId(3);
+        Set<Long> seen = new HashSet<>();
+        long previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = GlobalIds.next(5);
+            assertThat(id).isGreaterThan(previous).isLessThanOrEqualTo(MAX_SAFE_INTEGER);
+            assertThat(seen.add(id)).isTrue();
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsEncodeTheirShard() {
+        GlobalIds.setNodeId(0);
+        for (int shard = 0; shard < GlobalIds.MAX_SHARDS; shard++) {
+            assertThat(GlobalIds.shardOf(GlobalIds.next(shard))).isEqualTo(shard);
+        }
+    }
+
+    @Test
+    void differentNodesNeverCollide() {
+        GlobalIds.setNodeId(1);
+        long first = GlobalIds.next(0);
+        GlobalIds.setNodeId(2);
+        long second = GlobalIds.next(0);
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first >>> (GlobalIds.NODE_BITS + GlobalIds.SEQUENCE_BITS))
+                .isLessThanOrEqualTo(second >>> (GlobalIds.NODE_BITS + GlobalIds.SEQUENCE_BITS));
+    }
+
+    @Test
+    void legacyIdentityIdsBelongToShardZero() {
+        assertThat(GlobalIds.shardOf(1)).isZero();
+        assertThat(GlobalIds.shardOf(GlobalIds.LEGACY_LIMIT - 1)).isZero();
+    }
+
+    @Test
+    void refusesToGenerateWithoutLeasedNode() {
+        assertThatThrownBy(() -> GlobalIds.next(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> GlobalIds.setNodeId(GlobalIds.MAX_NODES)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GlobalIds.setNodeId(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
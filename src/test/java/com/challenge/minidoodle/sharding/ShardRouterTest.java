@@ -0,0 +1,128 @@
+package com.challenge.minidoodle.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ShardRouterTest {
+
+    private final List<ShardRouter> routers = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        routers.forEach(ShardRouter::shutdown);
+        GlobalIds.clearNodeId();
+    }
+
+    @Test
+    void disabledRouterKeepsEverythingOnShardZero() {
+        ShardRouter router = router(false, 3);
+        assertThat(router.shardCount()).isEqualTo(1);
+        assertThat(router.shardForKey("someone@example.com")).isZero();
+        assertThat(router.shardOf(123L)).isZero();
+        assertThat(router.gather(List.of(1L, 2L), ids -> List.of(ShardContext.current()))).containsExactly(0);
+    }
+
+    @Test
+    void shardForKeyIsStableCaseInsensitiveAndSpreadsUsers() {
+        ShardRouter router = router(true, 3);
+        assertThat(router.shardForKey("Alice@Example.com")).isEqualTo(router.shardForKey("alice@example.com"));
+        assertThat(IntStream.range(0, 1_000).map(i -> router.shardForKey("user" + i + "@example.com")))
+                .allMatch(shard -> shard >= 0 && shard < 4)
+                .contains(0, 1, 2, 3);
+    }
+
+    @Test
+    void shardOfRoutesGeneratedIdsAndRejectsUnknownShards() {
+        ShardRouter router = router(true, 1);
+        GlobalIds.setNodeId(0);
+        assertThat(router.shardOf(GlobalIds.next(1))).isEqualTo(1);
+        assertThat(router.shardOf(42L)).isZero();
+        assertThatThrownBy(() -> router.shardOf(GlobalIds.next(7))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void gatherQueriesEachOwningShardOnceWithItsIds() {
+        ShardRouter router = router(true, 2);
+        GlobalIds.setNodeId(0);
+        long a = GlobalIds.next(0);
+        long b = GlobalIds.next(2);
+        long c = GlobalIds.next(2);
+
+        List<String> calls = router.gather(List.of(a, b, c), ids -> List.of(ShardContext.current() + ":" + ids.size()));
+
+        assertThat(calls).containsExactlyInAnyOrder("0:1", "2:2");
+    }
+
+    @Test
+    void callOnBindsTheTargetShardOnlyForTheAction() {
+        ShardRouter router = router(true, 2);
+        assertThat(router.callOn(2, ShardContext::current)).isEqualTo(2);
+        assertThat(ShardContext.isBound()).isFalse();
+    }
+
+    @Test
+    void afterCommitRunsRightAwayWithoutATransaction() {
+        ShardRouter router = router(true, 1);
+        AtomicInteger shard = new AtomicInteger(-1);
+
+        router.afterCommit(1, () -> shard.set(ShardContext.current()));
+
+        assertThat(shard).hasValue(1);
+    }
+
+    @Test
+    void afterCommitWaitsForTheCallerToCommitAndSkipsOnRollback() {
+        ShardRouter router = router(true, 1);
+        List<String> writes = new ArrayList<>();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            router.afterCommit(1, () -> writes.add("committed"));
+            assertThat(writes).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(writes).containsExactly("committed");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            router.afterCommit(1, () -> writes.add("rolled back"));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(writes).containsExactly("committed");
+    }
+
+    @Test
+    void afterCommitLogsFailuresInsteadOfThrowing() {
+        ShardRouter router = router(true, 1);
+        router.afterCommit(1, () -> {
+            throw new IllegalStateException("shard down");
+        });
+    }
+
+    private ShardRouter router(boolean enabled, int extraShards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(enabled);
+        for (int i = 0; i < extraShards; i++) {
+            properties.getShards().add(new ShardingProperties.Shard());
+        }
+        ShardRouter router = new ShardRouter(properties, mock(PlatformTransactionManager.class));
+        routers.add(router);
+        return router;
+    }
+}